@@ -4,7 +4,9 @@ import com.mediscreen.assessmentservice.dto.NoteDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -25,4 +27,14 @@ public interface NotesApiClient {
      */
     @GetMapping("/api/v1/notes/patient/{patId}")
     List<NoteDto> getNotesByPatientId(@PathVariable("patId") Integer patId);
+
+    /**
+     * Récupère en un seul appel les notes de plusieurs patients
+     * Endpoint utilisé par les vues patients groupées
+     *
+     * @param patIds IDs des patients
+     * @return Notes de tous ces patients, triées par patient
+     */
+    @GetMapping("/api/v1/notes")
+    List<NoteDto> getNotesByPatientIds(@RequestParam("patIds") Collection<Integer> patIds);
 }
\ No newline at end of file
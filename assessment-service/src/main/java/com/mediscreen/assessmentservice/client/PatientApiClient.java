@@ -4,6 +4,10 @@ import com.mediscreen.assessmentservice.dto.PatientDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Client Feign pour communiquer avec Patient Service via Gateway
@@ -23,4 +27,14 @@ public interface PatientApiClient {
      */
     @GetMapping("/api/v1/patients/{id}")
     PatientDto getPatientById(@PathVariable("id") Long id);
+
+    /**
+     * Récupère un lot de patients en un seul appel
+     * Endpoint utilisé par les vues patients groupées (IDs inconnus absents de la réponse)
+     *
+     * @param ids IDs des patients
+     * @return Liste des patients trouvés
+     */
+    @GetMapping("/api/v1/patients")
+    List<PatientDto> getPatientsByIds(@RequestParam("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.mediscreen.assessmentservice.config;
 
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 
 /**
  * Configuration Feign pour Basic Auth automatique
@@ -14,8 +17,24 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class FeignConfig {
 
+    @Value("${mediscreen.clients.accept-gzip:true}")
+    private boolean acceptGzip;
+
     @Bean
     public BasicAuthFeignInterceptor basicAuthFeignInterceptor() {
         return new BasicAuthFeignInterceptor();
     }
+
+    /**
+     * Réponses compressées par le Gateway (historiques de notes) : le client Feign par défaut
+     * les décompresse de lui-même
+     */
+    @Bean
+    public RequestInterceptor acceptGzipFeignInterceptor() {
+        return template -> {
+            if (acceptGzip) {
+                template.header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+            }
+        };
+    }
 }
\ No newline at end of file
@@ -14,10 +14,13 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.util.StringUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -34,12 +37,27 @@ public class SecurityConfig {
     @Value("${mediscreen.auth.password}")
     private String password;
 
+    // Jetons de service signés par le Gateway (secret vide : Basic Auth uniquement)
+    @Value("${mediscreen.service-token.secret:}")
+    private String serviceTokenSecret;
+
+    @Value("${mediscreen.service-token.max-ttl:5m}")
+    private Duration serviceTokenMaxTtl;
+
     /**
      * Configuration de la chaîne de filtres de sécurité
      * Validation Basic Auth pour empêcher l'accès direct au service
+     * (ou jeton de service signé par le Gateway si mediscreen.service-token.secret est défini)
      */
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        // Jeton de service du Gateway vérifié par HMAC avant la Basic Auth (BCrypt)
+        if (StringUtils.hasText(serviceTokenSecret)) {
+            http.addFilterBefore(new ServiceTokenAuthenticationFilter(
+                    "assessment", serviceTokenSecret, serviceTokenMaxTtl, Duration.ofSeconds(5)),
+                    BasicAuthenticationFilter.class);
+        }
+
         return http
             // Désactive CSRF pour l'API REST (stateless)
             .csrf(AbstractHttpConfigurer::disable)
@@ -0,0 +1,70 @@
+package com.mediscreen.assessmentservice.controller;
+
+import com.mediscreen.assessmentservice.dto.PatientViewDto;
+import com.mediscreen.assessmentservice.enums.PatientViewField;
+import com.mediscreen.assessmentservice.service.PatientViewService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Contrôleur REST des vues patients à champs sélectionnés
+ *
+ * Une requête remplace les N appels patient + N appels notes + N évaluations du frontend :
+ * GET /api/v1/assess/patients?ids=1,2,3&fields=adresse,notes,risk
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/assess/patients")
+@RequiredArgsConstructor
+@Tag(name = "Patient views", description = "Vues patients groupées : patient { adresse, notes, risk }")
+public class PatientViewController {
+
+    private final PatientViewService patientViewService;
+
+    @Value("${mediscreen.patient-view.max-ids:100}")
+    private int maxIds;
+
+    /**
+     * Vues d'un lot de patients
+     *
+     * @param ids IDs des patients (doublons fusionnés, inconnus ignorés)
+     * @param fields champs optionnels parmi adresse, notes, risk
+     * @return 200 avec les vues, 400 si trop d'IDs ou champ inconnu
+     */
+    @GetMapping
+    @Operation(summary = "Vues groupées de patients",
+               description = "Un appel patients et au plus un appel notes pour tout le lot, quel que soit le nombre d'IDs")
+    public ResponseEntity<List<PatientViewDto>> getPatientViews(
+            @Parameter(description = "IDs des patients", required = true)
+            @RequestParam List<Long> ids,
+            @Parameter(description = "Champs optionnels : adresse, notes, risk")
+            @RequestParam(required = false) List<String> fields) {
+
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.size() > maxIds) {
+            log.warn("Vues patients refusées : {} IDs (maximum {})", distinctIds.size(), maxIds);
+            return ResponseEntity.badRequest().build();
+        }
+
+        Set<PatientViewField> selectedFields;
+        try {
+            selectedFields = PatientViewField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            log.warn("Vues patients refusées : champ inconnu dans {}", fields);
+            return ResponseEntity.badRequest().build();
+        }
+
+        log.info("Requête de vues pour {} patient(s), champs {}", distinctIds.size(), selectedFields);
+        return ResponseEntity.ok(patientViewService.getPatientViews(distinctIds, selectedFields));
+    }
+}
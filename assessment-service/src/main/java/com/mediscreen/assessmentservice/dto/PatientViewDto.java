@@ -0,0 +1,26 @@
+package com.mediscreen.assessmentservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.mediscreen.assessmentservice.enums.RiskLevel;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Vue patient à champs sélectionnés
+ *
+ * adresse, notes et risk ne sont présents dans le JSON que s'ils ont été demandés.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PatientViewDto(
+    Long id,
+    String prenom,
+    String nom,
+    LocalDate dateNaissance,
+    String genre,
+    String telephone,
+    AdresseDto adresse,
+    List<NoteDto> notes,
+    RiskLevel risk
+) {
+}
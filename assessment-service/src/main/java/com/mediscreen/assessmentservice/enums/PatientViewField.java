@@ -0,0 +1,36 @@
+package com.mediscreen.assessmentservice.enums;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Champs optionnels d'une vue patient (sélection façon GraphQL : patient { adresse, notes, risk })
+ *
+ * Les champs d'identité (id, prénom, nom, date de naissance, genre, téléphone) sont toujours renvoyés.
+ */
+public enum PatientViewField {
+    ADRESSE,
+    NOTES,
+    RISK;
+
+    /**
+     * Convertit les noms reçus en paramètre (insensibles à la casse)
+     *
+     * @param names noms des champs, null ou vide = aucun champ optionnel
+     * @return ensemble des champs demandés
+     * @throws IllegalArgumentException si un nom est inconnu
+     */
+    public static Set<PatientViewField> parse(List<String> names) {
+        Set<PatientViewField> fields = EnumSet.noneOf(PatientViewField.class);
+        if (names != null) {
+            for (String name : names) {
+                if (!name.isBlank()) {
+                    fields.add(valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                }
+            }
+        }
+        return fields;
+    }
+}
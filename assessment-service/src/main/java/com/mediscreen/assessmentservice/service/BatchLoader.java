@@ -0,0 +1,86 @@
+package com.mediscreen.assessmentservice.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Chargeur groupé à la manière d'un DataLoader GraphQL
+ *
+ * PRINCIPE :
+ * - Les résolveurs déclarent les clés dont ils auront besoin (load) sans appeler le backend
+ * - dispatch() envoie toutes les clés en attente en UN seul appel groupé
+ * - Clés dédupliquées, valeurs mémorisées : une clé déjà chargée n'est jamais redemandée
+ *
+ * Durée de vie = une requête (non partagé entre threads, pas de cache global).
+ *
+ * @param <K> type des clés (ID)
+ * @param <V> type des valeurs chargées
+ */
+public class BatchLoader<K, V> {
+
+    private final Function<Set<K>, Map<K, V>> batchFunction;
+    private final Set<K> pending = new LinkedHashSet<>();
+    private final Map<K, V> loaded = new HashMap<>();
+    private int dispatchCount;
+
+    /**
+     * @param batchFunction charge un lot de clés ; une clé absente du résultat vaut null
+     */
+    public BatchLoader(Function<Set<K>, Map<K, V>> batchFunction) {
+        this.batchFunction = batchFunction;
+    }
+
+    /**
+     * Déclare une clé à charger au prochain dispatch()
+     */
+    public void load(K key) {
+        if (!loaded.containsKey(key)) {
+            pending.add(key);
+        }
+    }
+
+    /**
+     * Déclare plusieurs clés à charger au prochain dispatch()
+     */
+    public void loadMany(Collection<K> keys) {
+        keys.forEach(this::load);
+    }
+
+    /**
+     * Charge en un seul appel toutes les clés en attente (aucun appel si rien n'est en attente)
+     */
+    public void dispatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Set<K> batch = new LinkedHashSet<>(pending);
+        pending.clear();
+        Map<K, V> values = batchFunction.apply(batch);
+        batch.forEach(key -> loaded.put(key, values.get(key)));
+        dispatchCount++;
+    }
+
+    /**
+     * Valeur d'une clé, chargée seule si elle n'a pas été déclarée avant le dernier dispatch()
+     *
+     * @return la valeur, ou null si le backend ne la connaît pas
+     */
+    public V get(K key) {
+        if (!loaded.containsKey(key)) {
+            load(key);
+            dispatch();
+        }
+        return loaded.get(key);
+    }
+
+    /**
+     * @return nombre d'appels groupés effectués
+     */
+    public int getDispatchCount() {
+        return dispatchCount;
+    }
+}
@@ -0,0 +1,108 @@
+package com.mediscreen.assessmentservice.service;
+
+import com.mediscreen.assessmentservice.client.NotesApiClient;
+import com.mediscreen.assessmentservice.client.PatientApiClient;
+import com.mediscreen.assessmentservice.dto.NoteDto;
+import com.mediscreen.assessmentservice.dto.PatientDto;
+import com.mediscreen.assessmentservice.dto.PatientViewDto;
+import com.mediscreen.assessmentservice.enums.PatientViewField;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Vues patients à champs sélectionnés : patient { adresse, notes, risk }
+ *
+ * PRINCIPE :
+ * - Équivalent d'une requête GraphQL sur une liste de patients, résolue par des BatchLoader
+ * - Sans chargement groupé : 1 appel patient + 1 appel notes PAR patient (100 appels pour 50 patients)
+ * - Avec : 1 appel patient + 1 appel notes pour tout le lot, IDs en double fusionnés
+ *
+ * FONCTIONNEMENT :
+ * 1. Déclaration : chaque ID est déclaré au chargeur de patients, et au chargeur de notes
+ *    si notes ou risk est demandé (risk se calcule à partir des notes, sans appel supplémentaire)
+ * 2. Dispatch : un appel groupé par chargeur
+ * 3. Résolution : chaque vue lit ses valeurs chargées, IDs inconnus ignorés
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PatientViewService {
+
+    private final PatientApiClient patientApiClient;
+    private final NotesApiClient notesApiClient;
+    private final AssessmentService assessmentService;
+
+    /**
+     * Construit les vues des patients demandés
+     *
+     * @param ids IDs des patients (doublons fusionnés)
+     * @param fields champs optionnels demandés
+     * @return vues dans l'ordre des IDs, sans les patients inconnus
+     */
+    public List<PatientViewDto> getPatientViews(Collection<Long> ids, Set<PatientViewField> fields) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        boolean needsNotes = fields.contains(PatientViewField.NOTES) || fields.contains(PatientViewField.RISK);
+
+        BatchLoader<Long, PatientDto> patients = new BatchLoader<>(this::loadPatients);
+        BatchLoader<Long, List<NoteDto>> notes = new BatchLoader<>(this::loadNotes);
+
+        // 1. Déclaration des clés
+        patients.loadMany(distinctIds);
+        if (needsNotes) {
+            notes.loadMany(distinctIds);
+        }
+
+        // 2. Un appel groupé par chargeur
+        patients.dispatch();
+        notes.dispatch();
+        log.debug("Vues de {} patient(s), champs {} : {} appel(s) patients, {} appel(s) notes",
+                distinctIds.size(), fields, patients.getDispatchCount(), notes.getDispatchCount());
+
+        // 3. Résolution des champs
+        return distinctIds.stream()
+                .map(patients::get)
+                .filter(Objects::nonNull)
+                .map(patient -> resolve(patient, fields, notes))
+                .toList();
+    }
+
+    private PatientViewDto resolve(PatientDto patient, Set<PatientViewField> fields,
+                                   BatchLoader<Long, List<NoteDto>> notes) {
+        List<NoteDto> patientNotes = fields.contains(PatientViewField.NOTES) || fields.contains(PatientViewField.RISK)
+                ? notes.get(patient.id())
+                : null;
+        return new PatientViewDto(
+                patient.id(),
+                patient.prenom(),
+                patient.nom(),
+                patient.dateNaissance(),
+                patient.genre(),
+                patient.telephone(),
+                fields.contains(PatientViewField.ADRESSE) ? patient.adresse() : null,
+                fields.contains(PatientViewField.NOTES) ? patientNotes : null,
+                fields.contains(PatientViewField.RISK) ? assessmentService.assessDiabetesRisk(patient, patientNotes) : null
+        );
+    }
+
+    private Map<Long, PatientDto> loadPatients(Set<Long> ids) {
+        return patientApiClient.getPatientsByIds(ids).stream()
+                .collect(Collectors.toMap(PatientDto::id, Function.identity(), (first, second) -> first));
+    }
+
+    /**
+     * Notes groupées par patient ; un patient sans note reçoit une liste vide
+     */
+    private Map<Long, List<NoteDto>> loadNotes(Set<Long> ids) {
+        Set<Integer> patIds = ids.stream().map(Long::intValue).collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, List<NoteDto>> notesByPatient = notesApiClient.getNotesByPatientIds(patIds).stream()
+                .collect(Collectors.groupingBy(note -> note.patId().longValue()));
+        Map<Long, List<NoteDto>> result = new HashMap<>();
+        ids.forEach(id -> result.put(id, notesByPatient.getOrDefault(id, List.of())));
+        return result;
+    }
+}
@@ -0,0 +1,105 @@
+package com.mediscreen.assessmentservice.service;
+
+import com.mediscreen.assessmentservice.client.NotesApiClient;
+import com.mediscreen.assessmentservice.client.PatientApiClient;
+import com.mediscreen.assessmentservice.dto.AdresseDto;
+import com.mediscreen.assessmentservice.dto.NoteDto;
+import com.mediscreen.assessmentservice.dto.PatientDto;
+import com.mediscreen.assessmentservice.dto.PatientViewDto;
+import com.mediscreen.assessmentservice.enums.PatientViewField;
+import com.mediscreen.assessmentservice.enums.RiskLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires PatientViewService
+ *
+ * Focus : nombre d'appels aux backends, quel que soit le nombre de patients demandés
+ */
+@DisplayName("Tests unitaires - PatientViewService")
+@ExtendWith(MockitoExtension.class)
+class PatientViewServiceTest {
+
+    @Mock
+    private PatientApiClient patientApiClient;
+
+    @Mock
+    private NotesApiClient notesApiClient;
+
+    @Mock
+    private AssessmentService assessmentService;
+
+    @InjectMocks
+    private PatientViewService patientViewService;
+
+    @Test
+    @DisplayName("50 patients avec notes et risque : un appel patients et un appel notes")
+    @SuppressWarnings("unchecked")
+    void shouldBatchPatientsAndNotesIntoOneCallEach() {
+        // Given : 50 IDs, chacun demandé deux fois
+        List<Long> ids = new ArrayList<>();
+        LongStream.rangeClosed(1, 50).forEach(ids::add);
+        LongStream.rangeClosed(1, 50).forEach(ids::add);
+        when(patientApiClient.getPatientsByIds(anyCollection())).thenAnswer(invocation ->
+                ((Collection<Long>) invocation.getArgument(0)).stream().map(PatientViewServiceTest::patient).toList());
+        when(notesApiClient.getNotesByPatientIds(anyCollection())).thenReturn(List.of(
+                new NoteDto("1", 1, "TestNone", "Fumeur", LocalDateTime.now()),
+                new NoteDto("2", 1, "TestNone", "Cholestérol", LocalDateTime.now())));
+        when(assessmentService.assessDiabetesRisk(any(), anyList())).thenReturn(RiskLevel.NONE);
+
+        // When
+        List<PatientViewDto> views = patientViewService.getPatientViews(ids,
+                EnumSet.of(PatientViewField.ADRESSE, PatientViewField.NOTES, PatientViewField.RISK));
+
+        // Then
+        assertThat(views).hasSize(50);
+        assertThat(views.get(0).notes()).hasSize(2);
+        assertThat(views.get(1).notes()).isEmpty();
+        assertThat(views).allSatisfy(view -> {
+            assertThat(view.adresse()).isNotNull();
+            assertThat(view.risk()).isEqualTo(RiskLevel.NONE);
+        });
+        verify(patientApiClient).getPatientsByIds(argThat(batch -> batch.size() == 50));
+        verify(notesApiClient).getNotesByPatientIds(argThat(batch -> batch.size() == 50));
+        verify(patientApiClient, never()).getPatientById(anyLong());
+        verify(notesApiClient, never()).getNotesByPatientId(anyInt());
+        verify(assessmentService, times(50)).assessDiabetesRisk(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("Adresse seule : aucun appel notes, patients inconnus ignorés")
+    void shouldSkipNotesWhenNotRequested() {
+        // Given
+        when(patientApiClient.getPatientsByIds(anyCollection())).thenReturn(List.of(patient(2L)));
+
+        // When
+        List<PatientViewDto> views = patientViewService.getPatientViews(List.of(1L, 2L),
+                EnumSet.of(PatientViewField.ADRESSE));
+
+        // Then
+        assertThat(views).extracting(PatientViewDto::id).containsExactly(2L);
+        assertThat(views.get(0).adresse()).isNotNull();
+        assertThat(views.get(0).notes()).isNull();
+        assertThat(views.get(0).risk()).isNull();
+        verifyNoInteractions(notesApiClient);
+        verifyNoInteractions(assessmentService);
+    }
+
+    private static PatientDto patient(Long id) {
+        return new PatientDto(id, "Test", "Patient" + id, LocalDate.of(1966, 12, 31), "F", "100-222-3333",
+                new AdresseDto("1 Brookside St", null, null, null));
+    }
+}
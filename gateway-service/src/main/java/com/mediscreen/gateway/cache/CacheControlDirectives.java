@@ -0,0 +1,67 @@
+package com.mediscreen.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Directives Cache-Control utiles au cache Gateway (requête ou réponse)
+ *
+ * @param maxAge  max-age en secondes, -1 si absent
+ * @param sMaxAge s-maxage en secondes (caches partagés, prioritaire), -1 si absent
+ */
+public record CacheControlDirectives(boolean noStore, boolean noCache, boolean isPrivate, long maxAge, long sMaxAge) {
+
+    private static final CacheControlDirectives NONE = new CacheControlDirectives(false, false, false, -1, -1);
+
+    public static CacheControlDirectives parse(HttpHeaders headers) {
+        List<String> values = headers.get(HttpHeaders.CACHE_CONTROL);
+        boolean pragmaNoCache = headers.containsKey(HttpHeaders.PRAGMA)
+                && headers.getFirst(HttpHeaders.PRAGMA).toLowerCase(Locale.ROOT).contains("no-cache");
+        if (values == null && !pragmaNoCache) {
+            return NONE;
+        }
+
+        boolean noStore = false;
+        boolean noCache = pragmaNoCache;
+        boolean isPrivate = false;
+        long maxAge = -1;
+        long sMaxAge = -1;
+        if (values != null) {
+            for (String value : values) {
+                for (String directive : value.split(",")) {
+                    String token = directive.trim().toLowerCase(Locale.ROOT);
+                    if (token.equals("no-store")) {
+                        noStore = true;
+                    } else if (token.equals("no-cache") || token.startsWith("no-cache=")) {
+                        noCache = true;
+                    } else if (token.equals("private") || token.startsWith("private=")) {
+                        isPrivate = true;
+                    } else if (token.startsWith("max-age=")) {
+                        maxAge = seconds(token.substring("max-age=".length()));
+                    } else if (token.startsWith("s-maxage=")) {
+                        sMaxAge = seconds(token.substring("s-maxage=".length()));
+                    }
+                }
+            }
+        }
+        return new CacheControlDirectives(noStore, noCache, isPrivate, maxAge, sMaxAge);
+    }
+
+    /**
+     * Durée de fraîcheur imposée à un cache partagé, -1 si le backend n'en impose pas
+     */
+    public long sharedMaxAge() {
+        return sMaxAge >= 0 ? sMaxAge : maxAge;
+    }
+
+    private static long seconds(String value) {
+        try {
+            return Math.max(0, Long.parseLong(value.replace("\"", "").trim()));
+        } catch (NumberFormatException e) {
+            // Valeur illisible : traitée comme déjà périmée (RFC 9111 §4.2.1)
+            return 0;
+        }
+    }
+}
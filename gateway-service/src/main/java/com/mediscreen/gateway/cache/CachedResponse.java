@@ -0,0 +1,47 @@
+package com.mediscreen.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Réponse GET 200 conservée par le cache Gateway
+ *
+ * @param body           corps tel que reçu du backend
+ * @param headers        sous-ensemble des headers rejoué (Content-Type, ETag, Cache-Control...)
+ * @param storedAtNanos  instant de réception (System.nanoTime), base du header Age
+ * @param expiresAtNanos fin de fraîcheur (System.nanoTime)
+ * @param staleUntilNanos fin de conservation : au-delà de la fraîcheur, l'entrée ne sert plus
+ *                        que de dernière réponse connue si le backend est indisponible
+ */
+public record CachedResponse(byte[] body, HttpHeaders headers, long storedAtNanos, long expiresAtNanos,
+                             long staleUntilNanos) {
+
+    /**
+     * Coût approximatif en mémoire (corps + headers + structures), compté dans la borne en octets
+     */
+    public long weight() {
+        long weight = body.length + 128L;
+        for (var header : headers.entrySet()) {
+            weight += header.getKey().length() + 32L;
+            for (String value : header.getValue()) {
+                weight += value.length() + 16L;
+            }
+        }
+        return weight;
+    }
+
+    public String etag() {
+        return headers.getETag();
+    }
+
+    public long ageSeconds(long nowNanos) {
+        return Math.max(0, (nowNanos - storedAtNanos) / 1_000_000_000L);
+    }
+
+    public boolean isExpired(long nowNanos) {
+        return nowNanos - expiresAtNanos >= 0;
+    }
+
+    public boolean isPastStaleWindow(long nowNanos) {
+        return nowNanos - staleUntilNanos >= 0;
+    }
+}
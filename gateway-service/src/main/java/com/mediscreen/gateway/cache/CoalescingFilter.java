@@ -0,0 +1,208 @@
+package com.mediscreen.gateway.cache;
+
+import com.mediscreen.gateway.cache.RequestCoalescer.Flight;
+import com.mediscreen.gateway.cache.RequestCoalescer.FlightKey;
+import com.mediscreen.gateway.cache.RequestCoalescer.RouteStats;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.security.Principal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Filtre de mutualisation des GET identiques simultanés d'une route
+ *
+ * FONCTIONNEMENT :
+ * - Requête meneuse : transmise, son corps copié au fil de l'écriture vers son client puis
+ *   publié aux requêtes en attente (statut, headers, corps)
+ * - Requête en attente : réponse rejouée sans appel backend, ou transmise elle-même si la
+ *   réponse meneuse n'est pas partageable
+ */
+class CoalescingFilter implements GatewayFilter {
+
+    private static final String ANONYMOUS = "anonymous";
+
+    private final RequestCoalescer coalescer;
+    private final String route;
+    private final RouteStats stats;
+
+    CoalescingFilter(RequestCoalescer coalescer, String route, RouteStats stats) {
+        this.coalescer = coalescer;
+        this.route = route;
+        this.stats = stats;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!HttpMethod.GET.equals(request.getMethod()) || !coalescer.isEnabled() || isClientSpecific(request.getHeaders())) {
+            return chain.filter(exchange);
+        }
+        return exchange.getPrincipal()
+                .map(CoalescingFilter::principalClass)
+                .defaultIfEmpty(ANONYMOUS)
+                .flatMap(principalClass -> coalesce(exchange, chain, principalClass));
+    }
+
+    private Mono<Void> coalesce(ServerWebExchange exchange, GatewayFilterChain chain, String principalClass) {
+        ServerHttpRequest request = exchange.getRequest();
+        URI uri = request.getURI();
+        String pathAndQuery = uri.getRawQuery() == null ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery();
+        FlightKey key = new FlightKey(route, pathAndQuery, principalClass, request.getHeaders().getFirst(HttpHeaders.ACCEPT));
+        Flight flight = coalescer.join(key);
+
+        if (flight.lead()) {
+            stats.leader.increment();
+            LeaderResponse leader = new LeaderResponse(exchange.getResponse(), flight);
+            return chain.filter(exchange.mutate().response(leader).build())
+                    .doFinally(leader::finish);
+        }
+        if (!flight.tryWait()) {
+            stats.overflow.increment();
+            return chain.filter(exchange);
+        }
+        stats.follower.increment();
+        return flight.result().flatMap(shared -> {
+            if (shared == SharedResponse.NONE) {
+                stats.fallback.increment();
+                return chain.filter(exchange);
+            }
+            return replay(exchange.getResponse(), shared);
+        });
+    }
+
+    private static Mono<Void> replay(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        HttpHeaders headers = response.getHeaders();
+        // Headers déjà posés par les filtres de cette requête (quota, X-Cache...) conservés
+        shared.headers().forEach(headers::putIfAbsent);
+        byte[] body = shared.body();
+        headers.setContentLength(body.length);
+        if (body.length == 0) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static boolean isClientSpecific(HttpHeaders headers) {
+        return headers.containsKey(HttpHeaders.IF_NONE_MATCH)
+                || headers.containsKey(HttpHeaders.IF_MODIFIED_SINCE)
+                || headers.containsKey(HttpHeaders.RANGE);
+    }
+
+    /**
+     * Catégorie de client : rôles triés (FRONTEND, ASSESSMENT...)
+     */
+    static String principalClass(Principal principal) {
+        if (principal instanceof Authentication authentication) {
+            return authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .sorted()
+                    .collect(Collectors.joining(","));
+        }
+        return principal.getClass().getSimpleName();
+    }
+
+    /**
+     * Réponse de la requête meneuse : copie le corps envoyé à son client pour les requêtes en attente
+     */
+    private final class LeaderResponse extends ServerHttpResponseDecorator {
+
+        private final Flight flight;
+        private HttpStatusCode status;
+        private HttpHeaders backendHeaders;
+        private ByteArrayOutputStream copy;
+        private boolean truncated;
+
+        private LeaderResponse(ServerHttpResponse delegate, Flight flight) {
+            super(delegate);
+            this.flight = flight;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            // Réponse backend reçue : le client meneur peut l'avoir entièrement reçue avant la
+            // fin du flux copié, une requête suivante ne doit plus rejoindre ce vol
+            flight.close();
+            HttpHeaders headers = getHeaders();
+            long maxBytes = coalescer.maxResponseBytes();
+            if (headers.containsKey(HttpHeaders.SET_COOKIE) || headers.getContentLength() > maxBytes) {
+                flight.publish(SharedResponse.NONE);
+                return super.writeWith(body);
+            }
+
+            status = getStatusCode();
+            // Headers backend pris avant l'écriture : les filtres suivants (compression) les modifient
+            backendHeaders = snapshot(headers);
+            long contentLength = headers.getContentLength();
+            copy = new ByteArrayOutputStream((int) Math.max(256, Math.min(contentLength, maxBytes)));
+            Flux<? extends DataBuffer> captured = Flux.from(body)
+                    .doOnNext(buffer -> {
+                        int readable = buffer.readableByteCount();
+                        if (truncated || copy.size() + readable > maxBytes) {
+                            truncated = true;
+                            flight.publish(SharedResponse.NONE);
+                            return;
+                        }
+                        byte[] chunk = new byte[readable];
+                        int position = buffer.readPosition();
+                        buffer.read(chunk);
+                        buffer.readPosition(position);
+                        copy.write(chunk, 0, readable);
+                        // Content-Length atteint : publiée avant que le dernier buffer ne parte
+                        if (copy.size() == contentLength) {
+                            flight.publish(shared());
+                        }
+                    })
+                    .doOnComplete(() -> flight.publish(shared()));
+            return super.writeWith(captured);
+        }
+
+        /**
+         * Fin de la requête meneuse : l'écriture vers le client peut se terminer avant le signal
+         * de fin du flux backend, le corps copié est alors publié ici ; erreur, annulation ou
+         * réponse sans corps écrit : les requêtes en attente appellent le backend
+         */
+        private void finish(SignalType signal) {
+            flight.publish(signal == SignalType.ON_COMPLETE && copy != null && !truncated
+                    ? shared()
+                    : SharedResponse.NONE);
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // Flux continu : pas de réponse complète à partager
+            flight.publish(SharedResponse.NONE);
+            return super.writeAndFlushWith(body);
+        }
+
+        private SharedResponse shared() {
+            return new SharedResponse(status, backendHeaders, copy.toByteArray());
+        }
+
+        private static HttpHeaders snapshot(HttpHeaders headers) {
+            HttpHeaders copy = new HttpHeaders();
+            headers.forEach((name, values) -> copy.put(name, List.copyOf(values)));
+            copy.remove(HttpHeaders.CONTENT_LENGTH);
+            copy.remove(HttpHeaders.TRANSFER_ENCODING);
+            return HttpHeaders.readOnlyHttpHeaders(copy);
+        }
+    }
+}
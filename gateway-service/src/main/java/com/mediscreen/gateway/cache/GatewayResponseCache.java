@@ -0,0 +1,421 @@
+package com.mediscreen.gateway.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Cache mémoire des réponses GET idempotentes du Gateway, borné en octets
+ *
+ * PRINCIPE :
+ * - Clé = route + URI, chaque entrée est rattachée à l'identifiant patient du chemin
+ * - Borne globale en octets (corps + headers) : éviction FIFO « seconde chance »,
+ *   une entrée relue depuis son insertion fait un tour de plus dans la file
+ * - Une écriture (POST/PUT/PATCH/DELETE) invalide les entrées du même patient, ou toute
+ *   la route lorsque le chemin d'écriture ne porte pas l'identifiant patient
+ * - Une entrée périmée reste conservée pendant la fenêtre stale-if-error : elle n'est plus
+ *   servie normalement mais sert de dernière réponse connue quand le backend est en échec
+ *   (voir RouteCircuitBreakers) ; une entrée invalidée par une écriture n'est jamais resservie
+ * - Compteurs de génération par route et par patient (répartis sur des compteurs fixes) :
+ *   une réponse lue avant une invalidation de sa route ou de son patient n'est jamais
+ *   conservée après celle-ci, les écritures sur d'autres patients ne la concernent pas
+ *
+ * Les statistiques par route (hits, misses, octets servis) sont exposées dans Micrometer
+ * (gateway.cache.*) et via GET /actuator/responsecache.
+ */
+public class GatewayResponseCache implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayResponseCache.class);
+
+    /**
+     * Provenance de la réponse pour le client : HIT, MISS ou STALE (dernière réponse connue)
+     */
+    public static final String X_CACHE = "X-Cache";
+
+    /**
+     * Avant NettyWriteResponseFilter, et avant la mutualisation des GET simultanés, le
+     * disjoncteur de route (qui peut substituer une réponse périmée à une erreur backend)
+     * et la limite de concurrence
+     */
+    public static final int FILTER_ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 4;
+
+    /**
+     * Compteurs de génération patient (puissance de 2) : deux patients partageant un compteur
+     * ne font que s'écarter mutuellement une capture en cours, jamais servir une donnée périmée
+     */
+    private static final int PATIENT_GENERATION_STRIPES = 1024;
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final Duration staleWindow;
+    private final Map<String, RouteCachePolicy> policies = new LinkedHashMap<>();
+    private final Map<String, RouteStats> stats = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> routeGenerations = new LinkedHashMap<>();
+    private final AtomicLongArray patientGenerations = new AtomicLongArray(PATIENT_GENERATION_STRIPES);
+
+    private final Map<CacheKey, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> evictionQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedEntries = new AtomicInteger();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong clearGeneration = new AtomicLong();
+    private final LongAdder evictions = new LongAdder();
+    private volatile boolean enabled = true;
+
+    public GatewayResponseCache(long maxBytes, long maxEntryBytes, Duration staleWindow,
+                                List<RouteCachePolicy> routePolicies) {
+        if (maxBytes <= 0 || maxEntryBytes <= 0 || staleWindow.isNegative()) {
+            throw new IllegalArgumentException("Les bornes du cache doivent être positives");
+        }
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+        this.staleWindow = staleWindow;
+        for (RouteCachePolicy policy : routePolicies) {
+            policies.put(policy.route(), policy);
+            stats.put(policy.route(), new RouteStats());
+            routeGenerations.put(policy.route(), new AtomicLong());
+        }
+    }
+
+    /**
+     * Filtre de route : sert les hits, capture les misses, invalide sur écriture.
+     * Ordonné avant NettyWriteResponseFilter pour que la réponse décorée soit celle écrite au client.
+     */
+    public GatewayFilter filter(String route) {
+        RouteCachePolicy policy = policies.get(route);
+        if (policy == null) {
+            throw new IllegalArgumentException("Aucune politique de cache pour la route " + route);
+        }
+        return new OrderedGatewayFilter(new ResponseCacheFilter(this, policy), FILTER_ORDER);
+    }
+
+    // === Lecture / écriture ===
+
+    /**
+     * Réponse encore fraîche pour cette clé, null sinon
+     */
+    CachedResponse get(CacheKey key, long nowNanos) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.response.isPastStaleWindow(nowNanos)) {
+            remove(entry);
+            return null;
+        }
+        if (entry.response.isExpired(nowNanos)) {
+            return null;
+        }
+        entry.referenced = true;
+        return entry.response;
+    }
+
+    /**
+     * Dernière réponse connue pour une requête GET, même périmée, tant qu'elle est dans la
+     * fenêtre stale-if-error et n'a pas été invalidée ; null sinon
+     */
+    public CachedResponse lastKnownGood(String route, ServerHttpRequest request, long nowNanos) {
+        RouteCachePolicy policy = policies.get(route);
+        CacheKey key = policy == null ? null : keyFor(policy, request);
+        Entry entry = key == null ? null : entries.get(key);
+        if (entry == null || entry.response.isPastStaleWindow(nowNanos)) {
+            return null;
+        }
+        return entry.response;
+    }
+
+    /**
+     * Clé d'une requête GET, null si son chemin n'est pas mis en cache sur cette route
+     */
+    CacheKey keyFor(RouteCachePolicy policy, ServerHttpRequest request) {
+        String path = request.getPath().pathWithinApplication().value();
+        long patientId = policy.readPatientId(path);
+        if (patientId < 0) {
+            return null;
+        }
+        String rawQuery = request.getURI().getRawQuery();
+        return new CacheKey(policy.route(), patientId, rawQuery == null ? path : path + "?" + rawQuery);
+    }
+
+    Duration staleWindow() {
+        return staleWindow;
+    }
+
+    /**
+     * Conserve une réponse, sauf si une invalidation a eu lieu depuis le début de la requête
+     *
+     * @param requestGeneration valeur de generation(key) lue avant l'appel au backend
+     * @return true si la réponse a été conservée
+     */
+    boolean put(CacheKey key, CachedResponse response, long requestGeneration) {
+        long weight = response.weight();
+        if (weight > maxEntryBytes || generation(key) != requestGeneration) {
+            return false;
+        }
+        Entry entry = new Entry(key, response, weight);
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            totalBytes.addAndGet(-previous.weight);
+        }
+        totalBytes.addAndGet(weight);
+        enqueue(entry);
+
+        // Invalidation concurrente entre la vérification et l'insertion : l'entrée est retirée
+        if (generation(key) != requestGeneration) {
+            remove(entry);
+            return false;
+        }
+        evictIfNeeded();
+        return true;
+    }
+
+    /**
+     * Génération d'une clé : somme de compteurs qui ne font que croître, donc modifiée
+     * par toute invalidation de sa route, de son patient ou de tout le cache
+     */
+    long generation(CacheKey key) {
+        AtomicLong routeGeneration = routeGenerations.get(key.route());
+        return clearGeneration.get()
+                + (routeGeneration == null ? 0 : routeGeneration.get())
+                + patientGenerations.get(patientStripe(key.patientId()));
+    }
+
+    private static int patientStripe(long patientId) {
+        return Long.hashCode(patientId) & (PATIENT_GENERATION_STRIPES - 1);
+    }
+
+    long maxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    // === Invalidation ===
+
+    /**
+     * Retire toutes les entrées (toutes routes) rattachées à ce patient
+     */
+    public void invalidatePatient(long patientId) {
+        patientGenerations.incrementAndGet(patientStripe(patientId));
+        int removed = removeIf(key -> key.patientId() == patientId);
+        logger.debug("Cache Gateway : {} entrée(s) invalidée(s) pour le patient {}", removed, patientId);
+    }
+
+    /**
+     * Retire toutes les entrées d'une route
+     */
+    public void invalidateRoute(String route) {
+        AtomicLong routeGeneration = routeGenerations.get(route);
+        if (routeGeneration != null) {
+            routeGeneration.incrementAndGet();
+        }
+        int removed = removeIf(key -> key.route().equals(route));
+        logger.debug("Cache Gateway : {} entrée(s) invalidée(s) sur la route {}", removed, route);
+    }
+
+    public void clear() {
+        clearGeneration.incrementAndGet();
+        removeIf(key -> true);
+        purgeEvictionQueue();
+    }
+
+    private int removeIf(Predicate<CacheKey> predicate) {
+        int removed = 0;
+        for (Entry entry : entries.values()) {
+            if (predicate.test(entry.key) && remove(entry)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private boolean remove(Entry entry) {
+        if (entries.remove(entry.key, entry)) {
+            totalBytes.addAndGet(-entry.weight);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Éviction FIFO seconde chance jusqu'à repasser sous la borne en octets.
+     * Les entrées déjà remplacées ou invalidées sont simplement ignorées dans la file.
+     */
+    private void evictIfNeeded() {
+        long now = System.nanoTime();
+        while (totalBytes.get() > maxBytes) {
+            Entry candidate = evictionQueue.poll();
+            if (candidate == null) {
+                return;
+            }
+            queuedEntries.decrementAndGet();
+            if (entries.get(candidate.key) != candidate) {
+                continue;
+            }
+            // Seconde chance réservée aux entrées fraîches : les périmées partent en premier
+            if (candidate.referenced && !candidate.response.isExpired(now)) {
+                candidate.referenced = false;
+                enqueue(candidate);
+                continue;
+            }
+            if (remove(candidate)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private void enqueue(Entry entry) {
+        evictionQueue.offer(entry);
+        // Entrées invalidées ou remplacées restées dans la file : purgées dès qu'elles dominent
+        if (queuedEntries.incrementAndGet() > 2 * entries.size() + 64) {
+            purgeEvictionQueue();
+        }
+    }
+
+    private void purgeEvictionQueue() {
+        evictionQueue.removeIf(queued -> {
+            if (entries.get(queued.key) == queued) {
+                return false;
+            }
+            queuedEntries.decrementAndGet();
+            return true;
+        });
+    }
+
+    // === Statistiques ===
+
+    void recordHit(String route, long bytesServed) {
+        RouteStats routeStats = stats.get(route);
+        routeStats.hits.increment();
+        routeStats.bytesServed.add(bytesServed);
+    }
+
+    void recordMiss(String route) {
+        stats.get(route).misses.increment();
+    }
+
+    void recordBypass(String route) {
+        stats.get(route).bypasses.increment();
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public long sizeInBytes() {
+        return totalBytes.get();
+    }
+
+    /**
+     * Statistiques par route pour l'endpoint actuator
+     */
+    public Map<String, Object> statistics() {
+        Map<String, Object> routes = new LinkedHashMap<>();
+        stats.forEach((route, routeStats) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("ttl", policies.get(route).ttl().toString());
+            values.put("hits", routeStats.hits.sum());
+            values.put("misses", routeStats.misses.sum());
+            values.put("bypasses", routeStats.bypasses.sum());
+            values.put("hitRatio", routeStats.hitRatio());
+            values.put("bytesServed", routeStats.bytesServed.sum());
+            routes.put(route, values);
+        });
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", enabled);
+        statistics.put("entries", size());
+        statistics.put("bytes", sizeInBytes());
+        statistics.put("maxBytes", maxBytes);
+        statistics.put("staleIfError", staleWindow.toString());
+        statistics.put("evictions", evictions.sum());
+        statistics.put("routes", routes);
+        return statistics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        stats.forEach((route, routeStats) -> {
+            FunctionCounter.builder("gateway.cache.requests", routeStats.hits, LongAdder::sum)
+                    .description("Requêtes GET servies depuis le cache Gateway")
+                    .tags("route", route, "result", "hit").register(registry);
+            FunctionCounter.builder("gateway.cache.requests", routeStats.misses, LongAdder::sum)
+                    .description("Requêtes GET transmises au backend puis mises en cache si possible")
+                    .tags("route", route, "result", "miss").register(registry);
+            FunctionCounter.builder("gateway.cache.requests", routeStats.bypasses, LongAdder::sum)
+                    .description("Requêtes GET hors cache (Cache-Control no-store)")
+                    .tags("route", route, "result", "bypass").register(registry);
+            FunctionCounter.builder("gateway.cache.served", routeStats.bytesServed, LongAdder::sum)
+                    .description("Octets de corps servis depuis le cache Gateway")
+                    .baseUnit("bytes").tags("route", route).register(registry);
+            Gauge.builder("gateway.cache.hit.ratio", routeStats, RouteStats::hitRatio)
+                    .description("Part des GET cacheables servis depuis le cache")
+                    .tags("route", route).register(registry);
+        });
+        Gauge.builder("gateway.cache.size", totalBytes, AtomicLong::get)
+                .description("Taille du cache Gateway").baseUnit("bytes").register(registry);
+        Gauge.builder("gateway.cache.entries", entries, Map::size)
+                .description("Nombre d'entrées du cache Gateway").register(registry);
+        FunctionCounter.builder("gateway.cache.evictions", evictions, LongAdder::sum)
+                .description("Entrées évincées pour respecter la borne en octets").register(registry);
+    }
+
+    /**
+     * Clé d'entrée : route + URI brute (chemin et query), patient pour l'invalidation
+     */
+    record CacheKey(String route, long patientId, String uri) {
+    }
+
+    private static final class Entry {
+        private final CacheKey key;
+        private final CachedResponse response;
+        private final long weight;
+        private volatile boolean referenced;
+
+        private Entry(CacheKey key, CachedResponse response, long weight) {
+            this.key = key;
+            this.response = response;
+            this.weight = weight;
+        }
+    }
+
+    private static final class RouteStats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder bypasses = new LongAdder();
+        private final LongAdder bytesServed = new LongAdder();
+
+        private double hitRatio() {
+            long hitCount = hits.sum();
+            long total = hitCount + misses.sum();
+            return total == 0 ? 0.0 : (double) hitCount / total;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.mediscreen.gateway.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mutualisation des GET identiques simultanés (single-flight)
+ *
+ * PRINCIPE :
+ * - Requêtes identiques = même route, chemin, query, Accept et catégorie de client
+ *   (rôles du principal) : la première (meneuse) est transmise au backend, les suivantes
+ *   arrivées avant la réponse backend l'attendent et reçoivent une copie de cette réponse
+ * - Nombre d'attentes borné par requête meneuse : au-delà, appel backend direct
+ * - Réponse non partageable (erreur, annulation du client meneur, corps au-delà de la
+ *   borne, Set-Cookie, flux continu) : chaque requête en attente appelle le backend
+ * - Requêtes conditionnelles ou partielles (If-None-Match, If-Modified-Since, Range)
+ *   jamais mutualisées : leur réponse dépend de headers propres au client
+ *
+ * Complète le cache Gateway : un GET cacheable absent du cache n'atteint le backend
+ * qu'une fois même si N praticiens ouvrent la même fiche au même instant ; les routes
+ * non mises en cache (évaluation de risque) en profitent aussi.
+ *
+ * Métriques : gateway.coalescing.requests (leader / follower / overflow / fallback),
+ * gateway.coalescing.dedup.ratio, gateway.coalescing.inflight.
+ */
+public class RequestCoalescer implements MeterBinder {
+
+    /**
+     * Après le cache (un hit ne mutualise rien), avant le disjoncteur et la limite de
+     * concurrence : une requête en attente ne compte ni comme appel ni comme rejet
+     */
+    public static final int FILTER_ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 3;
+
+    private final int maxWaiters;
+    private final long maxResponseBytes;
+    private final Map<FlightKey, Flight> flights = new ConcurrentHashMap<>();
+    private final Map<String, RouteStats> stats = new LinkedHashMap<>();
+    private volatile boolean enabled = true;
+
+    public RequestCoalescer(int maxWaiters, long maxResponseBytes, List<String> routes) {
+        this.maxWaiters = maxWaiters;
+        this.maxResponseBytes = maxResponseBytes;
+        routes.forEach(route -> stats.put(route, new RouteStats()));
+    }
+
+    public GatewayFilter filter(String route) {
+        RouteStats routeStats = stats.get(route);
+        if (routeStats == null) {
+            throw new IllegalArgumentException("Mutualisation non configurée pour la route " + route);
+        }
+        return new OrderedGatewayFilter(new CoalescingFilter(this, route, routeStats), FILTER_ORDER);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    long maxResponseBytes() {
+        return maxResponseBytes;
+    }
+
+    /**
+     * Vol en cours pour la clé, créé s'il n'y en a pas ; la première requête qui en prend la
+     * tête (Flight.lead) appelle le backend
+     */
+    Flight join(FlightKey key) {
+        return flights.computeIfAbsent(key, Flight::new);
+    }
+
+    public long followers(String route) {
+        return stats.get(route).follower.sum();
+    }
+
+    public long leaders(String route) {
+        return stats.get(route).leader.sum();
+    }
+
+    public long overflows(String route) {
+        return stats.get(route).overflow.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        stats.forEach((route, routeStats) -> {
+            FunctionCounter.builder("gateway.coalescing.requests", routeStats.leader, LongAdder::sum)
+                    .description("GET transmis au backend, réponse partagée avec les requêtes identiques")
+                    .tags("route", route, "result", "leader").register(registry);
+            FunctionCounter.builder("gateway.coalescing.requests", routeStats.follower, LongAdder::sum)
+                    .description("GET servis par la réponse d'une requête identique en cours")
+                    .tags("route", route, "result", "follower").register(registry);
+            FunctionCounter.builder("gateway.coalescing.requests", routeStats.overflow, LongAdder::sum)
+                    .description("GET transmis directement : nombre d'attentes maximal atteint")
+                    .tags("route", route, "result", "overflow").register(registry);
+            FunctionCounter.builder("gateway.coalescing.requests", routeStats.fallback, LongAdder::sum)
+                    .description("GET en attente transmis eux-mêmes : réponse meneuse non partageable")
+                    .tags("route", route, "result", "fallback").register(registry);
+            Gauge.builder("gateway.coalescing.dedup.ratio", routeStats, RouteStats::dedupRatio)
+                    .description("Part des GET servis sans appel backend propre")
+                    .tags("route", route).register(registry);
+        });
+        Gauge.builder("gateway.coalescing.inflight", flights, Map::size)
+                .description("GET meneurs en cours").register(registry);
+    }
+
+    /**
+     * Clé de mutualisation
+     *
+     * @param uri            chemin et query bruts
+     * @param principalClass rôles du client (les backends ne voient que les credentials du Gateway)
+     */
+    record FlightKey(String route, String uri, String principalClass, String accept) {
+    }
+
+    /**
+     * Appel backend en cours et requêtes qui l'attendent
+     */
+    final class Flight {
+
+        private final FlightKey key;
+        private final AtomicInteger waiters = new AtomicInteger();
+        private final AtomicBoolean led = new AtomicBoolean();
+        private final AtomicBoolean published = new AtomicBoolean();
+        private final Sinks.One<SharedResponse> result = Sinks.one();
+
+        private Flight(FlightKey key) {
+            this.key = key;
+        }
+
+        boolean lead() {
+            return !led.get() && led.compareAndSet(false, true);
+        }
+
+        boolean tryWait() {
+            if (waiters.incrementAndGet() > maxWaiters) {
+                waiters.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        Mono<SharedResponse> result() {
+            return result.asMono();
+        }
+
+        /**
+         * Ferme le vol aux nouvelles requêtes : une requête arrivant ensuite en démarre un
+         * nouveau plutôt que de recevoir une réponse déjà partie vers le client meneur
+         */
+        void close() {
+            flights.remove(key, this);
+        }
+
+        /**
+         * Publie la réponse (une seule fois) aux requêtes en attente
+         */
+        void publish(SharedResponse response) {
+            if (published.compareAndSet(false, true)) {
+                close();
+                result.tryEmitValue(response);
+            }
+        }
+    }
+
+    static final class RouteStats {
+        final LongAdder leader = new LongAdder();
+        final LongAdder follower = new LongAdder();
+        final LongAdder overflow = new LongAdder();
+        final LongAdder fallback = new LongAdder();
+
+        double dedupRatio() {
+            long followers = follower.sum() - fallback.sum();
+            long total = leader.sum() + follower.sum() + overflow.sum();
+            return total == 0 ? 0 : (double) Math.max(0, followers) / total;
+        }
+    }
+}
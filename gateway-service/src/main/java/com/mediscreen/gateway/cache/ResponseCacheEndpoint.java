@@ -0,0 +1,35 @@
+package com.mediscreen.gateway.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Map;
+
+/**
+ * Endpoint actuator du cache de réponses Gateway
+ *
+ * - GET  /actuator/responsecache : taille, évictions, hit ratio et octets servis par route
+ * - POST /actuator/responsecache : vide le cache (authentifié)
+ */
+@Endpoint(id = "responsecache")
+public class ResponseCacheEndpoint {
+
+    private final GatewayResponseCache cache;
+
+    public ResponseCacheEndpoint(GatewayResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        return cache.statistics();
+    }
+
+    @WriteOperation
+    public Map<String, Object> clear() {
+        long cleared = cache.size();
+        cache.clear();
+        return Map.of("cleared", cleared);
+    }
+}
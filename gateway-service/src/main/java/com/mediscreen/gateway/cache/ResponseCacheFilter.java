@@ -0,0 +1,254 @@
+package com.mediscreen.gateway.cache;
+
+import com.mediscreen.gateway.cache.GatewayResponseCache.CacheKey;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.List;
+
+import static com.mediscreen.gateway.cache.GatewayResponseCache.X_CACHE;
+
+/**
+ * Filtre de route du cache Gateway
+ *
+ * FONCTIONNEMENT :
+ * - GET cacheable en cache et frais : réponse rejouée sans appel backend (Age, X-Cache: HIT),
+ *   304 directement si If-None-Match correspond à l'ETag conservé
+ * - GET absent du cache : transmis au backend, le corps est copié au fil de l'écriture
+ *   vers le client (pas de mise en mémoire tampon avant envoi) puis conservé si la réponse
+ *   le permet (200, pas de no-store / no-cache / private / Set-Cookie, taille bornée) ;
+ *   une réponse portant un header Warning (dernière réponse connue resservie par le
+ *   disjoncteur) n'est jamais reconservée
+ * - Cache-Control de la requête : no-store contourne le cache, no-cache force un appel
+ *   backend (la réponse rafraîchit l'entrée), max-age limite l'âge accepté
+ * - Écriture : invalidation avant transmission puis à la réception de la réponse backend,
+ *   avant son envoi au client (ou à l'annulation), pour écarter une lecture concurrente
+ *   qui aurait vu l'ancienne version ; seules les entrées du patient ou de la route concernés
+ *   sont touchées
+ */
+class ResponseCacheFilter implements GatewayFilter {
+
+    private static final List<String> REPLAYED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL);
+
+    private final GatewayResponseCache cache;
+    private final RouteCachePolicy policy;
+
+    ResponseCacheFilter(GatewayResponseCache cache, RouteCachePolicy policy) {
+        this.cache = cache;
+        this.policy = policy;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        String path = request.getPath().pathWithinApplication().value();
+
+        if (HttpMethod.GET.equals(method)) {
+            return read(exchange, chain, path);
+        }
+        if (HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method)) {
+            return chain.filter(exchange);
+        }
+        invalidate(path);
+        exchange.getResponse().beforeCommit(() -> {
+            invalidate(path);
+            return Mono.empty();
+        });
+        // Client parti avant la réponse : l'écriture a pu aboutir côté backend
+        return chain.filter(exchange).doOnCancel(() -> invalidate(path));
+    }
+
+    private void invalidate(String path) {
+        long patientId = policy.writePatientId(path);
+        if (patientId >= 0) {
+            cache.invalidatePatient(patientId);
+        } else {
+            cache.invalidateRoute(policy.route());
+        }
+    }
+
+    private Mono<Void> read(ServerWebExchange exchange, GatewayFilterChain chain, String path) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (policy.readPatientId(path) < 0 || !cache.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        CacheControlDirectives directives = CacheControlDirectives.parse(request.getHeaders());
+        if (directives.noStore()) {
+            cache.recordBypass(policy.route());
+            return chain.filter(exchange);
+        }
+
+        CacheKey key = cache.keyFor(policy, request);
+        long now = System.nanoTime();
+
+        if (!directives.noCache()) {
+            CachedResponse cached = cache.get(key, now);
+            if (cached != null && (directives.maxAge() < 0 || cached.ageSeconds(now) <= directives.maxAge())) {
+                return serve(exchange, cached, now);
+            }
+        }
+
+        cache.recordMiss(policy.route());
+        exchange.getResponse().getHeaders().set(X_CACHE, "MISS");
+        CapturingResponse capturing = new CapturingResponse(exchange.getResponse(), key, cache.generation(key));
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, CachedResponse cached, long now) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(now)));
+        headers.set(X_CACHE, "HIT");
+
+        if (etagMatches(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.etag())) {
+            cache.recordHit(policy.route(), 0);
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            return response.setComplete();
+        }
+
+        byte[] body = cached.body();
+        cache.recordHit(policy.route(), body.length);
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * Comparaison faible If-None-Match / ETag (RFC 9110 §13.1.2)
+     */
+    static boolean etagMatches(List<String> ifNoneMatch, String etag) {
+        if (etag == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || stripWeak(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * Durée de conservation autorisée pour une réponse backend, null si elle ne doit pas être conservée
+     */
+    private Duration storableTtl(HttpStatusCode status, HttpHeaders headers) {
+        if (status == null || status.value() != HttpStatus.OK.value()
+                || headers.containsKey(HttpHeaders.SET_COOKIE)
+                || headers.containsKey(HttpHeaders.WARNING)
+                || headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                || headers.getVary().contains("*")) {
+            return null;
+        }
+        CacheControlDirectives directives = CacheControlDirectives.parse(headers);
+        if (directives.noStore() || directives.noCache() || directives.isPrivate()) {
+            return null;
+        }
+        long sharedMaxAge = directives.sharedMaxAge();
+        if (sharedMaxAge == 0) {
+            return null;
+        }
+        Duration ttl = policy.ttl();
+        return sharedMaxAge > 0 && Duration.ofSeconds(sharedMaxAge).compareTo(ttl) < 0
+                ? Duration.ofSeconds(sharedMaxAge)
+                : ttl;
+    }
+
+    /**
+     * Réponse décorée : copie le corps pendant son envoi au client puis le confie au cache
+     */
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final CacheKey key;
+        private final long requestGeneration;
+
+        private CapturingResponse(ServerHttpResponse delegate, CacheKey key, long requestGeneration) {
+            super(delegate);
+            this.key = key;
+            this.requestGeneration = requestGeneration;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            Duration ttl = storableTtl(getStatusCode(), headers);
+            long maxEntryBytes = cache.maxEntryBytes();
+            if (ttl == null || headers.getContentLength() > maxEntryBytes) {
+                return super.writeWith(body);
+            }
+
+            long contentLength = headers.getContentLength();
+            ByteArrayOutputStream copy = new ByteArrayOutputStream(
+                    (int) Math.max(256, Math.min(contentLength, maxEntryBytes)));
+            // Copie terminée (conservée ou abandonnée) : plus rien à faire sur les buffers suivants
+            boolean[] finished = {false};
+            Flux<? extends DataBuffer> captured = Flux.from(body)
+                    .doOnNext(buffer -> {
+                        int readable = buffer.readableByteCount();
+                        if (finished[0]) {
+                            return;
+                        }
+                        if (copy.size() + readable > maxEntryBytes) {
+                            finished[0] = true;
+                            return;
+                        }
+                        byte[] chunk = new byte[readable];
+                        int position = buffer.readPosition();
+                        buffer.read(chunk);
+                        buffer.readPosition(position);
+                        copy.write(chunk, 0, readable);
+                        // Content-Length atteint : conservée avant que le dernier buffer ne parte,
+                        // une relecture immédiate du client trouve déjà l'entrée
+                        if (copy.size() == contentLength) {
+                            finished[0] = true;
+                            store(headers, copy.toByteArray(), ttl);
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        if (!finished[0]) {
+                            finished[0] = true;
+                            store(headers, copy.toByteArray(), ttl);
+                        }
+                    });
+            return super.writeWith(captured);
+        }
+
+        private void store(HttpHeaders responseHeaders, byte[] body, Duration ttl) {
+            HttpHeaders replayed = new HttpHeaders();
+            for (String name : REPLAYED_HEADERS) {
+                List<String> values = responseHeaders.get(name);
+                if (values != null) {
+                    replayed.put(name, List.copyOf(values));
+                }
+            }
+            long now = System.nanoTime();
+            long expiresAt = now + ttl.toNanos();
+            cache.put(key, new CachedResponse(body, HttpHeaders.readOnlyHttpHeaders(replayed),
+                    now, expiresAt, expiresAt + cache.staleWindow().toNanos()), requestGeneration);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.mediscreen.gateway.cache;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Règles de cache d'une route Gateway
+ *
+ * @param route     nom logique de la route (patient, notes...), utilisé dans les métriques
+ * @param readPath  chemins GET mis en cache, groupe 1 = identifiant patient
+ * @param writePath chemins d'écriture portant l'identifiant patient (groupe 1), null si aucun :
+ *                  toute écriture sur la route invalide alors l'ensemble de ses entrées
+ * @param ttl       durée de vie maximale d'une entrée (réduite par un max-age plus court du backend)
+ */
+public record RouteCachePolicy(String route, Pattern readPath, Pattern writePath, Duration ttl) {
+
+    /**
+     * Identifiant patient d'un chemin GET cacheable, -1 si le chemin n'est pas mis en cache
+     */
+    public long readPatientId(String path) {
+        return patientId(readPath, path);
+    }
+
+    /**
+     * Identifiant patient d'un chemin d'écriture, -1 s'il n'en porte pas
+     */
+    public long writePatientId(String path) {
+        return writePath == null ? -1 : patientId(writePath, path);
+    }
+
+    private static long patientId(Pattern pattern, String path) {
+        Matcher matcher = pattern.matcher(path);
+        if (!matcher.matches()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(matcher.group(1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
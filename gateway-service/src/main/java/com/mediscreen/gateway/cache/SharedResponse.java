@@ -0,0 +1,20 @@
+package com.mediscreen.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Réponse backend d'un GET mutualisé, rejouée aux requêtes identiques qui l'ont attendue
+ *
+ * @param status  statut reçu du backend
+ * @param headers headers de réponse (hors Content-Length et Transfer-Encoding, recalculés)
+ * @param body    corps complet
+ */
+record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+
+    /**
+     * Réponse non partageable (erreur, annulation, corps trop gros, Set-Cookie) : chaque
+     * requête en attente appelle alors le backend elle-même
+     */
+    static final SharedResponse NONE = new SharedResponse(null, HttpHeaders.EMPTY, new byte[0]);
+}
@@ -0,0 +1,186 @@
+package com.mediscreen.gateway.compression;
+
+import com.mediscreen.gateway.compression.GatewayCompression.RouteStats;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filtre de route de compression des réponses
+ *
+ * FONCTIONNEMENT :
+ * - Accept-Encoding lu à l'entrée, décision prise à l'écriture du corps (statut et headers
+ *   de la réponse connus)
+ * - Corps compressé buffer par buffer, Content-Length retiré (réponse chunked)
+ * - Backend à ETags forts uniquement : préfixe W/ retiré des ETags d'If-Match avant transmission
+ *   (seule cette passerelle les a affaiblis)
+ */
+class CompressionFilter implements GatewayFilter {
+
+    static final String GZIP = "gzip";
+
+    private final GatewayCompression compression;
+    private final RouteStats stats;
+    private final boolean strongEtags;
+
+    CompressionFilter(GatewayCompression compression, RouteStats stats, boolean strongEtags) {
+        this.compression = compression;
+        this.stats = stats;
+        this.strongEtags = strongEtags;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // Avant le test d'activation : le client peut détenir un ETag affaibli avant une désactivation
+        if (strongEtags) {
+            exchange = withStrongIfMatch(exchange);
+        }
+        if (!compression.isEnabled() || HttpMethod.HEAD.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+        boolean acceptsGzip = acceptsGzip(exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT_ENCODING));
+        CompressingResponse response = new CompressingResponse(exchange.getResponse(), acceptsGzip);
+        return chain.filter(exchange.mutate().response(response).build());
+    }
+
+    /**
+     * Retire W/ des ETags d'If-Match : la représentation en clair du backend porte l'ETag fort,
+     * la comparaison forte d'If-Match (RFC 9110 §13.1.1) échouerait sinon toujours
+     */
+    static ServerWebExchange withStrongIfMatch(ServerWebExchange exchange) {
+        List<String> ifMatch = exchange.getRequest().getHeaders().getIfMatch();
+        if (ifMatch.stream().noneMatch(etag -> etag.startsWith("W/"))) {
+            return exchange;
+        }
+        List<String> strong = ifMatch.stream()
+                .map(etag -> etag.startsWith("W/") ? etag.substring(2) : etag)
+                .toList();
+        return exchange.mutate()
+                .request(request -> request.headers(headers -> headers.setIfMatch(strong)))
+                .build();
+    }
+
+    /**
+     * Négociation Accept-Encoding (RFC 9110 §12.5.3) : gzip (ou x-gzip) accepté si sa qualité,
+     * ou à défaut celle de *, est non nulle
+     */
+    static boolean acceptsGzip(List<String> acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String value : acceptEncoding) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim().toLowerCase(Locale.ROOT);
+                double quality = quality(parts);
+                if (name.equals(GZIP) || name.equals("x-gzip")) {
+                    gzip = quality;
+                } else if (name.equals("*")) {
+                    any = quality;
+                }
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Réponse décorée : compresse le corps au fil de son écriture vers le client
+     */
+    private final class CompressingResponse extends ServerHttpResponseDecorator {
+
+        private final boolean acceptsGzip;
+
+        private CompressingResponse(ServerHttpResponse delegate, boolean acceptsGzip) {
+            super(delegate);
+            this.acceptsGzip = acceptsGzip;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            if (!isCompressible(getStatusCode(), headers)) {
+                return super.writeWith(body);
+            }
+            if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+                headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            if (!acceptsGzip) {
+                stats.identity.increment();
+                return super.writeWith(body);
+            }
+
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+            String etag = headers.getETag();
+            if (etag != null && !etag.startsWith("W/")) {
+                headers.setETag("W/" + etag);
+            }
+
+            GzipEncoder encoder = new GzipEncoder(compression.level(), bufferFactory());
+            Flux<DataBuffer> compressed = Flux.from(body)
+                    .map(buffer -> {
+                        try {
+                            return encoder.encode(buffer);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .filter(buffer -> {
+                        if (buffer.readableByteCount() > 0) {
+                            return true;
+                        }
+                        DataBufferUtils.release(buffer);
+                        return false;
+                    })
+                    .concatWith(Mono.fromSupplier(encoder::finish))
+                    .doFinally(signal -> {
+                        encoder.end();
+                        stats.record(encoder);
+                    });
+            return super.writeWith(compressed);
+        }
+
+        private boolean isCompressible(HttpStatusCode status, HttpHeaders headers) {
+            if (status != null && (status.value() == HttpStatus.NO_CONTENT.value()
+                    || status.value() == HttpStatus.NOT_MODIFIED.value() || status.is1xxInformational())) {
+                return false;
+            }
+            if (headers.containsKey(HttpHeaders.CONTENT_ENCODING) || headers.containsKey(HttpHeaders.CONTENT_RANGE)) {
+                return false;
+            }
+            long contentLength = headers.getContentLength();
+            return (contentLength < 0 || contentLength >= compression.minResponseBytes())
+                    && compression.isCompressible(headers.getContentType());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.mediscreen.gateway.compression;
+
+import com.mediscreen.gateway.cache.GatewayResponseCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.util.MimeType;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compression des réponses Gateway négociée par Accept-Encoding
+ *
+ * PRINCIPE :
+ * - gzip si le client l'accepte (q > 0, explicitement ou via *), réponse en clair sinon
+ * - Seuls les types textuels configurés (JSON, texte...) au-delà d'une taille minimale
+ *   sont compressés ; taille inconnue (réponse chunked) : compressée, Tomcat n'omettant
+ *   Content-Length qu'au-delà de son tampon de sortie (8 Ko)
+ * - Compression en flux, buffer par buffer, sans mise en mémoire tampon du corps
+ * - Réponse déjà encodée par le backend, partielle (Content-Range), 204 / 304 ou en flux
+ *   continu (SSE) transmise telle quelle
+ * - Vary: Accept-Encoding ajouté à toute réponse compressible, ETag fort rendu faible
+ *   (la représentation compressée n'est pas identique octet par octet)
+ * - Routes dont le backend n'émet que des ETags forts (patient, versions optimistes) :
+ *   If-Match reçu avec un ETag affaibli ici retransmis fort, sinon PUT / PATCH conditionnels
+ *   d'un client gzip toujours en 412
+ *
+ * Placée avant le cache et la mutualisation : ils conservent et rejouent le corps en clair,
+ * compressé ensuite selon l'Accept-Encoding de chaque client.
+ *
+ * Métriques : gateway.compression.responses (compressed / identity), gateway.compression.bytes
+ * (original / compressed), gateway.compression.ratio, gateway.compression.time (temps de
+ * compression, CPU de la boucle d'événements).
+ */
+public class GatewayCompression implements MeterBinder {
+
+    public static final int FILTER_ORDER = GatewayResponseCache.FILTER_ORDER - 1;
+
+    private final int level;
+    private final long minResponseBytes;
+    private final List<MimeType> mimeTypes;
+    private final Map<String, RouteStats> stats = new LinkedHashMap<>();
+    private final Set<String> strongEtagRoutes;
+    private volatile boolean enabled = true;
+
+    public GatewayCompression(int level, long minResponseBytes, List<MimeType> mimeTypes, List<String> routes,
+                              Set<String> strongEtagRoutes) {
+        this.level = level;
+        this.minResponseBytes = minResponseBytes;
+        this.mimeTypes = List.copyOf(mimeTypes);
+        this.strongEtagRoutes = Set.copyOf(strongEtagRoutes);
+        routes.forEach(route -> stats.put(route, new RouteStats()));
+    }
+
+    public GatewayFilter filter(String route) {
+        RouteStats routeStats = stats.get(route);
+        if (routeStats == null) {
+            throw new IllegalArgumentException("Compression non configurée pour la route " + route);
+        }
+        return new OrderedGatewayFilter(
+                new CompressionFilter(this, routeStats, strongEtagRoutes.contains(route)), FILTER_ORDER);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    int level() {
+        return level;
+    }
+
+    long minResponseBytes() {
+        return minResponseBytes;
+    }
+
+    /**
+     * Type de contenu compressible (paramètres comme charset ignorés)
+     */
+    boolean isCompressible(MimeType contentType) {
+        return contentType != null && mimeTypes.stream().anyMatch(mimeType -> mimeType.isCompatibleWith(contentType));
+    }
+
+    public long compressedResponses(String route) {
+        return stats.get(route).compressed.sum();
+    }
+
+    public long bytesSaved(String route) {
+        RouteStats routeStats = stats.get(route);
+        return routeStats.bytesIn.sum() - routeStats.bytesOut.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        stats.forEach((route, routeStats) -> {
+            FunctionCounter.builder("gateway.compression.responses", routeStats.compressed, LongAdder::sum)
+                    .description("Réponses compressibles envoyées compressées")
+                    .tags("route", route, "result", "compressed").register(registry);
+            FunctionCounter.builder("gateway.compression.responses", routeStats.identity, LongAdder::sum)
+                    .description("Réponses compressibles envoyées en clair : client sans gzip")
+                    .tags("route", route, "result", "identity").register(registry);
+            FunctionCounter.builder("gateway.compression.bytes", routeStats.bytesIn, LongAdder::sum)
+                    .description("Octets de corps avant compression")
+                    .baseUnit("bytes")
+                    .tags("route", route, "stage", "original").register(registry);
+            FunctionCounter.builder("gateway.compression.bytes", routeStats.bytesOut, LongAdder::sum)
+                    .description("Octets de corps envoyés après compression")
+                    .baseUnit("bytes")
+                    .tags("route", route, "stage", "compressed").register(registry);
+            Gauge.builder("gateway.compression.ratio", routeStats, RouteStats::ratio)
+                    .description("Taille compressée / taille d'origine")
+                    .tags("route", route).register(registry);
+            FunctionTimer.builder("gateway.compression.time", routeStats,
+                            s -> s.compressed.sum(), s -> s.nanos.sum(), TimeUnit.NANOSECONDS)
+                    .description("Temps passé à compresser, par réponse compressée")
+                    .tags("route", route).register(registry);
+        });
+    }
+
+    static final class RouteStats {
+        final LongAdder compressed = new LongAdder();
+        final LongAdder identity = new LongAdder();
+        final LongAdder bytesIn = new LongAdder();
+        final LongAdder bytesOut = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+
+        void record(GzipEncoder encoder) {
+            compressed.increment();
+            bytesIn.add(encoder.bytesIn());
+            bytesOut.add(encoder.bytesOut());
+            nanos.add(encoder.nanos());
+        }
+
+        double ratio() {
+            long in = bytesIn.sum();
+            return in == 0 ? 0 : (double) bytesOut.sum() / in;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.mediscreen.gateway.compression;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compression gzip en flux d'un corps de réponse (RFC 1952)
+ *
+ * Chaque buffer reçu est compressé puis transmis aussitôt : seules la fenêtre du Deflater
+ * et la sortie en cours sont gardées en mémoire, jamais le corps entier. Une instance par
+ * réponse, appelée dans l'ordre des buffers (pas d'accès concurrent).
+ */
+final class GzipEncoder {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int CHUNK_SIZE = 8192;
+
+    private final Deflater deflater;
+    private final DataBufferFactory bufferFactory;
+    private final CRC32 crc = new CRC32();
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+    private boolean headerWritten;
+    private boolean ended;
+    private long bytesIn;
+    private long bytesOut;
+    private long nanos;
+
+    GzipEncoder(int level, DataBufferFactory bufferFactory) {
+        this.deflater = new Deflater(level, true);
+        this.bufferFactory = bufferFactory;
+    }
+
+    /**
+     * Compresse un buffer du corps ; le résultat peut être vide, le Deflater accumulant
+     * les petites entrées jusqu'à produire un bloc
+     */
+    DataBuffer encode(DataBuffer input) {
+        long start = System.nanoTime();
+        DataBuffer output = bufferFactory.allocateBuffer(Math.max(64, input.readableByteCount() / 2));
+        writeHeaderOnce(output);
+        try (DataBuffer.ByteBufferIterator buffers = input.readableByteBuffers()) {
+            while (buffers.hasNext()) {
+                ByteBuffer buffer = buffers.next();
+                bytesIn += buffer.remaining();
+                crc.update(buffer.duplicate());
+                deflater.setInput(buffer);
+                while (!deflater.needsInput()) {
+                    drain(output);
+                }
+            }
+        }
+        bytesOut += output.readableByteCount();
+        nanos += System.nanoTime() - start;
+        return output;
+    }
+
+    /**
+     * Fin du corps : blocs restants et trailer gzip (CRC32 puis taille d'origine modulo 2^32)
+     */
+    DataBuffer finish() {
+        long start = System.nanoTime();
+        DataBuffer output = bufferFactory.allocateBuffer(256);
+        writeHeaderOnce(output);
+        deflater.finish();
+        while (!deflater.finished()) {
+            drain(output);
+        }
+        writeIntLittleEndian(output, (int) crc.getValue());
+        writeIntLittleEndian(output, (int) bytesIn);
+        bytesOut += output.readableByteCount();
+        nanos += System.nanoTime() - start;
+        return output;
+    }
+
+    /**
+     * Libère la mémoire native du Deflater (fin, erreur ou annulation)
+     */
+    void end() {
+        if (!ended) {
+            ended = true;
+            deflater.end();
+        }
+    }
+
+    long bytesIn() {
+        return bytesIn;
+    }
+
+    long bytesOut() {
+        return bytesOut;
+    }
+
+    long nanos() {
+        return nanos;
+    }
+
+    private void drain(DataBuffer output) {
+        int length = deflater.deflate(chunk);
+        if (length > 0) {
+            output.ensureWritable(length);
+            output.write(chunk, 0, length);
+        }
+    }
+
+    private void writeHeaderOnce(DataBuffer output) {
+        if (!headerWritten) {
+            headerWritten = true;
+            output.write(HEADER);
+        }
+    }
+
+    private static void writeIntLittleEndian(DataBuffer output, int value) {
+        output.write((byte) value);
+        output.write((byte) (value >>> 8));
+        output.write((byte) (value >>> 16));
+        output.write((byte) (value >>> 24));
+    }
+}
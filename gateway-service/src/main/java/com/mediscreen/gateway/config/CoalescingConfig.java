@@ -0,0 +1,45 @@
+package com.mediscreen.gateway.config;
+
+import com.mediscreen.gateway.cache.RequestCoalescer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+/**
+ * Configuration de la mutualisation des GET identiques simultanés
+ *
+ * ROUTES CONCERNÉES :
+ * - patient et notes : derrière le cache Gateway, couvre les absences de cache simultanées
+ * - assessment : non mise en cache, calcul de risque coûteux demandé en rafale à
+ *   l'ouverture d'un dossier
+ * - Traitements de masse patient exclus (réponses volumineuses ou en flux)
+ */
+@Configuration
+public class CoalescingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingConfig.class);
+
+    @Value("${mediscreen.gateway-coalescing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mediscreen.gateway-coalescing.max-waiters:100}")
+    private int maxWaiters;
+
+    @Value("${mediscreen.gateway-coalescing.max-response-size:256KB}")
+    private DataSize maxResponseSize;
+
+    @Bean
+    public RequestCoalescer requestCoalescer() {
+        RequestCoalescer coalescer = new RequestCoalescer(maxWaiters, maxResponseSize.toBytes(),
+                List.of("patient", "notes", "assessment"));
+        coalescer.setEnabled(enabled);
+        logger.info("Mutualisation des GET identiques {} ({} attentes max par requête, réponses jusqu'à {})",
+                enabled ? "activée" : "désactivée", maxWaiters, maxResponseSize);
+        return coalescer;
+    }
+}
@@ -0,0 +1,51 @@
+package com.mediscreen.gateway.config;
+
+import com.mediscreen.gateway.compression.GatewayCompression;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.MimeType;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Configuration de la compression des réponses Gateway
+ *
+ * Historiques de notes et listes de patients : texte français très répétitif, réduit
+ * typiquement de 80 à 90 % ; les petites réponses (fiche patient seule) restent sous le
+ * seuil, leur compression coûterait plus qu'elle ne ferait gagner.
+ */
+@Configuration
+public class CompressionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompressionConfig.class);
+
+    @Value("${mediscreen.gateway-compression.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mediscreen.gateway-compression.level:6}")
+    private int level;
+
+    @Value("${mediscreen.gateway-compression.min-response-size:1KB}")
+    private DataSize minResponseSize;
+
+    @Value("${mediscreen.gateway-compression.mime-types:application/json,application/problem+json,text/plain,text/csv,text/html,application/xml}")
+    private List<MimeType> mimeTypes;
+
+    @Value("${mediscreen.gateway-compression.strong-etag-routes:patient}")
+    private Set<String> strongEtagRoutes;
+
+    @Bean
+    public GatewayCompression gatewayCompression() {
+        GatewayCompression compression = new GatewayCompression(level, minResponseSize.toBytes(), mimeTypes,
+                List.of("patient", "notes", "assessment"), strongEtagRoutes);
+        compression.setEnabled(enabled);
+        logger.info("Compression gzip des réponses {} (niveau {}, à partir de {})",
+                enabled ? "activée" : "désactivée", level, minResponseSize);
+        return compression;
+    }
+}
@@ -0,0 +1,140 @@
+package com.mediscreen.gateway.config;
+
+import com.mediscreen.gateway.loadbalancer.BackendPool;
+import com.mediscreen.gateway.loadbalancer.BalancingMode;
+import com.mediscreen.gateway.loadbalancer.ConsistentHashRing;
+import com.mediscreen.gateway.loadbalancer.GatewayLoadBalancer;
+import com.mediscreen.gateway.loadbalancer.LoadBalancerEndpoint;
+import com.mediscreen.gateway.loadbalancer.PatientAffinity;
+import com.mediscreen.gateway.loadbalancer.RequestHedging;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Configuration des répliques backend par route
+ *
+ * Chaque mediscreen.services.*.uri accepte une liste d'URIs séparées par des virgules
+ * (ex. PATIENT_SERVICE_URI=http://patient-1:8081,http://patient-2:8081) ; une URI seule
+ * garde le comportement d'origine.
+ *
+ * Mode patient-hash (notes, évaluation) : les requêtes d'un patient restent sur la même
+ * réplique pour que ses caches locaux servent ; mode least-outstanding sinon.
+ *
+ * GET couverts (hedging) optionnels par route : utiles contre les lenteurs ponctuelles
+ * d'une réplique (pause GC, pages Mongo froides), sans effet avec une seule instance.
+ */
+@Configuration
+public class LoadBalancerConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadBalancerConfig.class);
+
+    static final String PATIENT = "patient";
+    static final String NOTES = "notes";
+    static final String ASSESSMENT = "assessment";
+
+    // URIs des microservices backend (variabilisées pour tests et environnements)
+    @Value("${mediscreen.services.patient.uri}")
+    private List<String> patientServiceUris;
+
+    @Value("${mediscreen.services.notes.uri}")
+    private List<String> notesServiceUris;
+
+    @Value("${mediscreen.services.assessment.uri}")
+    private List<String> assessmentServiceUris;
+
+    @Value("${mediscreen.gateway-lb.consecutive-failures:5}")
+    private int consecutiveFailures;
+
+    @Value("${mediscreen.gateway-lb.base-ejection-time:30s}")
+    private Duration baseEjectionTime;
+
+    @Value("${mediscreen.gateway-lb.max-ejection-time:5m}")
+    private Duration maxEjectionTime;
+
+    @Value("${mediscreen.gateway-lb.routes.patient.mode:patient-hash}")
+    private BalancingMode patientMode;
+
+    @Value("${mediscreen.gateway-lb.routes.notes.mode:least-outstanding}")
+    private BalancingMode notesMode;
+
+    @Value("${mediscreen.gateway-lb.routes.assessment.mode:least-outstanding}")
+    private BalancingMode assessmentMode;
+
+    @Value("${mediscreen.gateway-lb.hash.virtual-nodes:100}")
+    private int virtualNodes;
+
+    @Value("${mediscreen.gateway-lb.hash.load-factor:1.25}")
+    private double hashLoadFactor;
+
+    @Value("${mediscreen.gateway-hedging.routes.patient.enabled:false}")
+    private boolean patientHedging;
+
+    @Value("${mediscreen.gateway-hedging.routes.notes.enabled:false}")
+    private boolean notesHedging;
+
+    @Value("${mediscreen.gateway-hedging.routes.assessment.enabled:false}")
+    private boolean assessmentHedging;
+
+    @Value("${mediscreen.gateway-hedging.percentile:0.95}")
+    private double hedgePercentile;
+
+    @Value("${mediscreen.gateway-hedging.min-delay:20ms}")
+    private Duration hedgeMinDelay;
+
+    @Value("${mediscreen.gateway-hedging.max-delay:500ms}")
+    private Duration hedgeMaxDelay;
+
+    @Value("${mediscreen.gateway-hedging.budget-percent:5}")
+    private double hedgeBudgetPercent;
+
+    /**
+     * @param nettyRoutingFilter filtre de routage de la Gateway, rejoué par les tentatives des GET couverts
+     */
+    @Bean
+    public GatewayLoadBalancer gatewayLoadBalancer(NettyRoutingFilter nettyRoutingFilter) {
+        GatewayLoadBalancer loadBalancer = new GatewayLoadBalancer(nettyRoutingFilter);
+        register(loadBalancer, PATIENT, patientServiceUris, patientMode, Pattern.compile("/api/v1/patients/(\\d+)(?:/.*)?"));
+        register(loadBalancer, NOTES, notesServiceUris, notesMode, Pattern.compile("/api/v1/notes/patient/(\\d+)"));
+        register(loadBalancer, ASSESSMENT, assessmentServiceUris, assessmentMode, Pattern.compile("/api/v1/assess/patient/(\\d+)"));
+        hedge(loadBalancer, PATIENT, patientHedging);
+        hedge(loadBalancer, NOTES, notesHedging);
+        hedge(loadBalancer, ASSESSMENT, assessmentHedging);
+        return loadBalancer;
+    }
+
+    private void register(GatewayLoadBalancer loadBalancer, String route, List<String> uris,
+                          BalancingMode mode, Pattern patientPath) {
+        List<URI> instances = uris.stream().map(String::trim).filter(uri -> !uri.isEmpty()).map(URI::create).toList();
+        logger.info("Route {} : {} instance(s) {}, mode {}", route, instances.size(), instances, mode);
+        BackendPool pool = new BackendPool(route, instances, consecutiveFailures, baseEjectionTime, maxEjectionTime);
+        if (mode == BalancingMode.PATIENT_HASH) {
+            loadBalancer.register(pool, new PatientAffinity(patientPath,
+                    new ConsistentHashRing(pool.getInstances(), virtualNodes, hashLoadFactor)));
+        } else {
+            loadBalancer.register(pool);
+        }
+    }
+
+    private void hedge(GatewayLoadBalancer loadBalancer, String route, boolean enabled) {
+        if (!enabled) {
+            return;
+        }
+        logger.info("Route {} : GET couverts après p{} (bornes {} - {}), budget {}% des GET", route,
+                Math.round(hedgePercentile * 100), hedgeMinDelay, hedgeMaxDelay, hedgeBudgetPercent);
+        loadBalancer.hedge(route, new RequestHedging(hedgePercentile, hedgeMinDelay, hedgeMaxDelay, hedgeBudgetPercent));
+    }
+
+    @Bean
+    public LoadBalancerEndpoint loadBalancerEndpoint(GatewayLoadBalancer gatewayLoadBalancer) {
+        return new LoadBalancerEndpoint(gatewayLoadBalancer);
+    }
+}
@@ -0,0 +1,74 @@
+package com.mediscreen.gateway.config;
+
+import com.mediscreen.gateway.ratelimit.GatewayRateLimiter;
+import com.mediscreen.gateway.ratelimit.RateLimitEndpoint;
+import com.mediscreen.gateway.ratelimit.RateLimitPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Configuration de la limitation de débit par client et par route
+ *
+ * Les limites s'appliquent par principal authentifié : le Frontend, qui relaie tous les
+ * utilisateurs interactifs, a donc besoin de limites larges ; un script de traitement par
+ * lots doit disposer de ses propres credentials pour être limité séparément.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitConfig.class);
+
+    static final String PATIENT = "patient";
+    static final String NOTES = "notes";
+    static final String ASSESSMENT = "assessment";
+
+    @Value("${mediscreen.gateway-rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mediscreen.gateway-rate-limit.max-keys:10000}")
+    private int maxKeys;
+
+    @Value("${mediscreen.gateway-rate-limit.metrics.principal-tag:false}")
+    private boolean principalMetrics;
+
+    @Value("${mediscreen.gateway-rate-limit.routes.patient.burst:200}")
+    private int patientBurst;
+
+    @Value("${mediscreen.gateway-rate-limit.routes.patient.refill-per-second:100}")
+    private double patientRefill;
+
+    @Value("${mediscreen.gateway-rate-limit.routes.notes.burst:200}")
+    private int notesBurst;
+
+    @Value("${mediscreen.gateway-rate-limit.routes.notes.refill-per-second:100}")
+    private double notesRefill;
+
+    @Value("${mediscreen.gateway-rate-limit.routes.assessment.burst:50}")
+    private int assessmentBurst;
+
+    @Value("${mediscreen.gateway-rate-limit.routes.assessment.refill-per-second:20}")
+    private double assessmentRefill;
+
+    @Bean
+    public GatewayRateLimiter gatewayRateLimiter() {
+        GatewayRateLimiter limiter = new GatewayRateLimiter(maxKeys, List.of(
+                new RateLimitPolicy(PATIENT, patientBurst, patientRefill),
+                new RateLimitPolicy(NOTES, notesBurst, notesRefill),
+                new RateLimitPolicy(ASSESSMENT, assessmentBurst, assessmentRefill)));
+        limiter.setEnabled(enabled);
+        limiter.setPrincipalMetrics(principalMetrics);
+        logger.info("Limitation de débit Gateway {} (patient {}/s, notes {}/s, assessment {}/s par client)",
+                enabled ? "activée" : "désactivée", patientRefill, notesRefill, assessmentRefill);
+        return limiter;
+    }
+
+    @Bean
+    public RateLimitEndpoint rateLimitEndpoint(GatewayRateLimiter gatewayRateLimiter) {
+        return new RateLimitEndpoint(gatewayRateLimiter);
+    }
+}
@@ -0,0 +1,95 @@
+package com.mediscreen.gateway.config;
+
+import com.mediscreen.gateway.cache.GatewayResponseCache;
+import com.mediscreen.gateway.resilience.AdaptiveConcurrencyLimit;
+import com.mediscreen.gateway.resilience.CircuitBreakerEndpoint;
+import com.mediscreen.gateway.resilience.RouteCircuitBreaker;
+import com.mediscreen.gateway.resilience.RouteCircuitBreakers;
+import com.mediscreen.gateway.resilience.RouteConcurrencyLimits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration des disjoncteurs de route, budgets de latence et limites de concurrence
+ *
+ * Seuils communs à toutes les routes, budget de latence propre à chaque backend
+ * (l'assessment agrège patient + notes, son budget est plus large). Chaque route a sa
+ * propre limite de concurrence adaptative, initialisée et bornée par les mêmes valeurs.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceConfig.class);
+
+    static final String PATIENT = "patient";
+    static final String NOTES = "notes";
+    static final String ASSESSMENT = "assessment";
+
+    @Value("${mediscreen.gateway-resilience.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${mediscreen.gateway-resilience.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${mediscreen.gateway-resilience.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${mediscreen.gateway-resilience.open-duration:10s}")
+    private Duration openDuration;
+
+    @Value("${mediscreen.gateway-resilience.routes.patient.latency-budget:2s}")
+    private Duration patientLatencyBudget;
+
+    @Value("${mediscreen.gateway-resilience.routes.notes.latency-budget:2s}")
+    private Duration notesLatencyBudget;
+
+    @Value("${mediscreen.gateway-resilience.routes.assessment.latency-budget:5s}")
+    private Duration assessmentLatencyBudget;
+
+    @Value("${mediscreen.gateway-resilience.concurrency.initial-limit:20}")
+    private int initialConcurrency;
+
+    @Value("${mediscreen.gateway-resilience.concurrency.min-limit:5}")
+    private int minConcurrency;
+
+    @Value("${mediscreen.gateway-resilience.concurrency.max-limit:200}")
+    private int maxConcurrency;
+
+    @Bean
+    public RouteCircuitBreakers routeCircuitBreakers(GatewayResponseCache gatewayResponseCache) {
+        logger.info("Disjoncteurs de route : ouverture à {}% d'échecs sur {} appels, {} avant sonde",
+                Math.round(failureRateThreshold * 100), slidingWindowSize, openDuration);
+        return new RouteCircuitBreakers(gatewayResponseCache)
+                .register(breaker(PATIENT), patientLatencyBudget)
+                .register(breaker(NOTES), notesLatencyBudget)
+                .register(breaker(ASSESSMENT), assessmentLatencyBudget);
+    }
+
+    private RouteCircuitBreaker breaker(String route) {
+        return new RouteCircuitBreaker(route, failureRateThreshold, slidingWindowSize, minimumCalls, openDuration);
+    }
+
+    @Bean
+    public RouteConcurrencyLimits routeConcurrencyLimits() {
+        logger.info("Limites de concurrence adaptatives : {} appels initiaux par route (bornes {} - {})",
+                initialConcurrency, minConcurrency, maxConcurrency);
+        return new RouteConcurrencyLimits()
+                .register(PATIENT, concurrencyLimit())
+                .register(NOTES, concurrencyLimit())
+                .register(ASSESSMENT, concurrencyLimit());
+    }
+
+    private AdaptiveConcurrencyLimit concurrencyLimit() {
+        return new AdaptiveConcurrencyLimit(initialConcurrency, minConcurrency, maxConcurrency);
+    }
+
+    @Bean
+    public CircuitBreakerEndpoint circuitBreakerEndpoint(RouteCircuitBreakers routeCircuitBreakers) {
+        return new CircuitBreakerEndpoint(routeCircuitBreakers);
+    }
+}
@@ -0,0 +1,73 @@
+package com.mediscreen.gateway.config;
+
+import com.mediscreen.gateway.cache.GatewayResponseCache;
+import com.mediscreen.gateway.cache.ResponseCacheEndpoint;
+import com.mediscreen.gateway.cache.RouteCachePolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Configuration du cache de réponses Gateway
+ *
+ * ROUTES CONCERNÉES :
+ * - GET /api/v1/patients/{id} : invalidé par toute écriture sur /api/v1/patients/{id}[/...]
+ * - GET /api/v1/notes/patient/{patId} : les écritures de notes ne portent pas l'identifiant
+ *   patient dans le chemin (POST /api/v1/notes, PUT/DELETE /api/v1/notes/{noteId}),
+ *   elles invalident donc toutes les notes en cache
+ */
+@Configuration
+public class ResponseCacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheConfig.class);
+
+    static final String PATIENT = "patient";
+    static final String NOTES = "notes";
+
+    @Value("${mediscreen.gateway-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mediscreen.gateway-cache.max-size:64MB}")
+    private DataSize maxSize;
+
+    @Value("${mediscreen.gateway-cache.max-entry-size:256KB}")
+    private DataSize maxEntrySize;
+
+    @Value("${mediscreen.gateway-cache.stale-if-error:10m}")
+    private Duration staleIfError;
+
+    @Value("${mediscreen.gateway-cache.routes.patient.ttl:30s}")
+    private Duration patientTtl;
+
+    @Value("${mediscreen.gateway-cache.routes.notes.ttl:10s}")
+    private Duration notesTtl;
+
+    @Bean
+    public GatewayResponseCache gatewayResponseCache() {
+        GatewayResponseCache cache = new GatewayResponseCache(maxSize.toBytes(), maxEntrySize.toBytes(), staleIfError, List.of(
+                new RouteCachePolicy(PATIENT,
+                        Pattern.compile("/api/v1/patients/(\\d+)"),
+                        Pattern.compile("/api/v1/patients/(\\d+)(?:/.*)?"),
+                        patientTtl),
+                new RouteCachePolicy(NOTES,
+                        Pattern.compile("/api/v1/notes/patient/(\\d+)"),
+                        null,
+                        notesTtl)));
+        cache.setEnabled(enabled);
+        logger.info("Cache de réponses Gateway {} ({}, TTL patient {}, notes {})",
+                enabled ? "activé" : "désactivé", maxSize, patientTtl, notesTtl);
+        return cache;
+    }
+
+    @Bean
+    public ResponseCacheEndpoint responseCacheEndpoint(GatewayResponseCache gatewayResponseCache) {
+        return new ResponseCacheEndpoint(gatewayResponseCache);
+    }
+}
@@ -0,0 +1,61 @@
+package com.mediscreen.gateway.config;
+
+import com.mediscreen.gateway.metrics.GatewayRouteMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Configuration des métriques de latence et de débit par route
+ *
+ * Remplace les logs DEBUG par requête (reactor.netty, sécurité, Gateway) comme moyen
+ * d'observer les routes en production : percentiles, histogrammes SLO et temps amont
+ * restent disponibles via /actuator/metrics sans coût de log par requête.
+ */
+@Configuration
+public class RouteMetricsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteMetricsConfig.class);
+
+    @Value("${mediscreen.gateway-metrics.percentiles:0.5,0.95,0.99}")
+    private double[] percentiles;
+
+    @Value("${mediscreen.gateway-metrics.slo:50ms,100ms,250ms,500ms,1s,2s,5s}")
+    private Duration[] slos;
+
+    @Bean
+    public GatewayRouteMetrics gatewayRouteMetrics(MeterRegistry meterRegistry) {
+        logger.info("Métriques par route : percentiles {}, objectifs de latence {}",
+                Arrays.toString(percentiles), Arrays.toString(slos));
+        return new GatewayRouteMetrics(meterRegistry, percentiles, slos);
+    }
+
+    @Bean
+    public GlobalFilter routeTimingFilter(GatewayRouteMetrics gatewayRouteMetrics) {
+        return gatewayRouteMetrics.requestFilter();
+    }
+
+    @Bean
+    public GlobalFilter upstreamTimingFilter(GatewayRouteMetrics gatewayRouteMetrics) {
+        return gatewayRouteMetrics.upstreamFilter();
+    }
+
+    /**
+     * Métriques du client HTTP amont (reactor.netty.http.client.connect.time, response.time...)
+     * par adresse de réplique
+     */
+    @Bean
+    @ConditionalOnProperty(name = "mediscreen.gateway-metrics.upstream-client", havingValue = "true", matchIfMissing = true)
+    public HttpClientCustomizer upstreamClientMetrics() {
+        return httpClient -> httpClient.metrics(true, GatewayRouteMetrics::uriTag);
+    }
+}
@@ -1,14 +1,29 @@
 package com.mediscreen.gateway.config;
 
+import com.mediscreen.gateway.cache.GatewayResponseCache;
+import com.mediscreen.gateway.cache.RequestCoalescer;
+import com.mediscreen.gateway.compression.GatewayCompression;
+import com.mediscreen.gateway.loadbalancer.GatewayLoadBalancer;
+import com.mediscreen.gateway.ratelimit.GatewayRateLimiter;
+import com.mediscreen.gateway.resilience.RouteCircuitBreakers;
+import com.mediscreen.gateway.resilience.RouteConcurrencyLimits;
+import com.mediscreen.gateway.security.BackendCredentials;
+import com.mediscreen.gateway.security.CachingReactiveAuthenticationManager;
+import com.mediscreen.gateway.security.DownstreamAuthEndpoint;
+import com.mediscreen.gateway.security.DownstreamAuthHeaders;
+import com.mediscreen.gateway.security.DownstreamCredentialsWatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
@@ -17,8 +32,11 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
-import java.util.Base64;
+import java.nio.file.Path;
+import java.time.Duration;
 
 /**
  * Configuration de sécurité Gateway avec routage intelligent et tokens différenciés
@@ -42,6 +60,10 @@ public class SecurityConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
 
+    private static final String PATIENT = "patient";
+    private static final String NOTES = "notes";
+    private static final String ASSESSMENT = "assessment";
+
     // Frontend credentials (seul autorisé à contacter le Gateway)
     @Value("${AUTH_USERNAME}")
     private String frontendUsername;
@@ -68,26 +90,50 @@ public class SecurityConfig {
     @Value("${mediscreen.auth.assessment.password}")
     private String assessmentPassword;
 
-    // URIs des microservices backend (variabilisées pour tests et environnements)
-    @Value("${mediscreen.services.patient.uri}")
-    private String patientServiceUri;
+    // Secrets des jetons de service signés (vide : Basic Auth vers le service)
+    @Value("${mediscreen.auth.patient.token-secret:}")
+    private String patientTokenSecret;
+
+    @Value("${mediscreen.auth.notes.token-secret:}")
+    private String notesTokenSecret;
+
+    @Value("${mediscreen.auth.assessment.token-secret:}")
+    private String assessmentTokenSecret;
+
+    @Value("${mediscreen.service-token.ttl:60s}")
+    private Duration serviceTokenTtl;
 
-    @Value("${mediscreen.services.notes.uri}")
-    private String notesServiceUri;
+    // Cache des credentials vérifiés et pool BCrypt borné
+    @Value("${mediscreen.security.auth-cache.enabled:true}")
+    private boolean authCacheEnabled;
 
-    @Value("${mediscreen.services.assessment.uri}")
-    private String assessmentServiceUri;
+    @Value("${mediscreen.security.auth-cache.ttl:60s}")
+    private Duration authCacheTtl;
+
+    @Value("${mediscreen.security.auth-cache.max-entries:10000}")
+    private int authCacheMaxEntries;
+
+    @Value("${mediscreen.security.bcrypt.threads:0}")
+    private int bcryptThreads;
+
+    @Value("${mediscreen.security.bcrypt.queue-size:1000}")
+    private int bcryptQueueSize;
 
     @Bean
-    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         CachingReactiveAuthenticationManager authenticationManager) {
         return http
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .authorizeExchange(exchanges -> exchanges
+                        // Opérations actuator en écriture (rechargement des credentials...) : authentifiées
+                        .pathMatchers(HttpMethod.POST, "/actuator/**").authenticated()
+                        // Compteurs de débit par nom d'utilisateur : authentifiés
+                        .pathMatchers("/actuator/ratelimits", "/actuator/ratelimits/**").authenticated()
                         .pathMatchers("/actuator/**", "/debug/**").permitAll()
                         .pathMatchers("/api/**").hasAnyRole("FRONTEND", "ASSESSMENT")
                         .anyExchange().authenticated()
                 )
-                .httpBasic(basic -> {})
+                .httpBasic(basic -> basic.authenticationManager(authenticationManager))
                 .build();
     }
     
@@ -110,6 +156,38 @@ public class SecurityConfig {
         return new MapReactiveUserDetailsService(frontendUser, assessmentUser);
     }
     
+    /**
+     * Authentification Basic avec cache des credentials vérifiés
+     *
+     * FONCTIONNEMENT :
+     * - Credentials déjà vérifiés (HMAC en cache, TTL court) : aucun BCrypt
+     * - Sinon BCrypt sur le pool borné passwordVerificationScheduler, jamais sur l'event loop Netty
+     */
+    @Bean
+    public CachingReactiveAuthenticationManager authenticationManager(
+            MapReactiveUserDetailsService userDetailsService, Scheduler passwordVerificationScheduler) {
+        UserDetailsRepositoryReactiveAuthenticationManager bcryptManager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        bcryptManager.setPasswordEncoder(passwordEncoder());
+        bcryptManager.setScheduler(passwordVerificationScheduler);
+
+        CachingReactiveAuthenticationManager manager =
+                new CachingReactiveAuthenticationManager(bcryptManager, authCacheTtl, authCacheMaxEntries);
+        manager.setEnabled(authCacheEnabled);
+        return manager;
+    }
+
+    /**
+     * Pool dédié aux vérifications BCrypt (calcul pur) : un thread par cœur par défaut,
+     * file d'attente bornée pour qu'une rafale ne sature pas la mémoire
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler passwordVerificationScheduler() {
+        int threads = bcryptThreads > 0 ? bcryptThreads : Runtime.getRuntime().availableProcessors();
+        logger.info("Vérifications BCrypt sur {} threads (file de {} tâches)", threads, bcryptQueueSize);
+        return Schedulers.newBoundedElastic(threads, bcryptQueueSize, "gateway-bcrypt");
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -123,92 +201,123 @@ public class SecurityConfig {
      * - Route /api/v1/patients/** → Patient Service avec credentials spécifiques patient
      * - Route /api/v1/notes/** → Notes Service avec credentials spécifiques notes
      * - Route /api/v1/assess/** → Assessment Service avec credentials spécifiques assessment
-     * - Injection automatique des bons credentials Basic Auth par route
+     * - Injection automatique du header Authorization précalculé du service par route
+     * - GET patient par id et notes par patient servis depuis le cache Gateway (voir ResponseCacheConfig)
+     * - Réponses textuelles compressées en gzip si le client l'accepte (voir CompressionConfig)
+     * - GET identiques simultanés mutualisés : un seul appel backend, réponse partagée
+     *   (voir CoalescingConfig)
+     * - Disjoncteur par route et budget de latence (response-timeout) : backend en échec ou trop
+     *   lent isolé, GET servis avec la dernière réponse connue (voir ResilienceConfig)
+     * - Limite de concurrence adaptative par route : surplus rejeté immédiatement en 503
+     * - Limitation de débit par client authentifié et par route, avant tout autre filtre (voir RateLimitConfig)
+     * - Plusieurs répliques par service : instance choisie par requête (deux candidates au hasard,
+     *   la moins chargée), répliques en échec répété évincées temporairement (voir LoadBalancerConfig)
+     * - Traitements de masse patient (import, export, doublons) : route dédiée prioritaire,
+     *   hors disjoncteur et sans budget de latence (durées de traitement de plusieurs minutes)
      */
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder, DownstreamAuthHeaders downstreamAuthHeaders,
+                                           GatewayResponseCache gatewayResponseCache,
+                                           RouteCircuitBreakers routeCircuitBreakers,
+                                           GatewayRateLimiter gatewayRateLimiter,
+                                           RouteConcurrencyLimits routeConcurrencyLimits,
+                                           GatewayLoadBalancer gatewayLoadBalancer,
+                                           RequestCoalescer requestCoalescer,
+                                           GatewayCompression gatewayCompression) {
         return builder.routes()
+                // Route Patient Service des traitements de masse, sans budget de latence
+                .route("patient-bulk-route", r -> r
+                        .order(-1)
+                        .path("/api/v1/patients/import", "/api/v1/patients/export", "/api/v1/patients/duplicates")
+                        .filters(f -> f
+                                .filter(gatewayRateLimiter.filter(PATIENT))
+                                .filter(gatewayCompression.filter(PATIENT))
+                                .filter(downstreamAuthHeaders.filter(PATIENT))
+                                .filter(gatewayLoadBalancer.filter(PATIENT)))
+                        .uri(gatewayLoadBalancer.routeUri(PATIENT))
+                )
                 // Route Patient Service avec injection automatique credentials patient
                 .route("patient-service-route", r -> r
                         .path("/api/v1/patients/**")
-                        .filters(f -> f.filter(addPatientAuthHeader()))
-                        .uri(patientServiceUri)
+                        .filters(f -> f
+                                .filter(gatewayRateLimiter.filter(PATIENT))
+                                .filter(gatewayCompression.filter(PATIENT))
+                                .filter(gatewayResponseCache.filter(PATIENT))
+                                .filter(requestCoalescer.filter(PATIENT))
+                                .filter(routeCircuitBreakers.filter(PATIENT))
+                                .filter(routeConcurrencyLimits.filter(PATIENT))
+                                .filter(downstreamAuthHeaders.filter(PATIENT))
+                                .filter(gatewayLoadBalancer.filter(PATIENT)))
+                        .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, routeCircuitBreakers.latencyBudgetMillis(PATIENT))
+                        .metadata(RouteMetadataUtils.CONNECT_TIMEOUT_ATTR, routeCircuitBreakers.latencyBudgetMillis(PATIENT))
+                        .uri(gatewayLoadBalancer.routeUri(PATIENT))
                 )
                 // Route Notes Service avec injection automatique credentials notes
                 .route("notes-service-route", r -> r
                         .path("/api/v1/notes/**")
-                        .filters(f -> f.filter(addNotesAuthHeader()))
-                        .uri(notesServiceUri)
+                        .filters(f -> f
+                                .filter(gatewayRateLimiter.filter(NOTES))
+                                .filter(gatewayCompression.filter(NOTES))
+                                .filter(gatewayResponseCache.filter(NOTES))
+                                .filter(requestCoalescer.filter(NOTES))
+                                .filter(routeCircuitBreakers.filter(NOTES))
+                                .filter(routeConcurrencyLimits.filter(NOTES))
+                                .filter(downstreamAuthHeaders.filter(NOTES))
+                                .filter(gatewayLoadBalancer.filter(NOTES)))
+                        .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, routeCircuitBreakers.latencyBudgetMillis(NOTES))
+                        .metadata(RouteMetadataUtils.CONNECT_TIMEOUT_ATTR, routeCircuitBreakers.latencyBudgetMillis(NOTES))
+                        .uri(gatewayLoadBalancer.routeUri(NOTES))
                 )
                 // Route Assessment Service avec injection automatique credentials assessment
                 .route("assessment-service-route", r -> r
                         .path("/api/v1/assess/**")
-                        .filters(f -> f.filter(addAssessmentAuthHeader()))
-                        .uri(assessmentServiceUri)
+                        .filters(f -> f
+                                .filter(gatewayRateLimiter.filter(ASSESSMENT))
+                                .filter(gatewayCompression.filter(ASSESSMENT))
+                                .filter(requestCoalescer.filter(ASSESSMENT))
+                                .filter(routeCircuitBreakers.filter(ASSESSMENT))
+                                .filter(routeConcurrencyLimits.filter(ASSESSMENT))
+                                .filter(downstreamAuthHeaders.filter(ASSESSMENT))
+                                .filter(gatewayLoadBalancer.filter(ASSESSMENT)))
+                        .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, routeCircuitBreakers.latencyBudgetMillis(ASSESSMENT))
+                        .metadata(RouteMetadataUtils.CONNECT_TIMEOUT_ATTR, routeCircuitBreakers.latencyBudgetMillis(ASSESSMENT))
+                        .uri(gatewayLoadBalancer.routeUri(ASSESSMENT))
                 )
                 .build();
     }
 
     /**
-     * Filtre d'injection automatique des credentials Patient Service
+     * Headers Authorization backend précalculés (Basic ou jeton signé), remplaçables à chaud
      *
      * PRINCIPE :
-     * - Intercepte toutes les requêtes vers /api/v1/patients/**
-     * - Remplace le header Authorization du Frontend par les credentials Patient Service
+     * - Remplace le header Authorization du Frontend par celui du service ciblé
      * - Permet l'isolation des tokens : Frontend ne connaît pas les credentials des microservices
+     * - Valeurs initiales issues des variables d'environnement, rotation via le fichier surveillé
      */
-    private GatewayFilter addPatientAuthHeader() {
-        return (exchange, chain) -> {
-            String credentials = patientUsername + ":" + patientPassword;
-            String authHeader = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes());
-
-            return chain.filter(exchange.mutate()
-                    .request(exchange.getRequest().mutate()
-                            .header(HttpHeaders.AUTHORIZATION, authHeader)
-                            .build())
-                    .build());
-        };
+    @Bean
+    public DownstreamAuthHeaders downstreamAuthHeaders() {
+        DownstreamAuthHeaders authHeaders = new DownstreamAuthHeaders(serviceTokenTtl);
+        authHeaders.update(PATIENT, new BackendCredentials(patientUsername, patientPassword, patientTokenSecret));
+        authHeaders.update(NOTES, new BackendCredentials(notesUsername, notesPassword, notesTokenSecret));
+        authHeaders.update(ASSESSMENT, new BackendCredentials(assessmentUsername, assessmentPassword, assessmentTokenSecret));
+        return authHeaders;
     }
 
     /**
-     * Filtre d'injection automatique des credentials Notes Service
-     *
-     * PRINCIPE :
-     * - Intercepte toutes les requêtes vers /api/v1/notes/**
-     * - Remplace le header Authorization du Frontend par les credentials Notes Service
-     * - Permet l'isolation des tokens : Frontend ne connaît pas les credentials des microservices
+     * Surveillance du fichier de rotation des credentials backend (si configuré)
      */
-    private GatewayFilter addNotesAuthHeader() {
-        return (exchange, chain) -> {
-            String credentials = notesUsername + ":" + notesPassword;
-            String authHeader = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes());
-
-            return chain.filter(exchange.mutate()
-                    .request(exchange.getRequest().mutate()
-                            .header(HttpHeaders.AUTHORIZATION, authHeader)
-                            .build())
-                    .build());
-        };
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(name = "mediscreen.auth.credentials-file")
+    public DownstreamCredentialsWatcher downstreamCredentialsWatcher(
+            DownstreamAuthHeaders downstreamAuthHeaders,
+            @Value("${mediscreen.auth.credentials-file}") Path credentialsFile,
+            @Value("${mediscreen.auth.credentials-poll-interval:10s}") Duration pollInterval) {
+        return new DownstreamCredentialsWatcher(downstreamAuthHeaders, credentialsFile, pollInterval);
     }
 
-    /**
-     * Filtre d'injection automatique des credentials Assessment Service
-     *
-     * PRINCIPE :
-     * - Intercepte toutes les requêtes vers /api/v1/assess/**
-     * - Remplace le header Authorization du Frontend par les credentials Assessment Service
-     * - Permet l'isolation des tokens : Frontend ne connaît pas les credentials des microservices
-     */
-    private GatewayFilter addAssessmentAuthHeader() {
-        return (exchange, chain) -> {
-            String credentials = assessmentUsername + ":" + assessmentPassword;
-            String authHeader = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes());
-
-            return chain.filter(exchange.mutate()
-                    .request(exchange.getRequest().mutate()
-                            .header(HttpHeaders.AUTHORIZATION, authHeader)
-                            .build())
-                    .build());
-        };
+    @Bean
+    public DownstreamAuthEndpoint downstreamAuthEndpoint(DownstreamAuthHeaders downstreamAuthHeaders,
+                                                         ObjectProvider<DownstreamCredentialsWatcher> watcher) {
+        return new DownstreamAuthEndpoint(downstreamAuthHeaders, watcher);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.mediscreen.gateway.config;
+
+import com.mediscreen.gateway.loadbalancer.GatewayLoadBalancer;
+import com.mediscreen.gateway.loadbalancer.UpstreamHttpClientFactory;
+import com.mediscreen.gateway.loadbalancer.UpstreamProtocol;
+import com.mediscreen.gateway.metrics.UpstreamPoolMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Configuration du client HTTP de la Gateway vers les backends
+ *
+ * h2c (HTTP/2 en clair) optionnel : les requêtes simultanées vers une réplique partagent
+ * quelques connexions au lieu d'en ouvrir une par requête ; à n'activer qu'une fois tous
+ * les backends démarrés avec SERVER_H2C_ENABLED=true.
+ */
+@Configuration
+public class UpstreamHttpConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamHttpConfig.class);
+
+    @Value("${mediscreen.gateway-upstream.protocol:http11}")
+    private UpstreamProtocol protocol;
+
+    @Value("${mediscreen.gateway-upstream.h2c.max-connections:4}")
+    private int h2cMaxConnections;
+
+    /**
+     * @param gatewayLoadBalancer résolu à la première connexion : le répartiteur dépend
+     *                            lui-même du client HTTP via le filtre de routage
+     */
+    @Bean
+    public UpstreamPoolMetrics upstreamPoolMetrics(MeterRegistry meterRegistry,
+                                                   ObjectProvider<GatewayLoadBalancer> gatewayLoadBalancer) {
+        return new UpstreamPoolMetrics(meterRegistry, instance -> gatewayLoadBalancer.getObject().routeOf(instance),
+                protocol == UpstreamProtocol.H2C);
+    }
+
+    /**
+     * Remplace la fabrique par défaut de Spring Cloud Gateway (conditionnelle à son absence)
+     */
+    @Bean
+    public HttpClientFactory upstreamHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+                                                       HttpClientSslConfigurer sslConfigurer,
+                                                       List<HttpClientCustomizer> customizers,
+                                                       UpstreamPoolMetrics upstreamPoolMetrics) {
+        if (protocol == UpstreamProtocol.H2C) {
+            logger.info("Client HTTP amont : h2c, {} connexion(s) au plus par réplique", h2cMaxConnections);
+        } else {
+            logger.info("Client HTTP amont : HTTP/1.1, pool de connexions {}", properties.getPool().getType());
+        }
+        return new UpstreamHttpClientFactory(properties, serverProperties, sslConfigurer, customizers,
+                protocol, h2cMaxConnections, upstreamPoolMetrics);
+    }
+}
@@ -0,0 +1,132 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instance backend d'une route (une réplique d'un service)
+ *
+ * État tenu par la Gateway seule, sans serveur de découverte : appels en cours,
+ * échecs consécutifs observés et éviction temporaire (santé passive).
+ */
+public class BackendInstance {
+
+    /**
+     * Attribut d'échange portant l'instance choisie pour la requête
+     */
+    public static final String EXCHANGE_ATTR = BackendInstance.class.getName();
+
+    private final URI uri;
+    private final String id;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder ejections = new LongAdder();
+
+    // Fin d'éviction (System.nanoTime), significative seulement si ejected
+    private volatile boolean ejected;
+    private volatile long ejectedUntilNanos;
+    // Évictions successives sans succès intermédiaire : durée d'éviction doublée à chaque fois
+    private volatile int consecutiveEjections;
+
+    public BackendInstance(URI uri) {
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            throw new IllegalArgumentException("URI d'instance backend invalide : " + uri);
+        }
+        this.uri = uri;
+        this.id = uri.getHost() + ":" + uri.getPort();
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    /**
+     * Identifiant court (host:port), utilisé dans les métriques
+     */
+    public String getId() {
+        return id;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getEjections() {
+        return ejections.sum();
+    }
+
+    /**
+     * Instance évincée à l'instant donné (l'éviction expire d'elle-même)
+     */
+    public boolean isEjected(long nowNanos) {
+        return ejected && nowNanos - ejectedUntilNanos < 0;
+    }
+
+    public long ejectedForSeconds(long nowNanos) {
+        return isEjected(nowNanos) ? Math.max(1, (ejectedUntilNanos - nowNanos + 999_999_999L) / 1_000_000_000L) : 0;
+    }
+
+    void acquire() {
+        outstanding.incrementAndGet();
+        requests.increment();
+    }
+
+    void release() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * Succès : remet les séries d'échecs et d'évictions à zéro (écritures évitées si déjà nulles,
+     * chemin de chaque requête)
+     */
+    void onSuccess() {
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+        if (consecutiveEjections != 0) {
+            consecutiveEjections = 0;
+        }
+    }
+
+    /**
+     * @return nombre d'échecs consécutifs, échec compris
+     */
+    int onFailure() {
+        failures.increment();
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    /**
+     * Évince l'instance (sans effet si elle l'est déjà)
+     *
+     * @return true si l'instance vient d'être évincée
+     */
+    synchronized boolean eject(long nowNanos, long baseNanos, long maxNanos) {
+        if (isEjected(nowNanos)) {
+            return false;
+        }
+        long duration = Math.min(maxNanos, baseNanos << Math.min(consecutiveEjections, 20));
+        consecutiveEjections++;
+        ejectedUntilNanos = nowNanos + duration;
+        ejected = true;
+        // Retour en service : une nouvelle série d'échecs est nécessaire pour une nouvelle éviction
+        consecutiveFailures.set(0);
+        ejections.increment();
+        return true;
+    }
+}
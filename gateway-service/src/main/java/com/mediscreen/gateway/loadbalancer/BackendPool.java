@@ -0,0 +1,180 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Répliques d'un service backend et choix de l'instance par requête
+ *
+ * PRINCIPE :
+ * - Liste statique d'instances (configuration), aucune dépendance à un serveur de découverte
+ * - Choix « power of two choices » : deux instances saines tirées au hasard, celle qui a le
+ *   moins d'appels en cours l'emporte ; évite le troupeau qu'un « moins chargé global »
+ *   provoque quand tous les choix se font sur la même photo de la charge
+ * - Santé passive : après N échecs consécutifs (erreur de connexion, timeout, 5xx),
+ *   l'instance est évincée pendant une durée qui double à chaque éviction successive
+ *   (bornée), puis réintégrée sans sonde ; un succès remet les compteurs à zéro
+ * - Jamais d'éviction de la dernière instance saine ; si toutes le sont malgré tout
+ *   (expirations croisées), le choix se fait parmi toutes les instances (mode panique)
+ */
+public class BackendPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackendPool.class);
+
+    private final String route;
+    private final List<BackendInstance> instances;
+    private final int consecutiveFailures;
+    private final long baseEjectionNanos;
+    private final long maxEjectionNanos;
+    private final LongAdder panics = new LongAdder();
+
+    public BackendPool(String route, List<URI> uris, int consecutiveFailures,
+                       Duration baseEjectionTime, Duration maxEjectionTime) {
+        if (uris.isEmpty()) {
+            throw new IllegalArgumentException("Aucune instance backend configurée pour la route " + route);
+        }
+        if (consecutiveFailures <= 0) {
+            throw new IllegalArgumentException("Nombre d'échecs consécutifs avant éviction invalide : " + consecutiveFailures);
+        }
+        this.route = route;
+        this.instances = uris.stream().map(BackendInstance::new).toList();
+        this.consecutiveFailures = consecutiveFailures;
+        this.baseEjectionNanos = baseEjectionTime.toNanos();
+        this.maxEjectionNanos = Math.max(baseEjectionNanos, maxEjectionTime.toNanos());
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public List<BackendInstance> getInstances() {
+        return instances;
+    }
+
+    /**
+     * Première instance configurée, URI déclarée de la route Gateway
+     */
+    public URI primaryUri() {
+        return instances.get(0).getUri();
+    }
+
+    public long getPanics() {
+        return panics.sum();
+    }
+
+    public int healthyCount(long nowNanos) {
+        int healthy = 0;
+        for (BackendInstance instance : instances) {
+            if (!instance.isEjected(nowNanos)) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    /**
+     * Choisit l'instance d'une requête (appel en cours compté jusqu'à release)
+     */
+    public BackendInstance choose(long nowNanos) {
+        BackendInstance chosen = select(nowNanos);
+        chosen.acquire();
+        return chosen;
+    }
+
+    /**
+     * Choisit l'instance d'une clé d'affinité sur l'anneau (choix par défaut si aucune instance saine)
+     */
+    public BackendInstance choose(long key, ConsistentHashRing ring, long nowNanos) {
+        BackendInstance chosen = ring.select(key, nowNanos);
+        if (chosen == null) {
+            chosen = select(nowNanos);
+        }
+        chosen.acquire();
+        return chosen;
+    }
+
+    /**
+     * Autre instance saine que celle donnée, la moins chargée ; null s'il n'y en a pas
+     * (requête couverte vers une seconde réplique)
+     */
+    public BackendInstance chooseOther(BackendInstance excluded, long nowNanos) {
+        int size = instances.size();
+        int start = ThreadLocalRandom.current().nextInt(size);
+        BackendInstance best = null;
+        for (int i = 0; i < size; i++) {
+            BackendInstance candidate = instances.get((start + i) % size);
+            if (candidate != excluded && !candidate.isEjected(nowNanos)
+                    && (best == null || candidate.getOutstanding() < best.getOutstanding())) {
+                best = candidate;
+            }
+        }
+        if (best != null) {
+            best.acquire();
+        }
+        return best;
+    }
+
+    private BackendInstance select(long nowNanos) {
+        int size = instances.size();
+        if (size == 1) {
+            return instances.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int firstIndex = random.nextInt(size);
+        BackendInstance first = instances.get(firstIndex);
+        BackendInstance second = instances.get((firstIndex + 1 + random.nextInt(size - 1)) % size);
+        boolean firstHealthy = !first.isEjected(nowNanos);
+        boolean secondHealthy = !second.isEjected(nowNanos);
+        if (firstHealthy && secondHealthy) {
+            return leastOutstanding(first, second);
+        }
+        if (firstHealthy || secondHealthy) {
+            return firstHealthy ? first : second;
+        }
+        // Deux instances évincées tirées : première instance saine suivante
+        for (int i = 1; i < size; i++) {
+            BackendInstance candidate = instances.get((firstIndex + i) % size);
+            if (!candidate.isEjected(nowNanos)) {
+                return candidate;
+            }
+        }
+        panics.increment();
+        return leastOutstanding(first, second);
+    }
+
+    private static BackendInstance leastOutstanding(BackendInstance first, BackendInstance second) {
+        return second.getOutstanding() < first.getOutstanding() ? second : first;
+    }
+
+    public void release(BackendInstance instance) {
+        instance.release();
+    }
+
+    public void onSuccess(BackendInstance instance) {
+        instance.onSuccess();
+    }
+
+    /**
+     * Échec d'un appel : évince l'instance au seuil d'échecs consécutifs, sauf si c'est la dernière saine
+     */
+    public void onFailure(BackendInstance instance, long nowNanos) {
+        if (instance.onFailure() < consecutiveFailures || instances.size() == 1) {
+            return;
+        }
+        synchronized (this) {
+            if (instance.isEjected(nowNanos) || healthyCount(nowNanos) <= 1) {
+                return;
+            }
+            if (instance.eject(nowNanos, baseEjectionNanos, maxEjectionNanos)) {
+                logger.warn("Instance {} de la route {} évincée pour {}s après {} échecs consécutifs",
+                        instance.getId(), route, instance.ejectedForSeconds(nowNanos), consecutiveFailures);
+            }
+        }
+    }
+}
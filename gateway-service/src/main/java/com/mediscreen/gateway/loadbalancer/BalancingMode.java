@@ -0,0 +1,18 @@
+package com.mediscreen.gateway.loadbalancer;
+
+/**
+ * Mode de choix de la réplique d'une route
+ */
+public enum BalancingMode {
+
+    /**
+     * Deux instances saines au hasard, la moins chargée (appels en cours)
+     */
+    LEAST_OUTSTANDING,
+
+    /**
+     * Instance propriétaire de l'identifiant patient sur l'anneau de hachage cohérent
+     * (charge bornée), choix par charge pour les chemins sans identifiant
+     */
+    PATIENT_HASH
+}
@@ -0,0 +1,119 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Anneau de hachage cohérent à charge bornée sur les instances d'une route
+ *
+ * PRINCIPE :
+ * - Chaque instance occupe V points de l'anneau (nœuds virtuels) calculés depuis son
+ *   host:port : toutes les Gateway construisent le même anneau, sans coordination
+ * - Une clé (identifiant patient) va à la première instance rencontrée dans le sens horaire ;
+ *   une instance évincée est simplement sautée, seules ses clés changent de propriétaire
+ *   et elles reviennent à l'identique quand elle est réintégrée
+ * - Charge bornée : une instance ne prend une requête que si ses appels en cours restent sous
+ *   ⌈c × (total en cours + 1) / instances saines⌉ ; sinon la clé déborde sur l'instance suivante
+ *   de l'anneau (patient « chaud » réparti au lieu de saturer une réplique) ; borne jamais
+ *   inférieure à MIN_CAPACITY, sans quoi un seul appel en cours suffirait à déporter les
+ *   patients d'une réplique quand le trafic est faible
+ *
+ * Anneau figé à la construction (tableaux triés, recherche dichotomique), lecture sans verrou.
+ */
+public class ConsistentHashRing {
+
+    static final int MIN_CAPACITY = 4;
+
+    private final List<BackendInstance> instances;
+    private final long[] points;
+    private final int[] owners;
+    private final double loadFactor;
+
+    public ConsistentHashRing(List<BackendInstance> instances, int virtualNodes, double loadFactor) {
+        if (virtualNodes <= 0 || loadFactor < 1) {
+            throw new IllegalArgumentException("Anneau invalide : nœuds virtuels > 0 et facteur de charge >= 1 attendus");
+        }
+        this.instances = List.copyOf(instances);
+        this.loadFactor = loadFactor;
+
+        int size = instances.size() * virtualNodes;
+        long[][] entries = new long[size][];
+        for (int i = 0; i < instances.size(); i++) {
+            long base = (long) instances.get(i).getId().hashCode() << 32;
+            for (int v = 0; v < virtualNodes; v++) {
+                entries[i * virtualNodes + v] = new long[]{mix(base | v), i};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+        this.points = new long[size];
+        this.owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = entries[i][0];
+            owners[i] = (int) entries[i][1];
+        }
+    }
+
+    /**
+     * Propriétaire de la clé sur l'anneau complet, sans tenir compte de la santé ni de la charge
+     */
+    public BackendInstance owner(long key) {
+        return instances.get(owners[start(key)]);
+    }
+
+    /**
+     * Instance saine sous la borne de charge la plus proche de la clé, null si aucune
+     * (toutes évincées) : l'appelant se rabat alors sur son choix par défaut
+     */
+    public BackendInstance select(long key, long nowNanos) {
+        int healthy = 0;
+        long outstanding = 0;
+        for (BackendInstance instance : instances) {
+            if (!instance.isEjected(nowNanos)) {
+                healthy++;
+                outstanding += instance.getOutstanding();
+            }
+        }
+        if (healthy == 0) {
+            return null;
+        }
+        long capacity = Math.max(MIN_CAPACITY, (long) Math.ceil(loadFactor * (outstanding + 1) / healthy));
+
+        int index = start(key);
+        BackendInstance fallback = null;
+        for (int i = 0; i < points.length; i++) {
+            BackendInstance candidate = instances.get(owners[(index + i) % points.length]);
+            if (candidate.isEjected(nowNanos)) {
+                continue;
+            }
+            if (candidate.getOutstanding() < capacity) {
+                return candidate;
+            }
+            if (fallback == null) {
+                fallback = candidate;
+            }
+        }
+        // Charge mesurée pendant le parcours (valeurs concurrentes) : première instance saine
+        return fallback;
+    }
+
+    private int start(long key) {
+        int index = Arrays.binarySearch(points, mix(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index == points.length ? 0 : index;
+    }
+
+    /**
+     * Mélange 64 bits (finaliseur MurmurHash3) : identifiants consécutifs répartis sur tout l'anneau
+     */
+    static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
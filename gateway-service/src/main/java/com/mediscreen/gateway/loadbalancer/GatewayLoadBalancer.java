@@ -0,0 +1,203 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Répartition de charge des routes Gateway sur des listes statiques de répliques
+ *
+ * Filtre placé juste après RouteToRequestUrlFilter (même rang que le filtre de
+ * répartition Spring Cloud LoadBalancer), donc après cache, disjoncteur et limite de
+ * concurrence : seules les requêtes réellement transmises choisissent une instance.
+ *
+ * Métriques : gateway.backend.outstanding, gateway.backend.requests, gateway.backend.failures,
+ * gateway.backend.ejections, gateway.backend.ejected (par route et instance),
+ * gateway.backend.affinity (owner / spilled / unkeyed, routes à affinité patient),
+ * gateway.hedge.requests (launched / won / refused) et gateway.hedge.delay ;
+ * état via GET /actuator/backends.
+ */
+public class GatewayLoadBalancer implements MeterBinder {
+
+    public static final int FILTER_ORDER = RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 150;
+
+    private final GlobalFilter routingFilter;
+    private final Map<String, BackendPool> pools = new LinkedHashMap<>();
+    private final Map<String, PatientAffinity> affinities = new LinkedHashMap<>();
+    private final Map<String, RequestHedging> hedgings = new LinkedHashMap<>();
+
+    /**
+     * @param routingFilter filtre de routage Netty de la Gateway, rejoué par les GET couverts
+     */
+    public GatewayLoadBalancer(GlobalFilter routingFilter) {
+        this.routingFilter = routingFilter;
+    }
+
+    public GatewayLoadBalancer register(BackendPool pool) {
+        pools.put(pool.getRoute(), pool);
+        return this;
+    }
+
+    /**
+     * Enregistre une route dont les requêtes d'un même patient vont à la même réplique
+     */
+    public GatewayLoadBalancer register(BackendPool pool, PatientAffinity affinity) {
+        register(pool);
+        affinities.put(pool.getRoute(), affinity);
+        return this;
+    }
+
+    /**
+     * Active les GET couverts sur une route déjà enregistrée
+     */
+    public GatewayLoadBalancer hedge(String route, RequestHedging hedging) {
+        pool(route);
+        hedgings.put(route, hedging);
+        return this;
+    }
+
+    public GatewayFilter filter(String route) {
+        return new OrderedGatewayFilter(new LoadBalancerFilter(pool(route), affinities.get(route),
+                hedgings.get(route), routingFilter), FILTER_ORDER);
+    }
+
+    /**
+     * Politique de GET couverts de la route, null si la route n'en fait pas
+     */
+    public RequestHedging hedging(String route) {
+        return hedgings.get(route);
+    }
+
+    /**
+     * Affinité patient de la route, null si la route ne répartit que par charge
+     */
+    public PatientAffinity affinity(String route) {
+        return affinities.get(route);
+    }
+
+    /**
+     * URI déclarée de la route (première instance), remplacée par requête par le filtre
+     */
+    public URI routeUri(String route) {
+        return pool(route).primaryUri();
+    }
+
+    public BackendPool pool(String route) {
+        BackendPool pool = pools.get(route);
+        if (pool == null) {
+            throw new IllegalArgumentException("Aucune instance backend configurée pour la route " + route);
+        }
+        return pool;
+    }
+
+    /**
+     * Route servie par une instance (identifiant host:port), null si aucune ne la déclare
+     */
+    public String routeOf(String instanceId) {
+        for (BackendPool pool : pools.values()) {
+            for (BackendInstance instance : pool.getInstances()) {
+                if (instance.getId().equals(instanceId)) {
+                    return pool.getRoute();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * État des instances par route pour l'endpoint actuator
+     */
+    public Map<String, Object> status() {
+        long now = System.nanoTime();
+        Map<String, Object> status = new LinkedHashMap<>();
+        pools.forEach((route, pool) -> {
+            List<Map<String, Object>> instances = pool.getInstances().stream().map(instance -> {
+                Map<String, Object> values = new LinkedHashMap<>();
+                values.put("uri", instance.getUri().toString());
+                values.put("ejected", instance.isEjected(now));
+                values.put("ejectedForSeconds", instance.ejectedForSeconds(now));
+                values.put("outstanding", instance.getOutstanding());
+                values.put("consecutiveFailures", instance.getConsecutiveFailures());
+                values.put("requests", instance.getRequests());
+                values.put("failures", instance.getFailures());
+                values.put("ejections", instance.getEjections());
+                return values;
+            }).toList();
+            Map<String, Object> values = new LinkedHashMap<>();
+            PatientAffinity affinity = affinities.get(route);
+            values.put("mode", affinity == null ? "least-outstanding" : "patient-hash");
+            if (affinity != null) {
+                values.put("affinityOwnerRatio", affinity.ownerRatio());
+            }
+            RequestHedging hedging = hedgings.get(route);
+            if (hedging != null) {
+                values.put("hedgeDelayMillis", hedging.delayNanos() / 1_000_000);
+                values.put("hedgesLaunched", hedging.getLaunched());
+                values.put("hedgesWon", hedging.getWon());
+                values.put("hedgesRefused", hedging.getRefused());
+            }
+            values.put("healthy", pool.healthyCount(now));
+            values.put("panics", pool.getPanics());
+            values.put("instances", instances);
+            status.put(route, values);
+        });
+        return status;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        affinities.forEach((route, affinity) -> {
+            FunctionCounter.builder("gateway.backend.affinity", affinity.owner, LongAdder::sum)
+                    .description("Requêtes servies par l'instance propriétaire du patient")
+                    .tags("route", route, "result", "owner").register(registry);
+            FunctionCounter.builder("gateway.backend.affinity", affinity.spilled, LongAdder::sum)
+                    .description("Requêtes déportées : propriétaire évincé ou au-dessus de la borne de charge")
+                    .tags("route", route, "result", "spilled").register(registry);
+            FunctionCounter.builder("gateway.backend.affinity", affinity.unkeyed, LongAdder::sum)
+                    .description("Requêtes sans identifiant patient (choix par charge)")
+                    .tags("route", route, "result", "unkeyed").register(registry);
+        });
+        hedgings.forEach((route, hedging) -> {
+            FunctionCounter.builder("gateway.hedge.requests", hedging.launched, LongAdder::sum)
+                    .description("Requêtes couvertes envoyées à une seconde réplique")
+                    .tags("route", route, "result", "launched").register(registry);
+            FunctionCounter.builder("gateway.hedge.requests", hedging.won, LongAdder::sum)
+                    .description("Requêtes couvertes arrivées avant la tentative principale")
+                    .tags("route", route, "result", "won").register(registry);
+            FunctionCounter.builder("gateway.hedge.requests", hedging.refused, LongAdder::sum)
+                    .description("Requêtes couvertes non envoyées : budget épuisé")
+                    .tags("route", route, "result", "refused").register(registry);
+            Gauge.builder("gateway.hedge.delay", hedging, h -> h.delayNanos() / 1_000_000.0)
+                    .description("Délai courant avant requête couverte")
+                    .baseUnit("milliseconds")
+                    .tags("route", route).register(registry);
+        });
+        pools.forEach((route, pool) -> pool.getInstances().forEach(instance -> {
+            String id = instance.getId();
+            Gauge.builder("gateway.backend.outstanding", instance, BackendInstance::getOutstanding)
+                    .description("Appels en cours vers l'instance")
+                    .tags("route", route, "instance", id).register(registry);
+            FunctionCounter.builder("gateway.backend.requests", instance, BackendInstance::getRequests)
+                    .tags("route", route, "instance", id).register(registry);
+            FunctionCounter.builder("gateway.backend.failures", instance, BackendInstance::getFailures)
+                    .description("Erreurs de connexion, timeouts et 5xx de l'instance")
+                    .tags("route", route, "instance", id).register(registry);
+            FunctionCounter.builder("gateway.backend.ejections", instance, BackendInstance::getEjections)
+                    .tags("route", route, "instance", id).register(registry);
+            Gauge.builder("gateway.backend.ejected", instance, i -> i.isEjected(System.nanoTime()) ? 1 : 0)
+                    .description("1 si l'instance est évincée (santé passive)")
+                    .tags("route", route, "instance", id).register(registry);
+        }));
+    }
+}
@@ -0,0 +1,230 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+/**
+ * GET couvert : tentative principale, puis tentative vers une autre réplique après le délai
+ *
+ * FONCTIONNEMENT :
+ * - Chaque tentative passe par le filtre de routage Netty de la Gateway (mêmes headers,
+ *   mêmes timeouts) sur un échange privé : attributs, headers et statut de réponse propres
+ * - La première tentative dont le backend a répondu (headers reçus) est recopiée sur
+ *   l'échange réel ; son corps est ensuite transmis en flux par NettyWriteResponseFilter
+ * - Perdante annulée ; si ses headers sont arrivés en même temps, sa connexion est fermée
+ * - Temps de réponse enregistrés pour le percentile : celui de chaque tentative ayant répondu,
+ *   et pour une perdante annulée le temps écoulé à l'annulation (borne basse). Sans cela, les
+ *   réponses lentes que le hedging fait gagner disparaîtraient de la fenêtre et le délai
+ *   baisserait à chaque requête couverte
+ * - Échec d'une tentative : l'autre peut encore répondre ; erreur de la tentative
+ *   principale rendue si aucune ne répond
+ */
+final class HedgedRequest {
+
+    private final ServerWebExchange exchange;
+    private final URI requestUrl;
+    private final BackendPool pool;
+    private final RequestHedging hedging;
+    private final GlobalFilter routingFilter;
+    private final AtomicBoolean decided = new AtomicBoolean();
+
+    HedgedRequest(ServerWebExchange exchange, URI requestUrl, BackendPool pool, RequestHedging hedging,
+                  GlobalFilter routingFilter) {
+        this.exchange = exchange;
+        this.requestUrl = requestUrl;
+        this.pool = pool;
+        this.hedging = hedging;
+        this.routingFilter = routingFilter;
+    }
+
+    /**
+     * Envoie la requête et attend la première réponse backend
+     *
+     * @param primary instance de la tentative principale (appel en cours déjà compté)
+     * @return instance gagnante, réponse recopiée sur l'échange et marquée routée
+     */
+    Mono<BackendInstance> send(BackendInstance primary) {
+        Attempt first = new Attempt(primary, false);
+        Mono<Attempt> backup = Mono.delay(Duration.ofNanos(hedging.delayNanos()))
+                .flatMap(tick -> {
+                    if (decided.get() || !hedging.tryAcquire()) {
+                        return Mono.empty();
+                    }
+                    BackendInstance other = pool.chooseOther(primary, System.nanoTime());
+                    return other == null ? Mono.empty() : new Attempt(other, true).send();
+                });
+        return Mono.firstWithValue(first.send(), backup)
+                .onErrorMap(NoSuchElementException.class, error -> first.error != null ? first.error : error)
+                .map(winner -> {
+                    if (winner.hedge) {
+                        hedging.won.increment();
+                    }
+                    winner.applyTo(exchange);
+                    return winner.instance;
+                });
+    }
+
+    private final class Attempt {
+
+        private final BackendInstance instance;
+        private final boolean hedge;
+        private final AttemptExchange attemptExchange;
+        private volatile boolean won;
+        private volatile Throwable error;
+
+        private Attempt(BackendInstance instance, boolean hedge) {
+            this.instance = instance;
+            this.hedge = hedge;
+            this.attemptExchange = new AttemptExchange(exchange, LoadBalancerFilter.instanceUrl(requestUrl, instance), instance);
+        }
+
+        /**
+         * Tentative terminée à la réception des headers ; vide si une autre tentative l'a emporté
+         */
+        private Mono<Attempt> send() {
+            long start = System.nanoTime();
+            return routingFilter.filter(attemptExchange, routed -> Mono.empty())
+                    .then(Mono.fromSupplier(() -> this))
+                    .doOnNext(attempt -> hedging.recordLatency(System.nanoTime() - start))
+                    .doOnCancel(() -> hedging.recordLatency(System.nanoTime() - start))
+                    .filter(attempt -> {
+                        if (decided.compareAndSet(false, true)) {
+                            won = true;
+                            return true;
+                        }
+                        discard();
+                        return false;
+                    })
+                    .doOnError(failure -> {
+                        error = failure;
+                        pool.onFailure(instance, System.nanoTime());
+                    })
+                    .doFinally(signal -> {
+                        // Gagnante : appel en cours libéré par le filtre à la fin de l'échange réel
+                        if (!won) {
+                            pool.release(instance);
+                        }
+                    });
+        }
+
+        /**
+         * Réponse arrivée trop tard : statut pris en compte pour la santé passive, connexion fermée
+         */
+        private void discard() {
+            HttpClientResponse response = attemptExchange.getAttribute(CLIENT_RESPONSE_ATTR);
+            if (response != null && response.status().code() >= 500) {
+                pool.onFailure(instance, System.nanoTime());
+            } else if (response != null) {
+                pool.onSuccess(instance);
+            }
+            Connection connection = attemptExchange.getAttribute(CLIENT_RESPONSE_CONN_ATTR);
+            if (connection != null) {
+                connection.dispose();
+            }
+        }
+
+        private void applyTo(ServerWebExchange target) {
+            ServerHttpResponse response = target.getResponse();
+            HttpStatusCode status = attemptExchange.response.status;
+            if (status != null) {
+                response.setStatusCode(status);
+            }
+            response.getHeaders().addAll(attemptExchange.response.headers);
+            target.getAttributes().putAll(attemptExchange.attributes);
+        }
+    }
+
+    /**
+     * Échange privé d'une tentative : attributs copiés, requête sans corps (GET), réponse
+     * qui ne fait que recueillir statut et headers
+     */
+    private static final class AttemptExchange extends ServerWebExchangeDecorator {
+
+        private final Map<String, Object> attributes;
+        private final ServerHttpRequest request;
+        private final AttemptResponse response;
+
+        private AttemptExchange(ServerWebExchange delegate, URI instanceUrl, BackendInstance instance) {
+            super(delegate);
+            this.attributes = new ConcurrentHashMap<>(delegate.getAttributes());
+            attributes.put(GATEWAY_REQUEST_URL_ATTR, instanceUrl);
+            attributes.put(BackendInstance.EXCHANGE_ATTR, instance);
+            this.request = new ServerHttpRequestDecorator(delegate.getRequest()) {
+                @Override
+                public Flux<DataBuffer> getBody() {
+                    return Flux.empty();
+                }
+            };
+            this.response = new AttemptResponse(delegate.getResponse());
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public ServerHttpRequest getRequest() {
+            return request;
+        }
+
+        @Override
+        public ServerHttpResponse getResponse() {
+            return response;
+        }
+    }
+
+    private static final class AttemptResponse extends ServerHttpResponseDecorator {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private volatile HttpStatusCode status;
+
+        private AttemptResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public boolean setStatusCode(HttpStatusCode status) {
+            this.status = status;
+            return true;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status;
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return false;
+        }
+    }
+}
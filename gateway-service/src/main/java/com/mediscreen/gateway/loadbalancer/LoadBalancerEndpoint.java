@@ -0,0 +1,26 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/**
+ * Endpoint actuator des répliques backend
+ *
+ * - GET /actuator/backends : instances par route, appels en cours, échecs et évictions
+ */
+@Endpoint(id = "backends")
+public class LoadBalancerEndpoint {
+
+    private final GatewayLoadBalancer loadBalancer;
+
+    public LoadBalancerEndpoint(GatewayLoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return loadBalancer.status();
+    }
+}
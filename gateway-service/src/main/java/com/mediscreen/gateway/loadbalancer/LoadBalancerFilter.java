@@ -0,0 +1,111 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.net.URI;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+/**
+ * Filtre de répartition de charge d'une route
+ *
+ * FONCTIONNEMENT :
+ * - Route avec affinité patient : instance propriétaire de l'identifiant patient sur l'anneau
+ *   de hachage cohérent (charge bornée), choix par défaut pour les chemins sans identifiant
+ * - GET d'une route à requêtes couvertes : seconde tentative vers une autre réplique si la
+ *   première tarde (voir RequestHedging, HedgedRequest)
+ * - Remplace schéma, hôte et port de l'URL backend (déjà résolue par RouteToRequestUrlFilter)
+ *   par ceux de l'instance choisie ; chemin et paramètres inchangés
+ * - Résultat lu sur la réponse du backend lui-même (statut reçu par le client HTTP Gateway),
+ *   pas sur la réponse envoyée au client, qu'un filtre amont a pu remplacer
+ * - Appel en cours compté jusqu'à la fin de l'échange, corps compris
+ */
+class LoadBalancerFilter implements GatewayFilter {
+
+    private final BackendPool pool;
+    private final PatientAffinity affinity;
+    private final RequestHedging hedging;
+    private final GlobalFilter routingFilter;
+
+    /**
+     * @param affinity      affinité patient de la route, null pour le seul choix par charge
+     * @param hedging       politique de GET couverts, null si la route n'en fait pas
+     * @param routingFilter filtre de routage Netty de la Gateway, utilisé par les GET couverts
+     */
+    LoadBalancerFilter(BackendPool pool, PatientAffinity affinity, RequestHedging hedging, GlobalFilter routingFilter) {
+        this.pool = pool;
+        this.affinity = affinity;
+        this.hedging = hedging;
+        this.routingFilter = routingFilter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (requestUrl == null) {
+            return chain.filter(exchange);
+        }
+        BackendInstance instance = choose(exchange);
+        if (hedging != null && HttpMethod.GET.equals(exchange.getRequest().getMethod())
+                && pool.getInstances().size() > 1) {
+            hedging.onRequest();
+            // Échecs des tentatives comptés par chacune : seule la suite de la gagnante reste à suivre
+            return new HedgedRequest(exchange, requestUrl, pool, hedging, routingFilter).send(instance)
+                    .flatMap(winner -> forward(exchange, chain, winner));
+        }
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, instanceUrl(requestUrl, instance));
+        exchange.getAttributes().put(BackendInstance.EXCHANGE_ATTR, instance);
+        return forward(exchange, chain, instance);
+    }
+
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, BackendInstance instance) {
+        return chain.filter(exchange)
+                .doOnError(error -> pool.onFailure(instance, System.nanoTime()))
+                .doOnSuccess(done -> record(exchange, instance))
+                .doFinally(signal -> pool.release(instance));
+    }
+
+    /**
+     * URL backend de la requête sur une instance : schéma, hôte et port remplacés
+     */
+    static URI instanceUrl(URI requestUrl, BackendInstance instance) {
+        URI target = instance.getUri();
+        return UriComponentsBuilder.fromUri(requestUrl)
+                .scheme(target.getScheme())
+                .host(target.getHost())
+                .port(target.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    private BackendInstance choose(ServerWebExchange exchange) {
+        long now = System.nanoTime();
+        if (affinity == null) {
+            return pool.choose(now);
+        }
+        long patientId = affinity.patientId(exchange.getRequest().getPath().pathWithinApplication().value());
+        BackendInstance instance = patientId < 0 ? pool.choose(now) : pool.choose(patientId, affinity.getRing(), now);
+        affinity.record(patientId, instance);
+        return instance;
+    }
+
+    private void record(ServerWebExchange exchange, BackendInstance instance) {
+        HttpClientResponse response = exchange.getAttribute(CLIENT_RESPONSE_ATTR);
+        if (response == null) {
+            return;
+        }
+        if (response.status().code() >= 500) {
+            pool.onFailure(instance, System.nanoTime());
+        } else {
+            pool.onSuccess(instance);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Affinité patient d'une route : les requêtes d'un même patient vont à la même réplique
+ *
+ * Les caches locaux des backends (notes, évaluation de risque) ne sont efficaces que si
+ * le trafic d'un patient retombe sur l'instance qui l'a déjà chargé. L'identifiant patient
+ * est lu dans le chemin ; une requête sans identifiant (liste, création) garde le choix
+ * par défaut (deux instances au hasard, la moins chargée).
+ *
+ * Compteurs : owner (instance propriétaire sur l'anneau), spilled (propriétaire évincé ou
+ * au-dessus de la borne de charge), unkeyed (pas d'identifiant patient) ; owner / (owner +
+ * spilled) mesure l'affinité réellement obtenue.
+ */
+public class PatientAffinity {
+
+    private final Pattern patientPath;
+    private final ConsistentHashRing ring;
+    final LongAdder owner = new LongAdder();
+    final LongAdder spilled = new LongAdder();
+    final LongAdder unkeyed = new LongAdder();
+
+    /**
+     * @param patientPath chemins portant l'identifiant patient (groupe 1)
+     */
+    public PatientAffinity(Pattern patientPath, ConsistentHashRing ring) {
+        this.patientPath = patientPath;
+        this.ring = ring;
+    }
+
+    public ConsistentHashRing getRing() {
+        return ring;
+    }
+
+    /**
+     * Identifiant patient du chemin, -1 s'il n'en porte pas
+     */
+    public long patientId(String path) {
+        Matcher matcher = patientPath.matcher(path);
+        if (!matcher.matches()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(matcher.group(1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Part des requêtes avec identifiant servies par leur instance propriétaire
+     */
+    public double ownerRatio() {
+        long owned = owner.sum();
+        long total = owned + spilled.sum();
+        return total == 0 ? 1.0 : (double) owned / total;
+    }
+
+    void record(long patientId, BackendInstance chosen) {
+        if (patientId < 0) {
+            unkeyed.increment();
+        } else if (ring.owner(patientId) == chosen) {
+            owner.increment();
+        } else {
+            spilled.increment();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Politique de requêtes « couvertes » (hedging) des GET d'une route
+ *
+ * PRINCIPE :
+ * - Sans réponse du backend (headers) après un délai, une seconde requête identique part
+ *   vers une autre réplique ; la première réponse l'emporte, l'autre est annulée
+ * - Délai = percentile configuré (p95 par défaut) des temps de réponse récents, borné
+ *   par min-delay / max-delay : seules les requêtes anormalement lentes sont doublées
+ * - Budget : chaque GET crédite budget-percent % d'une requête supplémentaire, chaque
+ *   requête couverte en consomme une ; la surcharge reste plafonnée même si toute la
+ *   route ralentit (c'est alors le disjoncteur qui agit, pas le hedging)
+ *
+ * Percentile recalculé toutes les RECOMPUTE_EVERY mesures sur une fenêtre circulaire,
+ * jamais par requête ; max-delay s'applique tant que la fenêtre n'est pas remplie.
+ */
+public class RequestHedging {
+
+    static final int WINDOW = 1024;
+    static final int RECOMPUTE_EVERY = 64;
+    private static final long CREDIT_UNIT = 1000;
+    private static final long MAX_CREDIT = 10 * CREDIT_UNIT;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final long creditPerRequest;
+
+    private final long[] samples = new long[WINDOW];
+    private long sampleCount;
+    private volatile long delayNanos;
+    private final AtomicLong credit = new AtomicLong();
+
+    final LongAdder launched = new LongAdder();
+    final LongAdder won = new LongAdder();
+    final LongAdder refused = new LongAdder();
+
+    /**
+     * @param percentile    percentile des temps de réponse déclenchant la requête couverte (0.95)
+     * @param budgetPercent requêtes couvertes autorisées en % des GET de la route
+     */
+    public RequestHedging(double percentile, Duration minDelay, Duration maxDelay, double budgetPercent) {
+        if (percentile <= 0 || percentile >= 1 || budgetPercent < 0 || minDelay.compareTo(maxDelay) > 0) {
+            throw new IllegalArgumentException("Hedging invalide : percentile dans ]0, 1[, budget >= 0 et min-delay <= max-delay attendus");
+        }
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.creditPerRequest = Math.round(budgetPercent / 100 * CREDIT_UNIT);
+        this.delayNanos = maxDelayNanos;
+    }
+
+    /**
+     * Délai avant requête couverte
+     */
+    public long delayNanos() {
+        return delayNanos;
+    }
+
+    /**
+     * GET éligible reçu : alimente le budget
+     */
+    void onRequest() {
+        if (creditPerRequest > 0 && credit.get() < MAX_CREDIT) {
+            credit.accumulateAndGet(creditPerRequest, (current, add) -> Math.min(MAX_CREDIT, current + add));
+        }
+    }
+
+    /**
+     * Consomme une requête couverte du budget
+     *
+     * @return false si le budget est épuisé (pas de requête couverte)
+     */
+    boolean tryAcquire() {
+        long current;
+        do {
+            current = credit.get();
+            if (current < CREDIT_UNIT) {
+                refused.increment();
+                return false;
+            }
+        } while (!credit.compareAndSet(current, current - CREDIT_UNIT));
+        launched.increment();
+        return true;
+    }
+
+    /**
+     * Temps de réponse observé (headers reçus) d'une tentative, ou borne basse d'une
+     * tentative annulée avant sa réponse
+     */
+    synchronized void recordLatency(long nanos) {
+        samples[(int) (sampleCount % WINDOW)] = nanos;
+        sampleCount++;
+        if (sampleCount >= WINDOW && sampleCount % RECOMPUTE_EVERY == 0) {
+            long[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            long value = sorted[(int) Math.min(WINDOW - 1, Math.ceil(percentile * WINDOW) - 1)];
+            delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, value));
+        }
+    }
+
+    /**
+     * Temps enregistrés dans la fenêtre, du plus ancien au plus récent
+     */
+    synchronized long[] recentLatencies() {
+        int size = (int) Math.min(sampleCount, WINDOW);
+        long[] recent = new long[size];
+        for (int i = 0; i < size; i++) {
+            recent[i] = samples[(int) ((sampleCount - size + i) % WINDOW)];
+        }
+        return recent;
+    }
+
+    public long getLaunched() {
+        return launched.sum();
+    }
+
+    public long getWon() {
+        return won.sum();
+    }
+
+    public long getRefused() {
+        return refused.sum();
+    }
+}
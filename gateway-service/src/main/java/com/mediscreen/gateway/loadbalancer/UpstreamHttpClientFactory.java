@@ -0,0 +1,63 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+
+/**
+ * Client HTTP amont de la Gateway (remplace celui de Spring Cloud Gateway)
+ *
+ * FONCTIONNEMENT :
+ * - Configuration spring.cloud.gateway.httpclient.* et HttpClientCustomizer inchangés
+ * - Pool de connexions instrumenté par route et réplique (MeterRegistrar fourni), à la
+ *   place des métriques de pool reactor-netty par adresse seule
+ * - Protocole HTTP/1.1 ou h2c selon la configuration, commun à toutes les routes (aucune
+ *   route WebSocket, qui exigerait HTTP/1.1)
+ * - h2c : connexions bornées par réplique, les requêtes au-delà de leur capacité en flux
+ *   attendent ; sans borne, une rafale sur un pool vide ouvre une connexion par requête
+ *   avant que la première n'annonce sa capacité (SETTINGS)
+ */
+public class UpstreamHttpClientFactory extends HttpClientFactory {
+
+    private final UpstreamProtocol protocol;
+    private final int h2cMaxConnections;
+    private final ConnectionProvider.MeterRegistrar poolMetrics;
+
+    public UpstreamHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+                                     HttpClientSslConfigurer sslConfigurer, List<HttpClientCustomizer> customizers,
+                                     UpstreamProtocol protocol, int h2cMaxConnections,
+                                     ConnectionProvider.MeterRegistrar poolMetrics) {
+        super(properties, serverProperties, sslConfigurer, customizers);
+        this.protocol = protocol;
+        this.h2cMaxConnections = h2cMaxConnections;
+        this.poolMetrics = poolMetrics;
+    }
+
+    @Override
+    protected HttpClient createInstance() {
+        HttpClient httpClient = super.createInstance();
+        return protocol == UpstreamProtocol.H2C ? httpClient.protocol(HttpProtocol.H2C) : httpClient;
+    }
+
+    @Override
+    protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+        ConnectionProvider provider = super.buildConnectionProvider(properties);
+        ConnectionProvider.Builder builder = provider.mutate();
+        if (builder == null) {
+            // Pool désactivé (une connexion par requête) : rien à instrumenter
+            return provider;
+        }
+        provider.dispose();
+        if (protocol == UpstreamProtocol.H2C) {
+            builder.maxConnections(h2cMaxConnections);
+        }
+        return builder.metrics(true, () -> poolMetrics).build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.mediscreen.gateway.loadbalancer;
+
+/**
+ * Protocole des appels de la Gateway vers les répliques backend
+ */
+public enum UpstreamProtocol {
+
+    /**
+     * HTTP/1.1 : une requête par connexion à la fois, le pool ouvre une connexion par
+     * requête simultanée
+     */
+    HTTP11,
+
+    /**
+     * HTTP/2 en clair, sans négociation (prior knowledge) : requêtes simultanées multiplexées
+     * sur quelques connexions ; toutes les répliques doivent l'accepter (server.http2.enabled)
+     */
+    H2C
+}
@@ -0,0 +1,135 @@
+package com.mediscreen.gateway.metrics;
+
+import com.mediscreen.gateway.ratelimit.GatewayRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temps de réponse et débit par route Gateway
+ *
+ * PRINCIPE :
+ * - Un timer par route, méthode, classe de statut et réplique backend : débit (count),
+ *   latence (percentiles calculés côté Gateway) et histogramme sur les objectifs de latence
+ *   (SLO), agrégeable entre instances Gateway
+ * - Temps backend jusqu'aux headers de réponse mesuré séparément : distingue une Gateway
+ *   lente (filtres, file d'attente) d'un backend lent
+ * - Établissement des connexions amont mesuré par le client HTTP (reactor.netty.http.client.*)
+ *
+ * Métriques :
+ * - gateway.route.requests : route, method, status (2xx, 4xx... ou CANCELLED), instance
+ *   (réplique appelée, "none" sans appel backend : cache, mutualisation, rejet)
+ * - gateway.upstream.first-byte : route, instance ; requêtes couvertes (hedging) exclues,
+ *   leurs tentatives étant mesurées par gateway.hedge.*
+ */
+public class GatewayRouteMetrics {
+
+    /**
+     * Avant la limitation de débit : les rejets 429 et 503 sont comptés avec leur latence
+     */
+    public static final int REQUEST_FILTER_ORDER = GatewayRateLimiter.FILTER_ORDER - 1;
+
+    /**
+     * Juste avant le routage Netty : la chaîne restante se termine à la réception des headers backend
+     */
+    public static final int UPSTREAM_FILTER_ORDER = NettyRoutingFilter.ORDER - 1;
+
+    static final String NO_INSTANCE = "none";
+    static final String CANCELLED = "CANCELLED";
+
+    private static final Set<HttpMethod> KNOWN_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.POST,
+            HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE, HttpMethod.OPTIONS);
+
+    private final MeterRegistry registry;
+    private final double[] percentiles;
+    private final Duration[] slos;
+    private final Map<RequestTags, Timer> requestTimers = new ConcurrentHashMap<>();
+    private final Map<UpstreamTags, Timer> upstreamTimers = new ConcurrentHashMap<>();
+
+    public GatewayRouteMetrics(MeterRegistry registry, double[] percentiles, Duration[] slos) {
+        this.registry = registry;
+        this.percentiles = percentiles.clone();
+        this.slos = slos.clone();
+    }
+
+    public GlobalFilter requestFilter() {
+        return new RouteTimingFilter(this);
+    }
+
+    public GlobalFilter upstreamFilter() {
+        return new UpstreamTimingFilter(this);
+    }
+
+    void recordRequest(String route, HttpMethod method, String status, String instance, long nanos) {
+        RequestTags tags = new RequestTags(route, methodTag(method), status, instance);
+        requestTimers.computeIfAbsent(tags, key -> timer("gateway.route.requests",
+                        "Requêtes Gateway par route, méthode, classe de statut et réplique backend")
+                        .tags("route", key.route(), "method", key.method(), "status", key.status(),
+                                "instance", key.instance())
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordFirstByte(String route, String instance, long nanos) {
+        UpstreamTags tags = new UpstreamTags(route, instance);
+        upstreamTimers.computeIfAbsent(tags, key -> timer("gateway.upstream.first-byte",
+                        "Temps backend jusqu'à la réception des headers de réponse (connexion comprise)")
+                        .tags("route", key.route(), "instance", key.instance())
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer.Builder timer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentiles(percentiles)
+                .serviceLevelObjectives(slos);
+    }
+
+    /**
+     * Classe de statut (2xx, 3xx, 4xx, 5xx) : cardinalité bornée, suffisante pour les taux d'erreur
+     */
+    static String statusClass(HttpStatusCode status) {
+        return status == null ? "2xx" : status.value() / 100 + "xx";
+    }
+
+    /**
+     * Tag uri des métriques du client HTTP amont : trois premiers segments du chemin
+     * (/api/v1/patients), sans identifiant ni query
+     */
+    public static String uriTag(String uri) {
+        int end = 0;
+        for (int segments = 0; segments < 3; segments++) {
+            int next = uri.indexOf('/', end + 1);
+            if (next < 0) {
+                end = uri.length();
+                break;
+            }
+            end = next;
+        }
+        int query = uri.indexOf('?');
+        return uri.substring(0, query >= 0 && query < end ? query : end);
+    }
+
+    /**
+     * Méthodes non standard regroupées : une méthode arbitraire ne crée pas de série
+     */
+    private static String methodTag(HttpMethod method) {
+        return method != null && KNOWN_METHODS.contains(method) ? method.name() : "OTHER";
+    }
+
+    private record RequestTags(String route, String method, String status, String instance) {
+    }
+
+    private record UpstreamTags(String route, String instance) {
+    }
+}
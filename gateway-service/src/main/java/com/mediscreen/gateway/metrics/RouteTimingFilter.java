@@ -0,0 +1,64 @@
+package com.mediscreen.gateway.metrics;
+
+import com.mediscreen.gateway.loadbalancer.BackendInstance;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Filtre global de mesure des requêtes Gateway, de l'entrée dans la chaîne de la route à
+ * la fin de l'écriture de la réponse
+ *
+ * Une erreur non encore convertie en réponse (rejet de la limite de concurrence, délai
+ * backend dépassé) est comptée avec le statut que le gestionnaire d'erreurs renverra.
+ */
+class RouteTimingFilter implements GlobalFilter, Ordered {
+
+    private final GatewayRouteMetrics metrics;
+
+    RouteTimingFilter(GatewayRouteMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doOnSuccess(done -> record(exchange, start,
+                        GatewayRouteMetrics.statusClass(exchange.getResponse().getStatusCode())))
+                .doOnError(error -> record(exchange, start, GatewayRouteMetrics.statusClass(errorStatus(error))))
+                .doOnCancel(() -> record(exchange, start, GatewayRouteMetrics.CANCELLED));
+    }
+
+    @Override
+    public int getOrder() {
+        return GatewayRouteMetrics.REQUEST_FILTER_ORDER;
+    }
+
+    private void record(ServerWebExchange exchange, long start, String status) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        BackendInstance instance = exchange.getAttribute(BackendInstance.EXCHANGE_ATTR);
+        metrics.recordRequest(route == null ? "unknown" : route.getId(), exchange.getRequest().getMethod(), status,
+                instance == null ? GatewayRouteMetrics.NO_INSTANCE : instance.getId(), System.nanoTime() - start);
+    }
+
+    private static HttpStatusCode errorStatus(Throwable error) {
+        if (error instanceof ResponseStatusException statusException) {
+            return statusException.getStatusCode();
+        }
+        if (error instanceof TimeoutException) {
+            return HttpStatus.GATEWAY_TIMEOUT;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+}
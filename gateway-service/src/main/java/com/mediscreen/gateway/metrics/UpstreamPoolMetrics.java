@@ -0,0 +1,99 @@
+package com.mediscreen.gateway.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import reactor.netty.http.client.HttpConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Jauges des pools de connexions du client HTTP amont, par route et par réplique
+ *
+ * PRINCIPE :
+ * - Un pool par adresse de réplique, créé à la première connexion : reactor-netty appelle
+ *   registerMetrics à ce moment, deRegisterMetrics à sa fermeture
+ * - Route retrouvée à partir de l'adresse (host:port) parmi les instances déclarées ;
+ *   "none" pour une adresse hors répartition
+ * - HTTP/2 (h2c) : une connexion porte plusieurs requêtes, les flux actifs sont exposés
+ *   en plus des connexions pour mesurer le multiplexage ; reactor-netty double chaque pool
+ *   HTTP/2 d'un pool TCP sur la même adresse, ignoré (mêmes connexions)
+ *
+ * Métriques : gateway.upstream.connections (active / idle), gateway.upstream.connections.pending,
+ * gateway.upstream.connections.max, gateway.upstream.streams.active (HTTP/2 seulement).
+ */
+public class UpstreamPoolMetrics implements ConnectionProvider.MeterRegistrar {
+
+    private final MeterRegistry registry;
+    private final Function<String, String> routeOfInstance;
+    private final boolean http2;
+    private final Map<String, List<Meter>> meters = new ConcurrentHashMap<>();
+
+    /**
+     * @param routeOfInstance route d'une instance (host:port), null si inconnue ; résolue à la
+     *                        première connexion, après le démarrage du contexte
+     * @param http2           client amont en h2c
+     */
+    public UpstreamPoolMetrics(MeterRegistry registry, Function<String, String> routeOfInstance, boolean http2) {
+        this.registry = registry;
+        this.routeOfInstance = routeOfInstance;
+        this.http2 = http2;
+    }
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        if (http2 && !(metrics instanceof HttpConnectionPoolMetrics)) {
+            return;
+        }
+        String instance = instanceId(remoteAddress);
+        String route = routeOfInstance.apply(instance);
+        Tags tags = Tags.of("route", route != null ? route : GatewayRouteMetrics.NO_INSTANCE, "instance", instance);
+
+        List<Meter> registered = new ArrayList<>();
+        registered.add(Gauge.builder("gateway.upstream.connections", metrics, ConnectionPoolMetrics::acquiredSize)
+                .description("Connexions amont en cours d'utilisation")
+                .tags(tags).tag("state", "active").strongReference(true).register(registry));
+        registered.add(Gauge.builder("gateway.upstream.connections", metrics, ConnectionPoolMetrics::idleSize)
+                .description("Connexions amont ouvertes et libres")
+                .tags(tags).tag("state", "idle").strongReference(true).register(registry));
+        registered.add(Gauge.builder("gateway.upstream.connections.pending", metrics, ConnectionPoolMetrics::pendingAcquireSize)
+                .description("Requêtes en attente d'une connexion amont")
+                .tags(tags).strongReference(true).register(registry));
+        registered.add(Gauge.builder("gateway.upstream.connections.max", metrics, ConnectionPoolMetrics::maxAllocatedSize)
+                .description("Connexions amont autorisées par le pool")
+                .tags(tags).strongReference(true).register(registry));
+        if (metrics instanceof HttpConnectionPoolMetrics http2) {
+            registered.add(Gauge.builder("gateway.upstream.streams.active", http2, HttpConnectionPoolMetrics::activeStreamSize)
+                    .description("Requêtes HTTP/2 en cours, multiplexées sur les connexions actives")
+                    .tags(tags).strongReference(true).register(registry));
+        }
+        meters.put(poolName + "/" + id, registered);
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        List<Meter> registered = meters.remove(poolName + "/" + id);
+        if (registered != null) {
+            registered.forEach(registry::remove);
+        }
+    }
+
+    /**
+     * Identifiant host:port d'une adresse, comme BackendInstance.getId (nom d'hôte non résolu)
+     */
+    static String instanceId(SocketAddress remoteAddress) {
+        if (remoteAddress instanceof InetSocketAddress address) {
+            return address.getHostString() + ":" + address.getPort();
+        }
+        return String.valueOf(remoteAddress);
+    }
+}
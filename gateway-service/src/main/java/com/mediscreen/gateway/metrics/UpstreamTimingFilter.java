@@ -0,0 +1,49 @@
+package com.mediscreen.gateway.metrics;
+
+import com.mediscreen.gateway.loadbalancer.BackendInstance;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Filtre global de mesure du temps backend jusqu'aux headers de réponse
+ *
+ * Placé juste avant NettyRoutingFilter : la suite de la chaîne se termine dès les headers
+ * reçus, le corps étant transmis ensuite par NettyWriteResponseFilter. Les échecs
+ * (connexion refusée, délai dépassé) ne sont pas mesurés ici, gateway.route.requests les
+ * compte en 5xx.
+ */
+class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    private final GatewayRouteMetrics metrics;
+
+    UpstreamTimingFilter(GatewayRouteMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // Déjà routée : requête couverte, tentatives mesurées par gateway.hedge.*
+        if (ServerWebExchangeUtils.isAlreadyRouted(exchange)) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange).doOnSuccess(done -> {
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            BackendInstance instance = exchange.getAttribute(BackendInstance.EXCHANGE_ATTR);
+            metrics.recordFirstByte(route == null ? "unknown" : route.getId(),
+                    instance == null ? GatewayRouteMetrics.NO_INSTANCE : instance.getId(), System.nanoTime() - start);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return GatewayRouteMetrics.UPSTREAM_FILTER_ORDER;
+    }
+}
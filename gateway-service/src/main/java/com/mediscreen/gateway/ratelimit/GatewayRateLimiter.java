@@ -0,0 +1,239 @@
+package com.mediscreen.gateway.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limiteur de débit en mémoire du Gateway, par principal authentifié et par route
+ *
+ * PRINCIPE :
+ * - Un seau à jetons par couple (principal, route), créé au premier appel : une table
+ *   par route indexée par le nom du principal (aucune clé composite allouée par requête)
+ * - Décision sans verrou (un compareAndSet, voir TokenBucket), pas de Redis
+ * - Nombre de clés borné : au-delà de maxKeys, les seaux redevenus pleins sont oubliés
+ *
+ * Compteurs par route : gateway.ratelimit.requests{route, result=allowed|rejected}. Le détail
+ * par principal reste dans GET /actuator/ratelimits (authentifié) ; la série
+ * gateway.ratelimit.principal.requests{route, principal, result} n'est exportée que sur option
+ * (noms d'utilisateurs dans les métriques, cardinalité égale au nombre de clés).
+ */
+public class GatewayRateLimiter implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayRateLimiter.class);
+
+    /**
+     * Premier filtre de route : une requête refusée ne consomme ni cache, ni disjoncteur, ni backend
+     */
+    public static final int FILTER_ORDER = -10;
+
+    private final Map<String, RateLimitPolicy> policies = new LinkedHashMap<>();
+    private final Map<String, ConcurrentHashMap<String, KeyedBucket>> buckets = new LinkedHashMap<>();
+    private final Map<String, RouteCounters> routeCounters = new LinkedHashMap<>();
+    private final int maxKeys;
+    private final long originNanos = System.nanoTime();
+    private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+    private volatile boolean enabled = true;
+    private volatile boolean principalMetrics;
+
+    public GatewayRateLimiter(int maxKeys, List<RateLimitPolicy> routePolicies) {
+        this.maxKeys = maxKeys;
+        for (RateLimitPolicy policy : routePolicies) {
+            policies.put(policy.route(), policy);
+            buckets.put(policy.route(), new ConcurrentHashMap<>());
+            routeCounters.put(policy.route(), new RouteCounters());
+        }
+    }
+
+    public GatewayFilter filter(String route) {
+        if (!policies.containsKey(route)) {
+            throw new IllegalArgumentException("Aucune limite de débit configurée pour la route " + route);
+        }
+        return new OrderedGatewayFilter(new RateLimitFilter(this, route), FILTER_ORDER);
+    }
+
+    /**
+     * Consomme un jeton pour ce principal sur cette route
+     *
+     * @return 0 si la requête est acceptée, sinon le délai en nanosecondes avant le prochain jeton
+     */
+    public long tryAcquire(String route, String principal) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = now();
+        ConcurrentHashMap<String, KeyedBucket> routeBuckets = buckets.get(route);
+        KeyedBucket bucket = routeBuckets.get(principal);
+        if (bucket == null) {
+            bucket = createBucket(route, principal, routeBuckets, now);
+        }
+        long waitNanos = bucket.tryConsume(now);
+        (waitNanos == 0 ? bucket.routeTotals.allowed : bucket.routeTotals.rejected).increment();
+        return waitNanos;
+    }
+
+    private KeyedBucket createBucket(String route, String principal,
+                                     ConcurrentHashMap<String, KeyedBucket> routeBuckets, long now) {
+        if (keyCount() >= maxKeys) {
+            evictIdle(now);
+        }
+        RateLimitPolicy policy = policies.get(route);
+        KeyedBucket created = new KeyedBucket(route, principal, policy, routeCounters.get(route), now);
+        KeyedBucket existing = routeBuckets.putIfAbsent(principal, created);
+        if (existing != null) {
+            return existing;
+        }
+        if (principalMetrics) {
+            registries.forEach(created::register);
+        }
+        logger.debug("Seau de débit créé pour {} sur la route {}", principal, route);
+        return created;
+    }
+
+    private void evictIdle(long now) {
+        buckets.values().forEach(routeBuckets -> routeBuckets.values().removeIf(bucket -> {
+            if (!bucket.isIdle(now)) {
+                return false;
+            }
+            bucket.unregister();
+            return true;
+        }));
+    }
+
+    private int keyCount() {
+        int count = 0;
+        for (ConcurrentHashMap<String, KeyedBucket> routeBuckets : buckets.values()) {
+            count += routeBuckets.size();
+        }
+        return count;
+    }
+
+    private long now() {
+        return System.nanoTime() - originNanos;
+    }
+
+    /**
+     * Délai avant le prochain jeton arrondi à la seconde supérieure (header Retry-After)
+     */
+    static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Exporte aussi un compteur par principal (à activer avant l'enregistrement des métriques)
+     */
+    public void setPrincipalMetrics(boolean principalMetrics) {
+        this.principalMetrics = principalMetrics;
+    }
+
+    /**
+     * Compteurs par route et par principal pour l'endpoint actuator
+     */
+    public Map<String, Object> statistics() {
+        long now = now();
+        Map<String, Object> routes = new LinkedHashMap<>();
+        policies.forEach((route, policy) -> {
+            Map<String, Object> clients = new LinkedHashMap<>();
+            buckets.get(route).forEach((principal, bucket) -> clients.put(principal, Map.of(
+                    "allowed", bucket.allowed.sum(),
+                    "rejected", bucket.rejected.sum(),
+                    "available", bucket.available(now))));
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("burst", policy.burst());
+            values.put("refillPerSecond", policy.refillPerSecond());
+            values.put("allowed", routeCounters.get(route).allowed.sum());
+            values.put("rejected", routeCounters.get(route).rejected.sum());
+            values.put("clients", clients);
+            routes.put(route, values);
+        });
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", enabled);
+        statistics.put("keys", keyCount());
+        statistics.put("routes", routes);
+        return statistics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registries.add(registry);
+        routeCounters.forEach((route, counters) -> {
+            FunctionCounter.builder("gateway.ratelimit.requests", counters.allowed, adder -> adder.sum())
+                    .description("Requêtes soumises au limiteur de débit Gateway")
+                    .tags("route", route, "result", "allowed")
+                    .baseUnit("requests").register(registry);
+            FunctionCounter.builder("gateway.ratelimit.requests", counters.rejected, adder -> adder.sum())
+                    .description("Requêtes soumises au limiteur de débit Gateway")
+                    .tags("route", route, "result", "rejected")
+                    .baseUnit("requests").register(registry);
+        });
+        if (principalMetrics) {
+            buckets.values().forEach(routeBuckets -> routeBuckets.values().forEach(bucket -> bucket.register(registry)));
+        }
+    }
+
+    /**
+     * Totaux d'une route, conservés quand les seaux inactifs sont oubliés
+     */
+    private static final class RouteCounters {
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+    }
+
+    /**
+     * Seau d'une clé et ses compteurs Micrometer (retirés si la clé est oubliée)
+     */
+    private static final class KeyedBucket extends TokenBucket {
+
+        private final String route;
+        private final String principal;
+        private final RouteCounters routeTotals;
+        private final List<Meter> meters = new CopyOnWriteArrayList<>();
+        private final List<MeterRegistry> meterRegistries = new CopyOnWriteArrayList<>();
+
+        private KeyedBucket(String route, String principal, RateLimitPolicy policy,
+                            RouteCounters routeTotals, long now) {
+            super(policy.burst(), policy.refillPerSecond(), now);
+            this.route = route;
+            this.principal = principal;
+            this.routeTotals = routeTotals;
+        }
+
+        private void register(MeterRegistry registry) {
+            meterRegistries.add(registry);
+            meters.add(FunctionCounter.builder("gateway.ratelimit.principal.requests", allowed, adder -> adder.sum())
+                    .description("Requêtes soumises au limiteur de débit Gateway, par principal")
+                    .tags("route", route, "principal", principal, "result", "allowed")
+                    .baseUnit("requests").register(registry));
+            meters.add(FunctionCounter.builder("gateway.ratelimit.principal.requests", rejected, adder -> adder.sum())
+                    .description("Requêtes soumises au limiteur de débit Gateway, par principal")
+                    .tags("route", route, "principal", principal, "result", "rejected")
+                    .baseUnit("requests").register(registry));
+        }
+
+        private void unregister() {
+            meterRegistries.forEach(registry -> meters.forEach(registry::remove));
+        }
+    }
+}
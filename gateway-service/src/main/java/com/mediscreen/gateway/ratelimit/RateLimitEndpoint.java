@@ -0,0 +1,26 @@
+package com.mediscreen.gateway.ratelimit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/**
+ * Endpoint actuator du limiteur de débit
+ *
+ * - GET /actuator/ratelimits : limites par route, requêtes acceptées / refusées et jetons restants par client
+ */
+@Endpoint(id = "ratelimits")
+public class RateLimitEndpoint {
+
+    private final GatewayRateLimiter limiter;
+
+    public RateLimitEndpoint(GatewayRateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        return limiter.statistics();
+    }
+}
@@ -0,0 +1,45 @@
+package com.mediscreen.gateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+
+/**
+ * Filtre de limitation de débit d'une route : 429 + Retry-After quand le seau du client est vide
+ */
+class RateLimitFilter implements GatewayFilter {
+
+    static final String ANONYMOUS = "anonymous";
+
+    private final GatewayRateLimiter limiter;
+    private final String route;
+
+    RateLimitFilter(GatewayRateLimiter limiter, String route) {
+        this.limiter = limiter;
+        this.route = route;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty(ANONYMOUS)
+                .flatMap(principal -> {
+                    long waitNanos = limiter.tryAcquire(route, principal);
+                    if (waitNanos == 0) {
+                        return chain.filter(exchange);
+                    }
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                    response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                            Long.toString(GatewayRateLimiter.retryAfterSeconds(waitNanos)));
+                    return response.setComplete();
+                });
+    }
+}
@@ -0,0 +1,11 @@
+package com.mediscreen.gateway.ratelimit;
+
+/**
+ * Limite de débit d'une route, appliquée à chaque principal séparément
+ *
+ * @param route           nom logique de la route (patient, notes, assessment)
+ * @param burst           requêtes acceptées d'affilée par un client au repos
+ * @param refillPerSecond débit soutenu autorisé par client
+ */
+public record RateLimitPolicy(String route, int burst, double refillPerSecond) {
+}
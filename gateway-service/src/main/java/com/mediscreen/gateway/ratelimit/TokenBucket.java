@@ -0,0 +1,75 @@
+package com.mediscreen.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Seau à jetons sans verrou d'une clé (principal + route)
+ *
+ * PRINCIPE :
+ * - Le seau est représenté par un seul instant virtuel (algorithme GCRA, équivalent exact
+ *   du seau à jetons) : l'heure à laquelle le seau serait de nouveau plein
+ * - Consommer un jeton = avancer cet instant d'un intervalle de recharge, par un simple
+ *   compareAndSet ; aucune tâche de recharge ni verrou, aucune allocation
+ * - Refus si l'instant dépasserait maintenant + capacité de rafale : le délai restant
+ *   donne directement le Retry-After
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstWindowNanos;
+    private final AtomicLong fullAt;
+
+    final LongAdder allowed = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param burst           nombre de requêtes acceptées d'affilée, seau plein
+     * @param refillPerSecond jetons rendus par seconde
+     * @param nowNanos        instant de création (horloge du limiteur, jamais négative)
+     */
+    public TokenBucket(int burst, double refillPerSecond, long nowNanos) {
+        if (burst <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("La rafale et le débit de recharge doivent être positifs");
+        }
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000d / refillPerSecond));
+        this.burstWindowNanos = intervalNanos * burst;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Consomme un jeton
+     *
+     * @return 0 si la requête est acceptée, sinon le délai en nanosecondes avant le prochain jeton
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long debt = next - nowNanos;
+            if (debt > burstWindowNanos) {
+                rejected.increment();
+                return debt - burstWindowNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Jetons disponibles à cet instant
+     */
+    public long available(long nowNanos) {
+        long debt = Math.max(0, fullAt.get() - nowNanos);
+        return (burstWindowNanos - debt) / intervalNanos;
+    }
+
+    /**
+     * Seau plein : aucune trace à conserver, la clé peut être oubliée
+     */
+    boolean isIdle(long nowNanos) {
+        return fullAt.get() <= nowNanos;
+    }
+}
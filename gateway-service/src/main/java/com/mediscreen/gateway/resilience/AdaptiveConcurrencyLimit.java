@@ -0,0 +1,104 @@
+package com.mediscreen.gateway.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de concurrence adaptative d'une route (gradient sur le RTT observé)
+ *
+ * PRINCIPE :
+ * - RTT long terme (moyenne mobile lente) = latence « à vide » du backend,
+ *   RTT court terme (moyenne mobile rapide) = latence actuelle
+ * - gradient = tolérance × RTT long / RTT court, borné à [0.5, 1] : dès que la latence
+ *   actuelle dépasse la latence à vide au-delà de la tolérance, la limite baisse
+ * - nouvelle limite = limite × gradient + √limite (marge de file), lissée
+ * - Erreur, dépassement du budget de latence ou 5xx : baisse multiplicative immédiate
+ * - Pas de croissance quand la route utilise moins de la moitié de sa limite
+ *
+ * Admission sans verrou (compteur atomique d'appels en cours) ; les mises à jour de la
+ * limite, une par réponse, sont sérialisées sur l'instance.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final int LONG_WINDOW = 600;
+    private static final int SHORT_WINDOW = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double longRtt;
+    private double shortRtt;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limites de concurrence invalides : min <= initiale <= max attendu");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Réserve une place pour un appel backend
+     *
+     * @return false si la limite courante est atteinte (requête à rejeter immédiatement)
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > (int) limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Appel réussi : ajuste la limite selon le RTT mesuré
+     */
+    public synchronized void onSample(long rttNanos) {
+        double rtt = Math.max(1, rttNanos);
+        if (longRtt == 0) {
+            longRtt = rtt;
+            shortRtt = rtt;
+        } else {
+            longRtt += (rtt - longRtt) / LONG_WINDOW;
+            shortRtt += (rtt - shortRtt) / SHORT_WINDOW;
+        }
+        // Latence durablement divisée par deux (backend rétabli) : la référence suit plus vite
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (inFlight.get() < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = clamp(limit * (1 - SMOOTHING) + target * SMOOTHING);
+    }
+
+    /**
+     * Appel en échec (erreur, timeout, 5xx) : baisse multiplicative
+     */
+    public synchronized void onDropped() {
+        limit = clamp(limit * BACKOFF_RATIO);
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,26 @@
+package com.mediscreen.gateway.resilience;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/**
+ * Endpoint actuator des disjoncteurs de route
+ *
+ * - GET /actuator/routebreakers : état, taux d'échec, budget de latence et compteurs par route
+ */
+@Endpoint(id = "routebreakers")
+public class CircuitBreakerEndpoint {
+
+    private final RouteCircuitBreakers breakers;
+
+    public CircuitBreakerEndpoint(RouteCircuitBreakers breakers) {
+        this.breakers = breakers;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return breakers.status();
+    }
+}
@@ -0,0 +1,76 @@
+package com.mediscreen.gateway.resilience;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtre de limite de concurrence adaptative d'une route
+ *
+ * FONCTIONNEMENT :
+ * - Limite atteinte : rejet immédiat (LoadSheddingException → 503), rien n'attend dans Netty
+ * - RTT mesuré jusqu'aux headers de réponse du backend (indépendant de la vitesse du client)
+ * - Place libérée à la fin de l'échange, y compris sur annulation
+ */
+class ConcurrencyLimitFilter implements GatewayFilter {
+
+    private final String route;
+    private final AdaptiveConcurrencyLimit limit;
+    private final LongAdder rejected;
+
+    ConcurrencyLimitFilter(String route, AdaptiveConcurrencyLimit limit, LongAdder rejected) {
+        this.route = route;
+        this.limit = limit;
+        this.rejected = rejected;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!limit.tryAcquire()) {
+            rejected.increment();
+            // Posé sur la réponse : le gestionnaire d'erreurs de Boot ne reprend pas les headers de l'exception
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, LoadSheddingException.RETRY_AFTER_SECONDS);
+            return Mono.error(new LoadSheddingException(route));
+        }
+        long start = System.nanoTime();
+        Outcome outcome = new Outcome();
+        exchange.getResponse().beforeCommit(() -> {
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            if (status != null && status.is5xxServerError()) {
+                outcome.dropped();
+            } else {
+                outcome.sample(System.nanoTime() - start);
+            }
+            return Mono.empty();
+        });
+        return chain.filter(exchange)
+                .doOnError(error -> outcome.dropped())
+                .doFinally(signal -> limit.release());
+    }
+
+    /**
+     * Une seule mesure par appel : RTT à l'envoi des headers, ou échec
+     */
+    private final class Outcome {
+        private boolean recorded;
+
+        private void sample(long rttNanos) {
+            if (!recorded) {
+                recorded = true;
+                limit.onSample(rttNanos);
+            }
+        }
+
+        private void dropped() {
+            if (!recorded) {
+                recorded = true;
+                limit.onDropped();
+            }
+        }
+    }
+}
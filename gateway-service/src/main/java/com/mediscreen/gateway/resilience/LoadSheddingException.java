@@ -0,0 +1,27 @@
+package com.mediscreen.gateway.resilience;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Requête rejetée par la limite de concurrence d'une route, avant tout appel backend (503)
+ *
+ * Le disjoncteur ne la compte pas comme un échec du backend et peut y substituer la
+ * dernière réponse connue d'un GET.
+ */
+public class LoadSheddingException extends ResponseStatusException {
+
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    public LoadSheddingException(String route) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Limite de concurrence atteinte sur la route " + route);
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        return headers;
+    }
+}
@@ -0,0 +1,149 @@
+package com.mediscreen.gateway.resilience;
+
+import java.time.Duration;
+
+/**
+ * Disjoncteur d'une route Gateway
+ *
+ * PRINCIPE :
+ * - FERMÉ : les appels passent, leurs résultats alimentent une fenêtre glissante ;
+ *   au-delà du taux d'échec configuré (sur un minimum d'appels) le disjoncteur s'ouvre
+ * - OUVERT : aucun appel backend pendant openDuration, réponse immédiate côté Gateway
+ * - SEMI-OUVERT : un seul appel sonde est autorisé ; succès → FERMÉ, échec → OUVERT.
+ *   Une sonde sans issue (client parti) est remplacée après openDuration
+ *
+ * Échec = erreur de connexion, dépassement du budget de latence ou réponse 5xx.
+ * Les transitions sont rares et protégées par le moniteur de l'instance ; l'état
+ * courant est lu sans verrou.
+ */
+public class RouteCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String route;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private volatile State state = State.CLOSED;
+    private volatile long stateSinceNanos = System.nanoTime();
+
+    public RouteCircuitBreaker(String route, double failureRateThreshold, int slidingWindowSize,
+                               int minimumCalls, Duration openDuration) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1 || slidingWindowSize <= 0
+                || minimumCalls <= 0 || minimumCalls > slidingWindowSize || !openDuration.isPositive()) {
+            throw new IllegalArgumentException("Paramètres de disjoncteur invalides pour la route " + route);
+        }
+        this.route = route;
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.openDurationNanos = openDuration.toNanos();
+        this.window = new boolean[slidingWindowSize];
+    }
+
+    /**
+     * Autorise ou non un appel backend
+     *
+     * @return true si l'appel peut partir (éventuellement comme sonde semi-ouverte)
+     */
+    public boolean tryAcquire(long nowNanos) {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            // OUVERT arrivé à échéance, ou sonde semi-ouverte jamais revenue : nouvelle sonde
+            if (nowNanos - stateSinceNanos >= openDurationNanos) {
+                transition(State.HALF_OPEN, nowNanos);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    public void onSuccess(long nowNanos) {
+        if (state == State.HALF_OPEN) {
+            synchronized (this) {
+                if (state == State.HALF_OPEN) {
+                    resetWindow();
+                    transition(State.CLOSED, nowNanos);
+                    return;
+                }
+            }
+        }
+        record(false, nowNanos);
+    }
+
+    public void onFailure(long nowNanos) {
+        if (state == State.HALF_OPEN) {
+            synchronized (this) {
+                if (state == State.HALF_OPEN) {
+                    transition(State.OPEN, nowNanos);
+                    return;
+                }
+            }
+        }
+        record(true, nowNanos);
+    }
+
+    private synchronized void record(boolean failure, long nowNanos) {
+        if (state != State.CLOSED) {
+            return;
+        }
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+
+        if (windowCount >= minimumCalls && (double) windowFailures / windowCount >= failureRateThreshold) {
+            resetWindow();
+            transition(State.OPEN, nowNanos);
+        }
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    private void transition(State next, long nowNanos) {
+        state = next;
+        stateSinceNanos = nowNanos;
+    }
+
+    /**
+     * Secondes restantes avant la prochaine sonde (header Retry-After), au moins 1
+     */
+    public long retryAfterSeconds(long nowNanos) {
+        long remaining = openDurationNanos - (nowNanos - stateSinceNanos);
+        return Math.max(1, (remaining + 999_999_999L) / 1_000_000_000L);
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public synchronized double failureRate() {
+        return windowCount == 0 ? 0.0 : (double) windowFailures / windowCount;
+    }
+}
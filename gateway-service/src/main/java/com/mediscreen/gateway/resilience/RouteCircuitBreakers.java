@@ -0,0 +1,126 @@
+package com.mediscreen.gateway.resilience;
+
+import com.mediscreen.gateway.cache.GatewayResponseCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Disjoncteurs des routes Gateway et budgets de latence associés
+ *
+ * PRINCIPE :
+ * - Un disjoncteur par route backend : un backend en redémarrage ou trop lent est isolé
+ *   au lieu de laisser les requêtes s'accumuler derrière lui
+ * - Budget de latence par route appliqué comme response-timeout de la route : au-delà,
+ *   l'appel est abandonné et compte comme un échec
+ * - GET en échec ou refusé : dernière réponse connue du cache Gateway (stale-if-error,
+ *   headers Warning et Age), sinon 503 immédiat avec Retry-After
+ *
+ * Métriques : gateway.circuit.calls (success / failure / rejected), gateway.circuit.stale.served,
+ * gateway.circuit.state (0 fermé, 1 ouvert, 2 semi-ouvert) ; état via GET /actuator/routebreakers.
+ */
+public class RouteCircuitBreakers implements MeterBinder {
+
+    /**
+     * Après le filtre de cache (un hit frais ne consomme rien), avant la limite de concurrence
+     * et NettyWriteResponseFilter
+     */
+    public static final int FILTER_ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+
+    private final GatewayResponseCache cache;
+    private final Map<String, RouteEntry> routes = new LinkedHashMap<>();
+
+    public RouteCircuitBreakers(GatewayResponseCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Enregistre le disjoncteur d'une route et son budget de latence
+     */
+    public RouteCircuitBreakers register(RouteCircuitBreaker breaker, Duration latencyBudget) {
+        routes.put(breaker.getRoute(), new RouteEntry(breaker, latencyBudget, new CallStats()));
+        return this;
+    }
+
+    public GatewayFilter filter(String route) {
+        RouteEntry entry = entry(route);
+        return new OrderedGatewayFilter(new StaleIfErrorFilter(entry.breaker(), entry.stats(), cache), FILTER_ORDER);
+    }
+
+    /**
+     * Budget de latence de la route en millisecondes (métadonnées response-timeout / connect-timeout)
+     */
+    public long latencyBudgetMillis(String route) {
+        return entry(route).latencyBudget().toMillis();
+    }
+
+    public RouteCircuitBreaker breaker(String route) {
+        return entry(route).breaker();
+    }
+
+    private RouteEntry entry(String route) {
+        RouteEntry entry = routes.get(route);
+        if (entry == null) {
+            throw new IllegalArgumentException("Aucun disjoncteur configuré pour la route " + route);
+        }
+        return entry;
+    }
+
+    /**
+     * État par route pour l'endpoint actuator
+     */
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        routes.forEach((route, entry) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("state", entry.breaker().getState());
+            values.put("failureRate", entry.breaker().failureRate());
+            values.put("latencyBudget", entry.latencyBudget().toString());
+            values.put("success", entry.stats().success.sum());
+            values.put("failure", entry.stats().failure.sum());
+            values.put("rejected", entry.stats().rejected.sum());
+            values.put("staleServed", entry.stats().staleServed.sum());
+            status.put(route, values);
+        });
+        return status;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        routes.forEach((route, entry) -> {
+            CallStats stats = entry.stats();
+            FunctionCounter.builder("gateway.circuit.calls", stats.success, LongAdder::sum)
+                    .tags("route", route, "outcome", "success").register(registry);
+            FunctionCounter.builder("gateway.circuit.calls", stats.failure, LongAdder::sum)
+                    .tags("route", route, "outcome", "failure").register(registry);
+            FunctionCounter.builder("gateway.circuit.calls", stats.rejected, LongAdder::sum)
+                    .description("Appels non transmis : disjoncteur ouvert")
+                    .tags("route", route, "outcome", "rejected").register(registry);
+            FunctionCounter.builder("gateway.circuit.stale.served", stats.staleServed, LongAdder::sum)
+                    .description("Dernières réponses connues servies à la place du backend")
+                    .tags("route", route).register(registry);
+            Gauge.builder("gateway.circuit.state", entry.breaker(), breaker -> breaker.getState().ordinal())
+                    .description("0 fermé, 1 ouvert, 2 semi-ouvert")
+                    .tags("route", route).register(registry);
+        });
+    }
+
+    private record RouteEntry(RouteCircuitBreaker breaker, Duration latencyBudget, CallStats stats) {
+    }
+
+    static final class CallStats {
+        final LongAdder success = new LongAdder();
+        final LongAdder failure = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder staleServed = new LongAdder();
+    }
+}
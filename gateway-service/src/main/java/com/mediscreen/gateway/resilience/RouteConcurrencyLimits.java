@@ -0,0 +1,67 @@
+package com.mediscreen.gateway.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limites de concurrence adaptatives des routes Gateway
+ *
+ * Placées après le disjoncteur (un rejet n'est pas un échec backend, le disjoncteur peut
+ * servir la dernière réponse connue) et juste avant l'appel au backend.
+ *
+ * Métriques : gateway.concurrency.limit, gateway.concurrency.inflight, gateway.concurrency.rejected
+ */
+public class RouteConcurrencyLimits implements MeterBinder {
+
+    public static final int FILTER_ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new LinkedHashMap<>();
+    private final Map<String, LongAdder> rejections = new LinkedHashMap<>();
+
+    public RouteConcurrencyLimits register(String route, AdaptiveConcurrencyLimit limit) {
+        limits.put(route, limit);
+        rejections.put(route, new LongAdder());
+        return this;
+    }
+
+    public GatewayFilter filter(String route) {
+        AdaptiveConcurrencyLimit limit = limit(route);
+        return new OrderedGatewayFilter(new ConcurrencyLimitFilter(route, limit, rejections.get(route)), FILTER_ORDER);
+    }
+
+    public AdaptiveConcurrencyLimit limit(String route) {
+        AdaptiveConcurrencyLimit limit = limits.get(route);
+        if (limit == null) {
+            throw new IllegalArgumentException("Aucune limite de concurrence configurée pour la route " + route);
+        }
+        return limit;
+    }
+
+    public long rejected(String route) {
+        return rejections.get(route).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        limits.forEach((route, limit) -> {
+            Gauge.builder("gateway.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("Limite de concurrence courante vers le backend")
+                    .tags("route", route).register(registry);
+            Gauge.builder("gateway.concurrency.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .description("Appels backend en cours")
+                    .tags("route", route).register(registry);
+            FunctionCounter.builder("gateway.concurrency.rejected", rejections.get(route), LongAdder::sum)
+                    .description("Requêtes rejetées en 503 par la limite de concurrence")
+                    .tags("route", route).register(registry);
+        });
+    }
+}
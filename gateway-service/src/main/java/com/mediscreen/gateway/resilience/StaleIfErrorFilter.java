@@ -0,0 +1,173 @@
+package com.mediscreen.gateway.resilience;
+
+import com.mediscreen.gateway.cache.CachedResponse;
+import com.mediscreen.gateway.cache.GatewayResponseCache;
+import com.mediscreen.gateway.resilience.RouteCircuitBreakers.CallStats;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Filtre disjoncteur + stale-if-error d'une route
+ *
+ * FONCTIONNEMENT :
+ * - Disjoncteur ouvert : aucun appel backend ; GET servi avec la dernière réponse connue
+ *   (Warning 110), sinon 503 + Retry-After sans attente
+ * - Appel en échec avant toute réponse (connexion refusée, budget de latence dépassé) :
+ *   GET servi avec la dernière réponse connue (Warning 111), sinon erreur d'origine
+ * - Réponse backend 5xx sur un GET : corps backend abandonné au profit de la dernière
+ *   réponse connue si elle existe, sinon transmise telle quelle
+ * - Rejet par la limite de concurrence : pas un échec du backend, GET servi avec la
+ *   dernière réponse connue (Warning 110), sinon 503
+ */
+class StaleIfErrorFilter implements GatewayFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaleIfErrorFilter.class);
+
+    static final String WARNING_STALE = "110 - \"Response is Stale\"";
+    static final String WARNING_REVALIDATION_FAILED = "111 - \"Revalidation Failed\"";
+
+    private final RouteCircuitBreaker breaker;
+    private final CallStats stats;
+    private final GatewayResponseCache cache;
+
+    StaleIfErrorFilter(RouteCircuitBreaker breaker, CallStats stats, GatewayResponseCache cache) {
+        this.breaker = breaker;
+        this.stats = stats;
+        this.cache = cache;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        boolean idempotent = HttpMethod.GET.equals(exchange.getRequest().getMethod());
+        long now = System.nanoTime();
+
+        if (!breaker.tryAcquire(now)) {
+            stats.rejected.increment();
+            CachedResponse stale = idempotent ? lastKnownGood(exchange, now) : null;
+            if (stale != null) {
+                return writeStale(exchange.getResponse(), stale, WARNING_STALE, now);
+            }
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(breaker.retryAfterSeconds(now)));
+            return response.setComplete();
+        }
+
+        OutcomeResponse outcome = new OutcomeResponse(exchange, idempotent);
+        return chain.filter(exchange.mutate().response(outcome).build())
+                .doOnSuccess(done -> outcome.recordIfPending())
+                .onErrorResume(error -> {
+                    long failedAt = System.nanoTime();
+                    // Rejet par la limite de concurrence : le backend n'a pas été appelé
+                    boolean shed = error instanceof LoadSheddingException;
+                    if (!shed) {
+                        outcome.recordFailure(failedAt);
+                    }
+                    CachedResponse stale = idempotent && !exchange.getResponse().isCommitted()
+                            ? lastKnownGood(exchange, failedAt) : null;
+                    if (stale == null) {
+                        return Mono.error(error);
+                    }
+                    if (!shed) {
+                        logger.warn("Route {} en échec ({}), dernière réponse connue servie pour {}",
+                                breaker.getRoute(), error.getMessage(), exchange.getRequest().getPath());
+                    }
+                    return writeStale(exchange.getResponse(), stale,
+                            shed ? WARNING_STALE : WARNING_REVALIDATION_FAILED, failedAt);
+                });
+    }
+
+    private CachedResponse lastKnownGood(ServerWebExchange exchange, long now) {
+        return cache.lastKnownGood(breaker.getRoute(), exchange.getRequest(), now);
+    }
+
+    private Mono<Void> writeStale(ServerHttpResponse target, CachedResponse stale, String warning, long now) {
+        stats.staleServed.increment();
+        HttpHeaders headers = target.getHeaders();
+        headers.remove(HttpHeaders.CONTENT_ENCODING);
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.remove(HttpHeaders.RETRY_AFTER);
+        headers.putAll(stale.headers());
+        headers.set(HttpHeaders.AGE, Long.toString(stale.ageSeconds(now)));
+        headers.set(HttpHeaders.WARNING, warning);
+        headers.set(GatewayResponseCache.X_CACHE, "STALE");
+        headers.setContentLength(stale.body().length);
+        target.setStatusCode(HttpStatus.OK);
+        return target.writeWith(Mono.just(target.bufferFactory().wrap(stale.body())));
+    }
+
+    /**
+     * Réponse décorée : enregistre l'issue de l'appel et remplace une réponse 5xx d'un GET
+     * par la dernière réponse connue avant que le corps backend ne parte vers le client
+     */
+    private final class OutcomeResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final boolean idempotent;
+        private boolean recorded;
+
+        private OutcomeResponse(ServerWebExchange exchange, boolean idempotent) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.idempotent = idempotent;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!isServerError(getStatusCode())) {
+                return super.writeWith(body);
+            }
+            long now = System.nanoTime();
+            recordFailure(now);
+            CachedResponse stale = idempotent ? lastKnownGood(exchange, now) : null;
+            if (stale == null) {
+                return super.writeWith(body);
+            }
+            logger.warn("Route {} : réponse {} du backend, dernière réponse connue servie pour {}",
+                    breaker.getRoute(), getStatusCode().value(), exchange.getRequest().getPath());
+            return Flux.from(body)
+                    .doOnNext(DataBufferUtils::release)
+                    .then(Mono.defer(() -> writeStale(getDelegate(), stale, WARNING_REVALIDATION_FAILED, now)));
+        }
+
+        private void recordIfPending() {
+            if (recorded) {
+                return;
+            }
+            if (isServerError(getStatusCode())) {
+                recordFailure(System.nanoTime());
+            } else {
+                recorded = true;
+                stats.success.increment();
+                breaker.onSuccess(System.nanoTime());
+            }
+        }
+
+        private void recordFailure(long now) {
+            if (recorded) {
+                return;
+            }
+            recorded = true;
+            stats.failure.increment();
+            breaker.onFailure(now);
+        }
+
+        private boolean isServerError(HttpStatusCode status) {
+            return status != null && status.is5xxServerError();
+        }
+    }
+}
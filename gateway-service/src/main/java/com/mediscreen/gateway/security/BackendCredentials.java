@@ -0,0 +1,22 @@
+package com.mediscreen.gateway.security;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Credentials d'un microservice backend : Basic Auth et, optionnellement, secret de jeton signé
+ */
+public record BackendCredentials(
+    String username,
+    String password,
+    String tokenSecret
+) {
+
+    public boolean hasTokenSecret() {
+        return StringUtils.hasText(tokenSecret);
+    }
+
+    @Override
+    public String toString() {
+        return "BackendCredentials[username=" + username + ", secrets masqués]";
+    }
+}
@@ -0,0 +1,145 @@
+package com.mediscreen.gateway.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache des credentials Basic déjà vérifiés devant le gestionnaire d'authentification BCrypt
+ *
+ * PRINCIPE :
+ * - Clé = HMAC-SHA256 (clé aléatoire propre au processus) de "username:password" :
+ *   le mot de passe n'est jamais conservé et la clé du cache ne permet pas de le retrouver
+ * - Hit non expiré : authentification renvoyée sans BCrypt (quelques microsecondes)
+ * - Miss : délégation au gestionnaire BCrypt (exécuté hors event loop), succès mis en cache
+ * - Les échecs ne sont jamais mis en cache, un mot de passe révoqué expire au bout du TTL
+ */
+public class CachingReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingReactiveAuthenticationManager.class);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final ReactiveAuthenticationManager delegate;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final SecretKeySpec cacheKey;
+    private final Map<CredentialsKey, CachedAuthentication> verified = new ConcurrentHashMap<>();
+    private volatile boolean enabled = true;
+
+    public CachingReactiveAuthenticationManager(ReactiveAuthenticationManager delegate, Duration ttl, int maxEntries) {
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.cacheKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        if (!enabled
+                || !(authentication instanceof UsernamePasswordAuthenticationToken)
+                || !(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+
+        CredentialsKey key = keyOf(authentication.getName(), password);
+        CachedAuthentication cached = verified.get(key);
+        if (cached != null) {
+            if (System.nanoTime() - cached.expiresAt() < 0) {
+                return Mono.just(cached.authentication());
+            }
+            verified.remove(key, cached);
+        }
+
+        return delegate.authenticate(authentication)
+                .doOnNext(result -> store(key, result));
+    }
+
+    /**
+     * Active ou désactive le cache (désactivé : chaque requête repasse par BCrypt)
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            verified.clear();
+        }
+    }
+
+    /**
+     * Vide le cache (rotation des credentials)
+     */
+    public void clear() {
+        verified.clear();
+    }
+
+    public int size() {
+        return verified.size();
+    }
+
+    private void store(CredentialsKey key, Authentication result) {
+        if (verified.size() >= maxEntries) {
+            purgeExpired();
+        }
+        if (verified.size() < maxEntries) {
+            verified.put(key, new CachedAuthentication(result, System.nanoTime() + ttl.toNanos()));
+        } else {
+            logger.warn("Cache d'authentification plein ({} entrées), vérification BCrypt non mise en cache", maxEntries);
+        }
+    }
+
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        Iterator<CachedAuthentication> iterator = verified.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().expiresAt() >= 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private CredentialsKey keyOf(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(cacheKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return new CredentialsKey(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 indisponible", e);
+        }
+    }
+
+    /**
+     * Empreinte HMAC des credentials, comparée octet par octet
+     */
+    private record CredentialsKey(byte[] digest) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CredentialsKey key && Arrays.equals(digest, key.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(digest);
+        }
+    }
+
+    private record CachedAuthentication(Authentication authentication, long expiresAt) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.mediscreen.gateway.security;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Endpoint actuator des headers d'authentification backend
+ *
+ * - GET  /actuator/downstreamauth : mode (basic / token) par service, sans aucun secret
+ * - POST /actuator/downstreamauth : relit immédiatement le fichier de credentials (authentifié)
+ */
+@Endpoint(id = "downstreamauth")
+public class DownstreamAuthEndpoint {
+
+    private final DownstreamAuthHeaders authHeaders;
+    private final ObjectProvider<DownstreamCredentialsWatcher> watcher;
+
+    public DownstreamAuthEndpoint(DownstreamAuthHeaders authHeaders, ObjectProvider<DownstreamCredentialsWatcher> watcher) {
+        this.authHeaders = authHeaders;
+        this.watcher = watcher;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("services", authHeaders.modes());
+        DownstreamCredentialsWatcher current = watcher.getIfAvailable();
+        if (current != null) {
+            status.put("file", current.getFile().toString());
+            status.put("lastReload", current.getLastReload());
+        }
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> reload() {
+        DownstreamCredentialsWatcher current = watcher.getIfAvailable();
+        if (current == null) {
+            return Map.of("reloaded", false, "reason", "mediscreen.auth.credentials-file non configuré");
+        }
+        return Map.of("reloaded", true, "updated", current.reload());
+    }
+}
@@ -0,0 +1,128 @@
+package com.mediscreen.gateway.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Headers Authorization transmis aux microservices backend, précalculés par service
+ *
+ * PRINCIPE :
+ * - La valeur du header (Basic base64 ou jeton signé) est calculée une fois, à la
+ *   configuration ou à la rotation, et jamais reconstruite par requête
+ * - Rotation sans redémarrage : la nouvelle valeur remplace l'ancienne d'un seul
+ *   échange atomique, une requête voit l'ancienne ou la nouvelle, jamais un mélange
+ * - Le backend ne voit que le compte du Gateway : le principal authentifié par le Gateway
+ *   est transmis dans X-Client-Id (valeur envoyée par le client écrasée), clé de la
+ *   fenêtre read-your-writes de patient-service
+ */
+public class DownstreamAuthHeaders {
+
+    private static final Logger logger = LoggerFactory.getLogger(DownstreamAuthHeaders.class);
+
+    /**
+     * Principal authentifié par le Gateway, transmis au backend
+     */
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private final Duration tokenTtl;
+    private final Map<String, AtomicReference<RouteAuth>> routes = new ConcurrentHashMap<>();
+
+    public DownstreamAuthHeaders(Duration tokenTtl) {
+        this.tokenTtl = tokenTtl;
+    }
+
+    /**
+     * Installe ou remplace les credentials d'un service ; sans effet si rien n'a changé
+     *
+     * @return true si la valeur du header a été remplacée
+     */
+    public boolean update(String service, BackendCredentials credentials) {
+        AtomicReference<RouteAuth> current = routes.computeIfAbsent(service, s -> new AtomicReference<>());
+        RouteAuth previous = current.get();
+        if (previous != null && previous.credentials().equals(credentials)) {
+            return false;
+        }
+        current.set(RouteAuth.of(service, credentials, tokenTtl));
+        logger.info("Header Authorization vers {} {} ({})", service,
+                previous == null ? "initialisé" : "renouvelé",
+                credentials.hasTokenSecret() ? "jeton signé" : "Basic Auth");
+        return true;
+    }
+
+    /**
+     * Valeur courante du header Authorization vers le service
+     */
+    public String headerValue(String service) {
+        AtomicReference<RouteAuth> current = routes.get(service);
+        if (current == null || current.get() == null) {
+            throw new IllegalStateException("Aucun credential configuré pour " + service);
+        }
+        return current.get().headerValue();
+    }
+
+    /**
+     * Mode d'authentification courant par service (sans secret), pour l'endpoint actuator
+     */
+    public Map<String, String> modes() {
+        Map<String, String> modes = new ConcurrentHashMap<>();
+        routes.forEach((service, current) -> modes.put(service,
+                current.get().credentials().hasTokenSecret() ? "token" : "basic"));
+        return modes;
+    }
+
+    public Set<String> services() {
+        return routes.keySet();
+    }
+
+    /**
+     * Filtre de route remplaçant le header Authorization du Frontend par celui du service
+     * et transmettant le principal authentifié
+     */
+    public GatewayFilter filter(String service) {
+        AtomicReference<RouteAuth> current = routes.computeIfAbsent(service, s -> new AtomicReference<>());
+        return (exchange, chain) -> exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty("")
+                .flatMap(principal -> chain.filter(exchange.mutate()
+                        .request(request -> request.headers(headers -> {
+                            headers.set(HttpHeaders.AUTHORIZATION, current.get().headerValue());
+                            if (principal.isEmpty()) {
+                                headers.remove(CLIENT_ID_HEADER);
+                            } else {
+                                headers.set(CLIENT_ID_HEADER, principal);
+                            }
+                        }))
+                        .build()));
+    }
+
+    /**
+     * Header d'un service : valeur Basic figée ou émetteur de jetons (qui réutilise son jeton jusqu'à mi-vie)
+     */
+    private record RouteAuth(BackendCredentials credentials, String basicHeader, ServiceTokenIssuer tokenIssuer) {
+
+        private static RouteAuth of(String service, BackendCredentials credentials, Duration tokenTtl) {
+            if (credentials.hasTokenSecret()) {
+                return new RouteAuth(credentials, null,
+                        new ServiceTokenIssuer(service, credentials.tokenSecret(), tokenTtl));
+            }
+            String basic = "Basic " + Base64.getEncoder().encodeToString(
+                    (credentials.username() + ":" + credentials.password()).getBytes(StandardCharsets.UTF_8));
+            return new RouteAuth(credentials, basic, null);
+        }
+
+        private String headerValue() {
+            return tokenIssuer != null ? tokenIssuer.authorizationHeader() : basicHeader;
+        }
+    }
+}
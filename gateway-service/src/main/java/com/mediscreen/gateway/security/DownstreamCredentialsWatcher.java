@@ -0,0 +1,122 @@
+package com.mediscreen.gateway.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rotation à chaud des credentials backend depuis un fichier surveillé
+ *
+ * FORMAT (properties) : {service}.username, {service}.password, {service}.token-secret
+ * Un service absent du fichier garde ses credentials courants.
+ *
+ * Le fichier est relu quand sa date de modification change (scrutation périodique, fiable
+ * sur les volumes montés / secrets Docker où les événements inotify ne sont pas garantis)
+ * ou sur demande via l'endpoint actuator downstreamauth.
+ */
+public class DownstreamCredentialsWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(DownstreamCredentialsWatcher.class);
+
+    private final DownstreamAuthHeaders authHeaders;
+    private final Path file;
+    private final Duration pollInterval;
+    private ScheduledExecutorService executor;
+    private volatile FileTime lastModified;
+    private volatile Instant lastReload;
+
+    public DownstreamCredentialsWatcher(DownstreamAuthHeaders authHeaders, Path file, Duration pollInterval) {
+        this.authHeaders = authHeaders;
+        this.file = file;
+        this.pollInterval = pollInterval;
+    }
+
+    public void start() {
+        reload();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gateway-credentials-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::reloadIfModified,
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Surveillance des credentials backend dans {} (toutes les {})", file, pollInterval);
+    }
+
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Relit le fichier et applique les credentials modifiés
+     *
+     * @return services dont le header a été remplacé
+     */
+    public synchronized Map<String, Boolean> reload() {
+        Map<String, Boolean> updated = new LinkedHashMap<>();
+        if (!Files.isReadable(file)) {
+            logger.warn("Fichier de credentials backend {} illisible, credentials courants conservés", file);
+            return updated;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            lastModified = Files.getLastModifiedTime(file);
+            properties.load(reader);
+        } catch (IOException e) {
+            logger.error("Lecture du fichier de credentials backend {} impossible", file, e);
+            return updated;
+        }
+
+        for (String service : authHeaders.services()) {
+            String username = properties.getProperty(service + ".username");
+            String password = properties.getProperty(service + ".password");
+            if (!StringUtils.hasText(username) && !StringUtils.hasText(password)) {
+                continue;
+            }
+            if (!StringUtils.hasText(username) || !StringUtils.hasText(password)) {
+                logger.warn("Credentials {} incomplets dans {}, ignorés", service, file);
+                continue;
+            }
+            BackendCredentials credentials = new BackendCredentials(
+                    username.trim(), password.trim(), properties.getProperty(service + ".token-secret", "").trim());
+            updated.put(service, authHeaders.update(service, credentials));
+        }
+        lastReload = Instant.now();
+        return updated;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public Instant getLastReload() {
+        return lastReload;
+    }
+
+    private void reloadIfModified() {
+        try {
+            if (Files.isReadable(file) && !Files.getLastModifiedTime(file).equals(lastModified)) {
+                reload();
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Surveillance du fichier de credentials backend {} en échec", file, e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.mediscreen.gateway.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Émetteur de jetons de service courts signés HMAC-SHA256 pour un microservice backend
+ *
+ * FORMAT : "{audience}.{expiration epoch s}.{signature base64url}", signature calculée sur
+ * "{audience}.{expiration}" avec le secret partagé avec ce seul service.
+ *
+ * Le jeton courant est réutilisé jusqu'à mi-vie puis remplacé : une signature toutes les
+ * ttl / 2 au lieu d'une par requête, et le backend vérifie un HMAC au lieu d'un BCrypt.
+ */
+public class ServiceTokenIssuer {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final String audience;
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+    private final AtomicReference<IssuedToken> current = new AtomicReference<>();
+
+    public ServiceTokenIssuer(String audience, String secret, Duration ttl) {
+        this(audience, secret, ttl, Clock.systemUTC());
+    }
+
+    ServiceTokenIssuer(String audience, String secret, Duration ttl, Clock clock) {
+        this.audience = audience;
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Valeur du header Authorization ("Bearer ...") à transmettre au backend
+     */
+    public String authorizationHeader() {
+        long now = clock.millis();
+        IssuedToken token = current.get();
+        if (token == null || now >= token.renewAt()) {
+            // Plusieurs requêtes peuvent renouveler en même temps : jetons tous valides, le dernier reste
+            token = issue(now);
+            current.set(token);
+        }
+        return token.header();
+    }
+
+    private IssuedToken issue(long nowMillis) {
+        long expiresAt = nowMillis / 1000 + ttl.toSeconds();
+        String payload = audience + "." + expiresAt;
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            String signature = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+            return new IssuedToken("Bearer " + payload + "." + signature, nowMillis + ttl.toMillis() / 2);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 indisponible", e);
+        }
+    }
+
+    private record IssuedToken(String header, long renewAt) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.mediscreen.gateway.benchmark;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Mesure commune des micro-benchmarks du Gateway (tag "benchmark")
+ *
+ * Par opération : allocation mémoire et temps CPU du thread appelant (le travail délégué
+ * à d'autres threads n'y figure pas), temps écoulé. Résultats journalisés en INFO.
+ */
+public final class BenchmarkHarness {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkHarness.class);
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private BenchmarkHarness() {
+    }
+
+    /**
+     * Opération mesurée
+     */
+    @FunctionalInterface
+    public interface Operation {
+        void run() throws Exception;
+    }
+
+    /**
+     * Moyennes par opération d'un chemin mesuré
+     */
+    public record Measurement(String name, long bytesPerOp, long cpuNanosPerOp, long nanosPerOp) {
+    }
+
+    /**
+     * Exécute warmup fois l'opération sans mesure, puis iterations fois en mesurant
+     */
+    public static Measurement measure(String name, int warmup, int iterations, Operation operation) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            operation.run();
+        }
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long cpuBefore = THREADS.getCurrentThreadCpuTime();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long cpu = THREADS.getCurrentThreadCpuTime() - cpuBefore;
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Measurement(name, allocated / iterations, cpu / iterations, elapsed / iterations);
+    }
+
+    /**
+     * Journalise un tableau : une ligne par chemin mesuré
+     */
+    public static void report(String title, Measurement... measurements) {
+        StringBuilder table = new StringBuilder(String.format("%n=== %s ===%n%-24s %14s %16s %16s",
+                title, "chemin", "octets/op", "ns CPU/op", "ns/op"));
+        for (Measurement measurement : measurements) {
+            table.append(String.format("%n%-24s %14d %16d %16d", measurement.name(),
+                    measurement.bytesPerOp(), measurement.cpuNanosPerOp(), measurement.nanosPerOp()));
+        }
+        logger.info("{}", table);
+    }
+}
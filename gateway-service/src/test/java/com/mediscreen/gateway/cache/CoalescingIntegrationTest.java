@@ -0,0 +1,142 @@
+package com.mediscreen.gateway.cache;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration de la mutualisation des GET identiques (route assessment, non mise en cache)
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = com.mediscreen.gateway.GatewayServiceApplication.class
+)
+@AutoConfigureWebTestClient(timeout = "10s")
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-frontend",
+    "AUTH_PASSWORD=test-pass",
+    "mediscreen.auth.patient.username=test-patient",
+    "mediscreen.auth.patient.password=patient-pass",
+    "mediscreen.auth.notes.username=test-notes",
+    "mediscreen.auth.notes.password=notes-pass",
+    "mediscreen.auth.assessment.username=test-assessment",
+    "mediscreen.auth.assessment.password=assessment-pass",
+    "mediscreen.gateway-coalescing.max-waiters=3"
+})
+@DisplayName("Tests d'intégration - Mutualisation des GET identiques")
+class CoalescingIntegrationTest {
+
+    private static final String RISK_JSON = "{\"patId\":7,\"riskLevel\":\"None\"}";
+    private static final int CONCURRENT = 5;
+
+    private static WireMockServer assessmentServiceMock;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private RequestCoalescer coalescer;
+
+    private final String frontendAuth = "Basic " + Base64.getEncoder().encodeToString("test-frontend:test-pass".getBytes());
+
+    @DynamicPropertySource
+    static void configureBackends(DynamicPropertyRegistry registry) {
+        assessmentServiceMock = new WireMockServer(wireMockConfig().dynamicPort());
+        assessmentServiceMock.start();
+        registry.add("mediscreen.services.patient.uri", () -> "http://localhost:" + assessmentServiceMock.port());
+        registry.add("mediscreen.services.notes.uri", () -> "http://localhost:" + assessmentServiceMock.port());
+        registry.add("mediscreen.services.assessment.uri", () -> "http://localhost:" + assessmentServiceMock.port());
+    }
+
+    @AfterAll
+    static void stopBackends() {
+        assessmentServiceMock.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        assessmentServiceMock.resetAll();
+        assessmentServiceMock.stubFor(get(urlEqualTo("/api/v1/assess/patient/7")).willReturn(okJson(RISK_JSON)
+                .withFixedDelay(1000)));
+        assessmentServiceMock.stubFor(get(urlEqualTo("/api/v1/assess/patient/8")).willReturn(okJson(RISK_JSON)
+                .withHeader(HttpHeaders.SET_COOKIE, "session=abc")
+                .withFixedDelay(1000)));
+        assessmentServiceMock.stubFor(get(urlEqualTo("/api/v1/assess/patient/1")).willReturn(okJson(RISK_JSON)));
+
+        // Authentification déjà en cache : les requêtes simultanées arrivent ensemble au filtre
+        webTestClient.get().uri("/api/v1/assess/patient/1")
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    @DisplayName("GET simultanés : un appel backend par meneuse, attentes bornées")
+    void concurrentGetsShareOneBackendCall() {
+        long leaders = coalescer.leaders("assessment");
+        long followers = coalescer.followers("assessment");
+        long overflows = coalescer.overflows("assessment");
+
+        List<EntityExchangeResult<String>> results = sendConcurrently("/api/v1/assess/patient/7");
+
+        assertThat(results).allSatisfy(result -> {
+            assertThat(result.getStatus().value()).isEqualTo(200);
+            assertThat(result.getResponseBody()).isEqualTo(RISK_JSON);
+        });
+        assertThat(coalescer.leaders("assessment") - leaders).isEqualTo(1);
+        assertThat(coalescer.followers("assessment") - followers).isEqualTo(3);
+        assertThat(coalescer.overflows("assessment") - overflows).isEqualTo(1);
+        assertThat(assessmentServiceMock.countRequestsMatching(
+                getRequestedFor(urlEqualTo("/api/v1/assess/patient/7")).build()).getCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Réponse non partageable (Set-Cookie) : chaque requête en attente appelle le backend")
+    void unshareableResponseFallsBackToBackend() {
+        List<EntityExchangeResult<String>> results = sendConcurrently("/api/v1/assess/patient/8");
+
+        assertThat(results).allSatisfy(result -> assertThat(result.getStatus().value()).isEqualTo(200));
+        assertThat(assessmentServiceMock.countRequestsMatching(
+                getRequestedFor(urlEqualTo("/api/v1/assess/patient/8")).build()).getCount()).isEqualTo(CONCURRENT);
+    }
+
+    private List<EntityExchangeResult<String>> sendConcurrently(String uri) {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT);
+        try {
+            List<CompletableFuture<EntityExchangeResult<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT; i++) {
+                futures.add(CompletableFuture.supplyAsync(() -> webTestClient.get().uri(uri)
+                        .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                        .exchange()
+                        .expectBody(String.class)
+                        .returnResult(), executor));
+            }
+            return futures.stream().map(future -> future.orTimeout(10, TimeUnit.SECONDS).join()).toList();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
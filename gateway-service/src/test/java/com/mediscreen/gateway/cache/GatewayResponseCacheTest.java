@@ -0,0 +1,158 @@
+package com.mediscreen.gateway.cache;
+
+import com.mediscreen.gateway.cache.GatewayResponseCache.CacheKey;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayResponseCacheTest {
+
+    private static final RouteCachePolicy PATIENT = new RouteCachePolicy("patient",
+            Pattern.compile("/api/v1/patients/(\\d+)"),
+            Pattern.compile("/api/v1/patients/(\\d+)(?:/.*)?"),
+            Duration.ofSeconds(30));
+    private static final RouteCachePolicy NOTES = new RouteCachePolicy("notes",
+            Pattern.compile("/api/v1/notes/patient/(\\d+)"),
+            null,
+            Duration.ofSeconds(10));
+
+    private final GatewayResponseCache cache = new GatewayResponseCache(4096, 2048, Duration.ofMinutes(5), List.of(PATIENT, NOTES));
+
+    @Test
+    void policyExtractsPatientIds() {
+        assertThat(PATIENT.readPatientId("/api/v1/patients/42")).isEqualTo(42);
+        assertThat(PATIENT.readPatientId("/api/v1/patients")).isEqualTo(-1);
+        assertThat(PATIENT.readPatientId("/api/v1/patients/42/adresse")).isEqualTo(-1);
+        assertThat(PATIENT.writePatientId("/api/v1/patients/42/adresse")).isEqualTo(42);
+        assertThat(NOTES.readPatientId("/api/v1/notes/patient/7")).isEqualTo(7);
+        assertThat(NOTES.writePatientId("/api/v1/notes/abc")).isEqualTo(-1);
+    }
+
+    @Test
+    void expiredEntryIsKeptOnlyAsLastKnownGoodUntilStaleWindowEnds() {
+        long now = System.nanoTime();
+        CacheKey key = key("patient", 1);
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/v1/patients/1").build();
+        cache.put(key, response(100, now, now + 1_000), cache.generation(key));
+
+        assertThat(cache.get(key, now)).isNotNull();
+        assertThat(cache.get(key, now + 1_000)).isNull();
+        assertThat(cache.lastKnownGood("patient", request, now + 1_000)).isNotNull();
+
+        assertThat(cache.get(key, now + 2_000)).isNull();
+        assertThat(cache.lastKnownGood("patient", request, now + 2_000)).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.sizeInBytes()).isZero();
+    }
+
+    @Test
+    void invalidatedEntryIsNeverServedAsLastKnownGood() {
+        cache.put(key("patient", 1), response(100), cache.generation(key("patient", 1)));
+        cache.invalidatePatient(1);
+
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/v1/patients/1").build();
+        assertThat(cache.lastKnownGood("patient", request, System.nanoTime())).isNull();
+    }
+
+    @Test
+    void invalidationDuringBackendCallDiscardsTheResponse() {
+        CacheKey key = key("patient", 1);
+        long generation = cache.generation(key);
+
+        cache.invalidatePatient(1);
+
+        assertThat(cache.put(key, response(100), generation)).isFalse();
+        assertThat(cache.put(key, response(100), cache.generation(key))).isTrue();
+    }
+
+    @Test
+    void writesOnOtherPatientsOrRoutesDoNotDiscardTheResponse() {
+        CacheKey patientKey = key("patient", 1);
+        CacheKey notesKey = key("notes", 1);
+        long patientGeneration = cache.generation(patientKey);
+        long notesGeneration = cache.generation(notesKey);
+
+        cache.invalidatePatient(2);
+        cache.invalidateRoute("notes");
+
+        assertThat(cache.put(patientKey, response(100), patientGeneration)).isTrue();
+        assertThat(cache.put(notesKey, response(100), notesGeneration)).isFalse();
+    }
+
+    @Test
+    void patientInvalidationSpansRoutesAndRouteInvalidationStaysOnRoute() {
+        cache.put(key("patient", 1), response(100), cache.generation(key("patient", 1)));
+        cache.put(key("patient", 2), response(100), cache.generation(key("patient", 2)));
+        cache.put(key("notes", 1), response(100), cache.generation(key("notes", 1)));
+        cache.put(key("notes", 2), response(100), cache.generation(key("notes", 2)));
+
+        cache.invalidatePatient(1);
+        assertThat(cache.size()).isEqualTo(2);
+
+        cache.invalidateRoute("notes");
+        long now = System.nanoTime();
+        assertThat(cache.get(key("patient", 2), now)).isNotNull();
+        assertThat(cache.get(key("notes", 2), now)).isNull();
+    }
+
+    @Test
+    void sizeStaysUnderByteBoundAndRecentlyReadEntriesSurvive() {
+        CacheKey hot = key("patient", 0);
+        cache.put(hot, response(600), cache.generation(hot));
+        for (int i = 1; i <= 20; i++) {
+            cache.get(hot, System.nanoTime());
+            cache.put(key("patient", i), response(600), cache.generation(key("patient", i)));
+            assertThat(cache.sizeInBytes()).isLessThanOrEqualTo(4096);
+        }
+
+        assertThat(cache.get(hot, System.nanoTime())).isNotNull();
+        assertThat(cache.put(key("patient", 99), response(4000), cache.generation(key("patient", 99)))).isFalse();
+        assertThat(cache.statistics()).containsEntry("entries", cache.size());
+    }
+
+    @Test
+    void hitRatioAndBytesServedAreReportedPerRoute() {
+        cache.recordHit("patient", 300);
+        cache.recordHit("patient", 300);
+        cache.recordHit("patient", 300);
+        cache.recordMiss("patient");
+        cache.recordMiss("notes");
+
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> routes = (Map<String, Map<String, Object>>) cache.statistics().get("routes");
+        assertThat(routes.get("patient")).containsEntry("hitRatio", 0.75).containsEntry("bytesServed", 900L);
+        assertThat(routes.get("notes")).containsEntry("hitRatio", 0.0).containsEntry("bytesServed", 0L);
+    }
+
+    @Test
+    void ifNoneMatchUsesWeakComparison() {
+        assertThat(ResponseCacheFilter.etagMatches(List.of("\"3\""), "\"3\"")).isTrue();
+        assertThat(ResponseCacheFilter.etagMatches(List.of("W/\"3\""), "\"3\"")).isTrue();
+        assertThat(ResponseCacheFilter.etagMatches(List.of("*"), "\"3\"")).isTrue();
+        assertThat(ResponseCacheFilter.etagMatches(List.of("\"2\""), "\"3\"")).isFalse();
+        assertThat(ResponseCacheFilter.etagMatches(List.of(), "\"3\"")).isFalse();
+    }
+
+    private static CacheKey key(String route, long patientId) {
+        String uri = route.equals("patient") ? "/api/v1/patients/" + patientId : "/api/v1/notes/patient/" + patientId;
+        return new CacheKey(route, patientId, uri);
+    }
+
+    private static CachedResponse response(int bodySize) {
+        long now = System.nanoTime();
+        return response(bodySize, now, now + Duration.ofMinutes(1).toNanos());
+    }
+
+    private static CachedResponse response(int bodySize, long storedAt, long expiresAt) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"1\"");
+        return new CachedResponse(new byte[bodySize], headers, storedAt, expiresAt, expiresAt + 1_000);
+    }
+}
@@ -0,0 +1,56 @@
+package com.mediscreen.gateway.cache;
+
+import com.mediscreen.gateway.cache.RequestCoalescer.Flight;
+import com.mediscreen.gateway.cache.RequestCoalescer.FlightKey;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescerTest {
+
+    private static final FlightKey KEY = new FlightKey("patient", "/api/v1/patients/1", "ROLE_FRONTEND", "application/json");
+
+    private final RequestCoalescer coalescer = new RequestCoalescer(2, 1024, List.of("patient"));
+
+    @Test
+    void identicalRequestsJoinTheSameFlightWithASingleLeader() {
+        Flight first = coalescer.join(KEY);
+        Flight second = coalescer.join(KEY);
+        Flight otherRole = coalescer.join(new FlightKey("patient", "/api/v1/patients/1", "ROLE_ASSESSMENT", "application/json"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(otherRole).isNotSameAs(first);
+        assertThat(first.lead()).isTrue();
+        assertThat(second.lead()).isFalse();
+    }
+
+    @Test
+    void waitersAreBounded() {
+        Flight flight = coalescer.join(KEY);
+        flight.lead();
+
+        assertThat(flight.tryWait()).isTrue();
+        assertThat(flight.tryWait()).isTrue();
+        assertThat(flight.tryWait()).isFalse();
+    }
+
+    @Test
+    void publishedResponseReachesWaitersAndClosesTheFlight() {
+        Flight flight = coalescer.join(KEY);
+        flight.lead();
+        flight.tryWait();
+
+        SharedResponse response = new SharedResponse(HttpStatus.OK, HttpHeaders.EMPTY, "{}".getBytes());
+        flight.publish(response);
+        flight.publish(SharedResponse.NONE);
+
+        assertThat(flight.result().block()).isSameAs(response);
+        Flight next = coalescer.join(KEY);
+        assertThat(next).isNotSameAs(flight);
+        assertThat(next.lead()).isTrue();
+    }
+}
@@ -0,0 +1,205 @@
+package com.mediscreen.gateway.cache;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Base64;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Tests d'intégration du cache de réponses Gateway (configuration de production, backends WireMock)
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = com.mediscreen.gateway.GatewayServiceApplication.class
+)
+@AutoConfigureWebTestClient
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-frontend",
+    "AUTH_PASSWORD=test-pass",
+    "mediscreen.auth.patient.username=test-patient",
+    "mediscreen.auth.patient.password=patient-pass",
+    "mediscreen.auth.notes.username=test-notes",
+    "mediscreen.auth.notes.password=notes-pass",
+    "mediscreen.auth.assessment.username=test-assessment",
+    "mediscreen.auth.assessment.password=assessment-pass"
+})
+@DisplayName("Tests d'intégration - Cache de réponses Gateway")
+class ResponseCacheIntegrationTest {
+
+    private static final String PATIENT_JSON = "{\"id\":1,\"nom\":\"TestNone\"}";
+    private static final String NOTES_JSON = "[{\"id\":\"n1\",\"patId\":1}]";
+
+    private static WireMockServer patientServiceMock;
+    private static WireMockServer notesServiceMock;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private GatewayResponseCache cache;
+
+    private final String frontendAuth = "Basic " + Base64.getEncoder().encodeToString("test-frontend:test-pass".getBytes());
+
+    @DynamicPropertySource
+    static void configureBackends(DynamicPropertyRegistry registry) {
+        patientServiceMock = new WireMockServer(wireMockConfig().dynamicPort());
+        notesServiceMock = new WireMockServer(wireMockConfig().dynamicPort());
+        patientServiceMock.start();
+        notesServiceMock.start();
+        registry.add("mediscreen.services.patient.uri", () -> "http://localhost:" + patientServiceMock.port());
+        registry.add("mediscreen.services.notes.uri", () -> "http://localhost:" + notesServiceMock.port());
+    }
+
+    @AfterAll
+    static void stopBackends() {
+        patientServiceMock.stop();
+        notesServiceMock.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        patientServiceMock.resetAll();
+        notesServiceMock.resetAll();
+        cache.clear();
+
+        patientServiceMock.stubFor(get(urlEqualTo("/api/v1/patients/1")).willReturn(aResponse()
+                .withStatus(200)
+                .withHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .withHeader(HttpHeaders.ETAG, "\"3\"")
+                .withBody(PATIENT_JSON)));
+        notesServiceMock.stubFor(get(urlEqualTo("/api/v1/notes/patient/1")).willReturn(aResponse()
+                .withStatus(200)
+                .withHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .withBody(NOTES_JSON)));
+    }
+
+    @Test
+    @DisplayName("Second GET patient servi depuis le cache, sans appel backend")
+    void secondGet_IsServedFromCache() {
+        getPatient().expectStatus().isOk()
+                .expectHeader().valueEquals(GatewayResponseCache.X_CACHE, "MISS")
+                .expectBody(String.class).isEqualTo(PATIENT_JSON);
+
+        getPatient().expectStatus().isOk()
+                .expectHeader().valueEquals(GatewayResponseCache.X_CACHE, "HIT")
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"")
+                .expectHeader().exists(HttpHeaders.AGE)
+                .expectBody(String.class).isEqualTo(PATIENT_JSON);
+
+        patientServiceMock.verify(1, getRequestedFor(urlEqualTo("/api/v1/patients/1")));
+    }
+
+    @Test
+    @DisplayName("If-None-Match sur l'ETag en cache : 304 sans appel backend")
+    void conditionalGet_MatchingEtag_Returns304FromCache() {
+        primePatient();
+
+        webTestClient.get().uri("/api/v1/patients/1")
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"");
+
+        patientServiceMock.verify(1, getRequestedFor(urlEqualTo("/api/v1/patients/1")));
+    }
+
+    @Test
+    @DisplayName("PUT sur le patient invalide son entrée")
+    void put_InvalidatesPatientEntry() {
+        patientServiceMock.stubFor(put(urlEqualTo("/api/v1/patients/1")).willReturn(aResponse().withStatus(200)));
+        primePatient();
+
+        webTestClient.put().uri("/api/v1/patients/1")
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .bodyValue(PATIENT_JSON)
+                .exchange()
+                .expectStatus().isOk();
+
+        getPatient().expectStatus().isOk()
+                .expectHeader().valueEquals(GatewayResponseCache.X_CACHE, "MISS");
+        patientServiceMock.verify(2, getRequestedFor(urlEqualTo("/api/v1/patients/1")));
+    }
+
+    @Test
+    @DisplayName("POST de note invalide les notes en cache")
+    void notePost_InvalidatesNotesEntries() {
+        notesServiceMock.stubFor(post(urlEqualTo("/api/v1/notes")).willReturn(aResponse().withStatus(201)));
+        getNotes().expectStatus().isOk().expectBody(String.class).isEqualTo(NOTES_JSON);
+        getNotes().expectHeader().valueEquals(GatewayResponseCache.X_CACHE, "HIT");
+
+        webTestClient.post().uri("/api/v1/notes")
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .bodyValue("{\"patId\":1,\"patient\":\"TestNone\",\"note\":\"RAS\"}")
+                .exchange()
+                .expectStatus().isCreated();
+
+        getNotes().expectHeader().valueEquals(GatewayResponseCache.X_CACHE, "MISS");
+        notesServiceMock.verify(2, getRequestedFor(urlEqualTo("/api/v1/notes/patient/1")));
+    }
+
+    @Test
+    @DisplayName("Réponse Cache-Control: no-store jamais conservée")
+    void noStoreResponse_IsNotCached() {
+        patientServiceMock.stubFor(get(urlEqualTo("/api/v1/patients/1")).willReturn(aResponse()
+                .withStatus(200)
+                .withHeader(HttpHeaders.CACHE_CONTROL, "no-store")
+                .withBody(PATIENT_JSON)));
+
+        primePatient();
+        getPatient().expectHeader().valueEquals(GatewayResponseCache.X_CACHE, "MISS");
+
+        patientServiceMock.verify(2, getRequestedFor(urlEqualTo("/api/v1/patients/1")));
+    }
+
+    @Test
+    @DisplayName("Requête Cache-Control: no-cache transmise au backend")
+    void noCacheRequest_GoesToBackend() {
+        primePatient();
+
+        webTestClient.get().uri("/api/v1/patients/1")
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(GatewayResponseCache.X_CACHE, "MISS");
+
+        patientServiceMock.verify(2, getRequestedFor(urlEqualTo("/api/v1/patients/1")));
+    }
+
+    /**
+     * GET attendu jusqu'au bout du corps : expectStatus() seul rend la main dès les headers,
+     * la requête suivante partirait avant que la réponse n'ait été conservée
+     */
+    private void primePatient() {
+        getPatient().expectStatus().isOk().expectBody(String.class).isEqualTo(PATIENT_JSON);
+    }
+
+    private WebTestClient.ResponseSpec getPatient() {
+        return webTestClient.get().uri("/api/v1/patients/1")
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .exchange();
+    }
+
+    private WebTestClient.ResponseSpec getNotes() {
+        return webTestClient.get().uri("/api/v1/notes/patient/1")
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .exchange();
+    }
+}
@@ -0,0 +1,181 @@
+package com.mediscreen.gateway.compression;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.Options;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration de la compression des réponses (configuration de production, backend WireMock)
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = com.mediscreen.gateway.GatewayServiceApplication.class
+)
+@AutoConfigureWebTestClient
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-frontend",
+    "AUTH_PASSWORD=test-pass",
+    "mediscreen.auth.patient.username=test-patient",
+    "mediscreen.auth.patient.password=patient-pass",
+    "mediscreen.auth.notes.username=test-notes",
+    "mediscreen.auth.notes.password=notes-pass",
+    "mediscreen.auth.assessment.username=test-assessment",
+    "mediscreen.auth.assessment.password=assessment-pass"
+})
+@DisplayName("Tests d'intégration - Compression des réponses")
+class CompressionIntegrationTest {
+
+    private static final String NOTES_JSON = "[" + "{\"patId\":1,\"note\":\"Le patient déclare fumer depuis peu\"},".repeat(100)
+            + "{\"patId\":1,\"note\":\"Poids supérieur au poids recommandé\"}]";
+    private static final String PATIENT_JSON = "{\"id\":1,\"nom\":\"TestNone\"}";
+    private static final String LARGE_PATIENT_JSON = "{\"id\":2,\"nom\":\"TestInDanger\",\"antecedents\":\""
+            + "Hémoglobine A1C supérieure au niveau recommandé. ".repeat(40) + "\"}";
+
+    private static WireMockServer backendMock;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private GatewayCompression compression;
+
+    private final String frontendAuth = "Basic " + Base64.getEncoder().encodeToString("test-frontend:test-pass".getBytes());
+
+    @DynamicPropertySource
+    static void configureBackends(DynamicPropertyRegistry registry) {
+        // Comme les backends Spring (Tomcat) : pas de compression, Content-Length sur les réponses courtes
+        backendMock = new WireMockServer(wireMockConfig().dynamicPort().gzipDisabled(true)
+                .useChunkedTransferEncoding(Options.ChunkedEncodingPolicy.NEVER));
+        backendMock.start();
+        backendMock.stubFor(get(urlEqualTo("/api/v1/notes/patient/1")).willReturn(okJson(NOTES_JSON)
+                .withHeader(HttpHeaders.ETAG, "\"notes-v1\"")));
+        backendMock.stubFor(get(urlEqualTo("/api/v1/patients/1")).willReturn(okJson(PATIENT_JSON)));
+        registry.add("mediscreen.services.patient.uri", () -> "http://localhost:" + backendMock.port());
+        registry.add("mediscreen.services.notes.uri", () -> "http://localhost:" + backendMock.port());
+    }
+
+    @AfterAll
+    static void stopBackends() {
+        backendMock.stop();
+    }
+
+    @Test
+    @DisplayName("Historique de notes : gzip selon l'Accept-Encoding de chaque client, cache conservé en clair")
+    void largeResponseIsCompressedPerClient() throws Exception {
+        long saved = compression.bytesSaved("notes");
+
+        EntityExchangeResult<byte[]> gzipped = notes("gzip, deflate");
+        assertThat(gzipped.getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzipped.getResponseHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gzipped.getResponseHeaders().getETag()).isEqualTo("W/\"notes-v1\"");
+        assertThat(gunzip(gzipped.getResponseBody())).isEqualTo(NOTES_JSON);
+        assertThat(gzipped.getResponseBody().length).isLessThan(NOTES_JSON.getBytes(StandardCharsets.UTF_8).length / 5);
+
+        // Servie depuis le cache : corps en clair pour un client sans gzip, compressé sinon
+        EntityExchangeResult<byte[]> plain = notes(null);
+        assertThat(plain.getResponseHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(plain.getResponseHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(new String(plain.getResponseBody(), StandardCharsets.UTF_8)).isEqualTo(NOTES_JSON);
+
+        EntityExchangeResult<byte[]> cachedGzip = notes("gzip");
+        assertThat(cachedGzip.getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gunzip(cachedGzip.getResponseBody())).isEqualTo(NOTES_JSON);
+
+        // Deux réponses compressées, comptées en fin d'échange (éventuellement juste après la réception)
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (compression.bytesSaved("notes") - saved <= NOTES_JSON.length() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(compression.bytesSaved("notes") - saved).isGreaterThan(NOTES_JSON.length());
+        backendMock.verify(1, getRequestedFor(urlEqualTo("/api/v1/notes/patient/1")));
+    }
+
+    @Test
+    @DisplayName("Réponse sous le seuil : transmise en clair")
+    void smallResponseIsNotCompressed() {
+        EntityExchangeResult<byte[]> result = webTestClient.get().uri("/api/v1/patients/1")
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult();
+
+        assertThat(result.getResponseHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(new String(result.getResponseBody(), StandardCharsets.UTF_8)).isEqualTo(PATIENT_JSON);
+    }
+
+    @Test
+    @DisplayName("ETag patient affaibli par gzip : PUT conditionnel renvoyé fort au backend")
+    void weakenedPatientEtag_StillMatchesOnConditionalPut() {
+        backendMock.stubFor(get(urlEqualTo("/api/v1/patients/2")).willReturn(okJson(LARGE_PATIENT_JSON)
+                .withHeader(HttpHeaders.ETAG, "\"3\"")));
+        backendMock.stubFor(put(urlEqualTo("/api/v1/patients/2")).atPriority(2)
+                .willReturn(aResponse().withStatus(412)));
+        backendMock.stubFor(put(urlEqualTo("/api/v1/patients/2")).atPriority(1)
+                .withHeader(HttpHeaders.IF_MATCH, equalTo("\"3\""))
+                .willReturn(okJson(LARGE_PATIENT_JSON).withHeader(HttpHeaders.ETAG, "\"4\"")));
+
+        EntityExchangeResult<byte[]> gzipped = webTestClient.get().uri("/api/v1/patients/2")
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult();
+        assertThat(gzipped.getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        String etag = gzipped.getResponseHeaders().getETag();
+        assertThat(etag).isEqualTo("W/\"3\"");
+
+        webTestClient.put().uri("/api/v1/patients/2")
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_MATCH, etag)
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .bodyValue(LARGE_PATIENT_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "W/\"4\"");
+        backendMock.verify(putRequestedFor(urlEqualTo("/api/v1/patients/2"))
+                .withHeader(HttpHeaders.IF_MATCH, equalTo("\"3\"")));
+    }
+
+    private EntityExchangeResult<byte[]> notes(String acceptEncoding) {
+        return webTestClient.get().uri("/api/v1/notes/patient/1")
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .headers(headers -> {
+                    if (acceptEncoding != null) {
+                        headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+                    }
+                })
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult();
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream gunzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(gunzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.mediscreen.gateway.compression;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GzipEncoderTest {
+
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    @Test
+    void bufferByBufferOutputIsAValidGzipStream() throws IOException {
+        String note = "{\"note\":\"Le patient déclare fumer depuis peu, taux de cholestérol anormal\"},";
+        GzipEncoder encoder = new GzipEncoder(Deflater.DEFAULT_COMPRESSION, bufferFactory);
+        ByteArrayOutputStream original = new ByteArrayOutputStream();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        for (int i = 0; i < 200; i++) {
+            byte[] chunk = note.getBytes(StandardCharsets.UTF_8);
+            original.write(chunk);
+            append(compressed, encoder.encode(bufferFactory.wrap(chunk)));
+        }
+        append(compressed, encoder.finish());
+        encoder.end();
+
+        try (GZIPInputStream gunzip = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertThat(gunzip.readAllBytes()).isEqualTo(original.toByteArray());
+        }
+        assertThat(encoder.bytesIn()).isEqualTo(original.size());
+        assertThat(encoder.bytesOut()).isEqualTo(compressed.size());
+        assertThat(encoder.bytesOut()).isLessThan(encoder.bytesIn() / 5);
+    }
+
+    @Test
+    void emptyBodyStillProducesAValidGzipStream() throws IOException {
+        GzipEncoder encoder = new GzipEncoder(Deflater.DEFAULT_COMPRESSION, bufferFactory);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        append(compressed, encoder.finish());
+        encoder.end();
+
+        try (GZIPInputStream gunzip = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertThat(gunzip.readAllBytes()).isEmpty();
+        }
+    }
+
+    @Test
+    void acceptEncodingNegotiation() {
+        assertThat(CompressionFilter.acceptsGzip(List.of("gzip, deflate, br"))).isTrue();
+        assertThat(CompressionFilter.acceptsGzip(List.of("br;q=1.0, gzip;q=0.8"))).isTrue();
+        assertThat(CompressionFilter.acceptsGzip(List.of("*"))).isTrue();
+        assertThat(CompressionFilter.acceptsGzip(List.of("gzip;q=0, *"))).isFalse();
+        assertThat(CompressionFilter.acceptsGzip(List.of("identity"))).isFalse();
+        assertThat(CompressionFilter.acceptsGzip(null)).isFalse();
+    }
+
+    private static void append(ByteArrayOutputStream target, DataBuffer buffer) {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        target.write(bytes, 0, bytes.length);
+    }
+}
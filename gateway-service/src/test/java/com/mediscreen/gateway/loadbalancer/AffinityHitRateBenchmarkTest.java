@@ -0,0 +1,84 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Impact de l'affinité patient sur le taux de succès des caches locaux des répliques
+ *
+ * Simulation : 3 répliques avec chacune un cache LRU de 500 patients, 1 500 patients
+ * consultés (20 % des patients font 80 % des requêtes), répartition par charge puis par
+ * hachage cohérent ; une réplique est ensuite évincée pour mesurer la perte.
+ *
+ * Exclu du build par défaut, à lancer explicitement :
+ * mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark -Dtest=AffinityHitRateBenchmarkTest
+ */
+@Tag("benchmark")
+class AffinityHitRateBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AffinityHitRateBenchmarkTest.class);
+
+    private static final int REPLICAS = 3;
+    private static final int CACHE_ENTRIES = 500;
+    private static final int PATIENTS = 1_500;
+    private static final int REQUESTS = 200_000;
+
+    @Test
+    void hitRateByBalancingMode() {
+        BackendPool pool = new BackendPool("notes", IntStream.range(0, REPLICAS)
+                .mapToObj(i -> URI.create("http://notes-" + i + ":8082")).toList(),
+                1, Duration.ofMinutes(10), Duration.ofMinutes(10));
+        ConsistentHashRing ring = new ConsistentHashRing(pool.getInstances(), 100, 1.25);
+
+        double leastOutstanding = hitRate(pool, null);
+        double patientHash = hitRate(pool, ring);
+        pool.onFailure(pool.getInstances().get(0), 0);
+        double patientHashEjected = hitRate(pool, ring);
+
+        logger.info("Taux de succès des caches : least-outstanding {}, patient-hash {}, patient-hash (1 réplique évincée) {}",
+                String.format("%.3f", leastOutstanding), String.format("%.3f", patientHash),
+                String.format("%.3f", patientHashEjected));
+
+        assertThat(patientHash).isGreaterThan(leastOutstanding);
+        assertThat(patientHashEjected).isGreaterThan(leastOutstanding);
+    }
+
+    private static double hitRate(BackendPool pool, ConsistentHashRing ring) {
+        List<Map<Long, Boolean>> caches = new ArrayList<>();
+        for (int i = 0; i < REPLICAS; i++) {
+            caches.add(new LinkedHashMap<>(CACHE_ENTRIES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                    return size() > CACHE_ENTRIES;
+                }
+            });
+        }
+        Random random = new Random(42);
+        long hits = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            long patientId = random.nextDouble() < 0.8
+                    ? random.nextInt(PATIENTS / 5)
+                    : PATIENTS / 5 + random.nextInt(PATIENTS - PATIENTS / 5);
+            BackendInstance instance = ring == null ? pool.choose(0) : pool.choose(patientId, ring, 0);
+            pool.release(instance);
+            Map<Long, Boolean> cache = caches.get(pool.getInstances().indexOf(instance));
+            if (cache.put(patientId, Boolean.TRUE) != null) {
+                hits++;
+            }
+        }
+        return (double) hits / REQUESTS;
+    }
+}
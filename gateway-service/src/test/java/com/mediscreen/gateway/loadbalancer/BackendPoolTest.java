@@ -0,0 +1,95 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BackendPoolTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final BackendPool pool = new BackendPool("notes", List.of(
+            URI.create("http://notes-1:8082"), URI.create("http://notes-2:8082"), URI.create("http://notes-3:8082")),
+            3, Duration.ofSeconds(30), Duration.ofSeconds(90));
+
+    @Test
+    void twoChoicesAvoidTheBusiestInstance() {
+        BackendInstance busy = pool.getInstances().get(0);
+        for (int i = 0; i < 10; i++) {
+            busy.acquire();
+        }
+
+        Map<BackendInstance, Integer> picks = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            BackendInstance chosen = pool.choose(0);
+            picks.merge(chosen, 1, Integer::sum);
+            pool.release(chosen);
+        }
+
+        // L'instance chargée ne gagne jamais un duel ; les deux autres se partagent le trafic
+        assertThat(picks).doesNotContainKey(busy);
+        assertThat(picks.get(pool.getInstances().get(1))).isBetween(350, 650);
+    }
+
+    @Test
+    void consecutiveFailuresEjectUntilTimeoutWithGrowingDuration() {
+        BackendInstance failing = pool.getInstances().get(2);
+
+        pool.onFailure(failing, 0);
+        pool.onFailure(failing, 0);
+        pool.onSuccess(failing);
+        pool.onFailure(failing, 0);
+        pool.onFailure(failing, 0);
+        assertThat(failing.isEjected(0)).isFalse();
+
+        pool.onFailure(failing, 0);
+        assertThat(failing.isEjected(0)).isTrue();
+        assertThat(failing.ejectedForSeconds(SECOND)).isEqualTo(29);
+        for (int i = 0; i < 200; i++) {
+            assertThat(pool.choose(SECOND)).isNotSameAs(failing);
+        }
+
+        // Réintégrée à l'expiration ; nouvelle série d'échecs : éviction deux fois plus longue
+        assertThat(failing.isEjected(30 * SECOND)).isFalse();
+        for (int i = 0; i < 3; i++) {
+            pool.onFailure(failing, 30 * SECOND);
+        }
+        assertThat(failing.ejectedForSeconds(30 * SECOND)).isEqualTo(60);
+    }
+
+    @Test
+    void lastHealthyInstanceIsNeverEjected() {
+        List<BackendInstance> instances = pool.getInstances();
+        for (BackendInstance instance : instances) {
+            for (int i = 0; i < 3; i++) {
+                pool.onFailure(instance, 0);
+            }
+        }
+
+        assertThat(pool.healthyCount(0)).isEqualTo(1);
+        BackendInstance survivor = instances.stream().filter(i -> !i.isEjected(0)).findFirst().orElseThrow();
+        for (int i = 0; i < 100; i++) {
+            assertThat(pool.choose(0)).isSameAs(survivor);
+        }
+        assertThat(pool.getPanics()).isZero();
+    }
+
+    @Test
+    void singleInstanceRouteAlwaysUsesIt() {
+        BackendPool single = new BackendPool("assessment", List.of(URI.create("http://assessment:8083")),
+                1, Duration.ofSeconds(30), Duration.ofSeconds(90));
+        BackendInstance only = single.getInstances().get(0);
+
+        single.onFailure(only, 0);
+
+        assertThat(only.isEjected(0)).isFalse();
+        assertThat(single.choose(0)).isSameAs(only);
+        assertThat(only.getOutstanding()).isEqualTo(1);
+    }
+}
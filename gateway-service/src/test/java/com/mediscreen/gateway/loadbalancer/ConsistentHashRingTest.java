@@ -0,0 +1,106 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 10_000;
+
+    @Test
+    void keysSpreadEvenlyAndOwnerIsStableAcrossRings() {
+        List<BackendInstance> instances = instances(3);
+        ConsistentHashRing ring = new ConsistentHashRing(instances, 100, 1.25);
+        // Même configuration sur une autre Gateway : même anneau
+        ConsistentHashRing other = new ConsistentHashRing(instances(3), 100, 1.25);
+
+        Map<String, Integer> owned = new HashMap<>();
+        for (long key = 0; key < KEYS; key++) {
+            owned.merge(ring.owner(key).getId(), 1, Integer::sum);
+            assertThat(other.owner(key).getId()).isEqualTo(ring.owner(key).getId());
+            assertThat(ring.select(key, 0)).isSameAs(ring.owner(key));
+        }
+
+        assertThat(owned.values()).allSatisfy(count -> assertThat(count).isBetween(KEYS / 4, KEYS / 2));
+    }
+
+    @Test
+    void ejectedInstanceOnlyMovesItsOwnKeys() {
+        BackendPool pool = new BackendPool("notes", IntStream.range(0, 3)
+                .mapToObj(i -> URI.create("http://notes-" + i + ":8082")).toList(), 1, Duration.ofSeconds(30), Duration.ofSeconds(30));
+        ConsistentHashRing ring = new ConsistentHashRing(pool.getInstances(), 100, 1.25);
+        BackendInstance leaving = pool.getInstances().get(1);
+        pool.onFailure(leaving, 0);
+        assertThat(leaving.isEjected(0)).isTrue();
+
+        int moved = 0;
+        for (long key = 0; key < KEYS; key++) {
+            BackendInstance owner = ring.owner(key);
+            BackendInstance selected = ring.select(key, 0);
+            if (owner != leaving) {
+                assertThat(selected).isSameAs(owner);
+            } else {
+                assertThat(selected).isNotSameAs(leaving);
+                moved++;
+            }
+        }
+        assertThat(moved).isBetween(KEYS / 4, KEYS / 2);
+    }
+
+    @Test
+    void addingInstanceRemapsAboutItsShare() {
+        ConsistentHashRing three = new ConsistentHashRing(instances(3), 100, 1.25);
+        ConsistentHashRing four = new ConsistentHashRing(instances(4), 100, 1.25);
+
+        int moved = 0;
+        for (long key = 0; key < KEYS; key++) {
+            String before = three.owner(key).getId();
+            String after = four.owner(key).getId();
+            if (!before.equals(after)) {
+                // Seules les clés reprises par la nouvelle instance changent de propriétaire
+                assertThat(after).isEqualTo("notes-3:8082");
+                moved++;
+            }
+        }
+        assertThat(moved).isBetween(KEYS / 6, KEYS / 3);
+    }
+
+    @Test
+    void hotKeySpillsOverOnceOwnerExceedsLoadBound() {
+        List<BackendInstance> instances = instances(3);
+        ConsistentHashRing ring = new ConsistentHashRing(instances, 100, 1.25);
+        BackendInstance owner = ring.owner(42);
+
+        // Faible trafic : borne plancher, le propriétaire garde ses patients
+        for (int i = 0; i < ConsistentHashRing.MIN_CAPACITY - 1; i++) {
+            owner.acquire();
+        }
+        assertThat(ring.select(42, 0)).isSameAs(owner);
+
+        // 8 appels en cours sur le propriétaire, aucun ailleurs : borne ⌈1.25 × 9 / 3⌉ = 4
+        for (int i = ConsistentHashRing.MIN_CAPACITY - 1; i < 8; i++) {
+            owner.acquire();
+        }
+
+        BackendInstance spilled = ring.select(42, 0);
+        assertThat(spilled).isNotSameAs(owner);
+        for (int i = 0; i < 5; i++) {
+            owner.release();
+        }
+        assertThat(ring.select(42, 0)).isSameAs(owner);
+    }
+
+    private static List<BackendInstance> instances(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new BackendInstance(URI.create("http://notes-" + i + ":8082")))
+                .toList();
+    }
+}
@@ -0,0 +1,123 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration des GET couverts (une réplique lente, une rapide)
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = com.mediscreen.gateway.GatewayServiceApplication.class
+)
+@AutoConfigureWebTestClient
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-frontend",
+    "AUTH_PASSWORD=test-pass",
+    "mediscreen.auth.patient.username=test-patient",
+    "mediscreen.auth.patient.password=patient-pass",
+    "mediscreen.auth.notes.username=test-notes",
+    "mediscreen.auth.notes.password=notes-pass",
+    "mediscreen.auth.assessment.username=test-assessment",
+    "mediscreen.auth.assessment.password=assessment-pass",
+    "mediscreen.gateway-hedging.routes.patient.enabled=true",
+    "mediscreen.gateway-hedging.max-delay=100ms",
+    "mediscreen.gateway-hedging.budget-percent=100"
+})
+@DisplayName("Tests d'intégration - GET couverts Gateway")
+class HedgingIntegrationTest {
+
+    private static WireMockServer slowPatientService;
+    private static WireMockServer fastPatientService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private GatewayLoadBalancer loadBalancer;
+
+    private final String frontendAuth = "Basic " + Base64.getEncoder().encodeToString("test-frontend:test-pass".getBytes());
+
+    @DynamicPropertySource
+    static void configureBackends(DynamicPropertyRegistry registry) {
+        slowPatientService = new WireMockServer(wireMockConfig().dynamicPort());
+        fastPatientService = new WireMockServer(wireMockConfig().dynamicPort());
+        slowPatientService.start();
+        fastPatientService.start();
+        slowPatientService.stubFor(get(urlPathEqualTo("/api/v1/patients"))
+                .willReturn(okJson("[{\"replica\":\"slow\"}]").withFixedDelay(1500)));
+        fastPatientService.stubFor(get(urlPathEqualTo("/api/v1/patients"))
+                .willReturn(okJson("[{\"replica\":\"fast\"}]")));
+        fastPatientService.stubFor(post(urlEqualTo("/api/v1/patients"))
+                .willReturn(aResponse().withStatus(201)));
+        slowPatientService.stubFor(post(urlEqualTo("/api/v1/patients"))
+                .willReturn(aResponse().withStatus(201)));
+
+        registry.add("mediscreen.services.patient.uri", () -> "http://localhost:" + slowPatientService.port()
+                + ",http://localhost:" + fastPatientService.port());
+        registry.add("mediscreen.services.notes.uri", () -> "http://localhost:" + fastPatientService.port());
+        registry.add("mediscreen.services.assessment.uri", () -> "http://localhost:" + fastPatientService.port());
+    }
+
+    @AfterAll
+    static void stopBackends() {
+        slowPatientService.stop();
+        fastPatientService.stop();
+    }
+
+    @Test
+    @DisplayName("Réplique lente : la requête couverte vers l'autre réplique répond la première")
+    void slowReplicaIsHedged() {
+        for (int i = 0; i < 10; i++) {
+            long start = System.nanoTime();
+            webTestClient.get().uri("/api/v1/patients?page=" + i)
+                    .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody().jsonPath("$[0].replica").isEqualTo("fast");
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+        }
+
+        RequestHedging hedging = loadBalancer.hedging("patient");
+        assertThat(hedging.getWon()).isPositive().isEqualTo(hedging.getLaunched());
+        assertThat(fastPatientService.countRequestsMatching(
+                getRequestedFor(urlPathEqualTo("/api/v1/patients")).build()).getCount()).isEqualTo(10);
+        assertThat(loadBalancer.pool("patient").getInstances())
+                .allSatisfy(instance -> assertThat(instance.getOutstanding()).isZero());
+    }
+
+    @Test
+    @DisplayName("Écriture : jamais doublée")
+    void writesAreNotHedged() {
+        long launched = loadBalancer.hedging("patient").getLaunched();
+
+        webTestClient.post().uri("/api/v1/patients")
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .bodyValue("{\"nom\":\"Test\"}")
+                .exchange()
+                .expectStatus().isCreated();
+
+        assertThat(loadBalancer.hedging("patient").getLaunched()).isEqualTo(launched);
+        int posts = slowPatientService.countRequestsMatching(postRequestedFor(urlEqualTo("/api/v1/patients")).build()).getCount()
+                + fastPatientService.countRequestsMatching(postRequestedFor(urlEqualTo("/api/v1/patients")).build()).getCount();
+        assertThat(posts).isEqualTo(1);
+    }
+}
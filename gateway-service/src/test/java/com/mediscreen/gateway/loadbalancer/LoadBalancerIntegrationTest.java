@@ -0,0 +1,202 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Base64;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration de la répartition de charge (plusieurs backends WireMock par route)
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = com.mediscreen.gateway.GatewayServiceApplication.class
+)
+@AutoConfigureWebTestClient
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-frontend",
+    "AUTH_PASSWORD=test-pass",
+    "mediscreen.auth.patient.username=test-patient",
+    "mediscreen.auth.patient.password=patient-pass",
+    "mediscreen.auth.notes.username=test-notes",
+    "mediscreen.auth.notes.password=notes-pass",
+    "mediscreen.auth.assessment.username=test-assessment",
+    "mediscreen.auth.assessment.password=assessment-pass",
+    "mediscreen.gateway-lb.consecutive-failures=2",
+    "mediscreen.gateway-lb.routes.notes.mode=least-outstanding",
+    "mediscreen.gateway-lb.routes.assessment.mode=patient-hash"
+})
+@DisplayName("Tests d'intégration - Répartition de charge Gateway")
+class LoadBalancerIntegrationTest {
+
+    private static WireMockServer patientServiceMock1;
+    private static WireMockServer patientServiceMock2;
+    private static WireMockServer notesServiceMock;
+    private static WireMockServer assessmentServiceMock1;
+    private static WireMockServer assessmentServiceMock2;
+    private static int deadNotesPort;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private GatewayLoadBalancer loadBalancer;
+
+    private final String frontendAuth = "Basic " + Base64.getEncoder().encodeToString("test-frontend:test-pass".getBytes());
+
+    @DynamicPropertySource
+    static void configureBackends(DynamicPropertyRegistry registry) throws IOException {
+        patientServiceMock1 = new WireMockServer(wireMockConfig().dynamicPort());
+        patientServiceMock2 = new WireMockServer(wireMockConfig().dynamicPort());
+        notesServiceMock = new WireMockServer(wireMockConfig().dynamicPort());
+        assessmentServiceMock1 = new WireMockServer(wireMockConfig().dynamicPort());
+        assessmentServiceMock2 = new WireMockServer(wireMockConfig().dynamicPort());
+        for (WireMockServer server : new WireMockServer[]{patientServiceMock1, patientServiceMock2, notesServiceMock,
+                assessmentServiceMock1, assessmentServiceMock2}) {
+            server.start();
+        }
+        assessmentServiceMock1.stubFor(get(urlPathMatching("/api/v1/assess/patient/\\d+")).willReturn(okJson("{}")));
+        assessmentServiceMock2.stubFor(get(urlPathMatching("/api/v1/assess/patient/\\d+")).willReturn(okJson("{}")));
+        patientServiceMock1.stubFor(get(urlPathEqualTo("/api/v1/patients")).willReturn(okJson("[]")));
+        patientServiceMock2.stubFor(get(urlPathEqualTo("/api/v1/patients")).willReturn(okJson("[]")));
+        for (WireMockServer server : new WireMockServer[]{patientServiceMock1, patientServiceMock2}) {
+            server.stubFor(get(urlPathMatching("/api/v1/patients/\\d+")).willReturn(okJson("{\"nom\":\"TestNone\"}")));
+            server.stubFor(put(urlPathMatching("/api/v1/patients/\\d+")).willReturn(okJson("{\"nom\":\"TestNone\"}")));
+        }
+        notesServiceMock.stubFor(get(urlEqualTo("/api/v1/notes/patient/1"))
+                .willReturn(okJson("[]").withHeader(HttpHeaders.CACHE_CONTROL, "no-store")));
+        // Port libéré aussitôt : connexion refusée, comme une réplique arrêtée
+        try (ServerSocket socket = new ServerSocket(0)) {
+            deadNotesPort = socket.getLocalPort();
+        }
+
+        registry.add("mediscreen.services.patient.uri", () -> "http://localhost:" + patientServiceMock1.port()
+                + ",http://localhost:" + patientServiceMock2.port());
+        registry.add("mediscreen.services.notes.uri", () -> "http://localhost:" + notesServiceMock.port()
+                + ", http://localhost:" + deadNotesPort);
+        registry.add("mediscreen.services.assessment.uri", () -> "http://localhost:" + assessmentServiceMock1.port()
+                + ",http://localhost:" + assessmentServiceMock2.port());
+    }
+
+    @AfterAll
+    static void stopBackends() {
+        patientServiceMock1.stop();
+        patientServiceMock2.stop();
+        notesServiceMock.stop();
+        assessmentServiceMock1.stop();
+        assessmentServiceMock2.stop();
+    }
+
+    @Test
+    @DisplayName("Liste d'instances : requêtes réparties sur toutes les répliques")
+    void requestsSpreadAcrossReplicas() {
+        for (int i = 0; i < 20; i++) {
+            webTestClient.get().uri("/api/v1/patients?page=" + i)
+                    .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+
+        int first = patientServiceMock1.getAllServeEvents().size();
+        int second = patientServiceMock2.getAllServeEvents().size();
+        assertThat(first + second).isEqualTo(20);
+        assertThat(first).isPositive();
+        assertThat(second).isPositive();
+    }
+
+    @Test
+    @DisplayName("Route patient : lectures et écriture d'un patient sur la même réplique (cache local cohérent)")
+    void patientReadsAndWritesStayOnOneReplica() {
+        for (int id = 100; id < 110; id++) {
+            patient(id, HttpMethod.GET);
+            patient(id, HttpMethod.PUT);
+            patient(id, HttpMethod.GET);
+        }
+
+        for (int id = 100; id < 110; id++) {
+            String url = "/api/v1/patients/" + id;
+            int first = patientServiceMock1.countRequestsMatching(anyRequestedFor(urlEqualTo(url)).build()).getCount();
+            int second = patientServiceMock2.countRequestsMatching(anyRequestedFor(urlEqualTo(url)).build()).getCount();
+            // GET, PUT puis GET relu après invalidation du cache Gateway : trois appels, une seule réplique
+            assertThat(first + second).as(url).isEqualTo(3);
+            assertThat(first == 0 || second == 0).as(url).isTrue();
+        }
+        assertThat(patientServiceMock1.countRequestsMatching(putRequestedFor(urlPathMatching("/api/v1/patients/\\d+")).build())
+                .getCount()).isPositive();
+        assertThat(patientServiceMock2.countRequestsMatching(putRequestedFor(urlPathMatching("/api/v1/patients/\\d+")).build())
+                .getCount()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Réplique arrêtée : évincée après les échecs consécutifs, trafic sur les autres")
+    void deadReplicaIsEjected() {
+        int failed = 0;
+        for (int i = 0; i < 20; i++) {
+            int status = webTestClient.get().uri("/api/v1/notes/patient/1")
+                    .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                    .exchange()
+                    .returnResult(String.class)
+                    .getStatus().value();
+            if (status != 200) {
+                failed++;
+            }
+        }
+
+        BackendInstance dead = loadBalancer.pool("notes").getInstances().get(1);
+        assertThat(dead.getUri().getPort()).isEqualTo(deadNotesPort);
+        assertThat(dead.isEjected(System.nanoTime())).isTrue();
+        assertThat(failed).isEqualTo(2);
+        assertThat(notesServiceMock.getAllServeEvents()).hasSize(18);
+    }
+
+    @Test
+    @DisplayName("Affinité patient : les requêtes d'un patient restent sur la même réplique")
+    void patientHashKeepsPatientOnSameReplica() {
+        for (int round = 0; round < 3; round++) {
+            for (int patientId = 1; patientId <= 10; patientId++) {
+                webTestClient.get().uri("/api/v1/assess/patient/" + patientId)
+                        .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                        .exchange()
+                        .expectStatus().isOk();
+            }
+        }
+
+        for (int patientId = 1; patientId <= 10; patientId++) {
+            String path = "/api/v1/assess/patient/" + patientId;
+            int first = assessmentServiceMock1.countRequestsMatching(getRequestedFor(urlEqualTo(path)).build()).getCount();
+            int second = assessmentServiceMock2.countRequestsMatching(getRequestedFor(urlEqualTo(path)).build()).getCount();
+            assertThat(List.of(first, second)).as(path).containsExactlyInAnyOrder(0, 3);
+        }
+        assertThat(assessmentServiceMock1.getAllServeEvents()).isNotEmpty();
+        assertThat(assessmentServiceMock2.getAllServeEvents()).isNotEmpty();
+        assertThat(loadBalancer.affinity("assessment").ownerRatio()).isEqualTo(1.0);
+    }
+
+    private void patient(int id, HttpMethod method) {
+        WebTestClient.RequestBodySpec request = webTestClient.method(method).uri("/api/v1/patients/" + id)
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth);
+        if (method == HttpMethod.PUT) {
+            request.contentType(MediaType.APPLICATION_JSON).bodyValue("{\"nom\":\"TestNone\"}");
+        }
+        request.exchange().expectStatus().isOk().expectBody(String.class).isEqualTo("{\"nom\":\"TestNone\"}");
+    }
+}
@@ -0,0 +1,99 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestHedgingTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void delayFollowsPercentileWithinBounds() {
+        RequestHedging hedging = new RequestHedging(0.95, Duration.ofMillis(20), Duration.ofMillis(500), 5);
+        assertThat(hedging.delayNanos()).isEqualTo(500 * MILLI);
+
+        // 96 % des réponses en 10 ms, 4 % en 300 ms : p95 sous la traîne lente, relevé au minimum
+        for (int i = 0; i < RequestHedging.WINDOW; i++) {
+            hedging.recordLatency((i % 25 == 0 ? 300 : 10) * MILLI);
+        }
+        assertThat(hedging.delayNanos()).isEqualTo(20 * MILLI);
+
+        for (int i = 0; i < RequestHedging.WINDOW; i++) {
+            hedging.recordLatency((i % 10 == 0 ? 300 : 100) * MILLI);
+        }
+        assertThat(hedging.delayNanos()).isEqualTo(300 * MILLI);
+
+        for (int i = 0; i < RequestHedging.WINDOW; i++) {
+            hedging.recordLatency(2_000 * MILLI);
+        }
+        assertThat(hedging.delayNanos()).isEqualTo(500 * MILLI);
+    }
+
+    @Test
+    void budgetCapsHedgesToPercentageOfRequests() {
+        RequestHedging hedging = new RequestHedging(0.95, Duration.ofMillis(20), Duration.ofMillis(500), 10);
+        assertThat(hedging.tryAcquire()).isFalse();
+
+        int hedges = 0;
+        for (int i = 0; i < 1000; i++) {
+            hedging.onRequest();
+            if (hedging.tryAcquire()) {
+                hedges++;
+            }
+        }
+
+        assertThat(hedges).isEqualTo(100);
+        assertThat(hedging.getLaunched()).isEqualTo(100);
+        assertThat(hedging.getRefused()).isEqualTo(901);
+    }
+
+    @Test
+    void unusedBudgetIsBounded() {
+        RequestHedging hedging = new RequestHedging(0.95, Duration.ofMillis(20), Duration.ofMillis(500), 50);
+        for (int i = 0; i < 10_000; i++) {
+            hedging.onRequest();
+        }
+
+        int burst = 0;
+        while (hedging.tryAcquire()) {
+            burst++;
+        }
+        assertThat(burst).isEqualTo(10);
+    }
+
+    @Test
+    void cancelledLoserStillFeedsTheLatencyWindow() {
+        RequestHedging hedging = new RequestHedging(0.95, Duration.ofMillis(20), Duration.ofMillis(20), 100);
+        hedging.onRequest();
+        BackendPool pool = new BackendPool("patient", List.of(
+                URI.create("http://patient-1:8081"), URI.create("http://patient-2:8081")),
+                3, Duration.ofSeconds(30), Duration.ofSeconds(90));
+        BackendInstance slow = pool.getInstances().get(0);
+        // Réplique lente : pas de réponse avant 5 s ; l'autre répond immédiatement
+        GlobalFilter routingFilter = (exchange, chain) ->
+                exchange.getAttribute(BackendInstance.EXCHANGE_ATTR) == slow
+                        ? Mono.delay(Duration.ofSeconds(5)).then()
+                        : Mono.empty();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/patients/1"));
+        slow.acquire();
+
+        BackendInstance winner = new HedgedRequest(exchange, URI.create("http://gateway/api/v1/patients/1"),
+                pool, hedging, routingFilter).send(slow).block(Duration.ofSeconds(2));
+
+        assertThat(winner).isNotSameAs(slow);
+        assertThat(hedging.getWon()).isEqualTo(1);
+        // Couverte (quasi immédiate) et tentative principale annulée : au moins le délai de couverture
+        long[] latencies = hedging.recentLatencies();
+        assertThat(latencies).hasSize(2);
+        assertThat(Math.max(latencies[0], latencies[1])).isGreaterThanOrEqualTo(20 * MILLI);
+    }
+}
@@ -0,0 +1,118 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration du client amont en h2c (backend WireMock acceptant HTTP/2 en clair)
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = com.mediscreen.gateway.GatewayServiceApplication.class
+)
+@AutoConfigureWebTestClient
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-frontend",
+    "AUTH_PASSWORD=test-pass",
+    "mediscreen.auth.patient.username=test-patient",
+    "mediscreen.auth.patient.password=patient-pass",
+    "mediscreen.auth.notes.username=test-notes",
+    "mediscreen.auth.notes.password=notes-pass",
+    "mediscreen.auth.assessment.username=test-assessment",
+    "mediscreen.auth.assessment.password=assessment-pass",
+    "mediscreen.gateway-upstream.protocol=h2c",
+    "mediscreen.gateway-upstream.h2c.max-connections=1",
+    // Premier échange à froid (codecs HTTP/2 chargés côté Gateway et WireMock) au-delà du budget de 2 s
+    "mediscreen.gateway-resilience.routes.patient.latency-budget=10s"
+})
+@DisplayName("Tests d'intégration - HTTP/2 en clair vers les backends")
+class UpstreamH2cIntegrationTest {
+
+    private static final int CONCURRENT = 8;
+
+    private static WireMockServer patientServiceMock;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final String frontendAuth = "Basic " + Base64.getEncoder().encodeToString("test-frontend:test-pass".getBytes());
+
+    @DynamicPropertySource
+    static void configureBackends(DynamicPropertyRegistry registry) {
+        patientServiceMock = new WireMockServer(wireMockConfig().dynamicPort());
+        patientServiceMock.start();
+        patientServiceMock.stubFor(get(urlPathMatching("/api/v1/patients/\\d+"))
+                .willReturn(okJson("{\"nom\":\"TestNone\"}").withFixedDelay(200)));
+        registry.add("mediscreen.services.patient.uri", () -> "http://localhost:" + patientServiceMock.port());
+    }
+
+    @AfterAll
+    static void stopBackends() {
+        patientServiceMock.stop();
+    }
+
+    @Test
+    @DisplayName("Requêtes simultanées : HTTP/2 multiplexé sur une connexion, pool mesuré par route")
+    void concurrentRequestsShareOneHttp2Connection() throws Exception {
+        patient(1).expectStatus().isOk();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT);
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT; i++) {
+                int patId = 10 + i;
+                futures.add(CompletableFuture.runAsync(() -> patient(patId).expectStatus().isOk(), executor));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<ServeEvent> served = patientServiceMock.getAllServeEvents();
+        assertThat(served).hasSize(CONCURRENT + 1);
+        assertThat(served).allSatisfy(event -> assertThat(event.getRequest().getProtocol()).isEqualTo("HTTP/2.0"));
+
+        String instance = "localhost:" + patientServiceMock.port();
+        double connections = meterRegistry.get("gateway.upstream.connections")
+                .tags("route", "patient", "instance", instance).gauges().stream()
+                .mapToDouble(Gauge::value).sum();
+        // HTTP/1.1 : une connexion par requête simultanée
+        assertThat(connections).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.upstream.streams.active")
+                .tags("route", "patient", "instance", instance).gauge()).isNotNull();
+    }
+
+    private WebTestClient.ResponseSpec patient(int patId) {
+        return webTestClient.get().uri("/api/v1/patients/" + patId)
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .exchange();
+    }
+}
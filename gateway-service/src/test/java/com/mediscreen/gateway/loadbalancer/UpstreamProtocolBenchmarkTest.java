@@ -0,0 +1,94 @@
+package com.mediscreen.gateway.loadbalancer;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Débit et connexions amont : HTTP/1.1 contre h2c à charge égale
+ *
+ * Simulation : backend WireMock (latence fixe de 20 ms, HTTP/1.1 et h2c sur le même port),
+ * 100 requêtes simultanées en continu depuis un client reactor-netty configuré comme celui de
+ * la Gateway : pool élastique en HTTP/1.1, 4 connexions au plus par réplique en h2c.
+ *
+ * Exclu du build par défaut, à lancer explicitement :
+ * mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark -Dtest=UpstreamProtocolBenchmarkTest
+ */
+@Tag("benchmark")
+class UpstreamProtocolBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamProtocolBenchmarkTest.class);
+
+    private static final int CONCURRENCY = 100;
+    private static final int REQUESTS = 10_000;
+    private static final int H2C_MAX_CONNECTIONS = 4;
+
+    @Test
+    void throughputAndConnectionsByProtocol() {
+        WireMockServer backend = new WireMockServer(wireMockConfig().dynamicPort()
+                .containerThreads(CONCURRENCY + 20).asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(CONCURRENCY).disableRequestJournal());
+        backend.start();
+        try {
+            backend.stubFor(get(urlPathMatching("/api/v1/patients/\\d+"))
+                    .willReturn(okJson("{\"nom\":\"TestNone\",\"prenom\":\"Test\"}").withFixedDelay(20)));
+            String baseUrl = "http://localhost:" + backend.port();
+
+            // Préchauffage (JIT, codecs HTTP/2) hors mesure
+            run(baseUrl, HttpProtocol.HTTP11, 1_000);
+            run(baseUrl, HttpProtocol.H2C, 1_000);
+
+            Result http11 = run(baseUrl, HttpProtocol.HTTP11, REQUESTS);
+            Result h2c = run(baseUrl, HttpProtocol.H2C, REQUESTS);
+
+            logger.info("Amont HTTP/1.1 : {} req/s, {} connexions ; h2c : {} req/s, {} connexions",
+                    Math.round(http11.throughput()), http11.connections(),
+                    Math.round(h2c.throughput()), h2c.connections());
+
+            assertThat(h2c.connections()).isLessThan(http11.connections())
+                    .isLessThanOrEqualTo(H2C_MAX_CONNECTIONS);
+        } finally {
+            backend.stop();
+        }
+    }
+
+    private static Result run(String baseUrl, HttpProtocol protocol, int requests) {
+        ConnectionProvider provider = ConnectionProvider.builder("benchmark-" + protocol)
+                .maxConnections(protocol == HttpProtocol.H2C ? H2C_MAX_CONNECTIONS : Integer.MAX_VALUE)
+                .pendingAcquireMaxCount(-1).build();
+        AtomicInteger connections = new AtomicInteger();
+        HttpClient client = HttpClient.create(provider).protocol(protocol).baseUrl(baseUrl)
+                .doOnChannelInit((observer, channel, address) -> connections.incrementAndGet());
+        try {
+            long start = System.nanoTime();
+            Long ok = Flux.range(0, requests)
+                    .flatMap(i -> client.get().uri("/api/v1/patients/" + (i % 500))
+                            .responseSingle((response, body) -> body.asString()
+                                    .thenReturn(response.status().code())), CONCURRENCY)
+                    .filter(status -> status == 200)
+                    .count()
+                    .block(Duration.ofMinutes(2));
+            double seconds = (System.nanoTime() - start) / 1e9;
+            assertThat(ok).isEqualTo(requests);
+            return new Result(requests / seconds, connections.get());
+        } finally {
+            provider.disposeLater().block(Duration.ofSeconds(10));
+        }
+    }
+
+    private record Result(double throughput, int connections) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.mediscreen.gateway.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayRouteMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GatewayRouteMetrics metrics = new GatewayRouteMetrics(registry, new double[]{0.5, 0.99},
+            new Duration[]{Duration.ofMillis(100), Duration.ofMillis(500)});
+
+    @Test
+    void requestsAreTimedPerRouteMethodStatusClassAndInstance() {
+        metrics.recordRequest("patient-service-route", HttpMethod.GET, "2xx", "patient-1:8081", TimeUnit.MILLISECONDS.toNanos(40));
+        metrics.recordRequest("patient-service-route", HttpMethod.GET, "2xx", "patient-1:8081", TimeUnit.MILLISECONDS.toNanos(300));
+        metrics.recordRequest("patient-service-route", HttpMethod.valueOf("PROPFIND"), "4xx", "none", 1_000);
+
+        Timer timer = registry.get("gateway.route.requests")
+                .tags("route", "patient-service-route", "method", "GET", "status", "2xx", "instance", "patient-1:8081")
+                .timer();
+        assertThat(timer.count()).isEqualTo(2);
+        CountAtBucket[] buckets = timer.takeSnapshot().histogramCounts();
+        assertThat(Arrays.stream(buckets).map(bucket -> bucket.count()))
+                .containsExactly(1.0, 2.0);
+        assertThat(timer.takeSnapshot().percentileValues()).hasSize(2);
+        assertThat(registry.get("gateway.route.requests").tags("method", "OTHER", "status", "4xx").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void statusIsReducedToItsClass() {
+        assertThat(GatewayRouteMetrics.statusClass(HttpStatus.TOO_MANY_REQUESTS)).isEqualTo("4xx");
+        assertThat(GatewayRouteMetrics.statusClass(HttpStatus.SERVICE_UNAVAILABLE)).isEqualTo("5xx");
+        assertThat(GatewayRouteMetrics.statusClass(null)).isEqualTo("2xx");
+    }
+
+    @Test
+    void upstreamUriTagKeepsTheResourceOnly() {
+        assertThat(GatewayRouteMetrics.uriTag("/api/v1/patients/42/adresse")).isEqualTo("/api/v1/patients");
+        assertThat(GatewayRouteMetrics.uriTag("/api/v1/notes/patient/7")).isEqualTo("/api/v1/notes");
+        assertThat(GatewayRouteMetrics.uriTag("/api/v1/patients?page=2")).isEqualTo("/api/v1/patients");
+        assertThat(GatewayRouteMetrics.uriTag("/api/v1/patients")).isEqualTo("/api/v1/patients");
+    }
+}
@@ -0,0 +1,101 @@
+package com.mediscreen.gateway.metrics;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration des métriques par route (configuration de production, backend WireMock)
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = com.mediscreen.gateway.GatewayServiceApplication.class
+)
+@AutoConfigureWebTestClient
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-frontend",
+    "AUTH_PASSWORD=test-pass",
+    "mediscreen.auth.patient.username=test-patient",
+    "mediscreen.auth.patient.password=patient-pass",
+    "mediscreen.auth.notes.username=test-notes",
+    "mediscreen.auth.notes.password=notes-pass",
+    "mediscreen.auth.assessment.username=test-assessment",
+    "mediscreen.auth.assessment.password=assessment-pass"
+})
+@DisplayName("Tests d'intégration - Métriques par route")
+class RouteMetricsIntegrationTest {
+
+    private static WireMockServer assessmentServiceMock;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final String frontendAuth = "Basic " + Base64.getEncoder().encodeToString("test-frontend:test-pass".getBytes());
+
+    @DynamicPropertySource
+    static void configureBackend(DynamicPropertyRegistry registry) {
+        assessmentServiceMock = new WireMockServer(wireMockConfig().dynamicPort());
+        assessmentServiceMock.start();
+        assessmentServiceMock.stubFor(get(urlEqualTo("/api/v1/assess/patient/1"))
+                .willReturn(okJson("{\"riskLevel\":\"None\"}").withFixedDelay(100)));
+        assessmentServiceMock.stubFor(get(urlEqualTo("/api/v1/assess/patient/404"))
+                .willReturn(aResponse().withStatus(404)));
+        registry.add("mediscreen.services.assessment.uri", () -> "http://localhost:" + assessmentServiceMock.port());
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        assessmentServiceMock.stop();
+    }
+
+    @Test
+    @DisplayName("Requêtes routées : timer par route, méthode, classe de statut et réplique, temps amont mesuré")
+    void routedRequestsAreTimedWithBackendInstance() {
+        String instance = "localhost:" + assessmentServiceMock.port();
+        for (int i = 0; i < 3; i++) {
+            webTestClient.get().uri("/api/v1/assess/patient/1")
+                    .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+        webTestClient.get().uri("/api/v1/assess/patient/404")
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        Timer ok = meterRegistry.get("gateway.route.requests")
+                .tags("route", "assessment-service-route", "method", "GET", "status", "2xx", "instance", instance)
+                .timer();
+        assertThat(ok.count()).isEqualTo(3);
+        assertThat(ok.max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(100);
+        assertThat(meterRegistry.get("gateway.route.requests")
+                .tags("route", "assessment-service-route", "status", "4xx").timer().count()).isEqualTo(1);
+
+        Timer firstByte = meterRegistry.get("gateway.upstream.first-byte")
+                .tags("route", "assessment-service-route", "instance", instance)
+                .timer();
+        assertThat(firstByte.count()).isEqualTo(4);
+        assertThat(meterRegistry.find("reactor.netty.http.client.connect.time").timers()).isNotEmpty();
+    }
+}
@@ -0,0 +1,68 @@
+package com.mediscreen.gateway.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.netty.http.client.HttpConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionPoolMetrics;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UpstreamPoolMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UpstreamPoolMetrics poolMetrics = new UpstreamPoolMetrics(registry,
+            Map.of("patient-1:8081", "patient")::get, false);
+
+    @Test
+    void http11PoolIsTaggedWithTheRouteOfItsReplica() {
+        poolMetrics.registerMetrics("http", "1", InetSocketAddress.createUnresolved("patient-1", 8081), pool(3, 2, 1));
+
+        assertThat(registry.get("gateway.upstream.connections")
+                .tags("route", "patient", "instance", "patient-1:8081", "state", "active").gauge().value()).isEqualTo(3);
+        assertThat(registry.get("gateway.upstream.connections").tags("state", "idle").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("gateway.upstream.connections.pending").gauge().value()).isEqualTo(1);
+        assertThat(registry.find("gateway.upstream.streams.active").gauge()).isNull();
+
+        poolMetrics.deRegisterMetrics("http", "1", InetSocketAddress.createUnresolved("patient-1", 8081));
+        assertThat(registry.find("gateway.upstream.connections").gauges()).isEmpty();
+    }
+
+    @Test
+    void http2PoolExposesActiveStreamsAndUnknownAddressHasNoRoute() {
+        UpstreamPoolMetrics poolMetrics = new UpstreamPoolMetrics(registry, instance -> null, true);
+        poolMetrics.registerMetrics("proxy", "2", InetSocketAddress.createUnresolved("other", 9000), pool(1, 0, 0));
+        poolMetrics.registerMetrics("http2.proxy", "2", InetSocketAddress.createUnresolved("other", 9000), http2Pool(1, 40));
+
+        assertThat(registry.get("gateway.upstream.streams.active")
+                .tags("route", "none", "instance", "other:9000").gauge().value()).isEqualTo(40);
+        // Pool TCP sous-jacent ignoré : une seule série de jauges par réplique
+        assertThat(registry.get("gateway.upstream.connections").tags("state", "active").gauges()).hasSize(1);
+        assertThat(registry.get("gateway.upstream.connections").tags("state", "active").gauge().value()).isEqualTo(1);
+    }
+
+    private static ConnectionPoolMetrics pool(int acquired, int idle, int pending) {
+        return new ConnectionPoolMetrics() {
+            public int acquiredSize() { return acquired; }
+            public int allocatedSize() { return acquired + idle; }
+            public int idleSize() { return idle; }
+            public int pendingAcquireSize() { return pending; }
+            public int maxAllocatedSize() { return 500; }
+            public int maxPendingAcquireSize() { return 1000; }
+        };
+    }
+
+    private static HttpConnectionPoolMetrics http2Pool(int connections, int streams) {
+        return new HttpConnectionPoolMetrics() {
+            public int activeStreamSize() { return streams; }
+            public int acquiredSize() { return connections; }
+            public int allocatedSize() { return connections; }
+            public int idleSize() { return 0; }
+            public int pendingAcquireSize() { return 0; }
+            public int maxAllocatedSize() { return 500; }
+            public int maxPendingAcquireSize() { return 1000; }
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package com.mediscreen.gateway.ratelimit;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Base64;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration de la limitation de débit (configuration de production, backend WireMock)
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = com.mediscreen.gateway.GatewayServiceApplication.class
+)
+@AutoConfigureWebTestClient
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-frontend",
+    "AUTH_PASSWORD=test-pass",
+    "mediscreen.auth.patient.username=test-patient",
+    "mediscreen.auth.patient.password=patient-pass",
+    "mediscreen.auth.notes.username=test-notes",
+    "mediscreen.auth.notes.password=notes-pass",
+    "mediscreen.auth.assessment.username=test-assessment",
+    "mediscreen.auth.assessment.password=assessment-pass",
+    "mediscreen.gateway-rate-limit.routes.assessment.burst=2",
+    "mediscreen.gateway-rate-limit.routes.assessment.refill-per-second=0.1"
+})
+@DisplayName("Tests d'intégration - Limitation de débit Gateway")
+class RateLimitIntegrationTest {
+
+    private static WireMockServer assessmentServiceMock;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private GatewayRateLimiter limiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void configureBackend(DynamicPropertyRegistry registry) {
+        assessmentServiceMock = new WireMockServer(wireMockConfig().dynamicPort());
+        assessmentServiceMock.start();
+        assessmentServiceMock.stubFor(get(urlPathMatching("/api/v1/assess/patient/.*"))
+                .willReturn(okJson("{\"riskLevel\":\"None\"}")));
+        registry.add("mediscreen.services.assessment.uri", () -> "http://localhost:" + assessmentServiceMock.port());
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        assessmentServiceMock.stop();
+    }
+
+    @Test
+    @DisplayName("Au-delà de la rafale : 429 avec Retry-After, backend épargné, autre client non affecté")
+    void burstExceeded_Returns429PerPrincipal() {
+        assess("test-frontend:test-pass").expectStatus().isOk();
+        assess("test-frontend:test-pass").expectStatus().isOk();
+        assess("test-frontend:test-pass").expectStatus().isEqualTo(429)
+                .expectHeader().value(HttpHeaders.RETRY_AFTER,
+                        retryAfter -> assertThat(Long.parseLong(retryAfter)).isBetween(1L, 10L));
+
+        assess("test-assessment:assessment-pass").expectStatus().isOk();
+        assessmentServiceMock.verify(3, getRequestedFor(urlPathMatching("/api/v1/assess/patient/.*")));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> routes = (Map<String, Object>) limiter.statistics().get("routes");
+        assertThat(routes.get("assessment").toString()).contains("test-frontend", "rejected=1");
+
+        // Métriques par route uniquement : aucun nom d'utilisateur exporté
+        assertThat(meterRegistry.get("gateway.ratelimit.requests")
+                .tags("route", "assessment", "result", "rejected").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("gateway.ratelimit.requests").tagKeys("principal").meters()).isEmpty();
+        assertThat(meterRegistry.find("gateway.ratelimit.principal.requests").meters()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("GET /actuator/ratelimits : 401 sans authentification, 200 authentifié")
+    void rateLimitsEndpoint_RequiresAuthentication() {
+        webTestClient.get().uri("/actuator/ratelimits").exchange()
+                .expectStatus().isUnauthorized();
+
+        webTestClient.get().uri("/actuator/ratelimits")
+                .header(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder().encodeToString("test-frontend:test-pass".getBytes()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.routes.assessment.burst").isEqualTo(2);
+    }
+
+    private WebTestClient.ResponseSpec assess(String credentials) {
+        return webTestClient.get().uri("/api/v1/assess/patient/1")
+                .header(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes()))
+                .exchange();
+    }
+}
@@ -0,0 +1,75 @@
+package com.mediscreen.gateway.ratelimit;
+
+import com.mediscreen.gateway.benchmark.BenchmarkHarness;
+import com.mediscreen.gateway.benchmark.BenchmarkHarness.Measurement;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mesure du coût par requête du limiteur de débit (recherche du seau + décision)
+ *
+ * Exclu du build par défaut, à lancer explicitement :
+ * mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark -Dtest=RateLimiterBenchmarkTest
+ */
+@Tag("benchmark")
+class RateLimiterBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiterBenchmarkTest.class);
+
+    private static final int WARMUP = 2_000_000;
+    private static final int ITERATIONS = 10_000_000;
+    private static final String[] PRINCIPALS = {"test-frontend", "test-assessment", "batch-1", "batch-2"};
+
+    @Test
+    void costPerDecision() throws Exception {
+        GatewayRateLimiter limiter = new GatewayRateLimiter(10_000, List.of(
+                new RateLimitPolicy("patient", 1_000, 1_000_000),
+                new RateLimitPolicy("notes", 1_000, 1_000_000)));
+
+        int[] cursor = {0};
+        Measurement single = BenchmarkHarness.measure("1 thread", WARMUP, ITERATIONS, () -> {
+            int i = cursor[0]++;
+            limiter.tryAcquire((i & 1) == 0 ? "patient" : "notes", PRINCIPALS[i & 3]);
+        });
+        BenchmarkHarness.report("Limiteur de débit (par décision)", single);
+
+        int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors());
+        CountDownLatch done = new CountDownLatch(threadCount);
+        LongAdder totalRejected = new LongAdder();
+        long concurrentStart = System.nanoTime();
+        for (int t = 0; t < threadCount; t++) {
+            Thread.ofPlatform().start(() -> {
+                totalRejected.add(run(limiter, ITERATIONS / threadCount));
+                done.countDown();
+            });
+        }
+        done.await();
+        long concurrentNanos = System.nanoTime() - concurrentStart;
+
+        logger.info("Limiteur de débit, {} threads : {} ns/décision (débit agrégé), {} refus sur {}",
+                threadCount, concurrentNanos / ITERATIONS, totalRejected.sum(), ITERATIONS);
+
+        // Décision sans verrou ni allocation une fois les seaux créés
+        assertThat(single.nanosPerOp()).isLessThan(1_000);
+        assertThat(single.bytesPerOp()).isZero();
+    }
+
+    private static long run(GatewayRateLimiter limiter, int iterations) {
+        long rejected = 0;
+        for (int i = 0; i < iterations; i++) {
+            String route = (i & 1) == 0 ? "patient" : "notes";
+            if (limiter.tryAcquire(route, PRINCIPALS[i & 3]) != 0) {
+                rejected++;
+            }
+        }
+        return rejected;
+    }
+}
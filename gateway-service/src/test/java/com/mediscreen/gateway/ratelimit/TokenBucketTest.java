@@ -0,0 +1,81 @@
+package com.mediscreen.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void burstThenRefillAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(3, 10, 0);
+
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isEqualTo(100 * MILLI);
+
+        // Un jeton rendu toutes les 100 ms
+        assertThat(bucket.tryConsume(50 * MILLI)).isEqualTo(50 * MILLI);
+        assertThat(bucket.tryConsume(100 * MILLI)).isZero();
+        assertThat(bucket.tryConsume(100 * MILLI)).isPositive();
+        assertThat(bucket.available(1_000 * MILLI)).isEqualTo(3);
+        assertThat(bucket.allowed.sum()).isEqualTo(4);
+        assertThat(bucket.rejected.sum()).isEqualTo(3);
+    }
+
+    @Test
+    void idleBucketDoesNotAccumulateBeyondBurst() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+
+        long later = 60_000 * MILLI;
+        assertThat(bucket.tryConsume(later)).isZero();
+        assertThat(bucket.tryConsume(later)).isZero();
+        assertThat(bucket.tryConsume(later)).isPositive();
+    }
+
+    @Test
+    void concurrentConsumersNeverExceedBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1_000, 0.001, 0);
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    if (bucket.tryConsume(0) == 0) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(accepted.get()).isEqualTo(1_000);
+    }
+
+    @Test
+    void limiterKeepsOneBucketPerPrincipalAndRoute() {
+        GatewayRateLimiter limiter = new GatewayRateLimiter(100, List.of(
+                new RateLimitPolicy("patient", 1, 0.001),
+                new RateLimitPolicy("notes", 1, 0.001)));
+
+        assertThat(limiter.tryAcquire("patient", "batch")).isZero();
+        assertThat(limiter.tryAcquire("patient", "batch")).isPositive();
+        assertThat(limiter.tryAcquire("patient", "frontend")).isZero();
+        assertThat(limiter.tryAcquire("notes", "batch")).isZero();
+
+        limiter.setEnabled(false);
+        assertThat(limiter.tryAcquire("patient", "batch")).isZero();
+        assertThat(GatewayRateLimiter.retryAfterSeconds(1)).isEqualTo(1);
+        assertThat(GatewayRateLimiter.retryAfterSeconds(2_500_000_000L)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,77 @@
+package com.mediscreen.gateway.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void rejectsBeyondLimitAndFreesOnRelease() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(2);
+
+        limit.release();
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void growsWhileLatencyStaysFlatUnderLoad() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 5, 100);
+
+        for (int i = 0; i < 200; i++) {
+            saturate(limit);
+            limit.onSample(10 * MILLI);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(100);
+    }
+
+    @Test
+    void shrinksWhenLatencyClimbs() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 5, 100);
+        saturate(limit);
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(10 * MILLI);
+        }
+        int before = limit.getLimit();
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(100 * MILLI);
+        }
+
+        assertThat(limit.getLimit()).isLessThan(before / 2);
+    }
+
+    @Test
+    void idleRouteDoesNotGrowAndDropsBackOff() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 5, 100);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10 * MILLI);
+        }
+        assertThat(limit.getLimit()).isEqualTo(20);
+
+        limit.onDropped();
+        assertThat(limit.getLimit()).isEqualTo(18);
+        for (int i = 0; i < 100; i++) {
+            limit.onDropped();
+        }
+        assertThat(limit.getLimit()).isEqualTo(5);
+    }
+
+    /**
+     * Occupe toutes les places : la route est réellement limitée, la limite peut évoluer
+     */
+    private static void saturate(AdaptiveConcurrencyLimit limit) {
+        while (limit.tryAcquire()) {
+            // places réservées jusqu'à la limite courante
+        }
+    }
+}
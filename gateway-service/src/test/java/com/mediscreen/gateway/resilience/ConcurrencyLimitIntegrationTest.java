@@ -0,0 +1,115 @@
+package com.mediscreen.gateway.resilience;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration de la limite de concurrence (limite figée à 1, backend WireMock lent)
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = com.mediscreen.gateway.GatewayServiceApplication.class
+)
+@AutoConfigureWebTestClient
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-frontend",
+    "AUTH_PASSWORD=test-pass",
+    "mediscreen.auth.patient.username=test-patient",
+    "mediscreen.auth.patient.password=patient-pass",
+    "mediscreen.auth.notes.username=test-notes",
+    "mediscreen.auth.notes.password=notes-pass",
+    "mediscreen.auth.assessment.username=test-assessment",
+    "mediscreen.auth.assessment.password=assessment-pass",
+    "mediscreen.gateway-resilience.concurrency.initial-limit=1",
+    "mediscreen.gateway-resilience.concurrency.min-limit=1",
+    "mediscreen.gateway-resilience.concurrency.max-limit=1"
+})
+@DisplayName("Tests d'intégration - Limite de concurrence Gateway")
+class ConcurrencyLimitIntegrationTest {
+
+    private static WireMockServer assessmentServiceMock;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private RouteConcurrencyLimits limits;
+
+    private final String frontendAuth = "Basic " + Base64.getEncoder().encodeToString("test-frontend:test-pass".getBytes());
+
+    @DynamicPropertySource
+    static void configureBackend(DynamicPropertyRegistry registry) {
+        assessmentServiceMock = new WireMockServer(wireMockConfig().dynamicPort());
+        assessmentServiceMock.start();
+        assessmentServiceMock.stubFor(get(urlMatching("/api/v1/assess/patient/\\d+"))
+                .willReturn(okJson("{\"riskLevel\":\"None\"}").withFixedDelay(1500)));
+        registry.add("mediscreen.services.assessment.uri", () -> "http://localhost:" + assessmentServiceMock.port());
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        assessmentServiceMock.stop();
+    }
+
+    @Test
+    @DisplayName("Limite atteinte : requête suivante rejetée en 503 sans attendre le backend")
+    void limitReached_ShedsImmediately() throws Exception {
+        // Authentification préalable (BCrypt) pour que la requête lente soit la seule en cours
+        assess(1).expectStatus().isOk();
+        // La place n'est libérée qu'en fin d'échange, éventuellement après la réception par le client
+        awaitNoRequestInFlight();
+
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> assess(1).expectStatus().isOk());
+        // Requête lente arrivée au backend : sa place est occupée
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (assessmentServiceMock.getAllServeEvents().size() < 2
+                && !slow.isCompletedExceptionally() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(slow).isNotCompletedExceptionally();
+        assertThat(assessmentServiceMock.getAllServeEvents()).hasSize(2);
+
+        // Autre patient : une requête identique attendrait la réponse en cours (mutualisation)
+        long start = System.nanoTime();
+        assess(2).expectStatus().isEqualTo(503)
+                .expectHeader().exists(HttpHeaders.RETRY_AFTER);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+
+        slow.get(10, TimeUnit.SECONDS);
+        assertThat(limits.rejected("assessment")).isEqualTo(1);
+        awaitNoRequestInFlight();
+        assessmentServiceMock.verify(2, getRequestedFor(urlEqualTo("/api/v1/assess/patient/1")));
+    }
+
+    private void awaitNoRequestInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (limits.limit("assessment").getInFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(limits.limit("assessment").getInFlight()).isZero();
+    }
+
+    private WebTestClient.ResponseSpec assess(int patId) {
+        return webTestClient.get().uri("/api/v1/assess/patient/" + patId)
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .exchange();
+    }
+}
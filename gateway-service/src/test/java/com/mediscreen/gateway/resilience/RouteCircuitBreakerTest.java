@@ -0,0 +1,74 @@
+package com.mediscreen.gateway.resilience;
+
+import com.mediscreen.gateway.resilience.RouteCircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteCircuitBreakerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final RouteCircuitBreaker breaker = new RouteCircuitBreaker("patient", 0.5, 4, 4, Duration.ofSeconds(10));
+
+    @Test
+    void opensOnlyOnceMinimumCallsReachFailureRate() {
+        breaker.onFailure(0);
+        breaker.onFailure(0);
+        breaker.onSuccess(0);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+
+        breaker.onSuccess(0);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire(SECOND)).isFalse();
+        assertThat(breaker.retryAfterSeconds(SECOND)).isEqualTo(9);
+    }
+
+    @Test
+    void slidingWindowForgetsOldFailures() {
+        breaker.onFailure(0);
+        for (int i = 0; i < 8; i++) {
+            breaker.onSuccess(0);
+        }
+        breaker.onFailure(0);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.failureRate()).isEqualTo(0.25);
+    }
+
+    @Test
+    void halfOpenAllowsSingleProbeThenClosesOnSuccess() {
+        open();
+
+        assertThat(breaker.tryAcquire(10 * SECOND)).isTrue();
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire(10 * SECOND)).isFalse();
+
+        breaker.onSuccess(11 * SECOND);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.failureRate()).isZero();
+    }
+
+    @Test
+    void failedProbeReopensAndLostProbeIsReplaced() {
+        open();
+        assertThat(breaker.tryAcquire(10 * SECOND)).isTrue();
+
+        breaker.onFailure(11 * SECOND);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire(20 * SECOND)).isFalse();
+
+        // Sonde jamais revenue : une nouvelle est autorisée après open-duration
+        assertThat(breaker.tryAcquire(21 * SECOND)).isTrue();
+        assertThat(breaker.tryAcquire(25 * SECOND)).isFalse();
+        assertThat(breaker.tryAcquire(31 * SECOND)).isTrue();
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure(0);
+        }
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+}
@@ -0,0 +1,166 @@
+package com.mediscreen.gateway.resilience;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.mediscreen.gateway.cache.GatewayResponseCache;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration du disjoncteur de route et du stale-if-error (backends WireMock)
+ *
+ * Fraîcheur du cache réduite à 1 ms : toute relecture repasse par le backend, l'entrée
+ * ne sert plus que de dernière réponse connue.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = com.mediscreen.gateway.GatewayServiceApplication.class
+)
+@AutoConfigureWebTestClient
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-frontend",
+    "AUTH_PASSWORD=test-pass",
+    "mediscreen.auth.patient.username=test-patient",
+    "mediscreen.auth.patient.password=patient-pass",
+    "mediscreen.auth.notes.username=test-notes",
+    "mediscreen.auth.notes.password=notes-pass",
+    "mediscreen.auth.assessment.username=test-assessment",
+    "mediscreen.auth.assessment.password=assessment-pass",
+    "mediscreen.gateway-cache.routes.patient.ttl=1ms",
+    "mediscreen.gateway-resilience.sliding-window-size=4",
+    "mediscreen.gateway-resilience.minimum-calls=4",
+    "mediscreen.gateway-resilience.open-duration=30s",
+    "mediscreen.gateway-resilience.routes.patient.latency-budget=300ms"
+})
+@DisplayName("Tests d'intégration - Disjoncteur et stale-if-error Gateway")
+class StaleIfErrorIntegrationTest {
+
+    private static final long FRESHNESS_WAIT_MS = 50;
+
+    private static final String PATIENT_JSON = "{\"id\":5,\"nom\":\"TestBorderline\"}";
+
+    private static WireMockServer patientServiceMock;
+    private static WireMockServer notesServiceMock;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private GatewayResponseCache cache;
+
+    private final String frontendAuth = "Basic " + Base64.getEncoder().encodeToString("test-frontend:test-pass".getBytes());
+
+    @DynamicPropertySource
+    static void configureBackends(DynamicPropertyRegistry registry) {
+        patientServiceMock = new WireMockServer(wireMockConfig().dynamicPort());
+        notesServiceMock = new WireMockServer(wireMockConfig().dynamicPort());
+        patientServiceMock.start();
+        notesServiceMock.start();
+        registry.add("mediscreen.services.patient.uri", () -> "http://localhost:" + patientServiceMock.port());
+        registry.add("mediscreen.services.notes.uri", () -> "http://localhost:" + notesServiceMock.port());
+    }
+
+    @AfterAll
+    static void stopBackends() {
+        patientServiceMock.stop();
+        notesServiceMock.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        patientServiceMock.resetAll();
+        notesServiceMock.resetAll();
+        cache.clear();
+    }
+
+    @Test
+    @DisplayName("Backend en 503 : dernière réponse connue servie avec Warning et Age")
+    void backendError_ServesLastKnownGood() throws Exception {
+        patientServiceMock.stubFor(get(urlEqualTo("/api/v1/patients/5"))
+                .willReturn(okJson(PATIENT_JSON)));
+        primePatient();
+
+        patientServiceMock.stubFor(get(urlEqualTo("/api/v1/patients/5"))
+                .willReturn(aResponse().withStatus(503).withBody("indisponible")));
+
+        getPatient().expectStatus().isOk()
+                .expectHeader().valueEquals(GatewayResponseCache.X_CACHE, "STALE")
+                .expectHeader().valueEquals(HttpHeaders.WARNING, StaleIfErrorFilter.WARNING_REVALIDATION_FAILED)
+                .expectHeader().exists(HttpHeaders.AGE)
+                .expectBody(String.class).isEqualTo(PATIENT_JSON);
+    }
+
+    @Test
+    @DisplayName("Budget de latence dépassé : dernière réponse connue servie sans attendre le backend")
+    void slowBackend_ServesLastKnownGoodWithinBudget() throws Exception {
+        patientServiceMock.stubFor(get(urlEqualTo("/api/v1/patients/5"))
+                .willReturn(okJson(PATIENT_JSON)));
+        primePatient();
+
+        patientServiceMock.stubFor(get(urlEqualTo("/api/v1/patients/5"))
+                .willReturn(okJson(PATIENT_JSON).withFixedDelay(3000)));
+
+        long start = System.nanoTime();
+        getPatient().expectStatus().isOk()
+                .expectHeader().valueEquals(GatewayResponseCache.X_CACHE, "STALE")
+                .expectBody(String.class).isEqualTo(PATIENT_JSON);
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(2000);
+    }
+
+    @Test
+    @DisplayName("Disjoncteur ouvert : 503 immédiat avec Retry-After, backend épargné")
+    void openCircuit_FailsFastWithoutCallingBackend() {
+        notesServiceMock.stubFor(get(urlEqualTo("/api/v1/notes/patient/9"))
+                .willReturn(aResponse().withStatus(500)));
+
+        for (int i = 0; i < 4; i++) {
+            getNotes().expectStatus().is5xxServerError();
+        }
+
+        getNotes().expectStatus().isEqualTo(503)
+                .expectHeader().exists(HttpHeaders.RETRY_AFTER);
+        notesServiceMock.verify(4, getRequestedFor(urlEqualTo("/api/v1/notes/patient/9")));
+    }
+
+    /**
+     * GET lu jusqu'au bout du corps et entrée conservée (en fin de corps côté gateway), puis attente
+     * au-delà de la fraîcheur de 1 ms : la relecture suivante ne peut plus être un HIT
+     */
+    private void primePatient() throws InterruptedException {
+        getPatient().expectStatus().isOk().expectBody(String.class).isEqualTo(PATIENT_JSON);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (cache.size() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(cache.size()).isEqualTo(1);
+        Thread.sleep(FRESHNESS_WAIT_MS);
+    }
+
+    private WebTestClient.ResponseSpec getPatient() {
+        return webTestClient.get().uri("/api/v1/patients/5")
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .exchange();
+    }
+
+    private WebTestClient.ResponseSpec getNotes() {
+        return webTestClient.get().uri("/api/v1/notes/patient/9")
+                .header(HttpHeaders.AUTHORIZATION, frontendAuth)
+                .exchange();
+    }
+}
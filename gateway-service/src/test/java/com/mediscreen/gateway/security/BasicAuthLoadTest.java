@@ -0,0 +1,123 @@
+package com.mediscreen.gateway.security;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test de charge de l'authentification Basic du Gateway : débit sur /api/v1/patients
+ * avec et sans cache des credentials vérifiés (Patient Service simulé par WireMock).
+ *
+ * Exclu du build par défaut, à lancer avec :
+ * mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = com.mediscreen.gateway.GatewayServiceApplication.class,
+        properties = {
+            "AUTH_USERNAME=test-frontend",
+            "AUTH_PASSWORD=test-pass",
+            "mediscreen.auth.patient.username=test-patient",
+            "mediscreen.auth.patient.password=patient-pass",
+            "mediscreen.auth.notes.username=test-notes",
+            "mediscreen.auth.notes.password=notes-pass",
+            "mediscreen.auth.assessment.username=test-assessment",
+            "mediscreen.auth.assessment.password=assessment-pass",
+            "logging.level.org.springframework.security=INFO",
+            "logging.level.org.springframework.cloud.gateway=INFO",
+            "logging.level.reactor.netty=INFO"
+        }
+)
+class BasicAuthLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BasicAuthLoadTest.class);
+
+    private static final int CONCURRENCY = 32;
+    private static final Duration PHASE = Duration.ofSeconds(10);
+
+    private static WireMockServer patientServiceMock;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CachingReactiveAuthenticationManager authenticationManager;
+
+    @DynamicPropertySource
+    static void configureBackend(DynamicPropertyRegistry registry) {
+        patientServiceMock = new WireMockServer(wireMockConfig().dynamicPort());
+        patientServiceMock.start();
+        patientServiceMock.stubFor(get(urlPathMatching("/api/v1/patients.*"))
+                .willReturn(aResponse().withStatus(200).withHeader("Content-Type", "application/json").withBody("[]")));
+        registry.add("mediscreen.services.patient.uri", () -> "http://localhost:" + patientServiceMock.port());
+    }
+
+    @AfterAll
+    static void tearDownAll() {
+        patientServiceMock.stop();
+    }
+
+    @Test
+    @DisplayName("Charge - débit Basic Auth sans / avec cache des credentials")
+    void throughput_WithAndWithoutCache() {
+        WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .defaultHeader(HttpHeaders.AUTHORIZATION,
+                        "Basic " + Base64.getEncoder().encodeToString("test-frontend:test-pass".getBytes()))
+                .build();
+
+        authenticationManager.setEnabled(false);
+        double withoutCache = run(client);
+
+        authenticationManager.setEnabled(true);
+        double withCache = run(client);
+
+        logger.info("Basic Auth Gateway ({} requêtes concurrentes, {} s) : sans cache {} req/s, avec cache {} req/s",
+                CONCURRENCY, PHASE.toSeconds(), Math.round(withoutCache), Math.round(withCache));
+        assertThat(withCache).isGreaterThan(withoutCache);
+    }
+
+    /**
+     * Débit moyen (requêtes réussies par seconde) pendant une phase, après une courte chauffe
+     */
+    private double run(WebClient client) {
+        load(client, Duration.ofSeconds(2));
+        long completed = load(client, PHASE);
+        return completed / (double) PHASE.toSeconds();
+    }
+
+    private long load(WebClient client, Duration duration) {
+        AtomicLong completed = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        Flux.range(0, CONCURRENCY)
+                .flatMap(worker -> Flux.defer(() -> client.get().uri("/api/v1/patients")
+                                .retrieve()
+                                .toBodilessEntity()
+                                .doOnNext(response -> completed.incrementAndGet())
+                                .flux())
+                        .repeat(() -> System.nanoTime() < deadline), CONCURRENCY)
+                .blockLast();
+        return completed.get();
+    }
+}
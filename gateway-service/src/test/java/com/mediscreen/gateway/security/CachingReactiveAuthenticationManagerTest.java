@@ -0,0 +1,102 @@
+package com.mediscreen.gateway.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitaires du cache de credentials vérifiés.
+ *
+ * Le gestionnaire délégué simule BCrypt : seul "secret" est accepté, chaque appel est compté.
+ */
+class CachingReactiveAuthenticationManagerTest {
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    private final ReactiveAuthenticationManager bcrypt = authentication -> {
+        verifications.incrementAndGet();
+        if (!"secret".equals(authentication.getCredentials())) {
+            return Mono.error(new BadCredentialsException("Invalid Credentials"));
+        }
+        return Mono.just(UsernamePasswordAuthenticationToken.authenticated(
+                authentication.getName(), null, AuthorityUtils.createAuthorityList("ROLE_FRONTEND")));
+    };
+
+    @BeforeEach
+    void setUp() {
+        verifications.set(0);
+    }
+
+    @Test
+    @DisplayName("Credentials valides vérifiés une seule fois pendant le TTL")
+    void validCredentials_ShouldBeVerifiedOnce() {
+        CachingReactiveAuthenticationManager manager =
+                new CachingReactiveAuthenticationManager(bcrypt, Duration.ofMinutes(1), 100);
+
+        Authentication first = manager.authenticate(token("frontend", "secret")).block();
+        Authentication second = manager.authenticate(token("frontend", "secret")).block();
+
+        assertThat(first.isAuthenticated()).isTrue();
+        assertThat(second).isSameAs(first);
+        assertThat(verifications).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Mot de passe différent ou invalide : jamais servi par le cache")
+    void otherCredentials_ShouldNotHitCache() {
+        CachingReactiveAuthenticationManager manager =
+                new CachingReactiveAuthenticationManager(bcrypt, Duration.ofMinutes(1), 100);
+        manager.authenticate(token("frontend", "secret")).block();
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> manager.authenticate(token("frontend", "wrong")).block())
+                    .isInstanceOf(BadCredentialsException.class);
+        }
+
+        assertThat(verifications).hasValue(3);
+        assertThat(manager.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Entrée expirée : nouvelle vérification BCrypt")
+    void expiredEntry_ShouldBeVerifiedAgain() throws InterruptedException {
+        CachingReactiveAuthenticationManager manager =
+                new CachingReactiveAuthenticationManager(bcrypt, Duration.ofMillis(20), 100);
+
+        manager.authenticate(token("frontend", "secret")).block();
+        Thread.sleep(50);
+        manager.authenticate(token("frontend", "secret")).block();
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Cache désactivé : chaque requête repasse par BCrypt")
+    void disabledCache_ShouldAlwaysDelegate() {
+        CachingReactiveAuthenticationManager manager =
+                new CachingReactiveAuthenticationManager(bcrypt, Duration.ofMinutes(1), 100);
+        manager.setEnabled(false);
+
+        manager.authenticate(token("frontend", "secret")).block();
+        manager.authenticate(token("frontend", "secret")).block();
+
+        assertThat(verifications).hasValue(2);
+        assertThat(manager.size()).isZero();
+    }
+
+    private static Authentication token(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+}
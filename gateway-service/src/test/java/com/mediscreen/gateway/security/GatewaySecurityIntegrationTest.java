@@ -112,4 +112,31 @@ class GatewaySecurityIntegrationTest {
                 .expectStatus().isOk();
     }
 
-}
\ No newline at end of file
+    /**
+     * Teste l'endpoint des headers backend : lecture libre sans secret, rechargement authentifié.
+     */
+    @Test
+    @DisplayName("Sécurité - Rechargement des credentials backend réservé aux appels authentifiés")
+    void downstreamAuthEndpoint_ReloadRequiresAuth() {
+        webTestClient.get()
+                .uri("/actuator/downstreamauth")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.services.patient").isEqualTo("basic")
+                .jsonPath("$.services.notes").isEqualTo("basic");
+
+        webTestClient.post()
+                .uri("/actuator/downstreamauth")
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        webTestClient.post()
+                .uri("/actuator/downstreamauth")
+                .header(HttpHeaders.AUTHORIZATION, validFrontendAuth)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.reloaded").isEqualTo(false);
+    }
+}
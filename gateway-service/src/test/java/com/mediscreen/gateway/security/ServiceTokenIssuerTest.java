@@ -0,0 +1,90 @@
+package com.mediscreen.gateway.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires de l'émetteur de jetons de service.
+ *
+ * Le format doit rester identique à celui vérifié par ServiceTokenAuthenticationFilter
+ * dans Patient, Notes et Assessment Services.
+ */
+class ServiceTokenIssuerTest {
+
+    private static final String SECRET = "patient-token-secret-0123456789ab";
+
+    @Test
+    @DisplayName("Jeton signé HMAC-SHA256 sur audience.expiration")
+    void authorizationHeader_ShouldBeSignedForAudience() throws Exception {
+        MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        ServiceTokenIssuer issuer = new ServiceTokenIssuer("patient", SECRET, Duration.ofSeconds(60), clock);
+
+        String header = issuer.authorizationHeader();
+
+        assertThat(header).startsWith("Bearer patient.1735689660.");
+        String token = header.substring("Bearer ".length());
+        String payload = token.substring(0, token.lastIndexOf('.'));
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String expected = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+        assertThat(token.substring(token.lastIndexOf('.') + 1)).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Jeton réutilisé jusqu'à mi-vie puis renouvelé")
+    void authorizationHeader_ShouldBeRenewedAtHalfLife() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        ServiceTokenIssuer issuer = new ServiceTokenIssuer("notes", SECRET, Duration.ofSeconds(60), clock);
+
+        String first = issuer.authorizationHeader();
+        clock.advance(Duration.ofSeconds(29));
+        assertThat(issuer.authorizationHeader()).isSameAs(first);
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(issuer.authorizationHeader()).isNotEqualTo(first).startsWith("Bearer notes.1735689690.");
+    }
+
+    /**
+     * Horloge de test avançable
+     */
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.mediscreen.notesservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Authentification par jeton de service signé par le Gateway
+ *
+ * Format : "Authorization: Bearer {audience}.{expiration epoch s}.{HMAC-SHA256 base64url}",
+ * signature calculée sur "{audience}.{expiration}" avec le secret propre à ce service.
+ * Vérification en quelques microsecondes (un HMAC, comparaison à temps constant) au lieu
+ * d'un BCrypt par requête. Un jeton invalide n'authentifie pas : la requête finit en 401
+ * sauf credentials Basic valides (appels directs, compatibilité).
+ */
+@Slf4j
+public class ServiceTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final String audience;
+    private final SecretKeySpec key;
+    private final Duration maxTtl;
+    private final Duration clockSkew;
+    private final ThreadLocal<Mac> macs;
+
+    public ServiceTokenAuthenticationFilter(String audience, String secret, Duration maxTtl, Duration clockSkew) {
+        this.audience = audience;
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.maxTtl = maxTtl;
+        this.clockSkew = clockSkew;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            if (isValid(authorization.substring(BEARER_PREFIX.length()), System.currentTimeMillis() / 1000)) {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                        "gateway", null, AuthorityUtils.createAuthorityList("ROLE_SERVICE")));
+                SecurityContextHolder.setContext(context);
+            } else {
+                log.warn("Jeton de service refusé pour {} {}", request.getMethod(), request.getRequestURI());
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Vérifie audience, expiration (fenêtre bornée par maxTtl) et signature
+     */
+    boolean isValid(String token, long nowSeconds) {
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot <= firstDot || !audience.equals(token.substring(0, firstDot))) {
+            return false;
+        }
+        long expiresAt;
+        byte[] signature;
+        try {
+            expiresAt = Long.parseLong(token.substring(firstDot + 1, lastDot));
+            signature = Base64.getUrlDecoder().decode(token.substring(lastDot + 1));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (expiresAt + clockSkew.toSeconds() < nowSeconds || expiresAt > nowSeconds + maxTtl.toSeconds() + clockSkew.toSeconds()) {
+            return false;
+        }
+        Mac mac = macs.get();
+        byte[] expected = mac.doFinal(token.substring(0, lastDot).getBytes(StandardCharsets.US_ASCII));
+        return MessageDigest.isEqual(expected, signature);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 indisponible", e);
+        }
+    }
+}
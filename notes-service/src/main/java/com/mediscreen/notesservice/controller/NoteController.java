@@ -9,7 +9,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Contrôleur REST pour la gestion des notes médicales
@@ -21,6 +23,9 @@ import java.util.List;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class NoteController {
     
+    // Taille maximale d'un lot de lecture groupée (borne du $in)
+    private static final int MAX_BATCH_IDS = 500;
+    
     private final NoteService noteService;
     
     // === OPÉRATIONS CRUD ===
@@ -63,6 +68,24 @@ public class NoteController {
         return ResponseEntity.ok(notes);
     }
     
+    /**
+     * Récupère les notes d'un lot de patients par leurs IDs
+     * GET /api/v1/notes?patIds=1,2,3
+     *
+     * Une seule requête Mongo pour le lot (lectures groupées de l'assessment), notes
+     * triées par patient puis de la plus récente à la plus ancienne.
+     */
+    @GetMapping(params = "patIds")
+    public ResponseEntity<List<NoteDto>> getNotesByPatientIds(@RequestParam List<Integer> patIds) {
+        Set<Integer> distinctIds = new LinkedHashSet<>(patIds);
+        log.info("Demande de récupération groupée des notes de {} patient(s)", distinctIds.size());
+        
+        if (distinctIds.size() > MAX_BATCH_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(noteService.getNotesByPatientIds(distinctIds));
+    }
+    
     /**
      * Récupère toutes les notes d'un patient par son nom
      * GET /api/v1/notes/patient/name/{patient}
@@ -4,6 +4,7 @@ import com.mediscreen.notesservice.entity.Note;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -19,6 +20,13 @@ public interface NoteRepository extends MongoRepository<Note, String> {
      */
     List<Note> findByPatIdOrderByCreatedDateDesc(Integer patId);
 
+    /**
+     * Trouve les notes d'un lot de patients en une requête ($in)
+     * @param patIds IDs des patients
+     * @return Notes regroupées par patient, plus récentes d'abord
+     */
+    List<Note> findByPatIdInOrderByPatIdAscCreatedDateDesc(Collection<Integer> patIds);
+
     /**
      * Trouve toutes les notes d'un patient par son nom
      * @param patient Nom du patient
@@ -2,6 +2,7 @@ package com.mediscreen.notesservice.service;
 
 import com.mediscreen.notesservice.dto.*;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +29,11 @@ public interface NoteService {
      */
     List<NoteDto> getNotesByPatientId(Integer patId);
     
+    /**
+     * Récupère les notes d'un lot de patients par leurs IDs
+     */
+    List<NoteDto> getNotesByPatientIds(Collection<Integer> patIds);
+    
     /**
      * Récupère toutes les notes d'un patient par son nom
      */
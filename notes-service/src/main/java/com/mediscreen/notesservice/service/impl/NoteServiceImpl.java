@@ -11,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -61,6 +62,20 @@ public class NoteServiceImpl implements NoteService {
         return noteMapper.toDtoList(notes);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<NoteDto> getNotesByPatientIds(Collection<Integer> patIds) {
+        log.debug("Recherche groupée des notes de {} patient(s)", patIds.size());
+        
+        if (patIds.isEmpty()) {
+            return List.of();
+        }
+        List<Note> notes = noteRepository.findByPatIdInOrderByPatIdAscCreatedDateDesc(patIds);
+        log.info("Trouvé {} note(s) pour {} patient(s)", notes.size(), patIds.size());
+        
+        return noteMapper.toDtoList(notes);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public List<NoteDto> getNotesByPatientName(String patient) {
@@ -18,6 +18,10 @@ CREATE TABLE adresses (
     ville VARCHAR(50),
     code_postal VARCHAR(10),
     pays VARCHAR(50),
+    adresse_hash CHAR(64),
+    
+    -- Empreinte de l'adresse normalisée (internement, une ligne par adresse)
+    UNIQUE KEY uk_adresse_hash (adresse_hash),
     
     -- Index pour les recherches fréquentes
     INDEX idx_adresse_ville (ville),
@@ -34,6 +38,7 @@ CREATE TABLE patients (
     genre CHAR(1) NOT NULL CHECK (genre IN ('M', 'F')),
     telephone VARCHAR(15),
     adresse_id BIGINT,
+    version BIGINT NOT NULL DEFAULT 0,
     
     -- Contraintes
     CONSTRAINT fk_patient_adresse FOREIGN KEY (adresse_id) REFERENCES adresses(id) ON DELETE SET NULL,
@@ -45,6 +50,13 @@ CREATE TABLE patients (
     INDEX idx_patient_telephone (telephone)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Générateurs d'identifiants (séquences émulées par table, allouées par blocs de 50)
+CREATE TABLE adresses_seq (next_val BIGINT) ENGINE=InnoDB;
+INSERT INTO adresses_seq (next_val) VALUES (1000);
+
+CREATE TABLE patients_seq (next_val BIGINT) ENGINE=InnoDB;
+INSERT INTO patients_seq (next_val) VALUES (1000);
+
 -- ===== VÉRIFICATION =====
 SELECT 'Base de données et tables créées avec succès!' as message;
 SHOW TABLES;
\ No newline at end of file
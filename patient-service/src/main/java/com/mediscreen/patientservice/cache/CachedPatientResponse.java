@@ -0,0 +1,11 @@
+package com.mediscreen.patientservice.cache;
+
+/**
+ * Réponse GET /api/v1/patients/{id} déjà sérialisée (JSON UTF-8) pour une version du patient
+ */
+public record CachedPatientResponse(
+    long version,
+    String etag,
+    byte[] body
+) {
+}
@@ -0,0 +1,162 @@
+package com.mediscreen.patientservice.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mediscreen.patientservice.dto.VersionedPatientDto;
+import com.mediscreen.patientservice.journal.PatientChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache borné des réponses patient déjà sérialisées, par ID et version
+ *
+ * Un hit renvoie directement les octets JSON : ni chargement d'entité, ni mapping, ni Jackson.
+ * Chaque modification committée (PatientChangeEvent) remplace l'entrée par une marque de
+ * version : une lecture concurrente qui aurait lu l'ancienne version ne peut plus la remettre
+ * en cache. La durée de vie borne l'obsolescence en cas d'écriture hors de ce service.
+ *
+ * Plusieurs répliques : l'invalidation reste locale, une écriture servie par une autre réplique
+ * (débordement ou éviction côté Gateway) n'est pas vue ici. Avec verify-version (par défaut),
+ * chaque hit est confronté à la version en base (lecture par clé primaire) avant d'être servi :
+ * on économise toujours chargement, mapping et sérialisation, sans jamais servir d'octets périmés.
+ *
+ * Éviction « seconde chance » : une entrée lue depuis le dernier passage est épargnée une fois,
+ * les lectures ne prennent aucun verrou.
+ */
+@Component
+@Slf4j
+public class PatientResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+
+    @Value("${mediscreen.patient-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mediscreen.patient-cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${mediscreen.patient-cache.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${mediscreen.patient-cache.verify-version:true}")
+    private boolean verifyVersion;
+
+    public PatientResponseCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Réponse en cache du patient, vide si absente, expirée ou invalidée
+     */
+    public Optional<CachedPatientResponse> get(Long id) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Entry entry = entries.get(id);
+        if (entry == null || entry.response == null) {
+            return Optional.empty();
+        }
+        if (System.nanoTime() - entry.expiresAt > 0) {
+            entries.remove(id, entry);
+            return Optional.empty();
+        }
+        entry.referenced = true;
+        return Optional.of(entry.response);
+    }
+
+    /**
+     * Sérialise le patient et le met en cache, sauf si une version plus récente est connue
+     */
+    public CachedPatientResponse put(VersionedPatientDto versioned) {
+        CachedPatientResponse response;
+        try {
+            response = new CachedPatientResponse(
+                    versioned.version(), versioned.etag(), objectMapper.writeValueAsBytes(versioned.patient()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation du patient " + versioned.patient().id() + " impossible", e);
+        }
+        if (enabled) {
+            Entry entry = new Entry(response.version(), response, System.nanoTime() + ttl.toNanos());
+            entries.compute(versioned.patient().id(),
+                    (id, current) -> current != null && current.version > entry.version ? current : entry);
+            evictIfFull();
+        }
+        return response;
+    }
+
+    /**
+     * Invalide le patient : seules les versions supérieures ou égales pourront être remises en cache
+     */
+    public void invalidate(Long id, long version) {
+        Entry marker = new Entry(version, null, System.nanoTime() + ttl.toNanos());
+        entries.compute(id, (key, current) -> current != null && current.version >= version ? current : marker);
+        evictIfFull();
+    }
+
+    @TransactionalEventListener
+    public void onPatientChange(PatientChangeEvent event) {
+        invalidate(event.patientId(), event.version());
+    }
+
+    /**
+     * Un hit doit-il être confronté à la version en base avant d'être servi
+     */
+    public boolean verifiesVersion() {
+        return verifyVersion;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictIfFull() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        synchronized (evictionLock) {
+            // Deux tours au plus : le premier retire le bit de référence des entrées lues
+            for (int pass = 0; pass < 2 && entries.size() > maxEntries; pass++) {
+                Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+                while (iterator.hasNext() && entries.size() > maxEntries) {
+                    Entry entry = iterator.next().getValue();
+                    if (entry.referenced) {
+                        entry.referenced = false;
+                    } else {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Entrée du cache ; response null = marque d'invalidation de la version
+     */
+    private static final class Entry {
+
+        private final long version;
+        private final CachedPatientResponse response;
+        private final long expiresAt;
+        private volatile boolean referenced;
+
+        private Entry(long version, CachedPatientResponse response, long expiresAt) {
+            this.version = version;
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
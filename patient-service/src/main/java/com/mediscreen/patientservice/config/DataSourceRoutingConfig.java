@@ -0,0 +1,121 @@
+package com.mediscreen.patientservice.config;
+
+import com.mediscreen.patientservice.datasource.ReadYourWritesFilter;
+import com.mediscreen.patientservice.datasource.ReplicaRoutingDataSource;
+import com.mediscreen.patientservice.datasource.ReplicaRoutingDataSource.Replica;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routage lecture / écriture vers un pool de répliques
+ *
+ * Activé par mediscreen.datasource.replica.enabled=true. Le primaire reste configuré par
+ * spring.datasource.*, les répliques partagent les identifiants mediscreen.datasource.replica.*.
+ * Sans activation, la DataSource auto-configurée par Spring Boot est utilisée telle quelle.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "mediscreen.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Value("${mediscreen.datasource.replica.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${mediscreen.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${mediscreen.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${mediscreen.datasource.replica.pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${mediscreen.datasource.replica.connection-timeout:2s}")
+    private Duration replicaConnectionTimeout;
+
+    @Value("${mediscreen.datasource.replica.lag-query:}")
+    private String lagQuery;
+
+    @Value("${mediscreen.datasource.replica.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    @Value("${mediscreen.datasource.replica.read-your-writes-window:5s}")
+    private Duration readYourWritesWindow;
+
+    @Value("${mediscreen.datasource.replica.client-id-header:X-Client-Id}")
+    private String clientIdHeader;
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource) {
+        List<Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replicaUrls.get(i).trim())
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setConnectionTimeout(replicaConnectionTimeout.toMillis());
+            replica.setReadOnly(true);
+            replicas.add(new Replica(replica.getPoolName(), replica));
+        }
+        int validationTimeoutSeconds = (int) Math.max(1, replicaConnectionTimeout.toSeconds());
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, lagQuery, maxLagSeconds,
+                validationTimeoutSeconds);
+    }
+
+    /**
+     * DataSource exposée à JPA / JdbcTemplate : la connexion réelle n'est obtenue qu'au
+     * premier ordre SQL, une fois le caractère read-only de la transaction connu
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter(clientIdHeader, readYourWritesWindow);
+    }
+
+    @Bean
+    public HealthIndicator replicasHealthIndicator(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return () -> {
+            Map<String, Object> details = new LinkedHashMap<>();
+            for (Replica replica : replicaRoutingDataSource.getReplicas()) {
+                details.put(replica.name(), replica.isAvailable() ? "UP" : "DOWN: " + replica.downReason());
+            }
+            // Répliques indisponibles : service dégradé mais fonctionnel (repli sur le primaire)
+            return Health.up().withDetails(details).build();
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.mediscreen.patientservice.config;
+
+import com.mediscreen.patientservice.journal.PatientChangeJournal;
+import com.mediscreen.patientservice.journal.PatientChangeJournalListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Journal des changements de patients (fichiers mappés en mémoire)
+ * consommé par GET /api/v1/patients/changes
+ */
+@Configuration
+@ConditionalOnProperty(name = "mediscreen.journal.enabled", havingValue = "true", matchIfMissing = true)
+public class PatientJournalConfig {
+
+    @Value("${mediscreen.journal.directory}")
+    private Path directory;
+
+    @Value("${mediscreen.journal.segment-size:16MB}")
+    private DataSize segmentSize;
+
+    @Value("${mediscreen.journal.max-segments:8}")
+    private int maxSegments;
+
+    @Bean(destroyMethod = "close")
+    public PatientChangeJournal patientChangeJournal() throws IOException {
+        return new PatientChangeJournal(directory, segmentSize.toBytes(), maxSegments);
+    }
+
+    @Bean
+    public PatientChangeJournalListener patientChangeJournalListener(PatientChangeJournal patientChangeJournal) {
+        return new PatientChangeJournalListener(patientChangeJournal);
+    }
+}
@@ -0,0 +1,47 @@
+package com.mediscreen.patientservice.config;
+
+import com.mediscreen.patientservice.monitoring.InstrumentedDataSource;
+import com.mediscreen.patientservice.monitoring.QueryInstrumentationFilter;
+import com.mediscreen.patientservice.monitoring.QueryStatistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Instrumentation des requêtes SQL (voir {@link QueryStatistics})
+ *
+ * Seule la DataSource principale « dataSource » est enveloppée : avec le routage vers
+ * les répliques, les pools sous-jacents ne sont donc pas comptés deux fois.
+ */
+@Configuration
+@ConditionalOnProperty(name = "mediscreen.db.instrumentation.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryInstrumentationConfig {
+
+    @Value("${mediscreen.db.instrumentation.n-plus-one-excluded-paths:}")
+    private List<String> nPlusOneExcludedPaths;
+
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(ObjectProvider<QueryStatistics> queryStatistics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                        && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(dataSource, queryStatistics.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public QueryInstrumentationFilter queryInstrumentationFilter(QueryStatistics queryStatistics) {
+        return new QueryInstrumentationFilter(queryStatistics, nPlusOneExcludedPaths);
+    }
+}
@@ -0,0 +1,60 @@
+package com.mediscreen.patientservice.controller;
+
+import com.mediscreen.patientservice.dto.PatientImportResult;
+import com.mediscreen.patientservice.enums.BulkFormat;
+import com.mediscreen.patientservice.service.PatientBulkService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Contrôleur REST pour l'import / export en masse des patients
+ * Le corps des requêtes et des réponses est traité en flux (une ligne par patient)
+ */
+@RestController
+@RequestMapping("/api/v1/patients")
+@RequiredArgsConstructor
+@Slf4j
+public class PatientBulkController {
+
+    private final PatientBulkService patientBulkService;
+
+    /**
+     * Importe des patients depuis un flux CSV ou NDJSON
+     * POST /api/v1/patients/import (Content-Type: text/csv ou application/x-ndjson)
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<PatientImportResult> importPatients(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        log.info("Demande d'import en masse de patients ({})", contentType);
+
+        PatientImportResult result = patientBulkService.importPatients(body, BulkFormat.fromMediaType(contentType));
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Exporte tous les patients en flux
+     * GET /api/v1/patients/export?format=ndjson|csv (400 pour tout autre format)
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPatients(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        BulkFormat bulkFormat = BulkFormat.fromParameter(format);
+        log.info("Demande d'export en masse des patients ({})", bulkFormat);
+
+        StreamingResponseBody body = output -> patientBulkService.exportPatients(output, bulkFormat);
+        return ResponseEntity.ok()
+                .contentType(bulkFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"patients." + bulkFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,60 @@
+package com.mediscreen.patientservice.controller;
+
+import com.mediscreen.patientservice.dto.PatientChangeDto;
+import com.mediscreen.patientservice.dto.PatientChangesPage;
+import com.mediscreen.patientservice.enums.PatientField;
+import com.mediscreen.patientservice.journal.PatientChangeBatch;
+import com.mediscreen.patientservice.journal.PatientChangeJournal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+/**
+ * Contrôleur REST du flux de changements des patients
+ * Permet aux services qui mettent des patients en cache de suivre les créations / modifications
+ */
+@RestController
+@RequestMapping("/api/v1/patients")
+@ConditionalOnProperty(name = "mediscreen.journal.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PatientChangeController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final PatientChangeJournal patientChangeJournal;
+
+    /**
+     * Lit les changements à partir d'un offset
+     * GET /api/v1/patients/changes?since={offset}&limit={n}
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<PatientChangesPage> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        if (since < 0 || limit < 1) {
+            log.warn("Lecture du journal refusée : since={} limit={}", since, limit);
+            return ResponseEntity.badRequest().build();
+        }
+        log.debug("Lecture du journal des patients depuis l'offset {}", since);
+
+        PatientChangeBatch batch = patientChangeJournal.read(since, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(new PatientChangesPage(
+                batch.firstOffset(),
+                batch.truncated(),
+                batch.nextOffset(),
+                batch.records().stream()
+                        .map(record -> new PatientChangeDto(
+                                record.offset(),
+                                record.patientId(),
+                                record.version(),
+                                record.type().name(),
+                                Instant.ofEpochMilli(record.timestampMillis()),
+                                PatientField.namesOf(record.changedFields())))
+                        .toList()));
+    }
+}
@@ -1,15 +1,24 @@
 package com.mediscreen.patientservice.controller;
 
+import com.mediscreen.patientservice.cache.CachedPatientResponse;
+import com.mediscreen.patientservice.cache.PatientResponseCache;
 import com.mediscreen.patientservice.dto.*;
 import com.mediscreen.patientservice.exception.PatientNotFoundException;
+import com.mediscreen.patientservice.exception.PatientVersionMismatchException;
 import com.mediscreen.patientservice.service.PatientService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Contrôleur REST pour la gestion des patients
@@ -21,7 +30,11 @@ import java.util.List;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class PatientController {
     
+    // Taille maximale d'un lot de lecture groupée (borne de la clause IN)
+    private static final int MAX_BATCH_IDS = 500;
+    
     private final PatientService patientService;
+    private final PatientResponseCache patientResponseCache;
     
     // === OPÉRATIONS CRUD ===
     
@@ -41,39 +54,126 @@ public class PatientController {
     /**
      * Récupère un patient par son ID
      * GET /api/v1/patients/{id}
+     *
+     * ETag fort = version du patient. Si If-None-Match correspond, Spring MVC répond 304
+     * sans écrire le corps. Le JSON vient du cache de réponses (octets copiés tels quels
+     * sur le flux de sortie) si sa version est toujours celle en base, le patient n'est
+     * chargé qu'en cas d'absence ou de version dépassée.
      */
-    @GetMapping("/{id}")
-    public ResponseEntity<PatientDto> getPatientById(@PathVariable Long id) {
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getPatientById(@PathVariable Long id) {
         log.debug("Demande de récupération du patient avec l'ID: {}", id);
         
-        return patientService.getPatientById(id)
-                .map(patient -> ResponseEntity.ok().body(patient))
+        Optional<CachedPatientResponse> response = patientResponseCache.get(id)
+                .filter(cached -> !patientResponseCache.verifiesVersion() || isCurrent(id, cached));
+        if (response.isEmpty()) {
+            response = patientService.getVersionedPatientById(id).map(patientResponseCache::put);
+        }
+        return response
+                .map(cached -> ResponseEntity.ok()
+                        .eTag(cached.etag())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(cached.body()))
                 .orElse(ResponseEntity.notFound().build());
     }
     
     /**
      * Récupère tous les patients
      * GET /api/v1/patients
+     *
+     * L'ETag est calculé par une requête agrégée avant tout chargement : un If-None-Match
+     * à jour donne un 304 sans lire la liste.
      */
     @GetMapping
-    public ResponseEntity<List<PatientDto>> getAllPatients() {
+    public ResponseEntity<List<PatientDto>> getAllPatients(WebRequest request) {
         log.debug("Demande de récupération de tous les patients");
         
+        String etag = patientService.getPatientListVersion().etag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
         List<PatientDto> patients = patientService.getAllPatients();
-        return ResponseEntity.ok(patients);
+        return ResponseEntity.ok().eTag(etag).body(patients);
+    }
+
+    /**
+     * Récupère un lot de patients par leurs IDs
+     * GET /api/v1/patients?ids=1,2,3
+     *
+     * Une seule requête SQL pour le lot (lectures groupées de l'assessment), IDs en double
+     * fusionnés, IDs inconnus absents de la réponse.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<PatientDto>> getPatientsByIds(@RequestParam List<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        log.debug("Demande de récupération groupée de {} patient(s)", distinctIds.size());
+
+        if (distinctIds.size() > MAX_BATCH_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(patientService.getPatientsByIds(distinctIds));
     }
 
     /**
      * Met à jour complètement un patient
      * PUT /api/v1/patients/{id}
+     *
+     * Avec If-Match: "version", mise à jour optimiste sans lecture préalable (412 si la version a changé).
      */
     @PutMapping("/{id}")
     public ResponseEntity<PatientDto> updatePatient(
             @PathVariable Long id, 
-            @Valid @RequestBody PatientDto patientDto) {
+            @Valid @RequestBody PatientDto patientDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Demande de mise à jour complète du patient avec l'ID: {}", id);
         
-        PatientDto updatedPatient = patientService.updatePatient(id, patientDto);
-        return ResponseEntity.ok(updatedPatient);
+        VersionedPatientDto updatedPatient = patientService.updatePatient(id, patientDto, parseIfMatch(id, ifMatch));
+        return ResponseEntity.ok().eTag(updatedPatient.etag()).body(updatedPatient.patient());
+    }
+
+    /**
+     * Met à jour partiellement un patient (champs absents ou null inchangés)
+     * PATCH /api/v1/patients/{id}
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<PatientDto> patchPatient(
+            @PathVariable Long id,
+            @Valid @RequestBody PatientPatchDto patientPatchDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("Demande de mise à jour partielle du patient avec l'ID: {}", id);
+        
+        VersionedPatientDto patchedPatient = patientService.patchPatient(id, patientPatchDto, parseIfMatch(id, ifMatch));
+        return ResponseEntity.ok().eTag(patchedPatient.etag()).body(patchedPatient.patient());
+    }
+
+    /**
+     * Réponse en cache encore à la version en base (modifiée par une autre réplique sinon)
+     */
+    private boolean isCurrent(Long id, CachedPatientResponse cached) {
+        return patientService.getPatientVersion(id)
+                .filter(version -> version == cached.version())
+                .isPresent();
+    }
+
+    /**
+     * Extrait la version attendue d'un en-tête If-Match
+     *
+     * Absent ou "*" : pas de condition de version. ETag faible ou illisible : ne peut
+     * correspondre (comparaison forte), donc 412.
+     */
+    private Long parseIfMatch(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.length() < 2 || !etag.startsWith("\"") || !etag.endsWith("\"")) {
+            throw new PatientVersionMismatchException(id);
+        }
+        try {
+            return Long.parseLong(etag.substring(1, etag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PatientVersionMismatchException(id);
+        }
     }
 }
\ No newline at end of file
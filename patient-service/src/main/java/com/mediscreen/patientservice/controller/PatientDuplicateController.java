@@ -0,0 +1,41 @@
+package com.mediscreen.patientservice.controller;
+
+import com.mediscreen.patientservice.dto.DuplicateCandidateDto;
+import com.mediscreen.patientservice.service.PatientDuplicateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Contrôleur REST de la détection des doublons de patients
+ */
+@RestController
+@RequestMapping("/api/v1/patients")
+@RequiredArgsConstructor
+@Slf4j
+public class PatientDuplicateController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final PatientDuplicateService patientDuplicateService;
+
+    /**
+     * Liste les paires de patients probablement identiques
+     * GET /api/v1/patients/duplicates?minScore={0..1}&limit={n}
+     */
+    @GetMapping("/duplicates")
+    public ResponseEntity<List<DuplicateCandidateDto>> getDuplicates(
+            @RequestParam(defaultValue = "0") double minScore,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (minScore < 0 || minScore > 1 || limit < 1) {
+            log.warn("Recherche des doublons refusée : minScore={} limit={}", minScore, limit);
+            return ResponseEntity.badRequest().build();
+        }
+        log.debug("Recherche des doublons de patients (score minimal {})", minScore);
+
+        return ResponseEntity.ok(patientDuplicateService.findDuplicates(minScore, Math.min(limit, MAX_LIMIT)));
+    }
+}
@@ -0,0 +1,25 @@
+package com.mediscreen.patientservice.datasource;
+
+/**
+ * Contexte par thread indiquant que la requête courante doit lire sur le primaire
+ * (client ayant écrit récemment, fenêtre read-your-writes)
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
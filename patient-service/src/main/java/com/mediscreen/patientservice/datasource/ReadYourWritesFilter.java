@@ -0,0 +1,85 @@
+package com.mediscreen.patientservice.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Filtre read-your-writes : après une écriture réussie, les lectures du même client
+ * sont servies par le primaire pendant la fenêtre configurée, le temps que les
+ * répliques rattrapent leur retard.
+ *
+ * Le client est le principal authentifié, précisé par l'en-tête X-Client-Id quand il est présent :
+ * le Gateway s'authentifie avec son propre compte et y transmet le principal qu'il a
+ * authentifié. Une écriture du Frontend ne renvoie donc pas au primaire les lectures des
+ * autres clients passant par le même Gateway. Sans authentification : adresse IP.
+ *
+ * Enregistré après la chaîne Spring Security (ordre par défaut) : le contexte de sécurité
+ * est disponible.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final String clientIdHeader;
+    private final long windowNanos;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesFilter(String clientIdHeader, Duration window) {
+        this.clientIdHeader = clientIdHeader;
+        this.windowNanos = window.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String clientId = clientId(request);
+        if (isWithinWindow(clientId)) {
+            ReadYourWritesContext.requirePrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesContext.clear();
+            if (WRITE_METHODS.contains(request.getMethod()) && response.getStatus() < 400) {
+                lastWrites.put(clientId, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Supprime les clients dont la fenêtre est expirée
+     */
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(writtenAt -> now - writtenAt > windowNanos);
+    }
+
+    private boolean isWithinWindow(String clientId) {
+        Long writtenAt = lastWrites.get(clientId);
+        return writtenAt != null && System.nanoTime() - writtenAt <= windowNanos;
+    }
+
+    private String clientId(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return request.getRemoteAddr();
+        }
+        String forwarded = request.getHeader(clientIdHeader);
+        return StringUtils.hasText(forwarded)
+                ? authentication.getName() + "/" + forwarded
+                : authentication.getName();
+    }
+}
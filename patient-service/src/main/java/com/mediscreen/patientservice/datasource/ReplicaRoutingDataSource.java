@@ -0,0 +1,184 @@
+package com.mediscreen.patientservice.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource de routage lecture / écriture
+ *
+ * - Transactions @Transactional(readOnly = true) : réplique disponible suivante (round-robin)
+ * - Toute autre connexion : primaire
+ * - Repli sur le primaire si aucune réplique n'est disponible, si l'obtention d'une connexion
+ *   échoue, ou si le client est dans sa fenêtre read-your-writes
+ *
+ * Doit être enveloppée dans un LazyConnectionDataSourceProxy : le flag read-only de la
+ * transaction n'est positionné qu'après le begin, la connexion doit donc être obtenue au
+ * premier ordre SQL.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, String lagQuery,
+                                    long maxLagSeconds, int validationTimeoutSeconds) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return routedConnection(DataSource::getConnection);
+    }
+
+    /**
+     * Identifiants explicites transmis au pool choisi (mêmes règles de routage)
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return routedConnection(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection routedConnection(ConnectionSource source) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadYourWritesContext.isPrimaryRequired()) {
+            Replica replica = nextAvailableReplica();
+            if (replica != null) {
+                try {
+                    return source.connect(replica.dataSource());
+                } catch (SQLFeatureNotSupportedException e) {
+                    // Identifiants explicites refusés par le pool (HikariCP) : pas une panne de la réplique
+                    throw e;
+                } catch (SQLException e) {
+                    replica.markDown("connexion impossible: " + e.getMessage());
+                }
+            }
+        }
+        return source.connect(primary);
+    }
+
+    /**
+     * Vérifie chaque réplique (connexion valide puis retard de réplication si une requête est configurée)
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection()) {
+                if (!connection.isValid(validationTimeoutSeconds)) {
+                    replica.markDown("connexion invalide");
+                    continue;
+                }
+                if (StringUtils.hasText(lagQuery)) {
+                    long lag = queryLag(connection);
+                    if (lag > maxLagSeconds) {
+                        replica.markDown("retard de réplication " + lag + "s > " + maxLagSeconds + "s");
+                        continue;
+                    }
+                }
+                replica.markUp();
+            } catch (SQLException e) {
+                replica.markDown("vérification en échec: " + e.getMessage());
+            }
+        }
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    private long queryLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(validationTimeoutSeconds);
+            try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                // Aucune ligne ou valeur nulle : réplication arrêtée
+                if (!resultSet.next()) {
+                    return Long.MAX_VALUE;
+                }
+                long lag = resultSet.getLong(1);
+                return resultSet.wasNull() ? Long.MAX_VALUE : lag;
+            }
+        }
+    }
+
+    private Replica nextAvailableReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(roundRobin.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isAvailable()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    /**
+     * Réplique en lecture seule et son état de disponibilité
+     */
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean available = true;
+        private volatile String downReason;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        public String downReason() {
+            return downReason;
+        }
+
+        void markDown(String reason) {
+            if (available) {
+                log.warn("Réplique {} écartée, lectures redirigées vers le primaire ({})", name, reason);
+            }
+            this.downReason = reason;
+            this.available = false;
+        }
+
+        void markUp() {
+            if (!available) {
+                log.info("Réplique {} de nouveau disponible", name);
+            }
+            this.downReason = null;
+            this.available = true;
+        }
+    }
+}
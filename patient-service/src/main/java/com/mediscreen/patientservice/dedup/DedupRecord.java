@@ -0,0 +1,29 @@
+package com.mediscreen.patientservice.dedup;
+
+import java.time.LocalDate;
+
+/**
+ * Patient réduit aux champs comparés, normalisés une seule fois au chargement
+ *
+ * Noms sans accents, en minuscules et limités aux lettres ; téléphone limité aux chiffres.
+ */
+public record DedupRecord(
+    long id,
+    String nom,
+    String prenom,
+    LocalDate dateNaissance,
+    String genre,
+    String telephone,
+    String nomPhonetique,
+    String prenomPhonetique
+) {
+
+    public static DedupRecord of(long id, String nom, String prenom, LocalDate dateNaissance,
+                                 String genre, String telephone) {
+        String nomNormalise = TextSimilarity.normalizeName(nom);
+        String prenomNormalise = TextSimilarity.normalizeName(prenom);
+        return new DedupRecord(id, nomNormalise, prenomNormalise, dateNaissance, genre,
+                TextSimilarity.digits(telephone),
+                TextSimilarity.soundex(nomNormalise), TextSimilarity.soundex(prenomNormalise));
+    }
+}
@@ -0,0 +1,11 @@
+package com.mediscreen.patientservice.dedup;
+
+/**
+ * Paire de patients probablement identiques (patientId &lt; duplicateId)
+ */
+public record DuplicateCandidate(
+    long patientId,
+    long duplicateId,
+    double score
+) {
+}
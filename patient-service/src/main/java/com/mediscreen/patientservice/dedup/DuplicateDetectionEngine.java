@@ -0,0 +1,178 @@
+package com.mediscreen.patientservice.dedup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Moteur de détection de doublons par clés de blocage et voisinage trié
+ *
+ * Pour chaque clé de blocage (nom normalisé + année de naissance, codes phonétiques
+ * nom + prénom, téléphone), les patients sont triés par (clé, prénom, nom) puis chacun
+ * n'est comparé qu'aux {@code windowSize - 1} suivants de la même clé : le coût est
+ * O(n·w) par clé au lieu de O(n²). Les comparaisons sont réparties sur un pool de workers.
+ */
+public class DuplicateDetectionEngine {
+
+    private static final int MIN_PHONE_DIGITS = 6;
+    private static final int NATIONAL_DIGITS = 9;
+
+    private final int windowSize;
+    private final double threshold;
+    private final ForkJoinPool pool;
+
+    public DuplicateDetectionEngine(int windowSize, double threshold, ForkJoinPool pool) {
+        if (windowSize < 2) {
+            throw new IllegalArgumentException("La fenêtre doit contenir au moins 2 patients");
+        }
+        this.windowSize = windowSize;
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    /**
+     * Paires dont le score atteint le seuil, par score décroissant
+     */
+    public List<DuplicateCandidate> detect(List<DedupRecord> records) {
+        Map<PairKey, DuplicateCandidate> candidates = new ConcurrentHashMap<>();
+        for (BlockingKey blockingKey : BlockingKey.values()) {
+            scan(records, blockingKey, candidates);
+        }
+        List<DuplicateCandidate> result = new ArrayList<>(candidates.values());
+        result.sort(Comparator.comparingDouble(DuplicateCandidate::score).reversed()
+                .thenComparingLong(DuplicateCandidate::patientId)
+                .thenComparingLong(DuplicateCandidate::duplicateId));
+        return result;
+    }
+
+    /**
+     * Score de similarité entre 0 et 1 (noms Jaro-Winkler, date, téléphone, genre)
+     */
+    public static double score(DedupRecord a, DedupRecord b) {
+        return score(a, b, 0);
+    }
+
+    /**
+     * Score de similarité, ou -1 dès que le seuil est hors d'atteinte : date et téléphone
+     * (comparaisons simples) sont évalués avant les Jaro-Winkler, plus coûteux
+     */
+    private static double score(DedupRecord a, DedupRecord b, double threshold) {
+        double date = 0;
+        if (a.dateNaissance() != null && b.dateNaissance() != null) {
+            if (a.dateNaissance().equals(b.dateNaissance())) {
+                date = 1;
+            } else if (a.dateNaissance().getYear() == b.dateNaissance().getYear()) {
+                date = 0.5;
+            }
+        }
+
+        // Téléphone absent d'un côté : neutre
+        double telephone = 0.5;
+        if (!a.telephone().isEmpty() && !b.telephone().isEmpty()) {
+            telephone = sameNumber(a.telephone(), b.telephone()) ? 1 : 0;
+        }
+
+        double genre = a.genre() != null && a.genre().equals(b.genre()) ? 1 : 0.9;
+        double partial = 0.25 * date + 0.15 * telephone;
+        if ((partial + 0.6) * genre < threshold) {
+            return -1;
+        }
+        double nom = TextSimilarity.jaroWinkler(a.nom(), b.nom());
+        if ((partial + 0.35 * nom + 0.25) * genre < threshold) {
+            return -1;
+        }
+        double prenom = TextSimilarity.jaroWinkler(a.prenom(), b.prenom());
+        return (partial + 0.35 * nom + 0.25 * prenom) * genre;
+    }
+
+    /**
+     * Même numéro aux indicatifs près : les 9 derniers chiffres suffisent (0612345678 = 33612345678)
+     */
+    private static boolean sameNumber(String a, String b) {
+        int length = Math.min(NATIONAL_DIGITS, Math.min(a.length(), b.length()));
+        return a.regionMatches(a.length() - length, b, b.length() - length, length);
+    }
+
+    private void scan(List<DedupRecord> records, BlockingKey blockingKey, Map<PairKey, DuplicateCandidate> candidates) {
+        BlockEntry[] entries = records.stream()
+                .map(record -> BlockEntry.of(blockingKey.keyOf(record), record))
+                .filter(Objects::nonNull)
+                .toArray(BlockEntry[]::new);
+        Arrays.parallelSort(entries, Comparator.comparingInt(BlockEntry::keyHash)
+                .thenComparing(BlockEntry::key)
+                .thenComparing(BlockEntry::sortKey));
+
+        Runnable comparisons = () -> IntStream.range(0, entries.length).parallel().forEach(i -> {
+            BlockEntry current = entries[i];
+            int end = Math.min(entries.length, i + windowSize);
+            for (int j = i + 1; j < end && entries[j].key.equals(current.key); j++) {
+                compare(current.record, entries[j].record, candidates);
+            }
+        });
+        try {
+            pool.submit(comparisons).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Détection de doublons interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec de la détection de doublons", e.getCause());
+        }
+    }
+
+    private void compare(DedupRecord a, DedupRecord b, Map<PairKey, DuplicateCandidate> candidates) {
+        if (a.id() == b.id()) {
+            return;
+        }
+        double score = score(a, b, threshold);
+        if (score < threshold) {
+            return;
+        }
+        long first = Math.min(a.id(), b.id());
+        long second = Math.max(a.id(), b.id());
+        // Même paire trouvée par plusieurs clés : conservée une fois
+        candidates.putIfAbsent(new PairKey(first, second), new DuplicateCandidate(first, second, Math.round(score * 1000) / 1000.0));
+    }
+
+    private record PairKey(long first, long second) {
+    }
+
+    /**
+     * Entrée triée par empreinte de la clé de blocage (comparaison entière, les blocs restent contigus),
+     * puis clé, puis prénom / nom
+     */
+    private record BlockEntry(int keyHash, String key, String sortKey, DedupRecord record) {
+
+        private static BlockEntry of(String key, DedupRecord record) {
+            return key == null ? null : new BlockEntry(key.hashCode(), key, record.prenom() + ' ' + record.nom(), record);
+        }
+    }
+
+    /**
+     * Clés de blocage : deux patients ne sont comparés que s'ils partagent l'une d'elles
+     */
+    private enum BlockingKey {
+        NOM_ANNEE(record -> record.nom().isEmpty() || record.dateNaissance() == null
+                ? null : record.nom() + '|' + record.dateNaissance().getYear()),
+        PHONETIQUE(record -> record.nomPhonetique().isEmpty()
+                ? null : record.nomPhonetique() + '|' + record.prenomPhonetique()),
+        TELEPHONE(record -> record.telephone().length() < MIN_PHONE_DIGITS ? null : record.telephone());
+
+        private final Function<DedupRecord, String> extractor;
+
+        BlockingKey(Function<DedupRecord, String> extractor) {
+            this.extractor = extractor;
+        }
+
+        private String keyOf(DedupRecord record) {
+            return extractor.apply(record);
+        }
+    }
+}
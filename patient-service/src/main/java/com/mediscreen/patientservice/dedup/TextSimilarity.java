@@ -0,0 +1,129 @@
+package com.mediscreen.patientservice.dedup;
+
+import java.text.Normalizer;
+
+/**
+ * Normalisation, code phonétique et similarité de chaînes pour la détection de doublons
+ */
+public final class TextSimilarity {
+
+    // Codes Soundex des lettres a à z (0 = voyelle ou lettre ignorée)
+    private static final String SOUNDEX_CODES = "01230120022455012623010202";
+
+    private TextSimilarity() {
+    }
+
+    /**
+     * Supprime accents, casse et tout caractère autre qu'une lettre ("Lefèvre-Durand" → "lefevredurand")
+     */
+    public static String normalizeName(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = Character.toLowerCase(decomposed.charAt(i));
+            if (c >= 'a' && c <= 'z') {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Chiffres seuls d'un numéro de téléphone, chaîne vide si absent
+     */
+    public static String digits(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Code Soundex (lettre initiale + 3 chiffres) d'un nom déjà normalisé
+     */
+    public static String soundex(String normalized) {
+        if (normalized.isEmpty()) {
+            return "";
+        }
+        char[] code = {Character.toUpperCase(normalized.charAt(0)), '0', '0', '0'};
+        char previous = SOUNDEX_CODES.charAt(normalized.charAt(0) - 'a');
+        int length = 1;
+        for (int i = 1; i < normalized.length() && length < 4; i++) {
+            char c = normalized.charAt(i);
+            char digit = SOUNDEX_CODES.charAt(c - 'a');
+            if (digit != '0' && digit != previous) {
+                code[length++] = digit;
+            }
+            // h et w ne séparent pas deux consonnes de même code
+            if (c != 'h' && c != 'w') {
+                previous = digit;
+            }
+        }
+        return new String(code);
+    }
+
+    /**
+     * Similarité de Jaro-Winkler entre 0 et 1 (favorise les préfixes communs, adaptée aux noms)
+     */
+    public static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) {
+            return a.isEmpty() ? 0 : 1;
+        }
+        int lengthA = a.length();
+        int lengthB = b.length();
+        if (lengthA == 0 || lengthB == 0) {
+            return 0;
+        }
+        int window = Math.max(0, Math.max(lengthA, lengthB) / 2 - 1);
+        boolean[] matchedA = new boolean[lengthA];
+        boolean[] matchedB = new boolean[lengthB];
+        int matches = 0;
+        for (int i = 0; i < lengthA; i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(lengthB - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!matchedB[j] && a.charAt(i) == b.charAt(j)) {
+                    matchedA[i] = true;
+                    matchedB[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0;
+        }
+        int transpositions = 0;
+        int k = 0;
+        for (int i = 0; i < lengthA; i++) {
+            if (matchedA[i]) {
+                while (!matchedB[k]) {
+                    k++;
+                }
+                if (a.charAt(i) != b.charAt(k)) {
+                    transpositions++;
+                }
+                k++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / lengthA + m / lengthB + (m - transpositions / 2.0) / m) / 3.0;
+
+        int prefix = 0;
+        int maxPrefix = Math.min(4, Math.min(lengthA, lengthB));
+        while (prefix < maxPrefix && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+}
@@ -0,0 +1,11 @@
+package com.mediscreen.patientservice.dto;
+
+/**
+ * Paire de patients probablement identiques renvoyée par GET /api/v1/patients/duplicates
+ */
+public record DuplicateCandidateDto(
+    Long patientId,
+    Long duplicateId,
+    double score
+) {
+}
@@ -0,0 +1,17 @@
+package com.mediscreen.patientservice.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Changement de patient tel qu'exposé aux consommateurs du journal
+ */
+public record PatientChangeDto(
+    long offset,
+    long patientId,
+    long version,
+    String type,
+    Instant timestamp,
+    List<String> changedFields
+) {
+}
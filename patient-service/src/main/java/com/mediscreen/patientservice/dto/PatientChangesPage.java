@@ -0,0 +1,17 @@
+package com.mediscreen.patientservice.dto;
+
+import java.util.List;
+
+/**
+ * Lot de changements renvoyé par GET /api/v1/patients/changes
+ *
+ * Le consommateur rappelle avec since = nextOffset. Si truncated vaut true, des
+ * changements ont été purgés depuis son dernier appel : il doit tout invalider.
+ */
+public record PatientChangesPage(
+    long firstOffset,
+    boolean truncated,
+    long nextOffset,
+    List<PatientChangeDto> changes
+) {
+}
@@ -0,0 +1,14 @@
+package com.mediscreen.patientservice.dto;
+
+import java.util.List;
+
+/**
+ * Résultat d'un import en masse de patients
+ * Les erreurs sont rapportées par ligne (champ "ligne N"), dans la limite configurée
+ */
+public record PatientImportResult(
+    int imported,
+    int rejected,
+    List<ApiFieldError> errors
+) {
+}
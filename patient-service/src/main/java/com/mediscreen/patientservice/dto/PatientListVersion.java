@@ -0,0 +1,25 @@
+package com.mediscreen.patientservice.dto;
+
+/**
+ * Empreinte de la liste des patients : nombre, plus grand identifiant et somme des versions
+ *
+ * Les identifiants étant croissants et toute écriture incrémentant la version,
+ * un ajout, une modification ou une suppression change l'empreinte.
+ */
+public record PatientListVersion(
+    Long count,
+    Long maxId,
+    Long versionSum
+) {
+
+    /**
+     * ETag fort de la liste
+     */
+    public String etag() {
+        return "\"" + valueOrZero(count) + "-" + valueOrZero(maxId) + "-" + valueOrZero(versionSum) + "\"";
+    }
+
+    private static long valueOrZero(Long value) {
+        return value != null ? value : 0L;
+    }
+}
@@ -0,0 +1,36 @@
+package com.mediscreen.patientservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.time.LocalDate;
+
+/**
+ * DTO de mise à jour partielle (PATCH)
+ * Seuls les champs renseignés sont modifiés, un champ absent ou null est laissé inchangé
+ * (une adresse sans aucun champ renseigné retire l'adresse du patient)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PatientPatchDto(
+    @Size(max = 50, message = "Le prénom ne peut pas dépasser 50 caractères")
+    @Pattern(regexp = ".*\\S.*", message = "Le prénom ne peut pas être vide")
+    String prenom,
+
+    @Size(max = 50, message = "Le nom ne peut pas dépasser 50 caractères")
+    @Pattern(regexp = ".*\\S.*", message = "Le nom ne peut pas être vide")
+    String nom,
+
+    @Past(message = "La date de naissance doit être dans le passé")
+    LocalDate dateNaissance,
+
+    @Pattern(regexp = "[MF]", message = "Le genre doit être M ou F")
+    String genre,
+
+    @Size(max = 15, message = "Le téléphone ne peut pas dépasser 15 caractères")
+    @Pattern(regexp = "^[0-9\\-+\\s]*$", message = "Format de téléphone invalide")
+    String telephone,
+
+    @Valid
+    AdresseDto adresse
+) {
+}
@@ -0,0 +1,35 @@
+package com.mediscreen.patientservice.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Projection en lecture seule d'un patient et de son adresse (une ligne de LEFT JOIN)
+ *
+ * Alimentée par une expression constructeur JPQL : aucune entité gérée,
+ * donc ni snapshot de dirty-checking ni passage par le mapper.
+ */
+public record PatientView(
+    Long id,
+    String prenom,
+    String nom,
+    LocalDate dateNaissance,
+    String genre,
+    String telephone,
+    Long adresseId,
+    String rue,
+    String ville,
+    String codePostal,
+    String pays,
+    Long version
+) {
+
+    /**
+     * Conversion vers le DTO exposé par l'API
+     */
+    public PatientDto toDto() {
+        AdresseDto adresse = adresseId != null
+                ? new AdresseDto(adresseId, rue, ville, codePostal, pays)
+                : null;
+        return new PatientDto(id, prenom, nom, dateNaissance, genre, telephone, adresse);
+    }
+}
@@ -0,0 +1,17 @@
+package com.mediscreen.patientservice.dto;
+
+/**
+ * Patient accompagné de sa version de verrouillage optimiste (source de l'ETag)
+ */
+public record VersionedPatientDto(
+    PatientDto patient,
+    Long version
+) {
+
+    /**
+     * ETag fort du patient (la version change à chaque modification)
+     */
+    public String etag() {
+        return "\"" + version + "\"";
+    }
+}
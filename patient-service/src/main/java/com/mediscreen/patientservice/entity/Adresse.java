@@ -4,19 +4,32 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
 /**
  * Entité Adresse - Normalisation 3NF
+ *
+ * Les adresses sont internées : une adresse normalisée n'existe qu'une seule fois
+ * en base, identifiée par son empreinte {@code adresse_hash} (index unique).
  */
 @Entity
-@Table(name = "adresses")
+@Table(name = "adresses", indexes = {
+    @Index(name = "uk_adresse_hash", columnList = "adresse_hash", unique = true)
+})
 @Data  // @Getter + @Setter + @ToString + @EqualsAndHashCode + @RequiredArgsConstructor
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Adresse {
     
+    // Séquence poolée (émulée par table sous MySQL) : autorise le batching JDBC des insertions
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "adresses_seq")
+    @SequenceGenerator(name = "adresses_seq", sequenceName = "adresses_seq", initialValue = 1000, allocationSize = 50)
     private Long id;
     
     @Column(name = "rue", length = 100)
@@ -34,4 +47,36 @@ public class Adresse {
     @Column(name = "pays", length = 50)
     @Size(max = 50, message = "Le pays ne peut pas dépasser 50 caractères")
     private String pays;
-}
\ No newline at end of file
+
+    // Empreinte SHA-256 de l'adresse normalisée (clé d'internement)
+    @Column(name = "adresse_hash", length = 64)
+    private String adresseHash;
+
+    /**
+     * Recalcule l'empreinte avant chaque écriture
+     */
+    @PrePersist
+    @PreUpdate
+    public void computeAdresseHash() {
+        this.adresseHash = normalizedHash(rue, ville, codePostal, pays);
+    }
+
+    /**
+     * Empreinte SHA-256 (hexadécimal) de l'adresse normalisée :
+     * champs trimés, espaces multiples réduits, minuscules, séparés par '|'.
+     * Deux adresses ne différant que par la casse ou les espaces ont la même empreinte.
+     */
+    public static String normalizedHash(String rue, String ville, String codePostal, String pays) {
+        String key = normalize(rue) + '|' + normalize(ville) + '|' + normalize(codePostal) + '|' + normalize(pays);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
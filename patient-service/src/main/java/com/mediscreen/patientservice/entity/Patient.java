@@ -3,6 +3,7 @@ package com.mediscreen.patientservice.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDate;
 import java.time.Period;
 
@@ -10,6 +11,7 @@ import java.time.Period;
  * Entité Patient - Conforme à la normalisation 3NF
  */
 @Entity
+@DynamicUpdate // UPDATE limité aux colonnes modifiées (PATCH)
 @Table(name = "patients", indexes = {
     @Index(name = "idx_patient_nom_prenom", columnList = "nom, prenom"),
     @Index(name = "idx_patient_genre", columnList = "genre")
@@ -22,8 +24,10 @@ import java.time.Period;
 @EqualsAndHashCode(exclude = "adresse")
 public class Patient {
     
+    // Séquence poolée (émulée par table sous MySQL) : autorise le batching JDBC des insertions
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patients_seq")
+    @SequenceGenerator(name = "patients_seq", sequenceName = "patients_seq", initialValue = 1000, allocationSize = 50)
     private Long id;
     
     @Column(name = "prenom", nullable = false, length = 50)
@@ -51,6 +55,11 @@ public class Patient {
     @Pattern(regexp = "^[0-9\\-+\\s]*$", message = "Format de téléphone invalide")
     private String telephone;
     
+    // Verrouillage optimiste : incrémentée à chaque mise à jour, sert d'ETag au GET / If-Match au PUT
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     // Relation avec Adresse (3NF - évite la redondance)
     @ManyToOne(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinColumn(name = "adresse_id")
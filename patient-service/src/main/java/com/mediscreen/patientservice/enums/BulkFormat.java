@@ -0,0 +1,56 @@
+package com.mediscreen.patientservice.enums;
+
+import com.mediscreen.patientservice.exception.InvalidBulkFormatException;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Formats supportés pour l'import / export en masse des patients
+ * Une ligne du flux = un patient
+ */
+public enum BulkFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final MediaType mediaType;
+
+    BulkFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Extension du fichier exporté (csv, ndjson)
+     */
+    public String getFileExtension() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Résout le format à partir du paramètre d'export (insensible à la casse)
+     */
+    public static BulkFormat fromParameter(String parameter) {
+        for (BulkFormat format : values()) {
+            if (format.name().equalsIgnoreCase(parameter)) {
+                return format;
+            }
+        }
+        throw new InvalidBulkFormatException("Format d'export non supporté (csv ou ndjson attendu)");
+    }
+
+    /**
+     * Résout le format à partir du Content-Type de la requête
+     */
+    public static BulkFormat fromMediaType(MediaType contentType) {
+        for (BulkFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        throw new InvalidBulkFormatException("Format d'import non supporté: " + contentType);
+    }
+}
@@ -0,0 +1,29 @@
+package com.mediscreen.patientservice.enums;
+
+/**
+ * Nature d'un changement inscrit au journal des patients (code sur un octet)
+ */
+public enum PatientChangeType {
+
+    CREATE((byte) 1),
+    UPDATE((byte) 2);
+
+    private final byte code;
+
+    PatientChangeType(byte code) {
+        this.code = code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static PatientChangeType fromCode(byte code) {
+        for (PatientChangeType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Type de changement inconnu: " + code);
+    }
+}
@@ -0,0 +1,79 @@
+package com.mediscreen.patientservice.enums;
+
+import com.mediscreen.patientservice.entity.Patient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Champs d'un patient suivis par le journal des changements, un bit chacun
+ * (nom JSON identique à PatientDto)
+ */
+public enum PatientField {
+
+    PRENOM("prenom", Patient::getPrenom),
+    NOM("nom", Patient::getNom),
+    DATE_NAISSANCE("dateNaissance", Patient::getDateNaissance),
+    GENRE("genre", Patient::getGenre),
+    TELEPHONE("telephone", Patient::getTelephone),
+    // Identifiant seul : ne déclenche pas le chargement d'une adresse LAZY
+    ADRESSE("adresse", patient -> patient.getAdresse() != null ? patient.getAdresse().getId() : null);
+
+    public static final int ALL = (1 << values().length) - 1;
+
+    private final String jsonName;
+    private final Function<Patient, Object> accessor;
+
+    PatientField(String jsonName, Function<Patient, Object> accessor) {
+        this.jsonName = jsonName;
+        this.accessor = accessor;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Valeurs courantes des champs suivis (à comparer après modification)
+     */
+    public static Object[] snapshot(Patient patient) {
+        PatientField[] fields = values();
+        Object[] values = new Object[fields.length];
+        for (PatientField field : fields) {
+            values[field.ordinal()] = field.accessor.apply(patient);
+        }
+        return values;
+    }
+
+    /**
+     * Masque des champs dont la valeur diffère du snapshot
+     */
+    public static int changedMask(Object[] before, Patient after) {
+        int mask = 0;
+        for (PatientField field : values()) {
+            if (!Objects.equals(before[field.ordinal()], field.accessor.apply(after))) {
+                mask |= field.bit();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Noms JSON des champs présents dans le masque
+     */
+    public static List<String> namesOf(int mask) {
+        List<String> names = new ArrayList<>();
+        for (PatientField field : values()) {
+            if ((mask & field.bit()) != 0) {
+                names.add(field.jsonName);
+            }
+        }
+        return names;
+    }
+}
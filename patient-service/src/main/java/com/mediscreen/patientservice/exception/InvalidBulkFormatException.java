@@ -0,0 +1,12 @@
+package com.mediscreen.patientservice.exception;
+
+/**
+ * Exception levée lorsqu'un flux d'import / export en masse n'est pas dans un format supporté
+ * (format d'export inconnu, Content-Type non supporté, en-tête CSV invalide)
+ */
+public class InvalidBulkFormatException extends RuntimeException {
+
+    public InvalidBulkFormatException(String message) {
+        super(message);
+    }
+}
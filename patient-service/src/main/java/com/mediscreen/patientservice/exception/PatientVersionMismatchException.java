@@ -0,0 +1,11 @@
+package com.mediscreen.patientservice.exception;
+
+/**
+ * Exception levée lorsque la version fournie par If-Match ne correspond plus au patient
+ */
+public class PatientVersionMismatchException extends RuntimeException {
+
+    public PatientVersionMismatchException(Long patientId) {
+        super("Le patient avec l'ID " + patientId + " a été modifié entre-temps, rechargez-le avant de le modifier");
+    }
+}
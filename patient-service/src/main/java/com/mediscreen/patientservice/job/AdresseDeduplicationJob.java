@@ -0,0 +1,31 @@
+package com.mediscreen.patientservice.job;
+
+import com.mediscreen.patientservice.service.AdresseService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job ponctuel de déduplication des adresses
+ *
+ * Activé uniquement avec mediscreen.adresses.deduplicate-on-startup=true,
+ * à lancer une fois après le passage à l'internement des adresses
+ * pour fusionner les doublons accumulés et calculer les empreintes manquantes.
+ */
+@Component
+@ConditionalOnProperty(name = "mediscreen.adresses.deduplicate-on-startup", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class AdresseDeduplicationJob implements ApplicationRunner {
+
+    private final AdresseService adresseService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int supprimees = adresseService.deduplicateAdresses();
+        log.info("Job de déduplication terminé : {} adresses fusionnées", supprimees);
+    }
+}
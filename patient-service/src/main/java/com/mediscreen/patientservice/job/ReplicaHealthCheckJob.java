@@ -0,0 +1,27 @@
+package com.mediscreen.patientservice.job;
+
+import com.mediscreen.patientservice.datasource.ReadYourWritesFilter;
+import com.mediscreen.patientservice.datasource.ReplicaRoutingDataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Vérification périodique des répliques (disponibilité et retard de réplication)
+ * et purge des fenêtres read-your-writes expirées
+ */
+@Component
+@ConditionalOnProperty(name = "mediscreen.datasource.replica.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReplicaHealthCheckJob {
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+    private final ReadYourWritesFilter readYourWritesFilter;
+
+    @Scheduled(fixedDelayString = "${mediscreen.datasource.replica.health-check-interval:5s}")
+    public void checkReplicas() {
+        replicaRoutingDataSource.checkReplicas();
+        readYourWritesFilter.purgeExpired();
+    }
+}
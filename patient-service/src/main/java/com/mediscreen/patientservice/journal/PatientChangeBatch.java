@@ -0,0 +1,19 @@
+package com.mediscreen.patientservice.journal;
+
+import java.util.List;
+
+/**
+ * Lot lu dans le journal
+ *
+ * @param firstOffset plus ancien offset encore disponible
+ * @param truncated   true si l'offset demandé a déjà été purgé (des changements ont été perdus,
+ *                    le consommateur doit resynchroniser complètement)
+ * @param nextOffset  offset à passer au prochain appel
+ */
+public record PatientChangeBatch(
+    long firstOffset,
+    boolean truncated,
+    long nextOffset,
+    List<PatientChangeRecord> records
+) {
+}
@@ -0,0 +1,17 @@
+package com.mediscreen.patientservice.journal;
+
+import com.mediscreen.patientservice.enums.PatientChangeType;
+
+/**
+ * Événement publié à chaque création / modification de patient,
+ * inscrit au journal après commit de la transaction
+ *
+ * @param changedFields masque de bits {@link com.mediscreen.patientservice.enums.PatientField}
+ */
+public record PatientChangeEvent(
+    Long patientId,
+    Long version,
+    PatientChangeType type,
+    int changedFields
+) {
+}
@@ -0,0 +1,216 @@
+package com.mediscreen.patientservice.journal;
+
+import com.mediscreen.patientservice.enums.PatientChangeType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal append-only des changements de patients, en fichiers mappés en mémoire
+ *
+ * Enregistrements binaires de taille fixe (32 octets), adressés par un offset logique
+ * croissant. Les segments portent l'offset de leur premier enregistrement dans leur nom ;
+ * un segment plein est remplacé par un nouveau et les plus anciens au-delà de la rétention
+ * sont supprimés.
+ *
+ * Format d'un enregistrement :
+ * <pre>
+ *  0  type (1 = CREATE, 2 = UPDATE, 0 = emplacement libre)
+ *  1  réservé
+ *  2  masque des champs modifiés (short)
+ *  4  CRC32 des octets 8 à 31 (int)
+ *  8  id patient (long)
+ * 16  version (long)
+ * 24  horodatage epoch ms (long)
+ * </pre>
+ * Le type est écrit en dernier : un enregistrement interrompu par un arrêt brutal
+ * est ignoré à la relecture.
+ */
+@Slf4j
+public class PatientChangeJournal implements Closeable {
+
+    static final int RECORD_SIZE = 32;
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final int maxSegments;
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private Segment active;
+    private volatile long nextOffset;
+
+    public PatientChangeJournal(Path directory, long segmentBytes, int maxSegments) throws IOException {
+        if (segmentBytes < RECORD_SIZE || maxSegments < 1) {
+            throw new IllegalArgumentException("Taille de segment ou rétention invalide");
+        }
+        this.directory = directory;
+        this.recordsPerSegment = (int) Math.min(segmentBytes / RECORD_SIZE, Integer.MAX_VALUE / RECORD_SIZE);
+        this.maxSegments = maxSegments;
+
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                String name = file.getFileName().toString();
+                long baseOffset = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                int capacity = (int) (Files.size(file) / RECORD_SIZE);
+                segments.put(baseOffset, Segment.open(file, baseOffset, capacity));
+            }
+        }
+        if (segments.isEmpty()) {
+            active = createSegment(0);
+            nextOffset = 0;
+        } else {
+            active = segments.lastEntry().getValue();
+            nextOffset = active.baseOffset + active.recoverCount();
+            log.info("Journal des patients rouvert: {} segment(s), prochain offset {}", segments.size(), nextOffset);
+        }
+    }
+
+    /**
+     * Ajoute un enregistrement et retourne son offset
+     */
+    public synchronized long append(long patientId, long version, PatientChangeType type,
+                                    int changedFields, long timestampMillis) throws IOException {
+        if (nextOffset - active.baseOffset >= active.capacity) {
+            rotate();
+        }
+        int position = (int) (nextOffset - active.baseOffset) * RECORD_SIZE;
+        MappedByteBuffer buffer = active.buffer;
+        buffer.putLong(position + 8, patientId);
+        buffer.putLong(position + 16, version);
+        buffer.putLong(position + 24, timestampMillis);
+        buffer.putShort(position + 2, (short) changedFields);
+        buffer.putInt(position + 4, checksum(active, position));
+        buffer.put(position, type.getCode());
+
+        long offset = nextOffset;
+        // Publication aux lecteurs après écriture complète (écriture volatile)
+        nextOffset = offset + 1;
+        return offset;
+    }
+
+    /**
+     * Lit au plus {@code limit} enregistrements à partir de {@code since}
+     */
+    public PatientChangeBatch read(long since, int limit) {
+        long end = nextOffset;
+        long firstOffset = segments.isEmpty() ? end : segments.firstKey();
+        boolean truncated = since < firstOffset;
+        long offset = Math.min(Math.max(since, firstOffset), end);
+
+        List<PatientChangeRecord> records = new ArrayList<>(Math.min(limit, (int) Math.min(end - offset, 1024)));
+        while (offset < end && records.size() < limit) {
+            Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+            if (entry == null) {
+                // Segment purgé pendant la lecture
+                return new PatientChangeBatch(segments.isEmpty() ? end : segments.firstKey(), true, offset, records);
+            }
+            Segment segment = entry.getValue();
+            int position = (int) (offset - segment.baseOffset) * RECORD_SIZE;
+            records.add(segment.readRecord(offset, position));
+            offset++;
+        }
+        return new PatientChangeBatch(firstOffset, truncated, offset, records);
+    }
+
+    public long getNextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * Force l'écriture sur disque du segment actif
+     */
+    public synchronized void force() {
+        active.buffer.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        force();
+    }
+
+    private void rotate() throws IOException {
+        active.buffer.force();
+        active = createSegment(nextOffset);
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.pollFirstEntry().getValue();
+            // Le mapping reste valide pour une lecture en cours jusqu'à sa collecte
+            Files.deleteIfExists(oldest.file);
+            log.debug("Segment de journal purgé: {}", oldest.file.getFileName());
+        }
+    }
+
+    private Segment createSegment(long baseOffset) throws IOException {
+        Path file = directory.resolve(String.format("%020d%s", baseOffset, SEGMENT_SUFFIX));
+        Segment segment = Segment.open(file, baseOffset, recordsPerSegment);
+        segments.put(baseOffset, segment);
+        return segment;
+    }
+
+    private static int checksum(Segment segment, int position) {
+        CRC32 crc = new CRC32();
+        crc.update(segment.buffer.slice(position + 8, RECORD_SIZE - 8));
+        return (int) crc.getValue();
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final long baseOffset;
+        private final int capacity;
+        private final MappedByteBuffer buffer;
+
+        private Segment(Path file, long baseOffset, int capacity, MappedByteBuffer buffer) {
+            this.file = file;
+            this.baseOffset = baseOffset;
+            this.capacity = capacity;
+            this.buffer = buffer;
+        }
+
+        private static Segment open(Path file, long baseOffset, int capacity) throws IOException {
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // Le mapping agrandit le fichier à la capacité du segment (zéros = emplacements libres)
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+                return new Segment(file, baseOffset, capacity, buffer);
+            }
+        }
+
+        /**
+         * Nombre d'enregistrements valides en tête de segment (reprise après redémarrage)
+         */
+        private int recoverCount() {
+            int count = 0;
+            while (count < capacity) {
+                int position = count * RECORD_SIZE;
+                if (buffer.get(position) == 0 || buffer.getInt(position + 4) != checksum(this, position)) {
+                    break;
+                }
+                count++;
+            }
+            return count;
+        }
+
+        private PatientChangeRecord readRecord(long offset, int position) {
+            return new PatientChangeRecord(
+                    offset,
+                    buffer.getLong(position + 8),
+                    buffer.getLong(position + 16),
+                    PatientChangeType.fromCode(buffer.get(position)),
+                    Short.toUnsignedInt(buffer.getShort(position + 2)),
+                    buffer.getLong(position + 24));
+        }
+    }
+}
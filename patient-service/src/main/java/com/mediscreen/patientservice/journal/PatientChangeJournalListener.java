@@ -0,0 +1,29 @@
+package com.mediscreen.patientservice.journal;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+
+/**
+ * Inscrit les changements de patients au journal une fois la transaction committée
+ * (un rollback ne laisse aucune trace). Un échec d'écriture du journal est journalisé
+ * sans faire échouer la requête : les consommateurs le détecteront à la resynchronisation.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class PatientChangeJournalListener {
+
+    private final PatientChangeJournal journal;
+
+    @TransactionalEventListener
+    public void onPatientChange(PatientChangeEvent event) {
+        try {
+            journal.append(event.patientId(), event.version(), event.type(),
+                    event.changedFields(), System.currentTimeMillis());
+        } catch (IOException | RuntimeException e) {
+            log.error("Impossible d'inscrire le changement du patient {} au journal", event.patientId(), e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.mediscreen.patientservice.journal;
+
+import com.mediscreen.patientservice.enums.PatientChangeType;
+
+/**
+ * Enregistrement lu dans le journal, avec son offset logique
+ */
+public record PatientChangeRecord(
+    long offset,
+    long patientId,
+    long version,
+    PatientChangeType type,
+    int changedFields,
+    long timestampMillis
+) {
+}
@@ -74,6 +74,20 @@ public interface PatientMapper {
     )
     void updatePatientFromDto(PatientDto dto, @MappingTarget Patient entity);
     
+    /**
+     * Applique un PATCH sur une entité Patient gérée
+     * Seuls les champs non null sont copiés : le dirty-checking n'écrit que ceux qui changent.
+     * L'adresse est internée par le service, jamais recréée ici.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "adresse", ignore = true)
+    @BeanMapping(
+        nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
+        nullValueCheckStrategy = NullValueCheckStrategy.ALWAYS
+    )
+    void updatePatientFromDto(PatientPatchDto dto, @MappingTarget Patient entity);
+    
     /**
      * Met à jour une entité Adresse existante
      */
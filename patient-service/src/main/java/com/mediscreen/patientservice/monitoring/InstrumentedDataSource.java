@@ -0,0 +1,161 @@
+package com.mediscreen.patientservice.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource instrumentée : chronomètre chaque exécution SQL et compte les lignes lues,
+ * via des proxies JDBC (Connection, Statement, ResultSet) qui délèguent tout le reste.
+ *
+ * Remplace la journalisation exhaustive org.hibernate.SQL / orm.jdbc.bind : seules les
+ * agrégations par forme et les requêtes lentes sont conservées.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private final QueryStatistics statistics;
+
+    public InstrumentedDataSource(DataSource targetDataSource, QueryStatistics statistics) {
+        super(targetDataSource);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> statement(PreparedStatement.class, (Statement) result, proxy, (String) args[0]);
+                case "prepareCall" -> statement(CallableStatement.class, (Statement) result, proxy, (String) args[0]);
+                case "createStatement" -> statement(Statement.class, (Statement) result, proxy, null);
+                default -> result;
+            };
+        }
+
+        private <T extends Statement> T statement(Class<T> type, Statement statement, Object connection, String sql) {
+            return proxy(type, new StatementHandler(statement, connection, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final Object connection;
+        private final String preparedSql;
+
+        private StatementHandler(Statement target, Object connection, String preparedSql) {
+            this.target = target;
+            this.connection = connection;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("getConnection")) {
+                return connection;
+            }
+            if (!name.startsWith("execute")) {
+                Object result = InstrumentedDataSource.invoke(target, method, args);
+                return name.equals("getResultSet") ? resultSet((ResultSet) result, proxy, preparedSql) : result;
+            }
+            // Statement simple : le SQL est passé à execute*(sql, ...)
+            String sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            long start = System.nanoTime();
+            try {
+                Object result = InstrumentedDataSource.invoke(target, method, args);
+                return name.equals("executeQuery") ? resultSet((ResultSet) result, proxy, sql) : result;
+            } finally {
+                if (sql != null) {
+                    statistics.recordExecution(sql, System.nanoTime() - start);
+                }
+            }
+        }
+
+        private ResultSet resultSet(ResultSet resultSet, Object statement, String sql) {
+            if (resultSet == null || sql == null) {
+                return resultSet;
+            }
+            return proxy(ResultSet.class, new ResultSetHandler(resultSet, statement, sql));
+        }
+    }
+
+    private final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final Object statement;
+        private final String sql;
+        private long rows;
+        private boolean recorded;
+
+        private ResultSetHandler(ResultSet target, Object statement, String sql) {
+            this.target = target;
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next" -> {
+                    Object hasNext = InstrumentedDataSource.invoke(target, method, args);
+                    if (Boolean.TRUE.equals(hasNext)) {
+                        rows++;
+                    }
+                    return hasNext;
+                }
+                case "close" -> {
+                    if (!recorded) {
+                        recorded = true;
+                        statistics.recordRows(sql, rows);
+                    }
+                    return InstrumentedDataSource.invoke(target, method, args);
+                }
+                case "getStatement" -> {
+                    return statement;
+                }
+                default -> {
+                    return InstrumentedDataSource.invoke(target, method, args);
+                }
+            }
+        }
+    }
+}
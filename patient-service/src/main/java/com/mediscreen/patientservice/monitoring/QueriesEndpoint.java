@@ -0,0 +1,36 @@
+package com.mediscreen.patientservice.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Endpoint actuator /actuator/queries : formes SQL par temps cumulé et N+1 récents
+ */
+@Component
+@Endpoint(id = "queries")
+@RequiredArgsConstructor
+public class QueriesEndpoint {
+
+    private final QueryStatistics queryStatistics;
+
+    @ReadOperation
+    public QueriesReport queries() {
+        return new QueriesReport(
+                queryStatistics.getSlowThreshold().toMillis(),
+                queryStatistics.getNPlusOneThreshold(),
+                queryStatistics.snapshot(),
+                queryStatistics.recentDetections());
+    }
+
+    public record QueriesReport(
+        long slowThresholdMillis,
+        int nPlusOneThreshold,
+        List<QueryStatistics.ShapeSnapshot> shapes,
+        List<QueryStatistics.NPlusOneDetection> nPlusOne
+    ) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.mediscreen.patientservice.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Délimite chaque requête HTTP pour la détection N+1 de {@link QueryStatistics}
+ */
+public class QueryInstrumentationFilter extends OncePerRequestFilter {
+
+    private final QueryStatistics statistics;
+    private final List<String> excludedPaths;
+
+    public QueryInstrumentationFilter(QueryStatistics statistics, List<String> excludedPaths) {
+        this.statistics = statistics;
+        this.excludedPaths = excludedPaths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return excludedPaths.stream().anyMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        statistics.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statistics.endRequest(request.getMethod() + " " + requestPattern(request));
+        }
+    }
+
+    /**
+     * Motif de mapping (/api/v1/patients/{id}) plutôt que l'URI : cardinalité bornée
+     */
+    private String requestPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+}
@@ -0,0 +1,41 @@
+package com.mediscreen.patientservice.monitoring;
+
+import java.util.regex.Pattern;
+
+/**
+ * Normalisation d'un ordre SQL en « forme » : littéraux et listes de paramètres
+ * remplacés, espaces compactés. Deux exécutions de la même requête avec des
+ * valeurs différentes partagent la même forme.
+ */
+public final class QueryShapes {
+
+    private static final int MAX_LENGTH = 500;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern REPEATED_ROWS = Pattern.compile("\\(\\?\\)(?:\\s*,\\s*\\(\\?\\))+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private QueryShapes() {
+    }
+
+    public static String of(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String shape = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?)");
+        shape = REPEATED_ROWS.matcher(shape).replaceAll("(?)");
+        return shape.length() > MAX_LENGTH ? shape.substring(0, MAX_LENGTH) + "…" : shape;
+    }
+
+    /**
+     * Une forme de lecture (SELECT ou CTE), seules candidates à la détection N+1
+     */
+    public static boolean isRead(String shape) {
+        return shape.regionMatches(true, 0, "select", 0, 6) || shape.regionMatches(true, 0, "with", 0, 4);
+    }
+}
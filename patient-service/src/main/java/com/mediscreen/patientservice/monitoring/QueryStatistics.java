@@ -0,0 +1,234 @@
+package com.mediscreen.patientservice.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistiques SQL par forme de requête
+ *
+ * - Timer Micrometer db.query (tag shape) et résumé db.query.rows (lignes lues)
+ * - Journal des requêtes lentes au-delà du seuil configuré (sans paramètres liés)
+ * - Détection N+1 : même forme de SELECT exécutée plus de K fois dans une requête HTTP
+ * - Forme calculée une fois par texte SQL distinct (table bornée, vidée quand elle est pleine) :
+ *   Hibernate réutilise les mêmes chaînes, les expressions régulières ne tournent pas à
+ *   chaque exécution
+ *
+ * Alimentées par {@link InstrumentedDataSource}, exposées par l'endpoint actuator « queries ».
+ */
+@Component
+@Slf4j
+public class QueryStatistics {
+
+    static final String OVERFLOW_SHAPE = "(autres formes)";
+    private static final int RECENT_DETECTIONS = 50;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final Map<String, ShapeStats> statsBySql = new ConcurrentHashMap<>();
+    private final Deque<NPlusOneDetection> detections = new ArrayDeque<>();
+    private final ThreadLocal<Map<String, Integer>> requestShapes = new ThreadLocal<>();
+
+    @Value("${mediscreen.db.instrumentation.slow-threshold:200ms}")
+    private Duration slowThreshold;
+
+    @Value("${mediscreen.db.instrumentation.n-plus-one-threshold:10}")
+    private int nPlusOneThreshold;
+
+    @Value("${mediscreen.db.instrumentation.max-shapes:500}")
+    private int maxShapes;
+
+    @Value("${mediscreen.db.instrumentation.max-sql-strings:2000}")
+    private int maxSqlStrings;
+
+    public QueryStatistics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Enregistre une exécution (durée côté base, hors lecture des lignes)
+     */
+    public void recordExecution(String sql, long nanos) {
+        ShapeStats stats = statsFor(sql);
+        stats.record(nanos);
+        if (nanos >= slowThreshold.toNanos()) {
+            log.warn("Requête lente ({} ms > {} ms): {}",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), slowThreshold.toMillis(), stats.shape);
+        }
+        Map<String, Integer> perRequest = requestShapes.get();
+        if (perRequest != null && QueryShapes.isRead(stats.shape)) {
+            perRequest.merge(stats.shape, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Enregistre le nombre de lignes lues d'un ResultSet, à sa fermeture
+     */
+    public void recordRows(String sql, long rows) {
+        statsFor(sql).recordRows(rows);
+    }
+
+    /**
+     * Début du suivi N+1 pour la requête HTTP du thread courant
+     */
+    public void beginRequest() {
+        requestShapes.set(new HashMap<>());
+    }
+
+    /**
+     * Fin du suivi : signale les formes répétées au-delà du seuil
+     */
+    public void endRequest(String request) {
+        Map<String, Integer> perRequest = requestShapes.get();
+        requestShapes.remove();
+        if (perRequest == null) {
+            return;
+        }
+        perRequest.forEach((shape, count) -> {
+            if (count > nPlusOneThreshold) {
+                log.warn("N+1 suspecté sur {} : {} exécutions de {}", request, count, shape);
+                Counter.builder("db.query.n_plus_one")
+                        .description("Requêtes HTTP ayant répété une même forme de SELECT au-delà du seuil")
+                        .tag("request", request)
+                        .register(meterRegistry)
+                        .increment();
+                synchronized (detections) {
+                    if (detections.size() == RECENT_DETECTIONS) {
+                        detections.removeFirst();
+                    }
+                    detections.addLast(new NPlusOneDetection(Instant.now(), request, shape, count));
+                }
+            }
+        });
+    }
+
+    /**
+     * Formes triées par temps cumulé décroissant
+     */
+    public List<ShapeSnapshot> snapshot() {
+        return shapes.values().stream()
+                .map(ShapeStats::snapshot)
+                .sorted(Comparator.comparingDouble(ShapeSnapshot::totalMillis).reversed())
+                .toList();
+    }
+
+    public List<NPlusOneDetection> recentDetections() {
+        synchronized (detections) {
+            return List.copyOf(detections);
+        }
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public int getNPlusOneThreshold() {
+        return nPlusOneThreshold;
+    }
+
+    private ShapeStats statsFor(String sql) {
+        if (sql == null) {
+            return statsForShape(QueryShapes.of(null));
+        }
+        ShapeStats cached = statsBySql.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        // SQL à littéraux inlinés : textes sans fin, la table repart de zéro plutôt que de grossir
+        if (statsBySql.size() >= maxSqlStrings) {
+            statsBySql.clear();
+        }
+        ShapeStats stats = statsForShape(QueryShapes.of(sql));
+        statsBySql.put(sql, stats);
+        return stats;
+    }
+
+    private ShapeStats statsForShape(String shape) {
+        ShapeStats stats = shapes.get(shape);
+        if (stats != null) {
+            return stats;
+        }
+        // Nombre de formes borné : protège la mémoire et la cardinalité des métriques
+        if (shapes.size() >= maxShapes) {
+            return shapes.computeIfAbsent(OVERFLOW_SHAPE, ShapeStats::new);
+        }
+        return shapes.computeIfAbsent(shape, ShapeStats::new);
+    }
+
+    private final class ShapeStats {
+        private final String shape;
+        private final Timer timer;
+        private final DistributionSummary rows;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+        private final LongAdder totalRows = new LongAdder();
+
+        private ShapeStats(String shape) {
+            this.shape = shape;
+            this.timer = Timer.builder("db.query")
+                    .description("Durée d'exécution SQL par forme de requête")
+                    .tag("shape", shape)
+                    .register(meterRegistry);
+            this.rows = DistributionSummary.builder("db.query.rows")
+                    .description("Lignes lues par exécution, par forme de requête")
+                    .tag("shape", shape)
+                    .register(meterRegistry);
+        }
+
+        private void record(long nanos) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        private void recordRows(long fetched) {
+            rows.record(fetched);
+            totalRows.add(fetched);
+        }
+
+        private ShapeSnapshot snapshot() {
+            long executions = count.sum();
+            double totalMillis = totalNanos.sum() / 1_000_000.0;
+            return new ShapeSnapshot(shape, executions, totalMillis,
+                    executions > 0 ? totalMillis / executions : 0,
+                    maxNanos.get() / 1_000_000.0, totalRows.sum());
+        }
+    }
+
+    public record ShapeSnapshot(
+        String shape,
+        long executions,
+        double totalMillis,
+        double meanMillis,
+        double maxMillis,
+        long rowsFetched
+    ) {
+    }
+
+    public record NPlusOneDetection(
+        Instant detectedAt,
+        String request,
+        String shape,
+        int executions
+    ) {
+    }
+}
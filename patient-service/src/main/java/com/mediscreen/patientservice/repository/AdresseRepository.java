@@ -1,11 +1,14 @@
 package com.mediscreen.patientservice.repository;
 
 import com.mediscreen.patientservice.entity.Adresse;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,19 +34,23 @@ public interface AdresseRepository extends JpaRepository<Adresse, Long> {
     List<Adresse> findByPaysIgnoreCase(String pays);
     
     /**
-     * Recherche une adresse complète existante pour éviter les doublons
+     * Recherche une adresse par son empreinte normalisée (index unique uk_adresse_hash)
+     * Une seule lecture indexée pour retrouver une adresse déjà internée
      */
-    @Query("SELECT a FROM Adresse a WHERE " +
-           "LOWER(COALESCE(a.rue, '')) = LOWER(COALESCE(:rue, '')) AND " +
-           "LOWER(COALESCE(a.ville, '')) = LOWER(COALESCE(:ville, '')) AND " +
-           "LOWER(COALESCE(a.codePostal, '')) = LOWER(COALESCE(:codePostal, '')) AND " +
-           "LOWER(COALESCE(a.pays, '')) = LOWER(COALESCE(:pays, ''))")
-    Optional<Adresse> findByAdresseComplete(
-        @Param("rue") String rue,
-        @Param("ville") String ville,
-        @Param("codePostal") String codePostal,
-        @Param("pays") String pays
-    );
+    Optional<Adresse> findByAdresseHash(String adresseHash);
+    
+    /**
+     * Relecture verrouillante par empreinte : voit la dernière version committée,
+     * y compris une adresse insérée par une autre transaction après le début de la nôtre
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT a FROM Adresse a WHERE a.adresseHash = :adresseHash")
+    Optional<Adresse> findCommittedByAdresseHash(@Param("adresseHash") String adresseHash);
+    
+    /**
+     * Recherche groupée par empreintes (internement d'un lot d'import)
+     */
+    List<Adresse> findByAdresseHashIn(Collection<String> adresseHashes);
     
     /**
      * Recherche les adresses par ville et code postal
@@ -1,13 +1,84 @@
 package com.mediscreen.patientservice.repository;
 
+import com.mediscreen.patientservice.dto.PatientListVersion;
+import com.mediscreen.patientservice.dto.PatientView;
+import com.mediscreen.patientservice.entity.Adresse;
 import com.mediscreen.patientservice.entity.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository pour l'entité Patient
  */
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
 
+    String PATIENT_VIEW_SELECT = "SELECT new com.mediscreen.patientservice.dto.PatientView(" +
+            "p.id, p.prenom, p.nom, p.dateNaissance, p.genre, p.telephone, " +
+            "a.id, a.rue, a.ville, a.codePostal, a.pays, p.version) " +
+            "FROM Patient p LEFT JOIN p.adresse a";
+
+    /**
+     * Lecture d'un patient en projection (une requête, sans entité gérée)
+     */
+    @Query(PATIENT_VIEW_SELECT + " WHERE p.id = :id")
+    Optional<PatientView> findViewById(@Param("id") Long id);
+
+    /**
+     * Lecture de tous les patients en projection (une requête, pas de N+1 sur l'adresse)
+     */
+    @Query(PATIENT_VIEW_SELECT + " ORDER BY p.id")
+    List<PatientView> findAllViews();
+
+    /**
+     * Lecture d'un lot de patients en projection (une requête IN, pour les lectures groupées)
+     */
+    @Query(PATIENT_VIEW_SELECT + " WHERE p.id IN :ids ORDER BY p.id")
+    List<PatientView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Chargement d'un patient géré avec son adresse (une requête, mise à jour partielle)
+     */
+    @Query("SELECT p FROM Patient p LEFT JOIN FETCH p.adresse WHERE p.id = :id")
+    Optional<Patient> findWithAdresseById(@Param("id") Long id);
+
+    /**
+     * Version courante d'un patient (lecture par clé primaire, validation du cache de réponses)
+     */
+    @Query("SELECT p.version FROM Patient p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Empreinte de la liste des patients (ETag du GET de liste) en une requête agrégée
+     */
+    @Query("SELECT new com.mediscreen.patientservice.dto.PatientListVersion(COUNT(p), MAX(p.id), SUM(p.version)) " +
+            "FROM Patient p")
+    PatientListVersion findListVersion();
+
+    /**
+     * Mise à jour complète conditionnée à la version attendue (If-Match), sans lecture préalable
+     *
+     * @return 1 si la version correspondait, 0 si le patient est absent ou a été modifié entre-temps
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Patient p SET p.prenom = :#{#patient.prenom}, p.nom = :#{#patient.nom}, " +
+            "p.dateNaissance = :#{#patient.dateNaissance}, p.genre = :#{#patient.genre}, " +
+            "p.telephone = :#{#patient.telephone}, p.adresse = :#{#patient.adresse}, p.version = p.version + 1 " +
+            "WHERE p.id = :#{#patient.id} AND p.version = :#{#patient.version}")
+    int updateIfVersionMatches(@Param("patient") Patient patient);
+
+    /**
+     * Rattache à l'adresse canonique tous les patients pointant vers une adresse doublon
+     * (version incrémentée : la représentation des patients concernés change)
+     */
+    @Modifying
+    @Query("UPDATE Patient p SET p.adresse = :canonique, p.version = p.version + 1 WHERE p.adresse.id IN :doublonIds")
+    int reassignAdresse(@Param("canonique") Adresse canonique, @Param("doublonIds") Collection<Long> doublonIds);
 }
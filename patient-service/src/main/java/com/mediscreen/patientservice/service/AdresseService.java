@@ -0,0 +1,31 @@
+package com.mediscreen.patientservice.service;
+
+import com.mediscreen.patientservice.dto.AdresseDto;
+import com.mediscreen.patientservice.entity.Adresse;
+
+import java.util.List;
+
+/**
+ * Interface du service Adresse
+ * Internement des adresses : une adresse normalisée correspond à une seule ligne en base
+ */
+public interface AdresseService {
+
+    /**
+     * Résout une adresse vers la ligne existante de même empreinte, ou la crée.
+     * Retourne null si le DTO est absent ou ne contient aucun champ renseigné.
+     */
+    Adresse internAdresse(AdresseDto adresseDto);
+
+    /**
+     * Internement groupé : une lecture indexée pour tout le lot, puis insertion des adresses inconnues.
+     * La liste retournée est alignée sur celle reçue (null pour les adresses vides).
+     */
+    List<Adresse> internAdresses(List<AdresseDto> adresseDtos);
+
+    /**
+     * Fusionne les adresses en doublon déjà présentes en base et calcule
+     * les empreintes manquantes. Retourne le nombre de doublons supprimés.
+     */
+    int deduplicateAdresses();
+}
@@ -0,0 +1,26 @@
+package com.mediscreen.patientservice.service;
+
+import com.mediscreen.patientservice.dto.PatientImportResult;
+import com.mediscreen.patientservice.enums.BulkFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Interface du service d'import / export en masse des patients
+ * Les deux sens traitent le flux ligne par ligne sans charger le jeu de données en mémoire
+ */
+public interface PatientBulkService {
+
+    /**
+     * Importe les patients du flux par lots committés séparément.
+     * Les lignes invalides sont rejetées sans interrompre l'import.
+     */
+    PatientImportResult importPatients(InputStream input, BulkFormat format) throws IOException;
+
+    /**
+     * Exporte tous les patients vers le flux via un curseur JDBC en lecture seule
+     */
+    void exportPatients(OutputStream output, BulkFormat format) throws IOException;
+}
@@ -0,0 +1,16 @@
+package com.mediscreen.patientservice.service;
+
+import com.mediscreen.patientservice.dto.DuplicateCandidateDto;
+
+import java.util.List;
+
+/**
+ * Interface du service de détection des doublons de patients
+ */
+public interface PatientDuplicateService {
+
+    /**
+     * Paires de patients probablement identiques, par score décroissant
+     */
+    List<DuplicateCandidateDto> findDuplicates(double minScore, int limit);
+}
@@ -1,7 +1,9 @@
 package com.mediscreen.patientservice.service;
 
 import com.mediscreen.patientservice.dto.*;
+import com.mediscreen.patientservice.exception.PatientVersionMismatchException;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,13 +26,45 @@ public interface PatientService {
      */
     Optional<PatientDto> getPatientById(Long id);
     
+    /**
+     * Récupère un patient par son ID avec sa version (ETag)
+     */
+    Optional<VersionedPatientDto> getVersionedPatientById(Long id);
+    
     /**
      * Récupère tous les patients (avec pagination implicite)
      */
     List<PatientDto> getAllPatients();
     
+    /**
+     * Récupère un lot de patients par leurs IDs (IDs inconnus ignorés)
+     */
+    List<PatientDto> getPatientsByIds(Collection<Long> ids);
+    
+    /**
+     * Version courante d'un patient, vide s'il n'existe pas
+     */
+    Optional<Long> getPatientVersion(Long id);
+    
+    /**
+     * Empreinte de la liste des patients (ETag), sans charger la liste
+     */
+    PatientListVersion getPatientListVersion();
+    
     /**
      * Met à jour un patient existant
+     *
+     * @param expectedVersion version attendue (If-Match) : mise à jour conditionnelle sans lecture
+     *                        préalable, ou null pour une mise à jour inconditionnelle
+     * @throws PatientVersionMismatchException si le patient a changé depuis la version attendue
+     */
+    VersionedPatientDto updatePatient(Long id, PatientDto patientDto, Long expectedVersion);
+    
+    /**
+     * Met à jour partiellement un patient (seuls les champs renseignés)
+     *
+     * @param expectedVersion version attendue (If-Match), ou null
+     * @throws PatientVersionMismatchException si le patient a changé depuis la version attendue
      */
-    PatientDto updatePatient(Long id, PatientDto patientDto);
+    VersionedPatientDto patchPatient(Long id, PatientPatchDto patchDto, Long expectedVersion);
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package com.mediscreen.patientservice.service.impl;
+
+import com.mediscreen.patientservice.dto.AdresseDto;
+import com.mediscreen.patientservice.entity.Adresse;
+import com.mediscreen.patientservice.mapper.PatientMapper;
+import com.mediscreen.patientservice.repository.AdresseRepository;
+import com.mediscreen.patientservice.repository.PatientRepository;
+import com.mediscreen.patientservice.service.AdresseService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Implémentation du service Adresse
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class AdresseServiceImpl implements AdresseService {
+
+    private final AdresseRepository adresseRepository;
+    private final PatientRepository patientRepository;
+    private final PatientMapper patientMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public Adresse internAdresse(AdresseDto adresseDto) {
+        if (adresseDto == null || isEmpty(adresseDto)) {
+            return null;
+        }
+
+        String hash = hashOf(adresseDto);
+
+        // Une seule lecture indexée pour une adresse déjà internée
+        return adresseRepository.findByAdresseHash(hash)
+                .orElseGet(() -> insertAdresse(adresseDto, hash));
+    }
+
+    /**
+     * Insère une adresse inconnue dans sa propre transaction : si une requête concurrente
+     * l'a créée entre-temps, l'index unique rejette l'insertion sans invalider la transaction
+     * appelante, et la ligne existante est relue.
+     * La relecture est verrouillante pour voir la ligne committée malgré l'instantané REPEATABLE READ.
+     */
+    private Adresse insertAdresse(AdresseDto adresseDto, String hash) {
+        TransactionTemplate insertion = new TransactionTemplate(transactionManager);
+        insertion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            insertion.executeWithoutResult(status ->
+                    adresseRepository.saveAndFlush(patientMapper.toEntity(adresseDto)));
+            log.debug("Nouvelle adresse internée: {}", hash);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Adresse {} internée par une requête concurrente", hash);
+        }
+        return adresseRepository.findCommittedByAdresseHash(hash)
+                .orElseThrow(() -> new IllegalStateException("Adresse internée introuvable: " + hash));
+    }
+
+    @Override
+    public List<Adresse> internAdresses(List<AdresseDto> adresseDtos) {
+        List<String> hashes = new ArrayList<>(adresseDtos.size());
+        Map<String, AdresseDto> aInterner = new LinkedHashMap<>();
+        for (AdresseDto dto : adresseDtos) {
+            String hash = dto == null || isEmpty(dto) ? null : hashOf(dto);
+            hashes.add(hash);
+            if (hash != null) {
+                aInterner.putIfAbsent(hash, dto);
+            }
+        }
+        if (aInterner.isEmpty()) {
+            return hashes.stream().map(hash -> (Adresse) null).toList();
+        }
+
+        Map<String, Adresse> internees = new HashMap<>();
+        adresseRepository.findByAdresseHashIn(aInterner.keySet())
+                .forEach(adresse -> internees.put(adresse.getAdresseHash(), adresse));
+
+        List<Adresse> nouvelles = aInterner.entrySet().stream()
+                .filter(entry -> !internees.containsKey(entry.getKey()))
+                .map(entry -> patientMapper.toEntity(entry.getValue()))
+                .toList();
+        adresseRepository.saveAll(nouvelles)
+                .forEach(adresse -> internees.put(adresse.getAdresseHash(), adresse));
+
+        return hashes.stream().map(hash -> hash == null ? null : internees.get(hash)).toList();
+    }
+
+    @Override
+    public int deduplicateAdresses() {
+        log.info("Déduplication des adresses existantes");
+
+        // Regroupement par empreinte, la plus ancienne ligne devient canonique
+        Map<String, List<Adresse>> groupes = new LinkedHashMap<>();
+        for (Adresse adresse : adresseRepository.findAll(Sort.by("id"))) {
+            String hash = Adresse.normalizedHash(
+                    adresse.getRue(), adresse.getVille(), adresse.getCodePostal(), adresse.getPays());
+            groupes.computeIfAbsent(hash, h -> new ArrayList<>()).add(adresse);
+        }
+
+        int supprimees = 0;
+        for (List<Adresse> groupe : groupes.values()) {
+            Adresse canonique = groupe.get(0);
+            List<Adresse> doublons = groupe.subList(1, groupe.size());
+            if (!doublons.isEmpty()) {
+                List<Long> doublonIds = doublons.stream().map(Adresse::getId).toList();
+                patientRepository.reassignAdresse(canonique, doublonIds);
+                adresseRepository.deleteAllByIdInBatch(doublonIds);
+                supprimees += doublonIds.size();
+            }
+        }
+
+        // Les doublons sont supprimés avant l'écriture des empreintes (index unique)
+        adresseRepository.flush();
+        groupes.values().stream()
+                .map(groupe -> groupe.get(0))
+                .forEach(Adresse::computeAdresseHash);
+
+        log.info("{} adresses en doublon supprimées, {} adresses uniques", supprimees, groupes.size());
+        return supprimees;
+    }
+
+    private static String hashOf(AdresseDto dto) {
+        return Adresse.normalizedHash(dto.rue(), dto.ville(), dto.codePostal(), dto.pays());
+    }
+
+    private static boolean isEmpty(AdresseDto dto) {
+        return Stream.of(dto.rue(), dto.ville(), dto.codePostal(), dto.pays())
+                .allMatch(value -> value == null || value.isBlank());
+    }
+}
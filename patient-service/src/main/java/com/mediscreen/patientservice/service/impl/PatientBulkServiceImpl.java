@@ -0,0 +1,288 @@
+package com.mediscreen.patientservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.mediscreen.patientservice.dto.*;
+import com.mediscreen.patientservice.entity.Adresse;
+import com.mediscreen.patientservice.entity.Patient;
+import com.mediscreen.patientservice.enums.BulkFormat;
+import com.mediscreen.patientservice.enums.PatientChangeType;
+import com.mediscreen.patientservice.enums.PatientField;
+import com.mediscreen.patientservice.journal.PatientChangeEvent;
+import com.mediscreen.patientservice.mapper.PatientMapper;
+import com.mediscreen.patientservice.repository.PatientRepository;
+import com.mediscreen.patientservice.service.AdresseService;
+import com.mediscreen.patientservice.service.PatientBulkService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implémentation du service d'import / export en masse des patients
+ *
+ * Import : lecture ligne à ligne, validation, puis écriture par lots de
+ * mediscreen.bulk.chunk-size patients dans des transactions séparées
+ * (insertions batchées grâce aux séquences poolées, contexte de persistance vidé à chaque lot).
+ *
+ * Export : curseur JDBC forward-only / read-only avec fetch size élevé,
+ * chaque ligne est écrite directement sur le flux de sortie.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PatientBulkServiceImpl implements PatientBulkService {
+
+    private static final String EXPORT_SQL =
+            "SELECT p.id, p.prenom, p.nom, p.date_naissance, p.genre, p.telephone, " +
+            "a.id AS adresse_id, a.rue, a.ville, a.code_postal, a.pays " +
+            "FROM patients p LEFT JOIN adresses a ON a.id = p.adresse_id " +
+            "ORDER BY p.id";
+
+    private final PatientRepository patientRepository;
+    private final PatientMapper patientMapper;
+    private final AdresseService adresseService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${mediscreen.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${mediscreen.bulk.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    @Value("${mediscreen.bulk.export-fetch-size:1000}")
+    private int exportFetchSize;
+
+    // === IMPORT ===
+
+    @Override
+    public PatientImportResult importPatients(InputStream input, BulkFormat format) throws IOException {
+        log.info("Import en masse de patients au format {}", format);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        ImportState state = new ImportState();
+
+        boolean hasIdColumn = false;
+        int lineNumber = 0;
+        if (format == BulkFormat.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            if (header == null) {
+                return state.toResult();
+            }
+            hasIdColumn = PatientCsvFormat.hasIdColumn(header);
+        }
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            PatientCreateDto dto = parseLine(line, format, hasIdColumn, lineNumber, state);
+            if (dto != null) {
+                state.chunk.add(dto);
+                state.chunkLines.add(lineNumber);
+            }
+            if (state.chunk.size() >= chunkSize) {
+                flushChunk(state);
+            }
+        }
+        flushChunk(state);
+
+        log.info("Import terminé: {} patients importés, {} lignes rejetées", state.imported, state.rejected);
+        return state.toResult();
+    }
+
+    private PatientCreateDto parseLine(String line, BulkFormat format, boolean hasIdColumn,
+                                       int lineNumber, ImportState state) {
+        PatientCreateDto dto;
+        try {
+            dto = format == BulkFormat.CSV
+                    ? PatientCsvFormat.parse(line, hasIdColumn)
+                    : objectMapper.readValue(line, PatientCreateDto.class);
+        } catch (JsonProcessingException e) {
+            state.reject(lineNumber, "JSON invalide: " + e.getOriginalMessage());
+            return null;
+        } catch (IllegalArgumentException | DateTimeException e) {
+            state.reject(lineNumber, e.getMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<PatientCreateDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<PatientCreateDto> first = violations.iterator().next();
+            state.reject(lineNumber, first.getPropertyPath() + ": " + first.getMessage());
+            return null;
+        }
+        return dto;
+    }
+
+    /**
+     * Écrit le lot courant dans sa propre transaction.
+     * Un lot en échec est rejeté en bloc sans annuler les lots déjà committés.
+     */
+    private void flushChunk(ImportState state) {
+        if (state.chunk.isEmpty()) {
+            return;
+        }
+        List<PatientCreateDto> chunk = state.chunk;
+        try {
+            Integer saved = transactionTemplate.execute(status -> persistChunk(chunk));
+            state.imported += saved != null ? saved : 0;
+        } catch (DataAccessException e) {
+            log.warn("Échec d'écriture du lot (lignes {} à {}): {}",
+                    state.chunkLines.get(0), state.chunkLines.get(state.chunkLines.size() - 1), e.getMessage());
+            state.chunkLines.forEach(lineNumber -> state.reject(lineNumber, "Erreur d'écriture du lot"));
+        }
+        state.chunk = new ArrayList<>(chunkSize);
+        state.chunkLines = new ArrayList<>(chunkSize);
+    }
+
+    private int persistChunk(List<PatientCreateDto> chunk) {
+        List<Adresse> adresses = adresseService.internAdresses(
+                chunk.stream().map(PatientCreateDto::adresse).toList());
+
+        List<Patient> patients = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Patient patient = patientMapper.toEntity(chunk.get(i));
+            patient.setAdresse(adresses.get(i));
+            patients.add(patient);
+        }
+        patientRepository.saveAll(patients);
+        patients.forEach(patient -> eventPublisher.publishEvent(new PatientChangeEvent(
+                patient.getId(), patient.getVersion(), PatientChangeType.CREATE, PatientField.ALL)));
+
+        // Envoi des INSERT batchés (via le repository : erreurs traduites en DataAccessException)
+        // puis libération du contexte de persistance
+        patientRepository.flush();
+        entityManager.clear();
+        return patients.size();
+    }
+
+    /**
+     * État d'avancement d'un import (lot courant et compteurs)
+     */
+    private final class ImportState {
+        private List<PatientCreateDto> chunk = new ArrayList<>(chunkSize);
+        private List<Integer> chunkLines = new ArrayList<>(chunkSize);
+        private final List<ApiFieldError> errors = new ArrayList<>();
+        private int imported;
+        private int rejected;
+
+        private void reject(int lineNumber, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ApiFieldError("ligne " + lineNumber, message));
+            }
+        }
+
+        private PatientImportResult toResult() {
+            return new PatientImportResult(imported, rejected, List.copyOf(errors));
+        }
+    }
+
+    // === EXPORT ===
+
+    @Override
+    public void exportPatients(OutputStream output, BulkFormat format) throws IOException {
+        log.info("Export en masse des patients au format {}", format);
+
+        if (format == BulkFormat.CSV) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write(PatientCsvFormat.EXPORT_HEADER);
+            writer.write('\n');
+            streamPatients(patient -> {
+                writer.write(PatientCsvFormat.format(patient));
+                writer.write('\n');
+            });
+            writer.flush();
+        } else {
+            SequenceWriter writer = objectMapper.writerFor(PatientDto.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(output);
+            long count = streamPatients(writer::write);
+            writer.flush();
+            if (count > 0) {
+                output.write('\n');
+            }
+            output.flush();
+        }
+    }
+
+    /**
+     * Parcourt la table patients avec un curseur forward-only sans matérialiser le résultat.
+     * Retourne le nombre de patients écrits.
+     */
+    private long streamPatients(PatientSink sink) throws IOException {
+        long[] count = {0};
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(exportFetchSize);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> {
+                try {
+                    sink.accept(toPatientDto(resultSet));
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+
+    private static PatientDto toPatientDto(ResultSet resultSet) throws SQLException {
+        long adresseId = resultSet.getLong("adresse_id");
+        AdresseDto adresse = resultSet.wasNull() ? null : new AdresseDto(
+                adresseId,
+                resultSet.getString("rue"),
+                resultSet.getString("ville"),
+                resultSet.getString("code_postal"),
+                resultSet.getString("pays"));
+
+        return new PatientDto(
+                resultSet.getLong("id"),
+                resultSet.getString("prenom"),
+                resultSet.getString("nom"),
+                resultSet.getObject("date_naissance", LocalDate.class),
+                resultSet.getString("genre"),
+                resultSet.getString("telephone"),
+                adresse);
+    }
+
+    @FunctionalInterface
+    private interface PatientSink {
+        void accept(PatientDto patient) throws IOException;
+    }
+}
@@ -0,0 +1,136 @@
+package com.mediscreen.patientservice.service.impl;
+
+import com.mediscreen.patientservice.dto.AdresseDto;
+import com.mediscreen.patientservice.dto.PatientCreateDto;
+import com.mediscreen.patientservice.dto.PatientDto;
+import com.mediscreen.patientservice.exception.InvalidBulkFormatException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecture / écriture d'un patient au format CSV (RFC 4180, séparateur virgule)
+ *
+ * Colonnes : [id,]prenom,nom,dateNaissance,genre,telephone,rue,ville,codePostal,pays
+ * La colonne id est produite à l'export et ignorée à l'import.
+ */
+final class PatientCsvFormat {
+
+    static final String IMPORT_HEADER = "prenom,nom,dateNaissance,genre,telephone,rue,ville,codePostal,pays";
+    static final String EXPORT_HEADER = "id," + IMPORT_HEADER;
+
+    private static final int PATIENT_COLUMNS = 9;
+
+    private PatientCsvFormat() {
+    }
+
+    /**
+     * Indique si l'en-tête contient la colonne id (fichier issu d'un export)
+     */
+    static boolean hasIdColumn(String header) {
+        List<String> columns = split(header);
+        if (columns.size() == PATIENT_COLUMNS + 1 && columns.get(0).strip().equalsIgnoreCase("id")) {
+            return true;
+        }
+        if (columns.size() == PATIENT_COLUMNS) {
+            return false;
+        }
+        throw new InvalidBulkFormatException("En-tête CSV invalide, attendu: " + IMPORT_HEADER);
+    }
+
+    /**
+     * Convertit une ligne CSV en DTO de création
+     */
+    static PatientCreateDto parse(String line, boolean hasIdColumn) {
+        List<String> columns = split(line);
+        int offset = hasIdColumn ? 1 : 0;
+        if (columns.size() != PATIENT_COLUMNS + offset) {
+            throw new IllegalArgumentException(
+                    (PATIENT_COLUMNS + offset) + " colonnes attendues, " + columns.size() + " trouvées");
+        }
+
+        String date = columns.get(offset + 2).strip();
+        AdresseDto adresse = null;
+        if (columns.subList(offset + 5, offset + 9).stream().anyMatch(value -> !value.isBlank())) {
+            adresse = AdresseDto.of(
+                    emptyToNull(columns.get(offset + 5)),
+                    emptyToNull(columns.get(offset + 6)),
+                    emptyToNull(columns.get(offset + 7)),
+                    emptyToNull(columns.get(offset + 8)));
+        }
+
+        return new PatientCreateDto(
+                columns.get(offset).strip(),
+                columns.get(offset + 1).strip(),
+                date.isEmpty() ? null : LocalDate.parse(date),
+                columns.get(offset + 3).strip(),
+                emptyToNull(columns.get(offset + 4)),
+                adresse);
+    }
+
+    /**
+     * Convertit un patient en ligne CSV (sans fin de ligne)
+     */
+    static String format(PatientDto patient) {
+        AdresseDto adresse = patient.adresse();
+        StringBuilder line = new StringBuilder(128);
+        line.append(patient.id()).append(',');
+        appendField(line, patient.prenom()).append(',');
+        appendField(line, patient.nom()).append(',');
+        appendField(line, patient.dateNaissance() != null ? patient.dateNaissance().toString() : null).append(',');
+        appendField(line, patient.genre()).append(',');
+        appendField(line, patient.telephone()).append(',');
+        appendField(line, adresse != null ? adresse.rue() : null).append(',');
+        appendField(line, adresse != null ? adresse.ville() : null).append(',');
+        appendField(line, adresse != null ? adresse.codePostal() : null).append(',');
+        appendField(line, adresse != null ? adresse.pays() : null);
+        return line.toString();
+    }
+
+    /**
+     * Découpe une ligne CSV en respectant les champs entre guillemets ("" = guillemet échappé)
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(PATIENT_COLUMNS + 1);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static StringBuilder appendField(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+            return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+        return line.append(value);
+    }
+
+    private static String emptyToNull(String value) {
+        String stripped = value.strip();
+        return stripped.isEmpty() ? null : stripped;
+    }
+}
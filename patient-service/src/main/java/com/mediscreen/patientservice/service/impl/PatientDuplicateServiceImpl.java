@@ -0,0 +1,99 @@
+package com.mediscreen.patientservice.service.impl;
+
+import com.mediscreen.patientservice.dedup.DedupRecord;
+import com.mediscreen.patientservice.dedup.DuplicateCandidate;
+import com.mediscreen.patientservice.dedup.DuplicateDetectionEngine;
+import com.mediscreen.patientservice.dto.DuplicateCandidateDto;
+import com.mediscreen.patientservice.service.PatientDuplicateService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Implémentation du service de détection des doublons
+ *
+ * Les patients sont chargés en une passe JDBC (champs comparés uniquement, normalisés au chargement)
+ * puis confiés au moteur de blocage / voisinage trié qui répartit les comparaisons sur un pool dédié.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PatientDuplicateServiceImpl implements PatientDuplicateService {
+
+    private static final String LOAD_SQL =
+            "SELECT id, nom, prenom, date_naissance, genre, telephone FROM patients";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${mediscreen.dedup.window-size:10}")
+    private int windowSize;
+
+    @Value("${mediscreen.dedup.threshold:0.85}")
+    private double threshold;
+
+    @Value("${mediscreen.dedup.parallelism:0}")
+    private int parallelism;
+
+    @Value("${mediscreen.dedup.fetch-size:5000}")
+    private int fetchSize;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void startPool() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void stopPool() {
+        pool.shutdown();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DuplicateCandidateDto> findDuplicates(double minScore, int limit) {
+        long start = System.nanoTime();
+        List<DedupRecord> records = loadRecords();
+
+        // Le seuil demandé ne peut pas descendre sous celui de la configuration
+        DuplicateDetectionEngine engine = new DuplicateDetectionEngine(windowSize, Math.max(minScore, threshold), pool);
+        List<DuplicateCandidate> candidates = engine.detect(records);
+
+        log.info("Détection de doublons : {} patients, {} paires candidates en {} ms",
+                records.size(), candidates.size(), (System.nanoTime() - start) / 1_000_000);
+        return candidates.stream()
+                .limit(limit)
+                .map(candidate -> new DuplicateCandidateDto(
+                        candidate.patientId(), candidate.duplicateId(), candidate.score()))
+                .toList();
+    }
+
+    private List<DedupRecord> loadRecords() {
+        List<DedupRecord> records = new ArrayList<>();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(LOAD_SQL);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, resultSet -> {
+            Date dateNaissance = resultSet.getDate("date_naissance");
+            records.add(DedupRecord.of(
+                    resultSet.getLong("id"),
+                    resultSet.getString("nom"),
+                    resultSet.getString("prenom"),
+                    dateNaissance != null ? dateNaissance.toLocalDate() : null,
+                    resultSet.getString("genre"),
+                    resultSet.getString("telephone")));
+        });
+        return records;
+    }
+}
@@ -1,17 +1,25 @@
 package com.mediscreen.patientservice.service.impl;
 
 import com.mediscreen.patientservice.dto.*;
+import com.mediscreen.patientservice.entity.Adresse;
 import com.mediscreen.patientservice.entity.Patient;
+import com.mediscreen.patientservice.enums.PatientChangeType;
+import com.mediscreen.patientservice.enums.PatientField;
 import com.mediscreen.patientservice.exception.PatientNotFoundException;
+import com.mediscreen.patientservice.exception.PatientVersionMismatchException;
 import com.mediscreen.patientservice.mapper.PatientMapper;
 import com.mediscreen.patientservice.repository.PatientRepository;
+import com.mediscreen.patientservice.service.AdresseService;
+import com.mediscreen.patientservice.journal.PatientChangeEvent;
 import com.mediscreen.patientservice.service.PatientService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +35,8 @@ public class PatientServiceImpl implements PatientService {
     
     private final PatientRepository patientRepository;
     private final PatientMapper patientMapper;
+    private final AdresseService adresseService;
+    private final ApplicationEventPublisher eventPublisher;
     
     // === OPÉRATIONS CRUD ===
     
@@ -36,7 +46,10 @@ public class PatientServiceImpl implements PatientService {
                  patientCreateDto.prenom(), patientCreateDto.nom());
         
         Patient patient = patientMapper.toEntity(patientCreateDto);
+        patient.setAdresse(adresseService.internAdresse(patientCreateDto.adresse()));
         Patient savedPatient = patientRepository.save(patient);
+        eventPublisher.publishEvent(new PatientChangeEvent(
+                savedPatient.getId(), savedPatient.getVersion(), PatientChangeType.CREATE, PatientField.ALL));
         
         log.info("Patient créé avec l'ID: {}", savedPatient.getId());
         return patientMapper.toDto(savedPatient);
@@ -45,10 +58,18 @@ public class PatientServiceImpl implements PatientService {
     @Override
     @Transactional(readOnly = true)
     public Optional<PatientDto> getPatientById(Long id) {
+        return getVersionedPatientById(id)
+                .map(VersionedPatientDto::patient);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<VersionedPatientDto> getVersionedPatientById(Long id) {
         log.debug("Recherche du patient avec l'ID: {}", id);
         
-        return patientRepository.findById(id)
-                .map(patientMapper::toDto);
+        // Projection directe en DTO : pas d'hydratation d'entité ni de mapping
+        return patientRepository.findViewById(id)
+                .map(view -> new VersionedPatientDto(view.toDto(), view.version()));
     }
     
     @Override
@@ -56,24 +77,124 @@ public class PatientServiceImpl implements PatientService {
     public List<PatientDto> getAllPatients() {
         log.debug("Récupération de tous les patients");
         
-        List<Patient> patients = patientRepository.findAll();
-        return patientMapper.toDtoList(patients);
+        return patientRepository.findAllViews().stream()
+                .map(PatientView::toDto)
+                .toList();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<PatientDto> getPatientsByIds(Collection<Long> ids) {
+        log.debug("Récupération groupée de {} patient(s)", ids.size());
+        
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return patientRepository.findViewsByIdIn(ids).stream()
+                .map(PatientView::toDto)
+                .toList();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> getPatientVersion(Long id) {
+        return patientRepository.findVersionById(id);
     }
     
     @Override
-    public PatientDto updatePatient(Long id, PatientDto patientDto) {
+    @Transactional(readOnly = true)
+    public PatientListVersion getPatientListVersion() {
+        return patientRepository.findListVersion();
+    }
+    
+    @Override
+    public VersionedPatientDto updatePatient(Long id, PatientDto patientDto, Long expectedVersion) {
         log.debug("Mise à jour complète du patient avec l'ID: {}", id);
         
+        if (expectedVersion != null) {
+            return updatePatientIfVersionMatches(id, patientDto, expectedVersion);
+        }
+        
         Patient existingPatient = patientRepository.findById(id)
                 .orElseThrow(() -> new PatientNotFoundException("Patient avec l'ID " + id + " non trouvé"));
+        Object[] before = PatientField.snapshot(existingPatient);
         
         // Mise à jour complète
         Patient updatedPatient = patientMapper.toEntity(patientDto);
         updatedPatient.setId(existingPatient.getId());
+        updatedPatient.setVersion(existingPatient.getVersion());
+        // Réutilise l'adresse existante au lieu d'insérer un doublon à chaque mise à jour
+        updatedPatient.setAdresse(adresseService.internAdresse(patientDto.adresse()));
         
         Patient savedPatient = patientRepository.save(updatedPatient);
+        // Flush pour obtenir la version incrémentée (ETag de la réponse)
+        patientRepository.flush();
+        publishUpdate(savedPatient, PatientField.changedMask(before, savedPatient));
         
         log.info("Patient avec l'ID {} mis à jour", id);
-        return patientMapper.toDto(savedPatient);
+        return new VersionedPatientDto(patientMapper.toDto(savedPatient), savedPatient.getVersion());
+    }
+    
+    @Override
+    public VersionedPatientDto patchPatient(Long id, PatientPatchDto patchDto, Long expectedVersion) {
+        log.debug("Mise à jour partielle du patient avec l'ID: {}", id);
+        
+        // Entité gérée (adresse jointe) : pas de merge, le dirty-checking produit
+        // un UPDATE limité aux colonnes modifiées (@DynamicUpdate), ou aucun
+        Patient patient = patientRepository.findWithAdresseById(id)
+                .orElseThrow(() -> PatientNotFoundException.withId(id));
+        if (expectedVersion != null && !expectedVersion.equals(patient.getVersion())) {
+            throw new PatientVersionMismatchException(id);
+        }
+        
+        Object[] before = PatientField.snapshot(patient);
+        patientMapper.updatePatientFromDto(patchDto, patient);
+        if (patchDto.adresse() != null) {
+            Adresse adresse = adresseService.internAdresse(patchDto.adresse());
+            if (adresse == null || patient.getAdresse() == null
+                    || !adresse.getId().equals(patient.getAdresse().getId())) {
+                patient.setAdresse(adresse);
+            }
+        }
+        // Flush pour obtenir la version incrémentée (ETag de la réponse)
+        patientRepository.flush();
+        publishUpdate(patient, PatientField.changedMask(before, patient));
+        
+        log.info("Patient avec l'ID {} mis à jour partiellement (version {})", id, patient.getVersion());
+        return new VersionedPatientDto(patientMapper.toDto(patient), patient.getVersion());
+    }
+    
+    /**
+     * Mise à jour conditionnelle : un seul UPDATE ... WHERE id = ? AND version = ?,
+     * la lecture n'a lieu que pour distinguer 404 et 412 en cas d'échec
+     */
+    private VersionedPatientDto updatePatientIfVersionMatches(Long id, PatientDto patientDto, Long expectedVersion) {
+        Patient patient = patientMapper.toEntity(patientDto);
+        patient.setId(id);
+        patient.setVersion(expectedVersion);
+        patient.setAdresse(adresseService.internAdresse(patientDto.adresse()));
+        
+        if (patientRepository.updateIfVersionMatches(patient) == 0) {
+            if (!patientRepository.existsById(id)) {
+                throw PatientNotFoundException.withId(id);
+            }
+            throw new PatientVersionMismatchException(id);
+        }
+        
+        patient.setVersion(expectedVersion + 1);
+        // Sans lecture préalable, les champs modifiés ne sont pas connus
+        publishUpdate(patient, PatientField.ALL);
+        log.info("Patient avec l'ID {} mis à jour (version {})", id, patient.getVersion());
+        return new VersionedPatientDto(patientMapper.toDto(patient), patient.getVersion());
+    }
+
+    /**
+     * Publie le changement pour le journal (inscrit après commit), sauf mise à jour sans effet
+     */
+    private void publishUpdate(Patient patient, int changedFields) {
+        if (changedFields != 0) {
+            eventPublisher.publishEvent(new PatientChangeEvent(
+                    patient.getId(), patient.getVersion(), PatientChangeType.UPDATE, changedFields));
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,17 @@
 -- Données de test pour les cas d'évaluation du diabète
 
 -- Insertion des adresses de test
-INSERT IGNORE INTO adresses (rue, ville, code_postal, pays) VALUES
-('1 Brookside St', 'Anytown', '12345', 'USA'),
-('2 High St', 'Anytown', '12345', 'USA'),
-('3 Club Road', 'Anytown', '12345', 'USA'),
-('4 Valley Dr', 'Anytown', '12345', 'USA');
+-- adresse_hash = SHA-256 de l'adresse normalisée (voir Adresse.normalizedHash)
+INSERT IGNORE INTO adresses (id, rue, ville, code_postal, pays, adresse_hash) VALUES
+(1, '1 Brookside St', 'Anytown', '12345', 'USA', '6a76c0251271867f89976fa9fe38a49afc3feb91ac36b2708f7ced44c91aef1c'),
+(2, '2 High St', 'Anytown', '12345', 'USA', '4a23984dc44cd1f4af1040843b5688eab8e183b96d54efbf88dd05f8a1b07398'),
+(3, '3 Club Road', 'Anytown', '12345', 'USA', 'cc0f0d52d65757ba1de2fb87f09535d20c42d1e1568d8e3a2e9827c3df288141'),
+(4, '4 Valley Dr', 'Anytown', '12345', 'USA', '0b7e0c20520fbb2b92aeff6acb28dedf2d4e1dc1449c8ae2225a9f46f1ae7de3');
 
 -- Insertion des patients de test
--- adresse_id correspond à l'ordre d'insertion des adresses (1-4)
-INSERT IGNORE INTO patients (prenom, nom, date_naissance, genre, telephone, adresse_id) VALUES
-('Test', 'TestNone', '1966-12-31', 'F', '100-222-3333', 1),
-('Test', 'TestBorderline', '1945-06-24', 'M', '200-333-4444', 2),
-('Test', 'TestInDanger', '2004-06-18', 'M', '300-444-5555', 3),
-('Test', 'TestEarlyOnset', '2002-06-28', 'F', '400-555-6666', 4);
+-- Identifiants explicites : les séquences patients_seq/adresses_seq démarrent à 1000
+INSERT IGNORE INTO patients (id, prenom, nom, date_naissance, genre, telephone, adresse_id, version) VALUES
+(1, 'Test', 'TestNone', '1966-12-31', 'F', '100-222-3333', 1, 0),
+(2, 'Test', 'TestBorderline', '1945-06-24', 'M', '200-333-4444', 2, 0),
+(3, 'Test', 'TestInDanger', '2004-06-18', 'M', '300-444-5555', 3, 0),
+(4, 'Test', 'TestEarlyOnset', '2002-06-28', 'F', '400-555-6666', 4, 0);
@@ -8,6 +8,10 @@ CREATE TABLE IF NOT EXISTS adresses (
     ville VARCHAR(50),
     code_postal VARCHAR(10),
     pays VARCHAR(50),
+    adresse_hash CHAR(64),
+    
+    -- Empreinte de l'adresse normalisée (internement, une ligne par adresse)
+    UNIQUE KEY uk_adresse_hash (adresse_hash),
     
     -- Index pour les recherches fréquentes
     INDEX idx_adresse_ville (ville),
@@ -24,6 +28,7 @@ CREATE TABLE IF NOT EXISTS patients (
     genre CHAR(1) NOT NULL CHECK (genre IN ('M', 'F')),
     telephone VARCHAR(15),
     adresse_id BIGINT,
+    version BIGINT NOT NULL DEFAULT 0,
     
     -- Contraintes
     CONSTRAINT fk_patient_adresse FOREIGN KEY (adresse_id) REFERENCES adresses(id) ON DELETE SET NULL,
@@ -33,4 +38,12 @@ CREATE TABLE IF NOT EXISTS patients (
     INDEX idx_patient_genre (genre),
     INDEX idx_patient_date_naissance (date_naissance),
     INDEX idx_patient_telephone (telephone)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
\ No newline at end of file
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Générateurs d'identifiants (séquences émulées par table, allouées par blocs de 50)
+-- Permettent le batching JDBC des insertions, impossible avec AUTO_INCREMENT côté Hibernate
+CREATE TABLE IF NOT EXISTS adresses_seq (next_val BIGINT) ENGINE=InnoDB;
+INSERT INTO adresses_seq (next_val) SELECT 1000 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM adresses_seq);
+
+CREATE TABLE IF NOT EXISTS patients_seq (next_val BIGINT) ENGINE=InnoDB;
+INSERT INTO patients_seq (next_val) SELECT 1000 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM patients_seq);
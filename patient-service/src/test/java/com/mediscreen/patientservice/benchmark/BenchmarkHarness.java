@@ -0,0 +1,67 @@
+package com.mediscreen.patientservice.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Mesure commune des benchmarks patient-service (tag "benchmark")
+ *
+ * Par opération : allocation mémoire et temps CPU du thread appelant (le travail délégué
+ * à d'autres threads n'y figure pas), temps écoulé. Résultats journalisés en INFO.
+ */
+@Slf4j
+final class BenchmarkHarness {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private BenchmarkHarness() {
+    }
+
+    /**
+     * Opération mesurée, éventuellement en échec (MockMvc)
+     */
+    @FunctionalInterface
+    interface Operation {
+        void run() throws Exception;
+    }
+
+    /**
+     * Moyennes par opération d'un chemin mesuré
+     */
+    record Measurement(String name, long bytesPerOp, long cpuNanosPerOp, long nanosPerOp) {
+    }
+
+    /**
+     * Exécute warmup fois l'opération sans mesure, puis iterations fois en mesurant
+     */
+    static Measurement measure(String name, int warmup, int iterations, Operation operation) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            operation.run();
+        }
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long cpuBefore = THREADS.getCurrentThreadCpuTime();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long cpu = THREADS.getCurrentThreadCpuTime() - cpuBefore;
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Measurement(name, allocated / iterations, cpu / iterations, elapsed / iterations);
+    }
+
+    /**
+     * Journalise un tableau : une ligne par chemin mesuré
+     */
+    static void report(String title, Measurement... measurements) {
+        StringBuilder table = new StringBuilder(String.format("%n=== %s ===%n%-24s %14s %16s %16s",
+                title, "chemin", "octets/op", "ns CPU/op", "ns/op"));
+        for (Measurement measurement : measurements) {
+            table.append(String.format("%n%-24s %14d %16d %16d", measurement.name(),
+                    measurement.bytesPerOp(), measurement.cpuNanosPerOp(), measurement.nanosPerOp()));
+        }
+        log.info("{}", table);
+    }
+}
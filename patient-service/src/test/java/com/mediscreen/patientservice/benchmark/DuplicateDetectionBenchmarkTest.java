@@ -0,0 +1,102 @@
+package com.mediscreen.patientservice.benchmark;
+
+import com.mediscreen.patientservice.benchmark.BenchmarkHarness.Measurement;
+import com.mediscreen.patientservice.dedup.DedupRecord;
+import com.mediscreen.patientservice.dedup.DuplicateCandidate;
+import com.mediscreen.patientservice.dedup.DuplicateDetectionEngine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark du moteur de détection de doublons sur un million de patients synthétiques
+ * dont 1 % sont des copies altérées (faute de frappe sur le nom, téléphone reformaté).
+ *
+ * Mesure la durée de détection en séquentiel puis avec un worker par processeur
+ * (BenchmarkHarness : seul le temps écoulé compte, les workers tournant sur d'autres threads).
+ * Exclu du build par défaut, à lancer avec :
+ * mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark
+ */
+@Tag("benchmark")
+class DuplicateDetectionBenchmarkTest {
+
+    private static final int PATIENTS = 1_000_000;
+    private static final double DUPLICATE_RATE = 0.01;
+
+    private static final String[] NOMS = {
+        "Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit", "Durand", "Leroy", "Moreau",
+        "Simon", "Laurent", "Lefebvre", "Michel", "Garcia", "David", "Bertrand", "Roux", "Vincent", "Fournier",
+        "Morel", "Girard", "Andre", "Lefevre", "Mercier", "Dupont", "Lambert", "Bonnet", "Francois", "Martinez"
+    };
+    private static final String[] PRENOMS = {
+        "Jean", "Marie", "Pierre", "Nathalie", "Michel", "Isabelle", "Philippe", "Sylvie", "Alain", "Catherine",
+        "Nicolas", "Sophie", "Christophe", "Valerie", "Laurent", "Sandrine", "Eric", "Celine", "David", "Julie"
+    };
+
+    @Test
+    @DisplayName("Benchmark : un million de patients, séquentiel vs parallèle")
+    void benchmark_MillionPatients() throws Exception {
+        List<DedupRecord> records = generate();
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        Measurement sequential = run(records, 1);
+        Measurement parallel = run(records, processors);
+
+        BenchmarkHarness.report("Détection de doublons (" + records.size() + " patients)", sequential, parallel);
+    }
+
+    private Measurement run(List<DedupRecord> records, int workers) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            DuplicateDetectionEngine engine = new DuplicateDetectionEngine(10, 0.85, pool);
+            engine.detect(records.subList(0, 50_000));
+
+            AtomicReference<List<DuplicateCandidate>> candidates = new AtomicReference<>();
+            Measurement measurement = BenchmarkHarness.measure(workers + " worker(s)", 0, 1,
+                    () -> candidates.set(engine.detect(records)));
+
+            // La plupart des copies injectées doivent être retrouvées
+            assertThat(candidates.get().size()).isGreaterThan((int) (PATIENTS * DUPLICATE_RATE * 0.8));
+            return measurement;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static List<DedupRecord> generate() {
+        Random random = new Random(42);
+        List<DedupRecord> records = new ArrayList<>(PATIENTS);
+        long id = 1;
+        while (records.size() < PATIENTS) {
+            String nom = NOMS[random.nextInt(NOMS.length)] + suffix(random);
+            String prenom = PRENOMS[random.nextInt(PRENOMS.length)];
+            LocalDate dateNaissance = LocalDate.of(1930 + random.nextInt(90), 1 + random.nextInt(12), 1 + random.nextInt(28));
+            String genre = random.nextBoolean() ? "M" : "F";
+            String telephone = String.format("06%08d", random.nextInt(100_000_000));
+            records.add(DedupRecord.of(id++, nom, prenom, dateNaissance, genre, telephone));
+
+            if (random.nextDouble() < DUPLICATE_RATE && records.size() < PATIENTS) {
+                int position = 1 + random.nextInt(nom.length() - 1);
+                String faute = nom.substring(0, position) + (char) ('a' + random.nextInt(26)) + nom.substring(position + 1);
+                String reformate = telephone.replaceAll("(\\d{2})", "$1 ").trim();
+                records.add(DedupRecord.of(id++, faute, prenom, dateNaissance, genre, reformate));
+            }
+        }
+        return records;
+    }
+
+    // Variation du nom pour éviter des blocs démesurés sur les noms les plus fréquents
+    private static String suffix(Random random) {
+        int variant = random.nextInt(400);
+        return variant == 0 ? "" : "-" + NOMS[variant % NOMS.length].substring(0, 2) + (char) ('a' + variant / NOMS.length);
+    }
+}
@@ -0,0 +1,113 @@
+package com.mediscreen.patientservice.benchmark;
+
+import com.mediscreen.patientservice.benchmark.BenchmarkHarness.Measurement;
+import com.mediscreen.patientservice.entity.Adresse;
+import com.mediscreen.patientservice.entity.Patient;
+import com.mediscreen.patientservice.mapper.PatientMapper;
+import com.mediscreen.patientservice.repository.AdresseRepository;
+import com.mediscreen.patientservice.repository.PatientRepository;
+import com.mediscreen.patientservice.service.PatientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.mediscreen.patientservice.benchmark.BenchmarkHarness.measure;
+import static com.mediscreen.patientservice.benchmark.BenchmarkHarness.report;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark d'intégration des lectures patient : entités gérées + MapStruct
+ * (ancien chemin) contre projections constructeur JPQL (chemin actuel).
+ *
+ * Mesure par requête l'allocation mémoire du thread et la latence moyenne (BenchmarkHarness).
+ * Exclu du build par défaut, à lancer avec :
+ * mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-user",
+    "AUTH_PASSWORD=test-pass"
+})
+class PatientReadBenchmarkTest {
+
+    private static final int PATIENTS = 500;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1000;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AdresseRepository adresseRepository;
+
+    @Autowired
+    private PatientMapper patientMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        patientRepository.deleteAll();
+        adresseRepository.deleteAll();
+
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        List<Patient> patients = new ArrayList<>(PATIENTS);
+        for (int i = 0; i < PATIENTS; i++) {
+            Adresse adresse = Adresse.builder()
+                    .rue(i + " Bench St").ville("Anytown").codePostal("12345").pays("USA").build();
+            patients.add(Patient.builder()
+                    .prenom("Bench").nom("Patient" + i).dateNaissance(LocalDate.of(1970, 1, 1).plusDays(i))
+                    .genre(i % 2 == 0 ? "F" : "M").telephone("100-000-" + (1000 + i)).adresse(adresse).build());
+        }
+        ids = patientRepository.saveAll(patients).stream().map(Patient::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Benchmark - getPatientById : entité + mapper vs projection")
+    void benchmarkGetPatientById() throws Exception {
+        int[] cursor = {0};
+        Supplier<Long> nextId = () -> ids.get(cursor[0]++ % ids.size());
+
+        Measurement entity = measure("entité", WARMUP, ITERATIONS, () -> readOnly.execute(status ->
+                patientRepository.findById(nextId.get()).map(patientMapper::toDto).orElseThrow()));
+        Measurement projection = measure("projection", WARMUP, ITERATIONS,
+                () -> patientService.getPatientById(nextId.get()).orElseThrow());
+
+        // Lecture unitaire : le coût est dominé par la transaction, le gain reste faible
+        report("getPatientById", entity, projection);
+    }
+
+    @Test
+    @DisplayName("Benchmark - getAllPatients : entités + mapper vs projection")
+    void benchmarkGetAllPatients() throws Exception {
+        Measurement entity = measure("entité", WARMUP, ITERATIONS, () -> readOnly.execute(status ->
+                patientMapper.toDtoList(patientRepository.findAll())));
+        Measurement projection = measure("projection", WARMUP, ITERATIONS, () -> patientService.getAllPatients());
+
+        report("getAllPatients (" + PATIENTS + ")", entity, projection);
+        assertThat(projection.bytesPerOp()).isLessThan(entity.bytesPerOp());
+    }
+}
@@ -0,0 +1,109 @@
+package com.mediscreen.patientservice.benchmark;
+
+import com.mediscreen.patientservice.benchmark.BenchmarkHarness.Measurement;
+import com.mediscreen.patientservice.cache.PatientResponseCache;
+import com.mediscreen.patientservice.entity.Adresse;
+import com.mediscreen.patientservice.entity.Patient;
+import com.mediscreen.patientservice.repository.AdresseRepository;
+import com.mediscreen.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Benchmark d'intégration de GET /api/v1/patients/{id} avec et sans le cache
+ * de réponses pré-sérialisées, sur un jeu de patients « actifs » relus en boucle.
+ *
+ * Mesure par requête le temps CPU et l'allocation mémoire du thread, pile MVC comprise
+ * (BenchmarkHarness).
+ * Exclu du build par défaut, à lancer avec :
+ * mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-user",
+    "AUTH_PASSWORD=test-pass",
+    "mediscreen.db.instrumentation.enabled=false"
+})
+class PatientResponseCacheBenchmarkTest {
+
+    private static final int PATIENTS = 300;
+    private static final int WARMUP = 2000;
+    private static final int ITERATIONS = 5000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PatientResponseCache patientResponseCache;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AdresseRepository adresseRepository;
+
+    private List<Long> ids;
+    private int cursor;
+
+    @BeforeEach
+    void setUp() {
+        patientRepository.deleteAll();
+        adresseRepository.deleteAll();
+        patientResponseCache.clear();
+
+        List<Patient> patients = new ArrayList<>(PATIENTS);
+        for (int i = 0; i < PATIENTS; i++) {
+            Adresse adresse = Adresse.builder()
+                    .rue(i + " Bench St").ville("Anytown").codePostal("12345").pays("USA").build();
+            patients.add(Patient.builder()
+                    .prenom("Bench").nom("Patient" + i).dateNaissance(LocalDate.of(1970, 1, 1).plusDays(i))
+                    .genre(i % 2 == 0 ? "F" : "M").telephone("100-000-" + (1000 + i)).adresse(adresse).build());
+        }
+        ids = patientRepository.saveAll(patients).stream().map(Patient::getId).toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(patientResponseCache, "enabled", true);
+        patientResponseCache.clear();
+    }
+
+    @Test
+    @DisplayName("Benchmark - GET patient : sérialisation à chaque requête vs octets en cache")
+    void benchmarkGetPatientById() throws Exception {
+        ReflectionTestUtils.setField(patientResponseCache, "enabled", false);
+        Measurement withoutCache = BenchmarkHarness.measure("sans cache", WARMUP, ITERATIONS, this::fetch);
+
+        ReflectionTestUtils.setField(patientResponseCache, "enabled", true);
+        Measurement withCache = BenchmarkHarness.measure("avec cache", WARMUP, ITERATIONS, this::fetch);
+
+        BenchmarkHarness.report("GET /api/v1/patients/{id} (" + PATIENTS + " patients actifs)", withoutCache, withCache);
+        assertThat(withCache.bytesPerOp()).isLessThan(withoutCache.bytesPerOp());
+    }
+
+    private void fetch() throws Exception {
+        mockMvc.perform(get("/api/v1/patients/{id}", ids.get(cursor++ % ids.size())))
+                .andExpect(status().isOk());
+    }
+}
@@ -2,8 +2,11 @@ package com.mediscreen.patientservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mediscreen.patientservice.cache.PatientResponseCache;
 import com.mediscreen.patientservice.dto.PatientCreateDto;
 import com.mediscreen.patientservice.dto.PatientDto;
+import com.mediscreen.patientservice.dto.PatientListVersion;
+import com.mediscreen.patientservice.dto.VersionedPatientDto;
 import com.mediscreen.patientservice.exception.PatientNotFoundException;
 import com.mediscreen.patientservice.service.PatientService;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,16 +15,24 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,6 +47,7 @@ import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfi
  * de la logique du contrôleur sans nécessiter d'authentification.
  */
 @WebMvcTest(controllers = PatientController.class, excludeAutoConfiguration = SecurityAutoConfiguration.class)
+@Import(PatientResponseCache.class)
 class PatientControllerTest {
 
     @Autowired
@@ -44,6 +56,9 @@ class PatientControllerTest {
     @MockBean
     private PatientService patientService; // Mock du service pour isoler le test du contrôleur.
 
+    @Autowired
+    private PatientResponseCache patientResponseCache; // Cache réel des réponses sérialisées, vidé avant chaque test.
+
     private ObjectMapper objectMapper; // Utilisé pour la conversion d'objets Java en JSON et vice-versa.
 
     private PatientDto patientDto;
@@ -56,6 +71,7 @@ class PatientControllerTest {
      */
     @BeforeEach
     void setUp() {
+        patientResponseCache.clear();
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule()); // Nécessaire pour gérer LocalDate
 
@@ -118,14 +134,79 @@ class PatientControllerTest {
     @DisplayName("getPatientById - Should return 200 OK when patient found")
     void getPatientById_Found() throws Exception {
         // Simule le comportement du service : retourne un Optional contenant le patientDto
-        when(patientService.getPatientById(1L)).thenReturn(Optional.of(patientDto));
+        when(patientService.getVersionedPatientById(1L)).thenReturn(Optional.of(new VersionedPatientDto(patientDto, 3L)));
 
         // Exécute une requête GET et vérifie la réponse
         mockMvc.perform(get("/api/v1/patients/{id}", 1L))
                 .andExpect(status().isOk()) // Attend un statut 200
+                .andExpect(header().string("ETag", "\"3\"")) // ETag = version du patient
                 .andExpect(jsonPath("$.nom").value("TestNone")); // Vérifie le nom dans la réponse JSON
     }
 
+    /**
+     * Teste le GET conditionnel : un If-None-Match égal à l'ETag courant donne un 304 sans corps.
+     */
+    @Test
+    @DisplayName("getPatientById - Should return 304 NOT MODIFIED when ETag matches")
+    void getPatientById_NotModified() throws Exception {
+        // Simule le comportement du service : patient en version 3
+        when(patientService.getVersionedPatientById(1L)).thenReturn(Optional.of(new VersionedPatientDto(patientDto, 3L)));
+
+        // Exécute une requête GET conditionnelle et vérifie la réponse
+        mockMvc.perform(get("/api/v1/patients/{id}", 1L).header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified()) // Attend un statut 304
+                .andExpect(content().string("")); // Aucun corps sérialisé
+    }
+
+    /**
+     * Teste le cache de réponses : la seconde lecture est servie sans appeler le service,
+     * une modification du patient invalide l'entrée.
+     */
+    @Test
+    @DisplayName("getPatientById - Should serve cached bytes until the patient changes")
+    void getPatientById_Cached() throws Exception {
+        // Simule le comportement du service : patient en version 3
+        when(patientService.getVersionedPatientById(1L)).thenReturn(Optional.of(new VersionedPatientDto(patientDto, 3L)));
+        when(patientService.getPatientVersion(1L)).thenReturn(Optional.of(3L));
+
+        // Deux lectures, un seul chargement du patient
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/v1/patients/{id}", 1L))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"3\""))
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.nom").value("TestNone"));
+        }
+        verify(patientService, times(1)).getVersionedPatientById(1L);
+
+        // Modification committée : la version 4 est relue
+        patientResponseCache.invalidate(1L, 4L);
+        when(patientService.getVersionedPatientById(1L)).thenReturn(Optional.of(new VersionedPatientDto(patientDto, 4L)));
+        mockMvc.perform(get("/api/v1/patients/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    /**
+     * Teste la validation du cache : une modification faite par une autre réplique (aucune
+     * invalidation locale) est détectée par la version en base, le patient est relu.
+     */
+    @Test
+    @DisplayName("getPatientById - Should reload when another replica changed the patient")
+    void getPatientById_ChangedOnOtherReplica() throws Exception {
+        // Version 3 mise en cache par cette réplique
+        when(patientService.getVersionedPatientById(1L)).thenReturn(Optional.of(new VersionedPatientDto(patientDto, 3L)));
+        mockMvc.perform(get("/api/v1/patients/{id}", 1L)).andExpect(header().string("ETag", "\"3\""));
+
+        // Écriture servie ailleurs : la base est en version 4, le cache local l'ignore
+        when(patientService.getPatientVersion(1L)).thenReturn(Optional.of(4L));
+        when(patientService.getVersionedPatientById(1L)).thenReturn(Optional.of(new VersionedPatientDto(patientDto, 4L)));
+        mockMvc.perform(get("/api/v1/patients/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+        verify(patientService, times(2)).getVersionedPatientById(1L);
+    }
+
     /**
      * Teste la récupération d'un patient par son ID lorsque le patient n'est pas trouvé.
      * Vérifie que le contrôleur retourne un statut HTTP 404 (Not Found).
@@ -134,7 +215,7 @@ class PatientControllerTest {
     @DisplayName("getPatientById - Should return 404 NOT FOUND when patient not found")
     void getPatientById_NotFound() throws Exception {
         // Simule le comportement du service : retourne un Optional vide
-        when(patientService.getPatientById(2L)).thenReturn(Optional.empty());
+        when(patientService.getVersionedPatientById(2L)).thenReturn(Optional.empty());
 
         // Exécute une requête GET et vérifie la réponse
         mockMvc.perform(get("/api/v1/patients/{id}", 2L))
@@ -150,14 +231,32 @@ class PatientControllerTest {
     @DisplayName("getAllPatients - Should return 200 OK with list of patients")
     void getAllPatients_Success() throws Exception {
         // Simule le comportement du service : retourne une liste de patientDto
+        when(patientService.getPatientListVersion()).thenReturn(new PatientListVersion(1L, 1L, 0L));
         when(patientService.getAllPatients()).thenReturn(Arrays.asList(patientDto));
 
         // Exécute une requête GET et vérifie la réponse
         mockMvc.perform(get("/api/v1/patients"))
                 .andExpect(status().isOk()) // Attend un statut 200
+                .andExpect(header().string("ETag", "\"1-1-0\"")) // ETag = empreinte de la liste
                 .andExpect(jsonPath("$[0].nom").value("TestNone")); // Vérifie le nom du premier patient
     }
 
+    /**
+     * Teste le GET conditionnel de la liste : un If-None-Match à jour donne un 304
+     * sans que la liste soit chargée.
+     */
+    @Test
+    @DisplayName("getAllPatients - Should return 304 NOT MODIFIED without loading the list when ETag matches")
+    void getAllPatients_NotModified() throws Exception {
+        // Simule le comportement du service : empreinte inchangée
+        when(patientService.getPatientListVersion()).thenReturn(new PatientListVersion(1L, 1L, 0L));
+
+        // Exécute une requête GET conditionnelle et vérifie la réponse
+        mockMvc.perform(get("/api/v1/patients").header("If-None-Match", "\"1-1-0\""))
+                .andExpect(status().isNotModified()); // Attend un statut 304
+        verify(patientService, never()).getAllPatients(); // La liste n'est pas chargée
+    }
+
     /**
      * Teste la récupération de tous les patients lorsque la liste est vide.
      * Vérifie que le contrôleur retourne un statut HTTP 200 (OK)
@@ -167,6 +266,7 @@ class PatientControllerTest {
     @DisplayName("getAllPatients - Should return 200 OK with empty list when no patients")
     void getAllPatients_EmptyList() throws Exception {
         // Simule le comportement du service : retourne une liste vide
+        when(patientService.getPatientListVersion()).thenReturn(new PatientListVersion(0L, null, null));
         when(patientService.getAllPatients()).thenReturn(Collections.emptyList());
 
         // Exécute une requête GET et vérifie la réponse
@@ -175,6 +275,38 @@ class PatientControllerTest {
                 .andExpect(jsonPath("$.length()").value(0)); // Vérifie que la liste est vide
     }
 
+    /**
+     * Teste la lecture groupée : IDs en double fusionnés avant l'appel au service,
+     * la liste complète n'est ni chargée ni versionnée.
+     */
+    @Test
+    @DisplayName("getPatientsByIds - Should return 200 OK with one service call for distinct ids")
+    void getPatientsByIds_Success() throws Exception {
+        // Simule le comportement du service : un seul patient connu dans le lot
+        when(patientService.getPatientsByIds(any())).thenReturn(List.of(patientDto));
+
+        // Exécute une requête GET groupée et vérifie la réponse
+        mockMvc.perform(get("/api/v1/patients").param("ids", "1,2,1"))
+                .andExpect(status().isOk()) // Attend un statut 200
+                .andExpect(jsonPath("$.length()").value(1)) // ID inconnu absent
+                .andExpect(jsonPath("$[0].nom").value("TestNone"));
+        verify(patientService).getPatientsByIds(eq(new LinkedHashSet<>(List.of(1L, 2L)))); // Doublon fusionné
+        verify(patientService, never()).getPatientListVersion();
+    }
+
+    /**
+     * Teste le rejet d'un lot au-delà de la taille maximale.
+     */
+    @Test
+    @DisplayName("getPatientsByIds - Should return 400 BAD REQUEST when too many ids")
+    void getPatientsByIds_TooManyIds() throws Exception {
+        String ids = String.join(",", LongStream.rangeClosed(1, 501).mapToObj(Long::toString).toList());
+
+        mockMvc.perform(get("/api/v1/patients").param("ids", ids))
+                .andExpect(status().isBadRequest()); // Attend un statut 400
+        verify(patientService, never()).getPatientsByIds(any());
+    }
+
     /**
      * Teste la mise à jour réussie d'un patient.
      * Vérifie que le contrôleur retourne un statut HTTP 200 (OK)
@@ -184,7 +316,8 @@ class PatientControllerTest {
     @DisplayName("updatePatient - Should return 200 OK on success")
     void updatePatient_Success() throws Exception {
         // Simule le comportement du service : retourne le patientDto mis à jour
-        when(patientService.updatePatient(eq(1L), any(PatientDto.class))).thenReturn(patientDto);
+        when(patientService.updatePatient(eq(1L), any(PatientDto.class), isNull()))
+                .thenReturn(new VersionedPatientDto(patientDto, 4L));
 
         // Exécute une requête PUT et vérifie la réponse
         mockMvc.perform(put("/api/v1/patients/{id}", 1L)
@@ -202,7 +335,7 @@ class PatientControllerTest {
     @DisplayName("updatePatient - Should return 404 NOT FOUND when patient not found")
     void updatePatient_NotFound() throws Exception {
         // Simule le comportement du service : lance une PatientNotFoundException
-        when(patientService.updatePatient(eq(2L), any(PatientDto.class)))
+        when(patientService.updatePatient(eq(2L), any(PatientDto.class), isNull()))
                 .thenThrow(new PatientNotFoundException("Patient not found"));
 
         // Exécute une requête PUT et vérifie la réponse
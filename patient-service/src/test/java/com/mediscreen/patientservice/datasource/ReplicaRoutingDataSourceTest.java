@@ -0,0 +1,69 @@
+package com.mediscreen.patientservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitaires du routage des connexions à identifiants explicites
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:unit-primary;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:unit-replica;DB_CLOSE_DELAY=-1";
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadYourWritesContext.clear();
+    }
+
+    @Test
+    @DisplayName("getConnection(user, password) - Même routage que getConnection()")
+    void getConnectionWithCredentials_IsRoutedToChosenPool() throws Exception {
+        ReplicaRoutingDataSource routing = routing(new DriverManagerDataSource(REPLICA_URL));
+
+        assertThat(url(routing)).isEqualTo("jdbc:h2:mem:unit-primary");
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(url(routing)).isEqualTo("jdbc:h2:mem:unit-replica");
+
+        ReadYourWritesContext.requirePrimary();
+        assertThat(url(routing)).isEqualTo("jdbc:h2:mem:unit-primary");
+    }
+
+    @Test
+    @DisplayName("Pool refusant les identifiants explicites - Erreur propagée, réplique conservée")
+    void unsupportedCredentials_DoNotMarkReplicaDown() {
+        try (HikariDataSource replica = new HikariDataSource()) {
+            replica.setJdbcUrl(REPLICA_URL);
+            ReplicaRoutingDataSource routing = routing(replica);
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+            assertThatThrownBy(() -> routing.getConnection("sa", ""))
+                    .isInstanceOf(SQLFeatureNotSupportedException.class);
+            assertThat(routing.getReplicas().get(0).isAvailable()).isTrue();
+        }
+    }
+
+    private static ReplicaRoutingDataSource routing(javax.sql.DataSource replica) {
+        return new ReplicaRoutingDataSource(new DriverManagerDataSource(PRIMARY_URL),
+                List.of(new ReplicaRoutingDataSource.Replica("replica-1", replica)), "", 5, 1);
+    }
+
+    private static String url(ReplicaRoutingDataSource routing) throws Exception {
+        try (Connection connection = routing.getConnection("sa", "")) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.mediscreen.patientservice.dedup;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests unitaires du moteur de détection de doublons et des fonctions de similarité
+ */
+class DuplicateDetectionEngineTest {
+
+    private ForkJoinPool pool;
+    private DuplicateDetectionEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        engine = new DuplicateDetectionEngine(10, 0.85, pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Normalisation : accents, casse et séparateurs supprimés")
+    void normalizeName_ShouldStripAccentsAndSeparators() {
+        assertThat(TextSimilarity.normalizeName("Lefèvre-Durand")).isEqualTo("lefevredurand");
+        assertThat(TextSimilarity.normalizeName(" Éloïse ")).isEqualTo("eloise");
+        assertThat(TextSimilarity.normalizeName(null)).isEmpty();
+        assertThat(TextSimilarity.digits("06 12-34.56 78")).isEqualTo("0612345678");
+    }
+
+    @Test
+    @DisplayName("Soundex : variantes orthographiques d'un même nom")
+    void soundex_ShouldMatchSpellingVariants() {
+        assertThat(TextSimilarity.soundex("robert")).isEqualTo("R163");
+        assertThat(TextSimilarity.soundex("rupert")).isEqualTo("R163");
+        assertThat(TextSimilarity.soundex("ashcraft")).isEqualTo("A261");
+        assertThat(TextSimilarity.soundex("tymczak")).isEqualTo("T522");
+        assertThat(TextSimilarity.soundex("")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Jaro-Winkler : valeurs de référence")
+    void jaroWinkler_ShouldMatchReferenceValues() {
+        assertThat(TextSimilarity.jaroWinkler("martha", "marhta")).isCloseTo(0.961, within(0.001));
+        assertThat(TextSimilarity.jaroWinkler("dixon", "dicksonx")).isCloseTo(0.813, within(0.001));
+        assertThat(TextSimilarity.jaroWinkler("dupont", "dupont")).isEqualTo(1.0);
+        assertThat(TextSimilarity.jaroWinkler("", "dupont")).isZero();
+    }
+
+    @Test
+    @DisplayName("Doublons avec faute de frappe, accent ou téléphone reformaté détectés")
+    void detect_ShouldFindTypoDuplicates() {
+        List<DedupRecord> records = List.of(
+                DedupRecord.of(1, "Dupont", "Jean", LocalDate.of(1980, 5, 12), "M", "06 12 34 56 78"),
+                DedupRecord.of(2, "Dupond", "Jean", LocalDate.of(1980, 5, 12), "M", "0612345678"),
+                DedupRecord.of(3, "Lefèvre", "Éloïse", LocalDate.of(1992, 1, 3), "F", null),
+                DedupRecord.of(4, "Lefevre", "Eloise", LocalDate.of(1992, 1, 3), "F", "0700000000"),
+                DedupRecord.of(5, "Martin", "Paul", LocalDate.of(1975, 8, 30), "M", "0611111111"));
+
+        List<DuplicateCandidate> candidates = engine.detect(records);
+
+        assertThat(candidates).extracting(DuplicateCandidate::patientId, DuplicateCandidate::duplicateId)
+                .containsExactlyInAnyOrder(
+                        tuple(1L, 2L),
+                        tuple(3L, 4L));
+        assertThat(candidates).isSortedAccordingTo((a, b) -> Double.compare(b.score(), a.score()));
+    }
+
+    @Test
+    @DisplayName("Patients distincts ou jumeaux non signalés")
+    void detect_ShouldIgnoreDistinctPatients() {
+        List<DedupRecord> records = List.of(
+                DedupRecord.of(1, "Dupont", "Jean", LocalDate.of(1980, 5, 12), "M", "0612345678"),
+                DedupRecord.of(2, "Dupont", "Marie", LocalDate.of(1980, 5, 12), "F", "0698765432"),
+                DedupRecord.of(3, "Dupont", "Jean", LocalDate.of(1955, 2, 1), "M", "0145454545"),
+                DedupRecord.of(4, "Bernard", "Luc", LocalDate.of(1980, 5, 12), "M", "0612345679"));
+
+        assertThat(engine.detect(records)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Paire trouvée par plusieurs clés de blocage renvoyée une seule fois")
+    void detect_ShouldReportPairOnce() {
+        List<DedupRecord> records = List.of(
+                DedupRecord.of(7, "Moreau", "Claire", LocalDate.of(1968, 11, 2), "F", "0633333333"),
+                DedupRecord.of(3, "Moreau", "Claire", LocalDate.of(1968, 11, 2), "F", "0633333333"));
+
+        List<DuplicateCandidate> candidates = engine.detect(records);
+
+        assertThat(candidates).containsExactly(new DuplicateCandidate(3, 7, 1.0));
+    }
+}
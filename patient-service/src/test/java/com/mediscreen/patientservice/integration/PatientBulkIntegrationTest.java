@@ -0,0 +1,154 @@
+package com.mediscreen.patientservice.integration;
+
+import com.mediscreen.patientservice.entity.Patient;
+import com.mediscreen.patientservice.repository.AdresseRepository;
+import com.mediscreen.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests d'intégration de l'import / export en masse des patients.
+ *
+ * Configuration identique à {@link PatientControllerIntegrationTest} (H2, filtres de sécurité désactivés),
+ * avec un lot de 2 patients pour vérifier l'écriture en plusieurs transactions.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-user",
+    "AUTH_PASSWORD=test-pass",
+    "mediscreen.bulk.chunk-size=2"
+})
+class PatientBulkIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AdresseRepository adresseRepository;
+
+    @BeforeEach
+    void setUp() {
+        patientRepository.deleteAll();
+        adresseRepository.deleteAll();
+    }
+
+    /**
+     * Import CSV : lignes valides importées par lots, ligne invalide rejetée, adresses internées.
+     */
+    @Test
+    @DisplayName("Import CSV - Lignes valides importées, lignes invalides rapportées")
+    void importCsv_ImportsValidRowsAndReportsInvalidOnes() throws Exception {
+        String csv = """
+                prenom,nom,dateNaissance,genre,telephone,rue,ville,codePostal,pays
+                Test,TestNone,1966-12-31,F,100-222-3333,1 Brookside St,Anytown,12345,USA
+                Test,TestBorderline,1945-06-24,M,200-333-4444,"2 High St, Apt 4",Anytown,12345,USA
+                Test,,2004-06-18,M,300-444-5555,,,,
+                Test,TestEarlyOnset,2002-06-28,F,400-555-6666,1 BROOKSIDE ST,anytown,12345,usa
+                """;
+
+        mockMvc.perform(post("/api/v1/patients/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].field").value("ligne 4"));
+
+        assertThat(patientRepository.count()).isEqualTo(3);
+        assertThat(adresseRepository.count()).isEqualTo(2);
+        assertThat(patientRepository.findAll()).extracting(Patient::getId).allMatch(id -> id >= 1000);
+    }
+
+    /**
+     * Import NDJSON puis export NDJSON et CSV en flux.
+     */
+    @Test
+    @DisplayName("Import NDJSON / Export - Aller-retour complet")
+    void importNdjson_ThenExport_RoundTrip() throws Exception {
+        String ndjson = """
+                {"prenom":"Test","nom":"TestInDanger","dateNaissance":"2004-06-18","genre":"M","adresse":{"rue":"3 Club Road","ville":"Anytown"}}
+                {"prenom":"Test","nom":"TestEarlyOnset","dateNaissance":"2002-06-28","genre":"F"}
+                {not json}
+                """;
+
+        mockMvc.perform(post("/api/v1/patients/import")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(1));
+
+        MvcResult ndjsonExport = mockMvc.perform(get("/api/v1/patients/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjsonBody = mockMvc.perform(asyncDispatch(ndjsonExport))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = ndjsonBody.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).contains("\"nom\":\"TestInDanger\"", "\"rue\":\"3 Club Road\"");
+        assertThat(lines.get(1)).contains("\"nom\":\"TestEarlyOnset\"").doesNotContain("adresse");
+
+        MvcResult csvExport = mockMvc.perform(get("/api/v1/patients/export").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csvBody = mockMvc.perform(asyncDispatch(csvExport))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"patients.csv\""))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(csvBody.lines().toList())
+                .hasSize(3)
+                .first().isEqualTo("id,prenom,nom,dateNaissance,genre,telephone,rue,ville,codePostal,pays");
+
+        // Le CSV exporté est réimportable tel quel (colonne id ignorée)
+        mockMvc.perform(post("/api/v1/patients/import")
+                        .contentType("text/csv")
+                        .content(csvBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(0));
+        assertThat(adresseRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Import CSV - En-tête invalide refusé (400)")
+    void import_InvalidCsvHeader_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/patients/import")
+                        .contentType("text/csv")
+                        .content("prenom,nom\nTest,Patient\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.startsWith("En-tête CSV invalide")));
+        assertThat(patientRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Export - Format inconnu refusé (400)")
+    void export_UnknownFormat_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/patients/export").param("format", "xml\"; filename=\"x"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist("Content-Disposition"))
+                .andExpect(jsonPath("$.message").value("Format d'export non supporté (csv ou ndjson attendu)"));
+    }
+}
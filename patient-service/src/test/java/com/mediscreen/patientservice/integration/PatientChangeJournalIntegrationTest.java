@@ -0,0 +1,85 @@
+package com.mediscreen.patientservice.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mediscreen.patientservice.journal.PatientChangeJournal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test d'intégration du journal des changements : création et PATCH inscrits après commit,
+ * relus par GET /api/v1/patients/changes.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-user",
+    "AUTH_PASSWORD=test-pass"
+})
+class PatientChangeJournalIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PatientChangeJournal patientChangeJournal;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Journal - Création et modification relues depuis un offset")
+    void createAndPatch_AreTailedFromOffset() throws Exception {
+        long since = patientChangeJournal.getNextOffset();
+
+        String created = mockMvc.perform(post("/api/v1/patients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"prenom":"Test","nom":"TestNone","dateNaissance":"1966-12-31","genre":"F"}
+                                """))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(patch("/api/v1/patients/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"telephone\":\"100-222-3333\"}"))
+                .andExpect(status().isOk());
+
+        // Requête invalide : rien n'est inscrit
+        mockMvc.perform(patch("/api/v1/patients/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"genre\":\"X\"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v1/patients/changes").param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.truncated").value(false))
+                .andExpect(jsonPath("$.nextOffset").value(since + 2))
+                .andExpect(jsonPath("$.changes.length()").value(2))
+                .andExpect(jsonPath("$.changes[0].patientId").value(id))
+                .andExpect(jsonPath("$.changes[0].type").value("CREATE"))
+                .andExpect(jsonPath("$.changes[0].version").value(0))
+                .andExpect(jsonPath("$.changes[1].type").value("UPDATE"))
+                .andExpect(jsonPath("$.changes[1].version").value(1))
+                .andExpect(jsonPath("$.changes[1].changedFields[0]").value("telephone"))
+                .andExpect(jsonPath("$.changes[1].changedFields.length()").value(1));
+
+        mockMvc.perform(get("/api/v1/patients/changes").param("since", String.valueOf(since + 2)))
+                .andExpect(jsonPath("$.changes.length()").value(0))
+                .andExpect(jsonPath("$.nextOffset").value(since + 2));
+
+        mockMvc.perform(get("/api/v1/patients/changes").param("since", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+}
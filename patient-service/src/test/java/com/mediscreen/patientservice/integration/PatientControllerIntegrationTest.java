@@ -6,6 +6,7 @@ import com.mediscreen.patientservice.dto.AdresseDto;
 import com.mediscreen.patientservice.dto.PatientCreateDto;
 import com.mediscreen.patientservice.dto.PatientDto;
 import com.mediscreen.patientservice.entity.Patient;
+import com.mediscreen.patientservice.repository.AdresseRepository;
 import com.mediscreen.patientservice.repository.PatientRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -59,6 +60,9 @@ class PatientControllerIntegrationTest {
     @Autowired
     private PatientRepository patientRepository;
 
+    @Autowired
+    private AdresseRepository adresseRepository;
+
     private ObjectMapper objectMapper;
 
     /**
@@ -68,6 +72,7 @@ class PatientControllerIntegrationTest {
     @BeforeEach
     void setUp() {
         patientRepository.deleteAll();
+        adresseRepository.deleteAll();
 
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
@@ -285,4 +290,134 @@ class PatientControllerIntegrationTest {
         assertThat(finalPatient.getId()).isNotNull();
         assertThat(finalPatient.getDateNaissance()).isNotNull();
     }
-}
\ No newline at end of file
+
+    /**
+     * Teste l'internement des adresses : une même adresse (casse/espaces près)
+     * n'est stockée qu'une fois, en création comme en mise à jour.
+     */
+    @Test
+    @DisplayName("Integration - Adresse internée sans doublon")
+    void sameAdresse_IsInterned_NoDuplicateRows() throws Exception {
+        AdresseDto adresse = AdresseDto.of("2 High St", "Anytown", "12345", "USA");
+        PatientCreateDto createDto = new PatientCreateDto(
+                "Test", "TestBorderline", LocalDate.of(1945, 6, 24), "M", "200-333-4444", adresse);
+
+        String response = mockMvc.perform(post("/api/v1/patients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long patientId = objectMapper.readTree(response).get("id").asLong();
+
+        // Deuxième patient à la même adresse, saisie avec une casse différente
+        PatientCreateDto voisin = new PatientCreateDto(
+                "Test", "TestNone", LocalDate.of(1966, 12, 31), "F", "100-222-3333",
+                AdresseDto.of("2 HIGH ST ", "anytown", "12345", "usa"));
+        mockMvc.perform(post("/api/v1/patients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(voisin)))
+                .andExpect(status().isCreated());
+
+        // Mises à jour répétées avec la même adresse
+        PatientDto updateDto = new PatientDto(
+                patientId, "Test", "TestBorderline", LocalDate.of(1945, 6, 24), "M", "200-333-9999", adresse);
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(put("/api/v1/patients/{id}", patientId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(updateDto)))
+                    .andExpect(status().isOk());
+        }
+
+        assertThat(adresseRepository.count()).isEqualTo(1);
+    }
+
+    /**
+     * Teste le cycle ETag / If-None-Match / If-Match : 304 tant que le patient ne change pas,
+     * mise à jour conditionnelle acceptée puis 412 avec l'ancienne version.
+     */
+    @Test
+    @DisplayName("Integration - ETag, GET conditionnel et If-Match")
+    void etag_ConditionalGet_AndIfMatchUpdate() throws Exception {
+        Patient patient = patientRepository.save(Patient.builder()
+                .prenom("Test").nom("TestEarlyOnset").dateNaissance(LocalDate.of(2002, 6, 28))
+                .genre("F").telephone("400-555-6666").build());
+        Long id = patient.getId();
+
+        String etag = mockMvc.perform(get("/api/v1/patients/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/v1/patients/{id}", id).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        String listEtag = mockMvc.perform(get("/api/v1/patients"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/v1/patients").header("If-None-Match", listEtag))
+                .andExpect(status().isNotModified());
+
+        PatientDto updateDto = new PatientDto(
+                id, "Test", "TestEarlyOnset", LocalDate.of(2002, 6, 28), "F", "400-555-0000", null);
+        mockMvc.perform(put("/api/v1/patients/{id}", id)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.telephone").value("400-555-0000"));
+
+        // Ancienne version : modification concurrente détectée
+        mockMvc.perform(put("/api/v1/patients/{id}", id)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isPreconditionFailed());
+
+        // Les ETags précédents ne correspondent plus
+        mockMvc.perform(get("/api/v1/patients/{id}", id).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.telephone").value("400-555-0000"));
+        mockMvc.perform(get("/api/v1/patients").header("If-None-Match", listEtag))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Teste la détection des doublons : une saisie en double avec faute de frappe est signalée.
+     */
+    @Test
+    @DisplayName("Integration - Détecter les doublons")
+    void getDuplicates_Integration_Success() throws Exception {
+        Patient original = new Patient();
+        original.setPrenom("Test");
+        original.setNom("TestInDanger");
+        original.setDateNaissance(LocalDate.of(2004, 6, 18));
+        original.setGenre("M");
+        original.setTelephone("300-444-5555");
+        original = patientRepository.save(original);
+
+        Patient doublon = new Patient();
+        doublon.setPrenom("Test");
+        doublon.setNom("TestInDnager");
+        doublon.setDateNaissance(LocalDate.of(2004, 6, 18));
+        doublon.setGenre("M");
+        doublon.setTelephone("300 444 5555");
+        doublon = patientRepository.save(doublon);
+
+        Patient autre = new Patient();
+        autre.setPrenom("Test");
+        autre.setNom("TestBorderline");
+        autre.setDateNaissance(LocalDate.of(1945, 6, 24));
+        autre.setGenre("M");
+        autre.setTelephone("200-333-4444");
+        patientRepository.save(autre);
+
+        mockMvc.perform(get("/api/v1/patients/duplicates"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].patientId").value(original.getId()))
+                .andExpect(jsonPath("$[0].duplicateId").value(doublon.getId()));
+
+        mockMvc.perform(get("/api/v1/patients/duplicates").param("minScore", "2"))
+                .andExpect(status().isBadRequest());
+    }
+}
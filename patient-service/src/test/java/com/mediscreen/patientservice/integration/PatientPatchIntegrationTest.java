@@ -0,0 +1,115 @@
+package com.mediscreen.patientservice.integration;
+
+import com.mediscreen.patientservice.entity.Adresse;
+import com.mediscreen.patientservice.entity.Patient;
+import com.mediscreen.patientservice.repository.AdresseRepository;
+import com.mediscreen.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests d'intégration du PATCH patient, avec comptage des ordres SQL émis par Hibernate.
+ *
+ * Configuration identique à {@link PatientControllerIntegrationTest} (H2, filtres de sécurité désactivés),
+ * plus l'enregistreur {@link SqlStatementRecorder}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-user",
+    "AUTH_PASSWORD=test-pass",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.mediscreen.patientservice.integration.SqlStatementRecorder"
+})
+class PatientPatchIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AdresseRepository adresseRepository;
+
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        patientRepository.deleteAll();
+        adresseRepository.deleteAll();
+
+        // Adresse persistée en cascade avec le patient
+        Adresse adresse = Adresse.builder()
+                .rue("1 Brookside St").ville("Anytown").codePostal("12345").pays("USA").build();
+        patient = patientRepository.save(Patient.builder()
+                .prenom("Test").nom("TestNone").dateNaissance(LocalDate.of(1966, 12, 31))
+                .genre("F").telephone("100-222-3333").adresse(adresse).build());
+        SqlStatementRecorder.reset();
+    }
+
+    /**
+     * Modification du seul téléphone : une lecture (patient + adresse jointe) et un UPDATE
+     * limité au téléphone et à la version.
+     */
+    @Test
+    @DisplayName("PATCH téléphone - Un seul UPDATE, limité aux colonnes modifiées")
+    void patchTelephone_IssuesSingleUpdate() throws Exception {
+        mockMvc.perform(patch("/api/v1/patients/{id}", patient.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"telephone\":\"100-222-9999\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.telephone").value("100-222-9999"))
+                .andExpect(jsonPath("$.nom").value("TestNone"))
+                .andExpect(jsonPath("$.adresse.rue").value("1 Brookside St"));
+
+        assertThat(SqlStatementRecorder.count("update")).isEqualTo(1);
+        assertThat(SqlStatementRecorder.count("select")).isEqualTo(1);
+        assertThat(SqlStatementRecorder.statements()).hasSize(2);
+        String update = SqlStatementRecorder.statements().stream()
+                .filter(sql -> sql.startsWith("update")).findFirst().orElseThrow();
+        assertThat(update).contains("telephone").doesNotContain("prenom", "adresse_id");
+    }
+
+    /**
+     * Champs invalides : 400 sans écriture ; version obsolète : 412.
+     */
+    @Test
+    @DisplayName("PATCH - Validation et If-Match")
+    void patch_ValidationAndIfMatch() throws Exception {
+        mockMvc.perform(patch("/api/v1/patients/{id}", patient.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"genre\":\"X\"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/api/v1/patients/{id}", patient.getId())
+                        .header("If-Match", "\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nom\":\"TestBorderline\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(patch("/api/v1/patients/{id}", 999_999L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nom\":\"TestBorderline\"}"))
+                .andExpect(status().isNotFound());
+
+        assertThat(SqlStatementRecorder.count("update")).isZero();
+        assertThat(patientRepository.findById(patient.getId()).orElseThrow().getNom()).isEqualTo("TestNone");
+    }
+}
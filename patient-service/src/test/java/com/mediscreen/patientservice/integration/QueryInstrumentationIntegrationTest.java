@@ -0,0 +1,62 @@
+package com.mediscreen.patientservice.integration;
+
+import com.mediscreen.patientservice.entity.Patient;
+import com.mediscreen.patientservice.monitoring.InstrumentedDataSource;
+import com.mediscreen.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test d'intégration de l'instrumentation SQL : DataSource enveloppée et endpoint actuator.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-user",
+    "AUTH_PASSWORD=test-pass",
+    "management.endpoints.web.exposure.include=queries"
+})
+class QueryInstrumentationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Test
+    @DisplayName("Instrumentation - Formes SQL exposées par /actuator/queries")
+    void patientRead_IsReportedByQueriesEndpoint() throws Exception {
+        assertThat(dataSource).isInstanceOf(InstrumentedDataSource.class);
+        Patient patient = patientRepository.save(Patient.builder()
+                .prenom("Test").nom("TestNone").dateNaissance(LocalDate.of(1966, 12, 31)).genre("F").build());
+
+        mockMvc.perform(get("/api/v1/patients/{id}", patient.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/queries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.slowThresholdMillis").value(200))
+                .andExpect(jsonPath("$.shapes[*].shape", hasItem(startsWith("select"))))
+                .andExpect(jsonPath("$.nPlusOne").isArray());
+    }
+}
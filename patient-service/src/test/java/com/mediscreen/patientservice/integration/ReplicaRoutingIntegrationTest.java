@@ -0,0 +1,176 @@
+package com.mediscreen.patientservice.integration;
+
+import com.mediscreen.patientservice.datasource.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests d'intégration du routage lecture / écriture.
+ *
+ * Deux bases H2 distinctes jouent le primaire et la réplique. La réplique n'étant pas
+ * alimentée par réplication, un même patient y porte un nom différent : le nom renvoyé
+ * indique la base qui a servi la lecture. Les filtres sont actifs (filtre read-your-writes),
+ * les requêtes s'authentifient donc en Basic.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-user",
+    "AUTH_PASSWORD=test-pass",
+    "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+    "mediscreen.datasource.replica.enabled=true",
+    "mediscreen.datasource.replica.urls=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+    // Le nom renvoyé doit refléter la base lue, pas le cache de réponses
+    "mediscreen.patient-cache.enabled=false",
+    "mediscreen.datasource.replica.lag-query=SELECT lag_seconds FROM replication_lag",
+    "mediscreen.datasource.replica.max-lag-seconds=5",
+    "mediscreen.datasource.replica.health-check-interval=1h",
+    "mediscreen.datasource.replica.read-your-writes-window=1m",
+    "mediscreen.service-token.secret=" + ReplicaRoutingIntegrationTest.SECRET
+})
+class ReplicaRoutingIntegrationTest {
+
+    static final String SECRET = "patient-token-secret-0123456789ab";
+
+    private static final String INSERT_PATIENT = "INSERT INTO patients (id, prenom, nom, date_naissance, genre, telephone, version) "
+            + "VALUES (1, 'Test', ?, DATE '1966-12-31', 'F', '100-222-3333', 0)";
+
+    private final JdbcTemplate primary = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1", "sa", ""));
+    private final JdbcTemplate replica = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        // Copie du schéma créé par Hibernate sur le primaire vers la réplique
+        replica.execute("DROP ALL OBJECTS");
+        primary.queryForList("SCRIPT NODATA", String.class).forEach(replica::execute);
+        replica.execute("CREATE TABLE replication_lag (lag_seconds BIGINT)");
+        replica.update("INSERT INTO replication_lag VALUES (0)");
+
+        primary.update("DELETE FROM patients");
+        primary.update(INSERT_PATIENT, "Primaire");
+        replica.update(INSERT_PATIENT, "Replique");
+        replicaRoutingDataSource.checkReplicas();
+    }
+
+    @Test
+    @DisplayName("Lecture read-only - Servie par la réplique")
+    void readOnlyTransaction_IsServedByReplica() throws Exception {
+        mockMvc.perform(get("/api/v1/patients/1")
+                        .with(httpBasic("test-user", "test-pass"))
+                        .header("X-Client-Id", "lecteur"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nom").value("Replique"));
+    }
+
+    @Test
+    @DisplayName("Read-your-writes - Le client qui vient d'écrire relit sur le primaire")
+    void afterWrite_SameClientReadsPrimary_OtherClientsReadReplica() throws Exception {
+        mockMvc.perform(put("/api/v1/patients/1")
+                        .with(httpBasic("test-user", "test-pass"))
+                        .header("X-Client-Id", "redacteur")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"prenom":"Test","nom":"Modifie","dateNaissance":"1966-12-31","genre":"F","telephone":"100-222-3333"}
+                                """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/patients/1")
+                        .with(httpBasic("test-user", "test-pass"))
+                        .header("X-Client-Id", "redacteur"))
+                .andExpect(jsonPath("$.nom").value("Modifie"));
+
+        mockMvc.perform(get("/api/v1/patients/1")
+                        .with(httpBasic("test-user", "test-pass"))
+                        .header("X-Client-Id", "lecteur"))
+                .andExpect(jsonPath("$.nom").value("Replique"));
+    }
+
+    @Test
+    @DisplayName("Read-your-writes via le Gateway - Clé = compte authentifié + principal transmis dans X-Client-Id")
+    void afterWriteThroughGateway_OnlyTheForwardedPrincipalReadsPrimary() throws Exception {
+        // Requêtes telles qu'émises par le Gateway : jeton de service + principal authentifié
+        mockMvc.perform(put("/api/v1/patients/1")
+                        .header(HttpHeaders.AUTHORIZATION, gatewayToken())
+                        .header("X-Client-Id", "frontend")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"prenom":"Test","nom":"Modifie","dateNaissance":"1966-12-31","genre":"F","telephone":"100-222-3333"}
+                                """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/patients/1")
+                        .header(HttpHeaders.AUTHORIZATION, gatewayToken())
+                        .header("X-Client-Id", "frontend"))
+                .andExpect(jsonPath("$.nom").value("Modifie"));
+
+        // Autre principal derrière le même Gateway (même adresse IP)
+        mockMvc.perform(get("/api/v1/patients/1")
+                        .header(HttpHeaders.AUTHORIZATION, gatewayToken())
+                        .header("X-Client-Id", "assessment"))
+                .andExpect(jsonPath("$.nom").value("Replique"));
+
+        // Même X-Client-Id présenté par un autre compte : fenêtre distincte
+        mockMvc.perform(get("/api/v1/patients/1")
+                        .with(httpBasic("test-user", "test-pass"))
+                        .header("X-Client-Id", "frontend"))
+                .andExpect(jsonPath("$.nom").value("Replique"));
+    }
+
+    @Test
+    @DisplayName("Réplique en retard - Repli sur le primaire puis retour à la réplique")
+    void laggingReplica_FallsBackToPrimary() throws Exception {
+        replica.update("UPDATE replication_lag SET lag_seconds = 60");
+        replicaRoutingDataSource.checkReplicas();
+
+        mockMvc.perform(get("/api/v1/patients/1")
+                        .with(httpBasic("test-user", "test-pass")))
+                .andExpect(jsonPath("$.nom").value("Primaire"));
+
+        replica.update("UPDATE replication_lag SET lag_seconds = 0");
+        replicaRoutingDataSource.checkReplicas();
+
+        mockMvc.perform(get("/api/v1/patients/1")
+                        .with(httpBasic("test-user", "test-pass")))
+                .andExpect(jsonPath("$.nom").value("Replique"));
+    }
+
+    /**
+     * Jeton de service au format émis par le Gateway
+     */
+    private static String gatewayToken() throws Exception {
+        String payload = "patient." + (System.currentTimeMillis() / 1000 + 60);
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return "Bearer " + payload + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,87 @@
+package com.mediscreen.patientservice.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests d'intégration de l'authentification par jeton de service signé par le Gateway.
+ *
+ * Les filtres de sécurité sont actifs. Les jetons sont construits ici au format émis par
+ * le Gateway : "{audience}.{expiration}.{HMAC-SHA256 base64url}".
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "AUTH_USERNAME=test-user",
+    "AUTH_PASSWORD=test-pass",
+    "mediscreen.service-token.secret=" + ServiceTokenIntegrationTest.SECRET
+})
+class ServiceTokenIntegrationTest {
+
+    static final String SECRET = "patient-token-secret-0123456789ab";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Jeton valide : accès sans credentials Basic")
+    void validToken_ShouldAuthenticate() throws Exception {
+        mockMvc.perform(get("/api/v1/patients")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("patient", expiresIn(60), SECRET)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Jeton falsifié, expiré, trop long ou destiné à un autre service : 401")
+    void invalidTokens_ShouldBeRejected() throws Exception {
+        String valid = bearer("patient", expiresIn(60), SECRET);
+        String[] invalid = {
+            valid.substring(0, valid.length() - 2) + "AA",
+            bearer("patient", expiresIn(-60), SECRET),
+            bearer("patient", expiresIn(3600), SECRET),
+            bearer("notes", expiresIn(60), SECRET),
+            bearer("patient", expiresIn(60), "another-secret-0123456789abcdefgh"),
+            "Bearer not-a-token"
+        };
+        for (String authorization : invalid) {
+            mockMvc.perform(get("/api/v1/patients").header(HttpHeaders.AUTHORIZATION, authorization))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Test
+    @DisplayName("Basic Auth toujours acceptée (appels directs)")
+    void basicAuth_ShouldStillAuthenticate() throws Exception {
+        mockMvc.perform(get("/api/v1/patients").with(httpBasic("test-user", "test-pass")))
+                .andExpect(status().isOk());
+    }
+
+    private static long expiresIn(long seconds) {
+        return System.currentTimeMillis() / 1000 + seconds;
+    }
+
+    private static String bearer(String audience, long expiresAt, String secret) throws Exception {
+        String payload = audience + "." + expiresAt;
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return "Bearer " + payload + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
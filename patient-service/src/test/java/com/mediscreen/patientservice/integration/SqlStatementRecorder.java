@@ -0,0 +1,39 @@
+package com.mediscreen.patientservice.integration;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Enregistre les ordres SQL préparés par Hibernate pour compter les requêtes d'un scénario.
+ *
+ * Activé par hibernate.session_factory.statement_inspector ; Hibernate instancie la classe,
+ * d'où l'état statique.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    static void reset() {
+        STATEMENTS.clear();
+    }
+
+    static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+
+    static long count(String verb) {
+        String prefix = verb.toLowerCase(Locale.ROOT);
+        return STATEMENTS.stream()
+                .filter(sql -> sql.stripLeading().toLowerCase(Locale.ROOT).startsWith(prefix))
+                .count();
+    }
+}
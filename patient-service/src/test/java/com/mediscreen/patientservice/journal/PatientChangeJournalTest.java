@@ -0,0 +1,104 @@
+package com.mediscreen.patientservice.journal;
+
+import com.mediscreen.patientservice.enums.PatientChangeType;
+import com.mediscreen.patientservice.enums.PatientField;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires de {@link PatientChangeJournal} (segments de 4 enregistrements).
+ */
+class PatientChangeJournalTest {
+
+    private static final long SEGMENT_BYTES = 4L * PatientChangeJournal.RECORD_SIZE;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Les enregistrements sont relus dans l'ordre, par lots, avec leurs champs.
+     */
+    @Test
+    @DisplayName("append / read - Lecture par lots depuis un offset")
+    void appendAndRead_ReturnsRecordsInOrder() throws IOException {
+        PatientChangeJournal journal = new PatientChangeJournal(directory, SEGMENT_BYTES, 8);
+        journal.append(1L, 0L, PatientChangeType.CREATE, PatientField.ALL, 1_000L);
+        journal.append(1L, 1L, PatientChangeType.UPDATE, PatientField.TELEPHONE.bit(), 2_000L);
+        journal.append(2L, 0L, PatientChangeType.CREATE, PatientField.ALL, 3_000L);
+
+        PatientChangeBatch first = journal.read(0, 2);
+        assertThat(first.records()).extracting(PatientChangeRecord::offset).containsExactly(0L, 1L);
+        assertThat(first.nextOffset()).isEqualTo(2);
+        assertThat(first.truncated()).isFalse();
+        PatientChangeRecord update = first.records().get(1);
+        assertThat(update.patientId()).isEqualTo(1L);
+        assertThat(update.version()).isEqualTo(1L);
+        assertThat(update.type()).isEqualTo(PatientChangeType.UPDATE);
+        assertThat(PatientField.namesOf(update.changedFields())).containsExactly("telephone");
+        assertThat(update.timestampMillis()).isEqualTo(2_000L);
+
+        PatientChangeBatch second = journal.read(first.nextOffset(), 10);
+        assertThat(second.records()).extracting(PatientChangeRecord::patientId).containsExactly(2L);
+        assertThat(journal.read(second.nextOffset(), 10).records()).isEmpty();
+    }
+
+    /**
+     * Un segment plein est remplacé ; au-delà de la rétention, les plus anciens sont purgés
+     * et une lecture depuis un offset purgé est signalée tronquée.
+     */
+    @Test
+    @DisplayName("rotation - Segments purgés au-delà de la rétention")
+    void rotation_PurgesOldSegmentsAndFlagsTruncation() throws IOException {
+        PatientChangeJournal journal = new PatientChangeJournal(directory, SEGMENT_BYTES, 2);
+        for (long id = 0; id < 10; id++) {
+            journal.append(id, 0L, PatientChangeType.CREATE, PatientField.ALL, id);
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(2);
+        }
+        PatientChangeBatch batch = journal.read(0, 100);
+        assertThat(batch.truncated()).isTrue();
+        assertThat(batch.firstOffset()).isEqualTo(4);
+        assertThat(batch.records()).extracting(PatientChangeRecord::patientId)
+                .containsExactly(4L, 5L, 6L, 7L, 8L, 9L);
+        assertThat(batch.nextOffset()).isEqualTo(10);
+    }
+
+    /**
+     * À la réouverture, l'écriture reprend après le dernier enregistrement valide ;
+     * un enregistrement corrompu (écriture interrompue) est écarté.
+     */
+    @Test
+    @DisplayName("réouverture - Reprise après le dernier enregistrement valide")
+    void reopen_ResumesAfterLastValidRecord() throws IOException {
+        PatientChangeJournal journal = new PatientChangeJournal(directory, SEGMENT_BYTES, 8);
+        for (long id = 0; id < 6; id++) {
+            journal.append(id, 0L, PatientChangeType.CREATE, PatientField.ALL, id);
+        }
+        journal.close();
+
+        // Corrompt le dernier enregistrement (offset 5, second segment)
+        Path lastSegment = directory.resolve(String.format("%020d.journal", 4));
+        try (FileChannel channel = FileChannel.open(lastSegment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), PatientChangeJournal.RECORD_SIZE + 8);
+        }
+
+        PatientChangeJournal reopened = new PatientChangeJournal(directory, SEGMENT_BYTES, 8);
+        assertThat(reopened.getNextOffset()).isEqualTo(5);
+        reopened.append(99L, 0L, PatientChangeType.CREATE, PatientField.ALL, 99L);
+        assertThat(reopened.read(0, 100).records()).extracting(PatientChangeRecord::patientId)
+                .containsExactly(0L, 1L, 2L, 3L, 4L, 99L);
+    }
+}
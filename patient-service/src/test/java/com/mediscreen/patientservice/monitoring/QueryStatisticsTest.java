@@ -0,0 +1,123 @@
+package com.mediscreen.patientservice.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires de {@link QueryStatistics} et {@link QueryShapes}.
+ */
+class QueryStatisticsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueryStatistics queryStatistics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        queryStatistics = new QueryStatistics(meterRegistry);
+        ReflectionTestUtils.setField(queryStatistics, "slowThreshold", Duration.ofMillis(200));
+        ReflectionTestUtils.setField(queryStatistics, "nPlusOneThreshold", 3);
+        ReflectionTestUtils.setField(queryStatistics, "maxShapes", 2);
+        ReflectionTestUtils.setField(queryStatistics, "maxSqlStrings", 2);
+    }
+
+    /**
+     * Les littéraux et listes IN sont remplacés : même forme quelles que soient les valeurs.
+     */
+    @Test
+    @DisplayName("QueryShapes - Littéraux et listes de paramètres normalisés")
+    void shapes_NormalizeLiteralsAndParameterLists() {
+        assertThat(QueryShapes.of("select p1_0.id from patients p1_0 where p1_0.nom = 'Dupont' and p1_0.id=42"))
+                .isEqualTo("select p1_0.id from patients p1_0 where p1_0.nom = ? and p1_0.id=?");
+        assertThat(QueryShapes.of("select a from adresses a where a.hash in (?, ?,?)"))
+                .isEqualTo(QueryShapes.of("select a from adresses a where a.hash in (?,?)"));
+        assertThat(QueryShapes.of("insert into t (a,b) values (?,?),(?,?)\n ,(?,?)"))
+                .isEqualTo("insert into t (a,b) values (?)");
+    }
+
+    /**
+     * Timer et lignes lues agrégés par forme, exposés dans le snapshot.
+     */
+    @Test
+    @DisplayName("recordExecution - Agrégation par forme et métriques Micrometer")
+    void recordExecution_AggregatesPerShape() {
+        queryStatistics.recordExecution("select * from patients where id = 1", 2_000_000);
+        queryStatistics.recordExecution("select * from patients where id = 2", 4_000_000);
+        queryStatistics.recordRows("select * from patients where id = 2", 1);
+
+        QueryStatistics.ShapeSnapshot snapshot = queryStatistics.snapshot().get(0);
+        assertThat(snapshot.shape()).isEqualTo("select * from patients where id = ?");
+        assertThat(snapshot.executions()).isEqualTo(2);
+        assertThat(snapshot.totalMillis()).isEqualTo(6.0);
+        assertThat(snapshot.maxMillis()).isEqualTo(4.0);
+        assertThat(snapshot.rowsFetched()).isEqualTo(1);
+        assertThat(meterRegistry.get("db.query").tag("shape", snapshot.shape()).timer().count()).isEqualTo(2);
+    }
+
+    /**
+     * Au-delà du nombre maximal de formes, les nouvelles sont regroupées.
+     */
+    @Test
+    @DisplayName("recordExecution - Nombre de formes borné")
+    void recordExecution_BoundsShapeCount() {
+        queryStatistics.recordExecution("select 1 from a", 1_000);
+        queryStatistics.recordExecution("select 1 from b", 1_000);
+        queryStatistics.recordExecution("select 1 from c", 1_000);
+
+        assertThat(queryStatistics.snapshot())
+                .extracting(QueryStatistics.ShapeSnapshot::shape)
+                .contains(QueryStatistics.OVERFLOW_SHAPE)
+                .doesNotContain("select ? from c");
+    }
+
+    /**
+     * Forme mémorisée par texte SQL, table bornée : l'agrégation par forme reste exacte.
+     */
+    @Test
+    @DisplayName("recordExecution - Forme mémorisée par texte SQL, table bornée")
+    void recordExecution_MemoizesShapePerSqlString() {
+        for (int id = 1; id <= 5; id++) {
+            queryStatistics.recordExecution("select * from patients where id = " + id, 1_000_000);
+            queryStatistics.recordExecution("select * from patients where id = ?", 1_000_000);
+        }
+
+        Map<?, ?> statsBySql = (Map<?, ?>) ReflectionTestUtils.getField(queryStatistics, "statsBySql");
+        assertThat(statsBySql).hasSizeLessThanOrEqualTo(2);
+        assertThat(queryStatistics.snapshot()).singleElement()
+                .satisfies(snapshot -> assertThat(snapshot.executions()).isEqualTo(10));
+    }
+
+    /**
+     * Une même forme de SELECT répétée au-delà du seuil dans une requête HTTP est signalée,
+     * les écritures répétées ne le sont pas.
+     */
+    @Test
+    @DisplayName("endRequest - Détection N+1 par requête")
+    void endRequest_DetectsRepeatedSelects() {
+        queryStatistics.beginRequest();
+        for (int id = 1; id <= 4; id++) {
+            queryStatistics.recordExecution("select * from adresses where id = " + id, 1_000);
+            queryStatistics.recordExecution("update patients set version = ? where id = " + id, 1_000);
+        }
+        queryStatistics.endRequest("GET /api/v1/patients");
+
+        assertThat(queryStatistics.recentDetections()).singleElement().satisfies(detection -> {
+            assertThat(detection.request()).isEqualTo("GET /api/v1/patients");
+            assertThat(detection.shape()).isEqualTo("select * from adresses where id = ?");
+            assertThat(detection.executions()).isEqualTo(4);
+        });
+        assertThat(meterRegistry.get("db.query.n_plus_one").counter().count()).isEqualTo(1);
+
+        // Hors requête HTTP : pas de suivi
+        queryStatistics.recordExecution("select * from adresses where id = 5", 1_000);
+        assertThat(queryStatistics.recentDetections()).hasSize(1);
+    }
+}
@@ -0,0 +1,144 @@
+package com.mediscreen.patientservice.service.impl;
+
+import com.mediscreen.patientservice.dto.AdresseDto;
+import com.mediscreen.patientservice.entity.Adresse;
+import com.mediscreen.patientservice.mapper.PatientMapper;
+import com.mediscreen.patientservice.repository.AdresseRepository;
+import com.mediscreen.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour {@link AdresseServiceImpl}.
+ * Vérifie l'internement des adresses par empreinte normalisée et la déduplication.
+ */
+@ExtendWith(MockitoExtension.class)
+class AdresseServiceImplTest {
+
+    @Mock
+    private AdresseRepository adresseRepository;
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private PatientMapper patientMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AdresseServiceImpl adresseService;
+
+    /**
+     * La casse et les espaces superflus ne changent pas l'empreinte.
+     */
+    @Test
+    @DisplayName("normalizedHash - Should ignore case and extra whitespace")
+    void normalizedHash_IgnoresCaseAndWhitespace() {
+        String hash = Adresse.normalizedHash("1 Brookside St", "Anytown", "12345", "USA");
+        String variante = Adresse.normalizedHash("  1  brookside st ", "ANYTOWN", "12345", "usa");
+
+        assertThat(variante).isEqualTo(hash).hasSize(64);
+        assertThat(Adresse.normalizedHash("2 High St", "Anytown", "12345", "USA")).isNotEqualTo(hash);
+    }
+
+    /**
+     * Une adresse déjà présente est réutilisée sans insertion.
+     */
+    @Test
+    @DisplayName("internAdresse - Should reuse existing address row")
+    void internAdresse_Existing() {
+        AdresseDto dto = AdresseDto.of("1 Brookside St", "Anytown", "12345", "USA");
+        Adresse existante = Adresse.builder().id(7L).rue("1 Brookside St").build();
+        when(adresseRepository.findByAdresseHash(Adresse.normalizedHash("1 Brookside St", "Anytown", "12345", "USA")))
+                .thenReturn(Optional.of(existante));
+
+        Adresse result = adresseService.internAdresse(dto);
+
+        assertThat(result).isSameAs(existante);
+        verify(adresseRepository, never()).save(any(Adresse.class));
+    }
+
+    /**
+     * Une adresse inconnue est insérée une seule fois.
+     */
+    @Test
+    @DisplayName("internAdresse - Should insert unknown address")
+    void internAdresse_New() {
+        AdresseDto dto = AdresseDto.of("9 Rue Neuve", "Paris", "75001", "France");
+        Adresse nouvelle = Adresse.builder().rue("9 Rue Neuve").build();
+        when(adresseRepository.findByAdresseHash(anyString())).thenReturn(Optional.empty());
+        when(patientMapper.toEntity(dto)).thenReturn(nouvelle);
+        when(adresseRepository.findCommittedByAdresseHash(anyString())).thenReturn(Optional.of(nouvelle));
+
+        assertThat(adresseService.internAdresse(dto)).isSameAs(nouvelle);
+        verify(adresseRepository, times(1)).saveAndFlush(nouvelle);
+        verify(transactionManager).commit(any());
+    }
+
+    /**
+     * Une insertion concurrente de la même adresse est résolue par relecture de la ligne gagnante.
+     */
+    @Test
+    @DisplayName("internAdresse - Should reuse the row inserted by a concurrent request")
+    void internAdresse_ConcurrentInsert() {
+        AdresseDto dto = AdresseDto.of("9 Rue Neuve", "Paris", "75001", "France");
+        Adresse perdante = Adresse.builder().rue("9 Rue Neuve").build();
+        Adresse gagnante = Adresse.builder().id(12L).rue("9 Rue Neuve").build();
+        when(adresseRepository.findByAdresseHash(anyString())).thenReturn(Optional.empty());
+        when(patientMapper.toEntity(dto)).thenReturn(perdante);
+        when(adresseRepository.saveAndFlush(perdante))
+                .thenThrow(new DataIntegrityViolationException("uk_adresse_hash"));
+        when(adresseRepository.findCommittedByAdresseHash(anyString())).thenReturn(Optional.of(gagnante));
+
+        assertThat(adresseService.internAdresse(dto)).isSameAs(gagnante);
+        verify(transactionManager).rollback(any());
+    }
+
+    /**
+     * Une adresse vide n'est pas persistée.
+     */
+    @Test
+    @DisplayName("internAdresse - Should return null for empty address")
+    void internAdresse_Empty() {
+        assertThat(adresseService.internAdresse(null)).isNull();
+        assertThat(adresseService.internAdresse(new AdresseDto(null, " ", null, "", null))).isNull();
+        verifyNoInteractions(adresseRepository);
+    }
+
+    /**
+     * Les doublons sont rattachés à la ligne la plus ancienne puis supprimés.
+     */
+    @Test
+    @DisplayName("deduplicateAdresses - Should merge duplicates into the oldest row")
+    void deduplicateAdresses_MergesDuplicates() {
+        Adresse a1 = Adresse.builder().id(1L).rue("1 Brookside St").ville("Anytown").build();
+        Adresse a2 = Adresse.builder().id(2L).rue("1 BROOKSIDE ST").ville(" anytown").build();
+        Adresse a3 = Adresse.builder().id(3L).rue("2 High St").ville("Anytown").build();
+        when(adresseRepository.findAll(any(Sort.class))).thenReturn(List.of(a1, a2, a3));
+
+        int supprimees = adresseService.deduplicateAdresses();
+
+        assertThat(supprimees).isEqualTo(1);
+        verify(patientRepository).reassignAdresse(a1, List.of(2L));
+        verify(adresseRepository).deleteAllByIdInBatch(List.of(2L));
+        assertThat(a1.getAdresseHash()).isEqualTo(Adresse.normalizedHash("1 Brookside St", "Anytown", null, null));
+        assertThat(a3.getAdresseHash()).isNotNull();
+    }
+}
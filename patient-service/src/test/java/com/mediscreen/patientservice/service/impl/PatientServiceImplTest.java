@@ -2,10 +2,14 @@ package com.mediscreen.patientservice.service.impl;
 
 import com.mediscreen.patientservice.dto.PatientCreateDto;
 import com.mediscreen.patientservice.dto.PatientDto;
+import com.mediscreen.patientservice.dto.PatientView;
+import com.mediscreen.patientservice.dto.VersionedPatientDto;
 import com.mediscreen.patientservice.entity.Patient;
 import com.mediscreen.patientservice.exception.PatientNotFoundException;
+import com.mediscreen.patientservice.exception.PatientVersionMismatchException;
 import com.mediscreen.patientservice.mapper.PatientMapper;
 import com.mediscreen.patientservice.repository.PatientRepository;
+import com.mediscreen.patientservice.service.AdresseService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +17,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -38,12 +43,19 @@ class PatientServiceImplTest {
     @Mock
     private PatientMapper patientMapper; // Mock du mapper pour contrôler les conversions DTO/Entité.
 
+    @Mock
+    private AdresseService adresseService; // Mock de l'internement des adresses.
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private PatientServiceImpl patientService; // Instance du service à tester, avec les mocks injectés.
 
     private Patient patient;
     private PatientDto patientDto;
     private PatientCreateDto patientCreateDto;
+    private PatientView patientView;
 
     /**
      * Initialisation des objets de test avant chaque méthode de test.
@@ -68,6 +80,11 @@ class PatientServiceImplTest {
                 "Test", "TestNone", LocalDate.of(1966, 12, 31),
                 "F", "100-222-3333", null
         );
+
+        patientView = new PatientView(
+                1L, "Test", "TestNone", LocalDate.of(1966, 12, 31),
+                "F", "100-222-3333", null, null, null, null, null, 0L
+        );
     }
 
     /**
@@ -94,14 +111,13 @@ class PatientServiceImplTest {
 
     /**
      * Teste la récupération d'un patient par son ID lorsque le patient est trouvé.
-     * Vérifie que le service appelle le repository et le mapper pour retourner le DTO du patient.
+     * Vérifie que le service lit la projection du repository sans passer par le mapper.
      */
     @Test
     @DisplayName("getPatientById - Should return patient when found")
     void getPatientById_Found() {
-        // Configure les mocks pour simuler la recherche d'un patient existant
-        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
-        when(patientMapper.toDto(patient)).thenReturn(patientDto);
+        // Configure le mock pour simuler la projection d'un patient existant
+        when(patientRepository.findViewById(1L)).thenReturn(Optional.of(patientView));
 
         // Appelle la méthode du service à tester
         Optional<PatientDto> result = patientService.getPatientById(1L);
@@ -109,6 +125,8 @@ class PatientServiceImplTest {
         // Vérifie le résultat
         assertThat(result).isPresent();
         assertThat(result.get().nom()).isEqualTo("TestNone");
+        assertThat(result.get().adresse()).isNull();
+        verifyNoInteractions(patientMapper);
     }
 
     /**
@@ -119,7 +137,7 @@ class PatientServiceImplTest {
     @DisplayName("getPatientById - Should return empty when not found")
     void getPatientById_NotFound() {
         // Configure le mock pour simuler un patient non trouvé
-        when(patientRepository.findById(2L)).thenReturn(Optional.empty());
+        when(patientRepository.findViewById(2L)).thenReturn(Optional.empty());
 
         // Appelle la méthode du service à tester
         Optional<PatientDto> result = patientService.getPatientById(2L);
@@ -130,21 +148,19 @@ class PatientServiceImplTest {
 
     /**
      * Teste la récupération de tous les patients lorsque la base de données contient des patients.
-     * Vérifie que le service appelle le repository et le mapper pour retourner une liste de DTOs.
+     * Vérifie que le service convertit les projections du repository en liste de DTOs.
      */
     @Test
     @DisplayName("getAllPatients - Should return all patients")
     void getAllPatients_Success() {
-        // Crée une liste de patients et de DTOs pour la simulation
-        List<Patient> patients = Arrays.asList(patient, new Patient());
-        List<PatientDto> patientDtos = Arrays.asList(patientDto, new PatientDto(
+        // Crée une liste de projections pour la simulation (la seconde avec adresse)
+        List<PatientView> views = Arrays.asList(patientView, new PatientView(
                 2L, "Test2", "TestTwo", LocalDate.of(1990, 1, 1),
-                "M", "222-333-4444", null
+                "M", "222-333-4444", 5L, "2 High St", "Anytown", "12345", "USA", 0L
         ));
 
-        // Configure les mocks
-        when(patientRepository.findAll()).thenReturn(patients);
-        when(patientMapper.toDtoList(patients)).thenReturn(patientDtos);
+        // Configure le mock
+        when(patientRepository.findAllViews()).thenReturn(views);
 
         // Appelle la méthode du service à tester
         List<PatientDto> result = patientService.getAllPatients();
@@ -152,6 +168,8 @@ class PatientServiceImplTest {
         // Vérifie le résultat
         assertThat(result).hasSize(2);
         assertThat(result.get(0).nom()).isEqualTo("TestNone");
+        assertThat(result.get(1).adresse().id()).isEqualTo(5L);
+        assertThat(result.get(1).adresse().ville()).isEqualTo("Anytown");
     }
 
     /**
@@ -161,9 +179,8 @@ class PatientServiceImplTest {
     @Test
     @DisplayName("getAllPatients - Should return empty list when no patients")
     void getAllPatients_EmptyList() {
-        // Configure les mocks pour simuler une base de données vide
-        when(patientRepository.findAll()).thenReturn(Arrays.asList());
-        when(patientMapper.toDtoList(anyList())).thenReturn(Arrays.asList());
+        // Configure le mock pour simuler une base de données vide
+        when(patientRepository.findAllViews()).thenReturn(Arrays.asList());
 
         // Appelle la méthode du service à tester
         List<PatientDto> result = patientService.getAllPatients();
@@ -187,14 +204,50 @@ class PatientServiceImplTest {
         when(patientMapper.toDto(patient)).thenReturn(patientDto);
 
         // Appelle la méthode du service à tester
-        PatientDto result = patientService.updatePatient(1L, patientDto);
+        VersionedPatientDto result = patientService.updatePatient(1L, patientDto, null);
 
         // Vérifie le résultat et les interactions
         assertThat(result).isNotNull();
-        assertThat(result.nom()).isEqualTo("TestNone");
+        assertThat(result.patient().nom()).isEqualTo("TestNone");
         verify(patientRepository, times(1)).save(any(Patient.class));
     }
 
+    /**
+     * Teste la mise à jour conditionnelle (If-Match) : un UPDATE conditionné à la version,
+     * sans lecture préalable du patient.
+     */
+    @Test
+    @DisplayName("updatePatient - Should update without pre-read when version matches")
+    void updatePatient_VersionMatches_NoPreRead() {
+        // Configure les mocks : le mapper renvoie une entité neuve, l'UPDATE touche une ligne
+        when(patientMapper.toEntity(patientDto)).thenReturn(new Patient());
+        when(patientRepository.updateIfVersionMatches(any(Patient.class))).thenReturn(1);
+        when(patientMapper.toDto(any(Patient.class))).thenReturn(patientDto);
+
+        // Appelle la méthode du service à tester
+        VersionedPatientDto result = patientService.updatePatient(1L, patientDto, 3L);
+
+        // Vérifie la nouvelle version et l'absence de lecture
+        assertThat(result.version()).isEqualTo(4L);
+        verify(patientRepository, never()).findById(any());
+        verify(patientRepository, never()).save(any(Patient.class));
+    }
+
+    /**
+     * Teste la mise à jour conditionnelle lorsque le patient a changé entre-temps.
+     */
+    @Test
+    @DisplayName("updatePatient - Should throw PatientVersionMismatchException when version is stale")
+    void updatePatient_StaleVersion() {
+        // Configure les mocks : aucune ligne mise à jour mais le patient existe
+        when(patientMapper.toEntity(patientDto)).thenReturn(new Patient());
+        when(patientRepository.updateIfVersionMatches(any(Patient.class))).thenReturn(0);
+        when(patientRepository.existsById(1L)).thenReturn(true);
+
+        // Vérifie que l'exception est levée
+        assertThrows(PatientVersionMismatchException.class, () -> patientService.updatePatient(1L, patientDto, 3L));
+    }
+
     /**
      * Teste la mise à jour d'un patient lorsque le patient n'est pas trouvé.
      * Vérifie que le service lève une {@link PatientNotFoundException}
@@ -207,7 +260,7 @@ class PatientServiceImplTest {
         when(patientRepository.findById(2L)).thenReturn(Optional.empty());
 
         // Vérifie que l'exception est levée
-        assertThrows(PatientNotFoundException.class, () -> patientService.updatePatient(2L, patientDto));
+        assertThrows(PatientNotFoundException.class, () -> patientService.updatePatient(2L, patientDto, null));
         verify(patientRepository, never()).save(any(Patient.class)); // Vérifie qu'aucune sauvegarde n'a eu lieu
     }
 }